@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Variable length writes into an {@link AutomaticBuffer}. A small initial size also measures the buffer growth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class AutomaticBufferBenchmark {
+
+    private static final long SEED = 20170701L;
+    private static final int VALUE_COUNT = 256;
+
+    @Param({"16", "4096"})
+    public int initialSize;
+
+    private int[] intValues;
+    private long[] longValues;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(SEED);
+        this.intValues = new int[VALUE_COUNT];
+        this.longValues = new long[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            // mix of short and long varints, negative values included
+            intValues[i] = random.nextInt() >> random.nextInt(32);
+            longValues[i] = random.nextLong() >> random.nextInt(64);
+        }
+    }
+
+    @Benchmark
+    public int putVInt() {
+        final Buffer buffer = new AutomaticBuffer(initialSize);
+        for (int value : intValues) {
+            buffer.putVInt(value);
+        }
+        return buffer.getOffset();
+    }
+
+    @Benchmark
+    public int putSVInt() {
+        final Buffer buffer = new AutomaticBuffer(initialSize);
+        for (int value : intValues) {
+            buffer.putSVInt(value);
+        }
+        return buffer.getOffset();
+    }
+
+    @Benchmark
+    public int putVLong() {
+        final Buffer buffer = new AutomaticBuffer(initialSize);
+        for (long value : longValues) {
+            buffer.putVLong(value);
+        }
+        return buffer.getOffset();
+    }
+
+    @Benchmark
+    public int putSVLong() {
+        final Buffer buffer = new AutomaticBuffer(initialSize);
+        for (long value : longValues) {
+            buffer.putSVLong(value);
+        }
+        return buffer.getOffset();
+    }
+}
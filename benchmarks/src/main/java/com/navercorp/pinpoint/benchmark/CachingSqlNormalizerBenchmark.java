@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.bootstrap.context.ParsingResult;
+import com.navercorp.pinpoint.profiler.metadata.CachingSqlNormalizer;
+import com.navercorp.pinpoint.profiler.metadata.DefaultCachingSqlNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DefaultCachingSqlNormalizer} on the jdbc execute path.
+ * The statements differ only in their literals, so the normalized sql of each template hits the cache
+ * when sqlTemplateCount is below the cache size and mostly misses otherwise.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class CachingSqlNormalizerBenchmark {
+
+    private static final int CACHE_SIZE = 1024;
+    private static final int SQL_COUNT = 8192;
+
+    @Param({"16", "4096"})
+    public int sqlTemplateCount;
+
+    private CachingSqlNormalizer normalizer;
+    private String[] sqls;
+    private int index;
+
+    @Setup
+    public void setup() {
+        this.normalizer = new DefaultCachingSqlNormalizer(CACHE_SIZE);
+        this.sqls = new String[SQL_COUNT];
+        for (int i = 0; i < SQL_COUNT; i++) {
+            final int template = i % sqlTemplateCount;
+            sqls[i] = "SELECT o.id, o.name, o.price FROM orders_" + template + " o"
+                    + " WHERE o.user_id = " + i + " AND o.status = 'PAID' AND o.created > '2017-07-01' ORDER BY o.id LIMIT 20";
+        }
+    }
+
+    @Benchmark
+    public ParsingResult normalize() {
+        final String sql = sqls[index];
+        index = (index + 1) & (SQL_COUNT - 1);
+
+        final ParsingResult parsingResult = normalizer.wrapSql(sql);
+        normalizer.normalizedSql(parsingResult);
+        return parsingResult;
+    }
+}
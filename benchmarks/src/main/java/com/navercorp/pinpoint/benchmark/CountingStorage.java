@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.storage.Storage;
+
+/**
+ * Storage that keeps nothing but the number of stored events, so the JIT cannot eliminate the store calls.
+ */
+public class CountingStorage implements Storage {
+
+    private long spanEventCount;
+    private long spanCount;
+
+    @Override
+    public void store(SpanEvent spanEvent) {
+        spanEventCount++;
+    }
+
+    @Override
+    public void store(Span span) {
+        spanCount++;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public long getSpanEventCount() {
+        return spanEventCount;
+    }
+
+    public long getSpanCount() {
+        return spanCount;
+    }
+}
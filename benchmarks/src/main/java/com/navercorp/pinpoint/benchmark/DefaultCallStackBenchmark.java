@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.profiler.context.DefaultCallStack;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * push/pop of {@link DefaultCallStack} up to the given depth, including the stack array growth.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class DefaultCallStackBenchmark {
+
+    @Param({"4", "32", "128"})
+    public int depth;
+
+    private TraceRoot traceRoot;
+    private SpanEvent[] spanEvents;
+
+    @Setup
+    public void setup() {
+        this.traceRoot = new DefaultTraceRoot(new DefaultTraceId("benchmarkAgent", 0, 1), "benchmarkAgent", 0, 1);
+        this.spanEvents = new SpanEvent[depth];
+        for (int i = 0; i < depth; i++) {
+            spanEvents[i] = new SpanEvent(traceRoot);
+        }
+    }
+
+    @Benchmark
+    public SpanEvent pushPop() {
+        final DefaultCallStack callStack = new DefaultCallStack(traceRoot, depth);
+        for (SpanEvent spanEvent : spanEvents) {
+            callStack.push(spanEvent);
+        }
+        SpanEvent last = null;
+        for (int i = 0; i < depth; i++) {
+            last = callStack.pop();
+        }
+        return last;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.google.inject.util.Providers;
+import com.navercorp.pinpoint.bootstrap.context.SpanEventRecorder;
+import com.navercorp.pinpoint.bootstrap.context.Trace;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.profiler.context.AsyncContextFactory;
+import com.navercorp.pinpoint.profiler.context.AsyncTraceContext;
+import com.navercorp.pinpoint.profiler.context.BaseTraceFactory;
+import com.navercorp.pinpoint.profiler.context.CallStack;
+import com.navercorp.pinpoint.profiler.context.CallStackFactory;
+import com.navercorp.pinpoint.profiler.context.CallStackFactoryV1;
+import com.navercorp.pinpoint.profiler.context.DefaultAsyncContextFactory;
+import com.navercorp.pinpoint.profiler.context.DefaultAsyncTraceContext;
+import com.navercorp.pinpoint.profiler.context.DefaultSpanFactory;
+import com.navercorp.pinpoint.profiler.context.DefaultTrace;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanFactory;
+import com.navercorp.pinpoint.profiler.context.ThreadLocalBinder;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceHandle;
+import com.navercorp.pinpoint.profiler.context.id.AsyncIdGenerator;
+import com.navercorp.pinpoint.profiler.context.id.DefaultAsyncIdGenerator;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTransactionIdEncoder;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.context.method.DefaultPredefinedMethodDescriptorRegistry;
+import com.navercorp.pinpoint.profiler.context.recorder.DefaultSpanRecorder;
+import com.navercorp.pinpoint.profiler.context.recorder.WrappedSpanEventRecorder;
+import com.navercorp.pinpoint.profiler.metadata.DefaultApiMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.DefaultSqlMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.DefaultStringMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.SqlMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.StringMetaDataService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full life cycle of a sampled {@link DefaultTrace}: create, record span events, close.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class DefaultTraceBenchmark {
+
+    private static final String APPLICATION_NAME = "benchmarkApp";
+    private static final String AGENT_ID = "benchmarkAgent";
+    private static final long AGENT_START_TIME = 1500000000000L;
+
+    @Param({"8", "64"})
+    public int spanEventCount;
+
+    private SpanFactory spanFactory;
+    private CallStackFactory callStackFactory;
+    private CountingStorage storage;
+    private AsyncContextFactory asyncContextFactory;
+    private StringMetaDataService stringMetaDataService;
+    private SqlMetaDataService sqlMetaDataService;
+    private long transactionId;
+
+    @Setup
+    public void setup() {
+        DiscardDataSender dataSender = new DiscardDataSender();
+        this.spanFactory = new DefaultSpanFactory(APPLICATION_NAME, AGENT_ID, AGENT_START_TIME, ServiceType.STAND_ALONE,
+                new DefaultTransactionIdEncoder(AGENT_ID, AGENT_START_TIME));
+        this.callStackFactory = new CallStackFactoryV1(128);
+        this.storage = new CountingStorage();
+        this.asyncContextFactory = newAsyncContextFactory(dataSender);
+        this.stringMetaDataService = new DefaultStringMetaDataService(AGENT_ID, AGENT_START_TIME, dataSender);
+        this.sqlMetaDataService = new DefaultSqlMetaDataService(AGENT_ID, AGENT_START_TIME, dataSender, 1024);
+    }
+
+    @Benchmark
+    public long flatSpanEvents() {
+        final DefaultTrace trace = newTrace();
+        for (int i = 0; i < spanEventCount; i++) {
+            SpanEventRecorder recorder = trace.traceBlockBegin();
+            recorder.recordServiceType(ServiceType.INTERNAL_METHOD);
+            recorder.recordAttribute(AnnotationKey.ARGS0, "arg");
+            trace.traceBlockEnd();
+        }
+        trace.close();
+        return storage.getSpanEventCount();
+    }
+
+    @Benchmark
+    public long nestedSpanEvents() {
+        final DefaultTrace trace = newTrace();
+        for (int i = 0; i < spanEventCount; i++) {
+            SpanEventRecorder recorder = trace.traceBlockBegin();
+            recorder.recordServiceType(ServiceType.INTERNAL_METHOD);
+            recorder.recordAttribute(AnnotationKey.ARGS0, "arg");
+        }
+        for (int i = 0; i < spanEventCount; i++) {
+            trace.traceBlockEnd();
+        }
+        trace.close();
+        return storage.getSpanEventCount();
+    }
+
+    private AsyncContextFactory newAsyncContextFactory(DiscardDataSender dataSender) {
+        final AsyncIdGenerator asyncIdGenerator = new DefaultAsyncIdGenerator();
+        // span events are recorded synchronously, so an async trace is never continued and no BaseTraceFactory is needed
+        final AsyncTraceContext asyncTraceContext = new DefaultAsyncTraceContext(Providers.<BaseTraceFactory>of(null), asyncIdGenerator, new ThreadLocalBinder<Trace>());
+        final DefaultApiMetaDataService apiMetaDataService = new DefaultApiMetaDataService(AGENT_ID, AGENT_START_TIME, dataSender);
+        return new DefaultAsyncContextFactory(asyncTraceContext, asyncIdGenerator, new DefaultPredefinedMethodDescriptorRegistry(apiMetaDataService));
+    }
+
+    private DefaultTrace newTrace() {
+        final long localTransactionId = transactionId++;
+        final TraceRoot traceRoot = new DefaultTraceRoot(new DefaultTraceId(AGENT_ID, AGENT_START_TIME, localTransactionId),
+                AGENT_ID, System.currentTimeMillis(), localTransactionId);
+        final Span span = spanFactory.newSpan(traceRoot);
+        final CallStack callStack = callStackFactory.newCallStack(traceRoot);
+        final DefaultSpanRecorder spanRecorder = new DefaultSpanRecorder(span, true, true, stringMetaDataService, sqlMetaDataService);
+        final WrappedSpanEventRecorder spanEventRecorder = new WrappedSpanEventRecorder(asyncContextFactory, stringMetaDataService, sqlMetaDataService, null);
+        return new DefaultTrace(span, callStack, storage, asyncContextFactory, true, spanRecorder, spanEventRecorder, ActiveTraceHandle.EMPTY_HANDLE);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
+import com.navercorp.pinpoint.thrift.dto.TAnnotationValue;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+import org.apache.thrift.TException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HeaderTBaseSerializer} writing a TSpan the way the span data sender does,
+ * with a serializer reused across calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class HeaderTBaseSerializerBenchmark {
+
+    @Param({"8", "64"})
+    public int spanEventCount;
+
+    @Param({"true", "false"})
+    public boolean safetyGuaranteed;
+
+    private HeaderTBaseSerializer serializer;
+    private TSpan span;
+
+    @Setup
+    public void setup() {
+        HeaderTBaseSerializerFactory factory = new HeaderTBaseSerializerFactory(safetyGuaranteed, HeaderTBaseSerializerFactory.DEFAULT_UDP_STREAM_MAX_SIZE, false);
+        this.serializer = factory.createSerializer();
+        this.span = newSpan(spanEventCount);
+    }
+
+    private TSpan newSpan(int spanEventCount) {
+        final TSpan span = new TSpan();
+        span.setAgentId("benchmarkAgent");
+        span.setApplicationName("benchmarkApp");
+        span.setAgentStartTime(1500000000000L);
+        span.setTransactionId(new byte[] {1, 0, 0x0e, 1, 2, 3, 4, 5, 6, 7});
+        span.setSpanId(-4821948201394816345L);
+        span.setParentSpanId(-1);
+        span.setStartTime(1500000001000L);
+        span.setElapsed(120);
+        span.setRpc("/benchmark/request");
+        span.setServiceType(ServiceType.STAND_ALONE.getCode());
+        span.setEndPoint("localhost:8080");
+        span.setRemoteAddr("127.0.0.1");
+        span.setApiId(10);
+
+        for (int i = 0; i < spanEventCount; i++) {
+            final TSpanEvent spanEvent = new TSpanEvent();
+            spanEvent.setSequence((short) i);
+            spanEvent.setDepth(1 + (i % 8));
+            spanEvent.setStartElapsed(i);
+            spanEvent.setEndElapsed(2);
+            spanEvent.setServiceType(ServiceType.INTERNAL_METHOD.getCode());
+            spanEvent.setApiId(100 + i);
+            final TAnnotation annotation = new TAnnotation(-1);
+            annotation.setValue(TAnnotationValue.stringValue("arg" + i));
+            spanEvent.addToAnnotations(annotation);
+            span.addToSpanEventList(spanEvent);
+        }
+        return span;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws TException {
+        return serializer.serialize(span);
+    }
+}
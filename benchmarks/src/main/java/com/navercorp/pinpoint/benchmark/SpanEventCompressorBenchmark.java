@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.compress.SpanEventCompressorV2;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SpanEventCompressorV2} over span events in storage order (children are stored before their parents).
+ * The list copy is part of the measurement because the compressor sorts in place.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class SpanEventCompressorBenchmark {
+
+    @Param({"8", "64", "512"})
+    public int spanEventCount;
+
+    private final SpanEventCompressorV2 compressor = new SpanEventCompressorV2();
+    private List<SpanEvent> storedOrder;
+    private long keyTime;
+
+    @Setup
+    public void setup() {
+        final TraceRoot traceRoot = new DefaultTraceRoot(new DefaultTraceId("benchmarkAgent", 0, 1), "benchmarkAgent", 0, 1);
+        this.keyTime = System.currentTimeMillis();
+        this.storedOrder = new ArrayList<SpanEvent>(spanEventCount);
+
+        for (int i = 0; i < spanEventCount; i++) {
+            final SpanEvent spanEvent = new SpanEvent(traceRoot);
+            spanEvent.setSequence((short) i);
+            spanEvent.setDepth(1 + (i % 8));
+            spanEvent.markStartTime();
+            spanEvent.markAfterTime();
+            storedOrder.add(spanEvent);
+        }
+        // every 8 events form a call chain, and the innermost call ends first
+        for (int from = 0; from < spanEventCount; from += 8) {
+            final int to = Math.min(from + 8, spanEventCount);
+            Collections.reverse(storedOrder.subList(from, to));
+        }
+    }
+
+    @Benchmark
+    public List<SpanEvent> compress() {
+        final List<SpanEvent> spanEventList = new ArrayList<SpanEvent>(storedOrder);
+        compressor.compress(spanEventList, keyTime);
+        return spanEventList;
+    }
+}
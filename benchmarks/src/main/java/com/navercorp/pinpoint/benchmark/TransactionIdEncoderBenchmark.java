@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.bootstrap.context.TraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTransactionIdEncoder;
+import com.navercorp.pinpoint.profiler.context.id.TransactionIdEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The three encoding paths of {@link DefaultTransactionIdEncoder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class TransactionIdEncoderBenchmark {
+
+    private static final String AGENT_ID = "benchmarkAgent";
+    private static final long AGENT_START_TIME = 1500000000000L;
+
+    private final TransactionIdEncoder encoder = new DefaultTransactionIdEncoder(AGENT_ID, AGENT_START_TIME);
+
+    private final TraceId localTraceId = new DefaultTraceId(AGENT_ID, AGENT_START_TIME, 123456789L);
+    private final TraceId restartedAgentTraceId = new DefaultTraceId(AGENT_ID, AGENT_START_TIME - 60000, 123456789L);
+    private final TraceId remoteTraceId = new DefaultTraceId("remoteAgent", AGENT_START_TIME, 123456789L);
+
+    @Benchmark
+    public ByteBuffer encodeLocal() {
+        return encoder.encodeTransactionId(localTraceId);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeRestartedAgent() {
+        return encoder.encodeTransactionId(restartedAgentTraceId);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeRemote() {
+        return encoder.encodeTransactionId(remoteTraceId);
+    }
+}
@@ -121,11 +121,16 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     private String statDataSenderTransportType = "UDP";
     private String statDataSenderSocketType = "OIO";
 
+    private String senderExecutorQueueType = "LINKED_BLOCKING";
+    private int senderExecutorMaxDrainSize = 10;
+    private String senderExecutorWaitStrategy = "PARK";
+
     private boolean tcpDataSenderCommandAcceptEnable = false;
     private boolean tcpDataSenderCommandActiveThreadEnable = false;
     private boolean tcpDataSenderCommandActiveThreadCountEnable = false;
     private boolean tcpDataSenderCommandActiveThreadDumpEnable = false;
     private boolean tcpDataSenderCommandActiveThreadLightDumpEnable = false;
+    private long tcpDataSenderCommandActiveThreadDumpTimeBudget = 3000L;
 
     private boolean traceAgentActiveThread = true;
 
@@ -144,6 +149,12 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     // Sampling
     private boolean samplingEnable = true;
     private int samplingRate = 1;
+    private String samplingType = "COUNTING";
+    private int samplingAdaptiveTargetTps = 20;
+    private boolean samplingAdaptiveErrorEnable = false;
+    private int samplingAdaptiveSlowThreshold = -1;
+    private int samplingAdaptiveRuleTps = 10;
+    private int samplingAdaptiveDeferredBufferSize = 8192;
 
     // span buffering
     private boolean ioBufferingEnable;
@@ -242,6 +253,21 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return statDataSenderTransportType;
     }
 
+    @Override
+    public String getSenderExecutorQueueType() {
+        return senderExecutorQueueType;
+    }
+
+    @Override
+    public int getSenderExecutorMaxDrainSize() {
+        return senderExecutorMaxDrainSize;
+    }
+
+    @Override
+    public String getSenderExecutorWaitStrategy() {
+        return senderExecutorWaitStrategy;
+    }
+
     @Override
     public int getSpanDataSenderWriteQueueSize() {
         return spanDataSenderWriteQueueSize;
@@ -277,6 +303,11 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return tcpDataSenderCommandActiveThreadLightDumpEnable;
     }
 
+    @Override
+    public long getTcpDataSenderCommandActiveThreadDumpTimeBudget() {
+        return tcpDataSenderCommandActiveThreadDumpTimeBudget;
+    }
+
     @Override
     public boolean isTraceAgentActiveThread() {
         return traceAgentActiveThread;
@@ -358,6 +389,36 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return samplingRate;
     }
 
+    @Override
+    public String getSamplingType() {
+        return samplingType;
+    }
+
+    @Override
+    public int getSamplingAdaptiveTargetTps() {
+        return samplingAdaptiveTargetTps;
+    }
+
+    @Override
+    public boolean isSamplingAdaptiveErrorEnable() {
+        return samplingAdaptiveErrorEnable;
+    }
+
+    @Override
+    public int getSamplingAdaptiveSlowThreshold() {
+        return samplingAdaptiveSlowThreshold;
+    }
+
+    @Override
+    public int getSamplingAdaptiveRuleTps() {
+        return samplingAdaptiveRuleTps;
+    }
+
+    @Override
+    public int getSamplingAdaptiveDeferredBufferSize() {
+        return samplingAdaptiveDeferredBufferSize;
+    }
+
     @Override
     public boolean isIoBufferingEnable() {
         return ioBufferingEnable;
@@ -503,11 +564,16 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.statDataSenderSocketType = readString("profiler.statdatasender.socket.type", "OIO");
         this.statDataSenderTransportType = readString("profiler.statdatasender.transport.type", "UDP");
 
+        this.senderExecutorQueueType = readString("profiler.sender.executor.queue.type", "LINKED_BLOCKING");
+        this.senderExecutorMaxDrainSize = readInt("profiler.sender.executor.drain.size", 10);
+        this.senderExecutorWaitStrategy = readString("profiler.sender.executor.wait.strategy", "PARK");
+
         this.tcpDataSenderCommandAcceptEnable = readBoolean("profiler.tcpdatasender.command.accept.enable", false);
         this.tcpDataSenderCommandActiveThreadEnable = readBoolean("profiler.tcpdatasender.command.activethread.enable", false);
         this.tcpDataSenderCommandActiveThreadCountEnable = readBoolean("profiler.tcpdatasender.command.activethread.count.enable", false);
         this.tcpDataSenderCommandActiveThreadDumpEnable = readBoolean("profiler.tcpdatasender.command.activethread.threaddump.enable", false);
         this.tcpDataSenderCommandActiveThreadLightDumpEnable = readBoolean("profiler.tcpdatasender.command.activethread.threadlightdump.enable", false);
+        this.tcpDataSenderCommandActiveThreadDumpTimeBudget = readLong("profiler.tcpdatasender.command.activethread.threaddump.timebudget", 3000L);
 
         this.traceAgentActiveThread = readBoolean("profiler.pinpoint.activethread", true);
 
@@ -530,6 +596,12 @@ public class DefaultProfilerConfig implements ProfilerConfig {
 
         this.samplingEnable = readBoolean("profiler.sampling.enable", true);
         this.samplingRate = readInt("profiler.sampling.rate", 1);
+        this.samplingType = readString("profiler.sampling.type", "COUNTING");
+        this.samplingAdaptiveTargetTps = readInt("profiler.sampling.adaptive.target.tps", 20);
+        this.samplingAdaptiveErrorEnable = readBoolean("profiler.sampling.adaptive.error.enable", false);
+        this.samplingAdaptiveSlowThreshold = readInt("profiler.sampling.adaptive.slow.threshold", -1);
+        this.samplingAdaptiveRuleTps = readInt("profiler.sampling.adaptive.rule.tps", 10);
+        this.samplingAdaptiveDeferredBufferSize = readInt("profiler.sampling.adaptive.deferred.buffer.size", 8192);
 
         // configuration for sampling and IO buffer 
         this.ioBufferingEnable = readBoolean("profiler.io.buffering.enable", true);
@@ -698,11 +770,15 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         sb.append(", statDataSenderChunkSize=").append(statDataSenderChunkSize);
         sb.append(", statDataSenderTransportType='").append(statDataSenderTransportType).append('\'');
         sb.append(", statDataSenderSocketType='").append(statDataSenderSocketType).append('\'');
+        sb.append(", senderExecutorQueueType='").append(senderExecutorQueueType).append('\'');
+        sb.append(", senderExecutorMaxDrainSize=").append(senderExecutorMaxDrainSize);
+        sb.append(", senderExecutorWaitStrategy='").append(senderExecutorWaitStrategy).append('\'');
         sb.append(", tcpDataSenderCommandAcceptEnable=").append(tcpDataSenderCommandAcceptEnable);
         sb.append(", tcpDataSenderCommandActiveThreadEnable=").append(tcpDataSenderCommandActiveThreadEnable);
         sb.append(", tcpDataSenderCommandActiveThreadCountEnable=").append(tcpDataSenderCommandActiveThreadCountEnable);
         sb.append(", tcpDataSenderCommandActiveThreadDumpEnable=").append(tcpDataSenderCommandActiveThreadDumpEnable);
         sb.append(", tcpDataSenderCommandActiveThreadLightDumpEnable=").append(tcpDataSenderCommandActiveThreadLightDumpEnable);
+        sb.append(", tcpDataSenderCommandActiveThreadDumpTimeBudget=").append(tcpDataSenderCommandActiveThreadDumpTimeBudget);
         sb.append(", traceAgentActiveThread=").append(traceAgentActiveThread);
         sb.append(", traceAgentDataSource=").append(traceAgentDataSource);
         sb.append(", dataSourceTraceLimitSize=").append(dataSourceTraceLimitSize);
@@ -714,6 +790,12 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         sb.append(", maxSqlBindValueSize=").append(maxSqlBindValueSize);
         sb.append(", samplingEnable=").append(samplingEnable);
         sb.append(", samplingRate=").append(samplingRate);
+        sb.append(", samplingType='").append(samplingType).append('\'');
+        sb.append(", samplingAdaptiveTargetTps=").append(samplingAdaptiveTargetTps);
+        sb.append(", samplingAdaptiveErrorEnable=").append(samplingAdaptiveErrorEnable);
+        sb.append(", samplingAdaptiveSlowThreshold=").append(samplingAdaptiveSlowThreshold);
+        sb.append(", samplingAdaptiveRuleTps=").append(samplingAdaptiveRuleTps);
+        sb.append(", samplingAdaptiveDeferredBufferSize=").append(samplingAdaptiveDeferredBufferSize);
         sb.append(", ioBufferingEnable=").append(ioBufferingEnable);
         sb.append(", ioBufferingBufferSize=").append(ioBufferingBufferSize);
         sb.append(", profileJvmVendorName='").append(profileJvmVendorName).append('\'');
@@ -48,6 +48,12 @@ public interface ProfilerConfig {
 
     String getStatDataSenderTransportType();
 
+    String getSenderExecutorQueueType();
+
+    int getSenderExecutorMaxDrainSize();
+
+    String getSenderExecutorWaitStrategy();
+
     int getSpanDataSenderWriteQueueSize();
 
     int getSpanDataSenderSocketSendBufferSize();
@@ -62,6 +68,8 @@ public interface ProfilerConfig {
 
     boolean isTcpDataSenderCommandActiveThreadLightDumpEnable();
 
+    long getTcpDataSenderCommandActiveThreadDumpTimeBudget();
+
     boolean isTraceAgentActiveThread();
 
     boolean isTraceAgentDataSource();
@@ -94,6 +102,18 @@ public interface ProfilerConfig {
 
     int getSamplingRate();
 
+    String getSamplingType();
+
+    int getSamplingAdaptiveTargetTps();
+
+    boolean isSamplingAdaptiveErrorEnable();
+
+    int getSamplingAdaptiveSlowThreshold();
+
+    int getSamplingAdaptiveRuleTps();
+
+    int getSamplingAdaptiveDeferredBufferSize();
+
     boolean isIoBufferingEnable();
 
     int getIoBufferingBufferSize();
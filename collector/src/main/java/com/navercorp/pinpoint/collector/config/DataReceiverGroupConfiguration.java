@@ -35,6 +35,10 @@ public interface DataReceiverGroupConfiguration {
 
     int getUdpReceiveBufferSize();
 
+    boolean isUdpReusePort();
+
+    int getUdpSocketCount();
+
     int getWorkerThreadSize();
 
     int getWorkerQueueSize();
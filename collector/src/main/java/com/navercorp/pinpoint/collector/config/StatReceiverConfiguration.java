@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.collector.config;
 
 import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.CpuUtils;
 
 import java.util.Objects;
 import java.util.Properties;
@@ -43,6 +44,10 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
     private final int udpBindPort;
     private static final String UDP_RECEIVE_BUFFER_SIZE = PREFIX + ".udp.receiveBufferSize";
     private final int udpReceiveBufferSize;
+    private static final String UDP_REUSE_PORT = PREFIX + ".udp.reusePort";
+    private final boolean isUdpReusePort;
+    private static final String UDP_SOCKET_COUNT = PREFIX + ".udp.socketCount";
+    private final int udpSocketCount;
 
     private static final String WORKER_THREAD_SIZE = PREFIX + ".worker.threadSize";
     private final int workerThreadSize;
@@ -65,6 +70,8 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
         this.udpBindIp = getUdpBindIp(properties, deprecatedConfiguration, CollectorConfiguration.DEFAULT_LISTEN_IP);
         this.udpBindPort = getUdpBindPort(properties, deprecatedConfiguration, 9995);
         this.udpReceiveBufferSize = getUdpReceiveBufferSize(properties, deprecatedConfiguration, 1024 * 4096);
+        this.isUdpReusePort = CollectorConfiguration.readBoolean(properties, UDP_REUSE_PORT);
+        this.udpSocketCount = CollectorConfiguration.readInt(properties, UDP_SOCKET_COUNT, CpuUtils.cpuCount());
 
         this.workerThreadSize = getWorkerThreadSize(properties, deprecatedConfiguration, 128);
         Assert.isTrue(workerThreadSize > 0, "workerThreadSize must be greater than 0");
@@ -88,6 +95,7 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
             Objects.requireNonNull(udpBindIp, "udpBindIp must not be null");
             Assert.isTrue(udpBindPort > 0, "udpBindPort must be greater than 0");
             Assert.isTrue(udpReceiveBufferSize > 0, "udpReceiveBufferSize must be greater than 0");
+            Assert.isTrue(udpSocketCount > 0, "udpSocketCount must be greater than 0");
         }
     }
 
@@ -207,6 +215,16 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
         return udpReceiveBufferSize;
     }
 
+    @Override
+    public boolean isUdpReusePort() {
+        return isUdpReusePort;
+    }
+
+    @Override
+    public int getUdpSocketCount() {
+        return udpSocketCount;
+    }
+
     @Override
     public int getWorkerThreadSize() {
         return workerThreadSize;
@@ -232,6 +250,8 @@ public final class StatReceiverConfiguration implements DataReceiverGroupConfigu
         sb.append(", udpBindIp='").append(udpBindIp).append('\'');
         sb.append(", udpBindPort=").append(udpBindPort);
         sb.append(", udpReceiveBufferSize=").append(udpReceiveBufferSize);
+        sb.append(", isUdpReusePort=").append(isUdpReusePort);
+        sb.append(", udpSocketCount=").append(udpSocketCount);
         sb.append(", workerThreadSize=").append(workerThreadSize);
         sb.append(", workerQueueSize=").append(workerQueueSize);
         sb.append(", workerMonitorEnable=").append(workerMonitorEnable);
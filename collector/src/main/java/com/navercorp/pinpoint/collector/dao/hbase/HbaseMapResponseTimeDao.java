@@ -16,10 +16,8 @@
 
 package com.navercorp.pinpoint.collector.dao.hbase;
 
-import com.google.common.util.concurrent.AtomicLongMap;
 import com.navercorp.pinpoint.collector.dao.MapResponseTimeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
-import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
@@ -70,7 +68,7 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
 
     private final boolean useBulk;
 
-    private final AtomicLongMap<RowInfo> counter = AtomicLongMap.create();
+    private final BulkIncrementer bulkIncrementer = new BulkIncrementer();
 
     public HbaseMapResponseTimeDao() {
         this(true);
@@ -102,7 +100,7 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         final ColumnName selfColumnName = new ResponseColumnName(agentId, slotNumber);
         if (useBulk) {
             RowInfo rowInfo = new DefaultRowInfo(selfRowKey, selfColumnName);
-            this.counter.incrementAndGet(rowInfo);
+            this.bulkIncrementer.increment(rowInfo);
         } else {
             final byte[] rowKey = getDistributedKey(selfRowKey.getRowKey());
             // column name is the name of caller app.
@@ -129,7 +127,7 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         }
 
         // update statistics by rowkey and column for now. need to update it by rowkey later.
-        final Map<RowInfo, Long> remove = AtomicLongMapUtils.remove(this.counter);
+        final Map<RowInfo, Long> remove = this.bulkIncrementer.drain();
 
         final List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
         if (merge.isEmpty()) {
@@ -18,10 +18,8 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
-import com.google.common.util.concurrent.AtomicLongMap;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
-import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
@@ -70,7 +68,7 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
     private final boolean useBulk;
 
-    private final AtomicLongMap<RowInfo> counter = AtomicLongMap.create();
+    private final BulkIncrementer bulkIncrementer = new BulkIncrementer();
 
     public HbaseMapStatisticsCalleeDao() {
         this(true);
@@ -108,7 +106,7 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
         if (useBulk) {
             RowInfo rowInfo = new DefaultRowInfo(calleeRowKey, callerColumnName);
-            counter.incrementAndGet(rowInfo);
+            this.bulkIncrementer.increment(rowInfo);
         } else {
             final byte[] rowKey = getDistributedKey(calleeRowKey.getRowKey());
 
@@ -134,7 +132,7 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
             throw new IllegalStateException();
         }
 
-        final Map<RowInfo, Long> remove = AtomicLongMapUtils.remove(this.counter);
+        final Map<RowInfo, Long> remove = this.bulkIncrementer.drain();
 
         final List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
         if (merge.isEmpty()) {
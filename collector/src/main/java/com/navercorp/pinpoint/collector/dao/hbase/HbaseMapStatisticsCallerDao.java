@@ -18,10 +18,8 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
-import com.google.common.util.concurrent.AtomicLongMap;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
-import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
@@ -70,7 +68,7 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
 
     private final boolean useBulk;
 
-    private final AtomicLongMap<RowInfo> counter = AtomicLongMap.create();
+    private final BulkIncrementer bulkIncrementer = new BulkIncrementer();
 
     public HbaseMapStatisticsCallerDao() {
         this(true);
@@ -106,7 +104,7 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         final ColumnName calleeColumnName = new CalleeColumnName(callerAgentid, calleeServiceType.getCode(), calleeApplicationName, calleeHost, calleeSlotNumber);
         if (useBulk) {
             RowInfo rowInfo = new DefaultRowInfo(callerRowKey, calleeColumnName);
-            this.counter.incrementAndGet(rowInfo);
+            this.bulkIncrementer.increment(rowInfo);
         } else {
             final byte[] rowKey = getDistributedKey(callerRowKey.getRowKey());
             // column name is the name of caller app.
@@ -131,7 +129,7 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
             throw new IllegalStateException();
         }
         // update statistics by rowkey and column for now. need to update it by rowkey later.
-        final Map<RowInfo, Long> remove = AtomicLongMapUtils.remove(this.counter);
+        final Map<RowInfo, Long> remove = this.bulkIncrementer.drain();
 
         final List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
         if (merge.isEmpty()) {
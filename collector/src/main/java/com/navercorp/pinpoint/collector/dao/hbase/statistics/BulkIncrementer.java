@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.google.common.util.concurrent.AtomicLongMap;
+import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Striped pre-aggregation store for map statistics.
+ * <p>
+ * Each thread updates the stripe selected by its thread id, so hot keys are not CASed by every receiver thread
+ * on the same counter. Stripes are drained and merged at flush time.
+ */
+public class BulkIncrementer {
+
+    private static final int DEFAULT_STRIPE_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final int MAX_STRIPE_SIZE = 64;
+
+    private final AtomicLongMap<RowInfo>[] stripes;
+    private final int mask;
+
+    public BulkIncrementer() {
+        this(DEFAULT_STRIPE_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public BulkIncrementer(int stripeSize) {
+        if (stripeSize <= 0) {
+            throw new IllegalArgumentException("stripeSize must be greater than 0");
+        }
+        final int size = powerOfTwo(Math.min(stripeSize, MAX_STRIPE_SIZE));
+        this.stripes = new AtomicLongMap[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = AtomicLongMap.create();
+        }
+        this.mask = size - 1;
+    }
+
+    static int powerOfTwo(int value) {
+        int size = 1;
+        while (size < value) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    public void increment(RowInfo rowInfo) {
+        increment(rowInfo, 1L);
+    }
+
+    public void increment(RowInfo rowInfo, long count) {
+        if (rowInfo == null) {
+            throw new NullPointerException("rowInfo must not be null");
+        }
+        final AtomicLongMap<RowInfo> stripe = stripes[(int) Thread.currentThread().getId() & mask];
+        stripe.addAndGet(rowInfo, count);
+    }
+
+    /**
+     * Removes accumulated counts from all stripes and returns them merged by {@link RowInfo}.
+     */
+    public Map<RowInfo, Long> drain() {
+        final Map<RowInfo, Long> merge = new HashMap<>();
+        for (AtomicLongMap<RowInfo> stripe : stripes) {
+            final Map<RowInfo, Long> remove = AtomicLongMapUtils.remove(stripe);
+            for (Map.Entry<RowInfo, Long> entry : remove.entrySet()) {
+                final long value = entry.getValue();
+                if (value == 0) {
+                    continue;
+                }
+                merge.merge(entry.getKey(), value, Long::sum);
+            }
+        }
+        return merge;
+    }
+
+    int getStripeSize() {
+        return stripes.length;
+    }
+}
@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.collector.dao.hbase.statistics;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +31,13 @@ public class RowKeyMerge {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final byte[] family;
 
+    private static final Comparator<Increment> ROW_COMPARATOR = new Comparator<Increment>() {
+        @Override
+        public int compare(Increment o1, Increment o2) {
+            return Bytes.compareTo(o1.getRow(), o2.getRow());
+        }
+    };
+
     public RowKeyMerge(byte[] family) {
         if (family == null) {
             throw new NullPointerException("family must not be null");
@@ -44,11 +52,13 @@ public class RowKeyMerge {
 
         final Map<RowKey, List<ColumnName>> rowkeyMerge = rowKeyBaseMerge(data);
 
-        List<Increment> incrementList = new ArrayList<>();
+        List<Increment> incrementList = new ArrayList<>(rowkeyMerge.size());
         for (Map.Entry<RowKey, List<ColumnName>> rowKeyEntry : rowkeyMerge.entrySet()) {
             Increment increment = createIncrement(rowKeyEntry, rowKeyDistributorByHashPrefix);
             incrementList.add(increment);
         }
+        // sort by distributed row key so that increments of the same region are adjacent in the batch
+        Collections.sort(incrementList, ROW_COMPARATOR);
         return incrementList;
     }
 
@@ -69,7 +79,7 @@ public class RowKeyMerge {
     }
 
     private Map<RowKey, List<ColumnName>> rowKeyBaseMerge(Map<RowInfo, Long> data) {
-        final Map<RowKey, List<ColumnName>> merge = new HashMap<>();
+        final Map<RowKey, List<ColumnName>> merge = new HashMap<>(data.size());
 
         for (Map.Entry<RowInfo, Long> entry : data.entrySet()) {
             final RowInfo rowInfo = entry.getKey();
@@ -80,7 +90,7 @@ public class RowKeyMerge {
             RowKey rowKey = rowInfo.getRowKey();
             List<ColumnName> oldList = merge.get(rowKey);
             if (oldList == null) {
-                List<ColumnName> newList = new ArrayList<>();
+                List<ColumnName> newList = new ArrayList<>(4);
                 newList.add(rowInfo.getColumnName());
                 merge.put(rowKey, newList);
             } else {
@@ -17,9 +17,11 @@
 
 package com.navercorp.pinpoint.collector.manage;
 
+import com.navercorp.pinpoint.collector.monitor.HBaseBatchWriteMetrics;
 import com.navercorp.pinpoint.common.hbase.HBaseAsyncOperation;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -30,6 +32,9 @@ public class HBaseManager extends AbstractCollectorManager implements HBaseManag
     @Autowired
     private HBaseAsyncOperation hBaseAsyncOperation;
 
+    @Autowired(required = false)
+    private HBaseBatchWriteMetrics hBaseBatchWriteMetrics;
+
     @Override
     public Long getAsyncOpsCount() {
         return hBaseAsyncOperation.getOpsCount();
@@ -55,4 +60,28 @@ public class HBaseManager extends AbstractCollectorManager implements HBaseManag
         return hBaseAsyncOperation.getOpsAverageLatencyForEachRegionServer();
     }
 
+    @Override
+    public Map<String, Long> getAsyncBatchLatencyHistogram() {
+        if (hBaseBatchWriteMetrics == null) {
+            return Collections.emptyMap();
+        }
+        return hBaseBatchWriteMetrics.getLatencyHistogram();
+    }
+
+    @Override
+    public Map<String, Long> getAsyncBatchSizeHistogram() {
+        if (hBaseBatchWriteMetrics == null) {
+            return Collections.emptyMap();
+        }
+        return hBaseBatchWriteMetrics.getBatchSizeHistogram();
+    }
+
+    @Override
+    public Map<String, Long> getAsyncBatchRejectedHistogram() {
+        if (hBaseBatchWriteMetrics == null) {
+            return Collections.emptyMap();
+        }
+        return hBaseBatchWriteMetrics.getRejectedHistogram();
+    }
+
 }
@@ -34,4 +34,10 @@ public interface HBaseManagerMBean {
 
     Map<String, Long> getAsyncOpsAverageLatencyForEachRegionServer();
 
+    Map<String, Long> getAsyncBatchLatencyHistogram();
+
+    Map<String, Long> getAsyncBatchSizeHistogram();
+
+    Map<String, Long> getAsyncBatchRejectedHistogram();
+
 }
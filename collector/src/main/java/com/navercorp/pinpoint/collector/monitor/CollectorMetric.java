@@ -51,6 +51,9 @@ public class CollectorMetric {
     @Autowired(required = false)
     private HBaseAsyncOperationMetrics hBaseAsyncOperationMetrics;
 
+    @Autowired(required = false)
+    private HBaseBatchWriteMetrics hBaseBatchWriteMetrics;
+
     private ScheduledReporter reporter;
 
     private final boolean isEnable = isEnable0(REPORTER_LOGGER_NAME);
@@ -87,6 +90,10 @@ public class CollectorMetric {
                 metricRegistry.register(metric.getKey(), metric.getValue());
             }
         }
+
+        if (hBaseBatchWriteMetrics != null) {
+            metricRegistry.registerAll(hBaseBatchWriteMetrics);
+        }
     }
 
     private void initReporters() {
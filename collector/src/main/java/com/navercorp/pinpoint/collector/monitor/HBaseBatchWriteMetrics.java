@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.monitor;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Snapshot;
+import com.navercorp.pinpoint.common.hbase.batch.BatchWriteListener;
+import org.apache.hadoop.hbase.TableName;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Histograms of the batching hbase async writer. Registered to the collector metric registry, and exposed over JMX by HBaseManager.
+ */
+public class HBaseBatchWriteMetrics implements BatchWriteListener, MetricSet {
+
+    private static final String HBASE_ASYNC_BATCH = "hbase.async.batch";
+    private static final String LATENCY = HBASE_ASYNC_BATCH + ".latency";
+    private static final String BATCH_SIZE = HBASE_ASYNC_BATCH + ".size";
+    private static final String REJECTED = HBASE_ASYNC_BATCH + ".rejected";
+    private static final String RETRY_COUNT = HBASE_ASYNC_BATCH + ".retry.count";
+    private static final String DROP_COUNT = HBASE_ASYNC_BATCH + ".drop.count";
+
+    private final Histogram latency = newHistogram();
+    private final Histogram batchSize = newHistogram();
+    private final Histogram rejected = newHistogram();
+    private final Counter retryCount = new Counter();
+    private final Counter dropCount = new Counter();
+
+    private static Histogram newHistogram() {
+        return new Histogram(new ExponentiallyDecayingReservoir());
+    }
+
+    @Override
+    public void onWrite(TableName tableName, int batchSize, long latencyMillis) {
+        this.batchSize.update(batchSize);
+        this.latency.update(latencyMillis);
+    }
+
+    @Override
+    public void onReject(TableName tableName, int rejectedSize) {
+        this.rejected.update(rejectedSize);
+    }
+
+    @Override
+    public void onRetry(TableName tableName, int batchSize, int attempt) {
+        this.retryCount.inc(batchSize);
+    }
+
+    @Override
+    public void onDrop(TableName tableName, int batchSize) {
+        this.dropCount.inc(batchSize);
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        final Map<String, Metric> metrics = new HashMap<>(5);
+        metrics.put(LATENCY, latency);
+        metrics.put(BATCH_SIZE, batchSize);
+        metrics.put(REJECTED, rejected);
+        metrics.put(RETRY_COUNT, retryCount);
+        metrics.put(DROP_COUNT, dropCount);
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    public Map<String, Long> getLatencyHistogram() {
+        return toMap(latency);
+    }
+
+    public Map<String, Long> getBatchSizeHistogram() {
+        return toMap(batchSize);
+    }
+
+    public Map<String, Long> getRejectedHistogram() {
+        return toMap(rejected);
+    }
+
+    static Map<String, Long> toMap(Histogram histogram) {
+        final Snapshot snapshot = histogram.getSnapshot();
+        final Map<String, Long> result = new LinkedHashMap<>();
+        result.put("count", histogram.getCount());
+        result.put("min", snapshot.getMin());
+        result.put("max", snapshot.getMax());
+        result.put("mean", Math.round(snapshot.getMean()));
+        result.put("p50", Math.round(snapshot.getMedian()));
+        result.put("p95", Math.round(snapshot.get95thPercentile()));
+        result.put("p99", Math.round(snapshot.get99thPercentile()));
+        result.put("p999", Math.round(snapshot.get999thPercentile()));
+        return result;
+    }
+}
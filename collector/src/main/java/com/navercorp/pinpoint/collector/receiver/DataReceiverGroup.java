@@ -22,6 +22,7 @@ import com.navercorp.pinpoint.collector.receiver.tcp.TCPReceiver;
 import com.navercorp.pinpoint.collector.receiver.udp.BaseUDPHandlerFactory;
 import com.navercorp.pinpoint.collector.receiver.udp.NetworkAvailabilityCheckPacketFilter;
 import com.navercorp.pinpoint.collector.receiver.udp.PacketHandlerFactory;
+import com.navercorp.pinpoint.collector.receiver.udp.ReusePortUDPReceiver;
 import com.navercorp.pinpoint.collector.receiver.udp.TBaseFilterChain;
 import com.navercorp.pinpoint.collector.receiver.udp.UDPReceiver;
 import com.navercorp.pinpoint.common.util.Assert;
@@ -75,8 +76,13 @@ public class DataReceiverGroup implements DataReceiver {
             PacketHandlerFactory<DatagramPacket> packetHandlerFactory = new BaseUDPHandlerFactory<DatagramPacket>(dispatchHandler, filterChain, ignoreAddressList);
             InetSocketAddress bindAddress = new InetSocketAddress(configuration.getUdpBindIp(), configuration.getUdpBindPort());
 
-            UDPReceiver udpReceiver = new UDPReceiver(udpReceiverName, packetHandlerFactory, worker, configuration.getUdpReceiveBufferSize(), bindAddress);
-            receiverList.add(udpReceiver);
+            if (configuration.isUdpReusePort()) {
+                ReusePortUDPReceiver udpReceiver = new ReusePortUDPReceiver(udpReceiverName, packetHandlerFactory, configuration.getUdpSocketCount(), configuration.getUdpReceiveBufferSize(), bindAddress);
+                receiverList.add(udpReceiver);
+            } else {
+                UDPReceiver udpReceiver = new UDPReceiver(udpReceiverName, packetHandlerFactory, worker, configuration.getUdpReceiveBufferSize(), bindAddress);
+                receiverList.add(udpReceiver);
+            }
         }
 
         if (configuration.isTcpEnable()) {
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import com.navercorp.pinpoint.collector.receiver.DataReceiver;
+import com.navercorp.pinpoint.collector.util.DatagramPacketFactory;
+import com.navercorp.pinpoint.collector.util.PacketUtils;
+import com.navercorp.pinpoint.common.annotations.VisibleForTesting;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketOption;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * UDP receiver binding several sockets to the same port with SO_REUSEPORT so the kernel spreads incoming packets
+ * over several receive queues. Each socket is read by its own thread, which handles the packet inline instead of
+ * handing it off to a {@link com.navercorp.pinpoint.collector.receiver.DispatchWorker}.
+ * <p>
+ * Falls back to a single socket shared by all reader threads when SO_REUSEPORT is not available (Java 8, Windows).
+ *
+ * @see UDPReceiver
+ */
+public class ReusePortUDPReceiver implements DataReceiver {
+
+    private static final SocketOption<Boolean> SO_REUSEPORT = findReusePortOption();
+
+    private final Logger logger;
+
+    private final String name;
+
+    private final InetSocketAddress bindAddress;
+
+    private final PacketHandlerFactory<DatagramPacket> packetHandlerFactory;
+
+    private final int receiveBufferSize;
+
+    private final int socketCount;
+
+    private final List<DatagramChannel> channels = new ArrayList<>();
+
+    private ExecutorService io;
+
+    private final AtomicBoolean state = new AtomicBoolean(true);
+
+    public ReusePortUDPReceiver(String name, PacketHandlerFactory<DatagramPacket> packetHandlerFactory, int socketCount, int receiveBufferSize, InetSocketAddress bindAddress) {
+        this.name = Objects.requireNonNull(name);
+        this.logger = LoggerFactory.getLogger(name);
+
+        this.bindAddress = Objects.requireNonNull(bindAddress, "bindAddress must not be null");
+        this.packetHandlerFactory = Objects.requireNonNull(packetHandlerFactory, "packetHandlerFactory must not be null");
+
+        Assert.isTrue(socketCount > 0, "socketCount must be greater than 0");
+        this.socketCount = socketCount;
+        Assert.isTrue(receiveBufferSize > 0, "receiveBufferSize must be greater than 0");
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SocketOption<Boolean> findReusePortOption() {
+        try {
+            // StandardSocketOptions.SO_REUSEPORT is available since Java 9
+            final Field field = StandardSocketOptions.class.getField("SO_REUSEPORT");
+            return (SocketOption<Boolean>) field.get(null);
+        } catch (NoSuchFieldException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (logger.isInfoEnabled()) {
+            logger.info("{} start() started", name);
+        }
+
+        final List<DatagramSocket> sockets = bindSockets();
+        this.io = Executors.newFixedThreadPool(socketCount, new PinpointThreadFactory(name + "-Io", true));
+
+        logger.info("UDP Packet reader:{} sockets:{} started.", socketCount, sockets.size());
+        for (int i = 0; i < socketCount; i++) {
+            final DatagramSocket socket = sockets.get(i % sockets.size());
+            io.execute(new Runnable() {
+                @Override
+                public void run() {
+                    receive(socket);
+                }
+            });
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("{} start() completed", name);
+        }
+    }
+
+    private List<DatagramSocket> bindSockets() {
+        final boolean reusePort = isReusePortSupported();
+        if (!reusePort) {
+            logger.warn("SO_REUSEPORT not supported. all {} reader threads share a single socket", socketCount);
+        }
+        final int channelCount = reusePort ? socketCount : 1;
+        final List<DatagramSocket> sockets = new ArrayList<>(channelCount);
+        for (int i = 0; i < channelCount; i++) {
+            final DatagramChannel channel = openChannel(reusePort);
+            channels.add(channel);
+            sockets.add(channel.socket());
+        }
+        return sockets;
+    }
+
+    private boolean isReusePortSupported() {
+        if (SO_REUSEPORT == null) {
+            return false;
+        }
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            return channel.supportedOptions().contains(SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private DatagramChannel openChannel(boolean reusePort) {
+        DatagramChannel channel = null;
+        try {
+            channel = DatagramChannel.open();
+            if (reusePort) {
+                channel.setOption(SO_REUSEPORT, true);
+            }
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+            if (logger.isWarnEnabled()) {
+                final int checkReceiveBufferSize = channel.getOption(StandardSocketOptions.SO_RCVBUF);
+                if (receiveBufferSize != checkReceiveBufferSize) {
+                    logger.warn("DatagramChannel.setOption(SO_RCVBUF) error. {}!={}", receiveBufferSize, checkReceiveBufferSize);
+                }
+            }
+            logger.info("DatagramChannel.bind() {}/{} reusePort:{}", bindAddress.getHostString(), bindAddress.getPort(), reusePort);
+            channel.bind(bindAddress);
+            // blocking reads through the socket adaptor, the timeout lets readers notice shutdown
+            channel.socket().setSoTimeout(1000 * 5);
+            return channel;
+        } catch (IOException ex) {
+            closeQuietly(channel);
+            closeChannels();
+            throw new IllegalStateException("Socket bind Fail. port:" + bindAddress.getPort() + " Caused:" + ex.getMessage(), ex);
+        }
+    }
+
+    private void receive(final DatagramSocket socket) {
+        if (logger.isInfoEnabled()) {
+            logger.info("start ioThread localAddress:{}, IoThread:{}", socket.getLocalAddress(), Thread.currentThread().getName());
+        }
+
+        // packets are handled inline, so a single packet per reader thread is enough
+        final DatagramPacket packet = new DatagramPacket(new byte[DatagramPacketFactory.UDP_MAX_PACKET_LENGTH], DatagramPacketFactory.UDP_MAX_PACKET_LENGTH);
+        final PacketHandler<DatagramPacket> packetHandler = packetHandlerFactory.createPacketHandler();
+        while (state.get()) {
+            packet.setLength(DatagramPacketFactory.UDP_MAX_PACKET_LENGTH);
+            if (!read0(socket, packet)) {
+                continue;
+            }
+            try {
+                packetHandler.receive(socket, packet);
+            } catch (Exception e) {
+                logger.warn("packet handling failed. SendSocketAddress:{} Cause:{}", packet.getSocketAddress(), e.getMessage(), e);
+            }
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("stop ioThread localAddress:{}, IoThread:{}", socket.getLocalSocketAddress(), Thread.currentThread().getName());
+        }
+    }
+
+    private boolean read0(final DatagramSocket socket, final DatagramPacket packet) {
+        try {
+            socket.receive(packet);
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            if (state.get()) {
+                logger.error("IoError, Caused:{}", e.getMessage(), e);
+            }
+            return false;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("DatagramPacket SocketAddress:{} read size:{}", packet.getSocketAddress(), packet.getLength());
+            if (logger.isTraceEnabled()) {
+                // use trace as packet dump may be large
+                logger.trace("dump packet:{}", PacketUtils.dumpDatagramPacket(packet));
+            }
+        }
+        return validatePacket(packet);
+    }
+
+    @VisibleForTesting
+    boolean validatePacket(DatagramPacket packet) {
+        // L4 health check packet
+        if (packet.getLength() == 0) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("length is 0 ip:{}, port:{}", packet.getAddress(), packet.getPort());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @VisibleForTesting
+    List<DatagramChannel> getChannels() {
+        return Collections.unmodifiableList(channels);
+    }
+
+    @Override
+    public void shutdown() {
+        if (logger.isInfoEnabled()) {
+            logger.info("{} shutdown() started", this.name);
+        }
+
+        state.set(false);
+        closeChannels();
+        if (io != null) {
+            logger.info("IoExecutor shutdown.");
+            io.shutdown();
+            try {
+                io.awaitTermination(1000 * 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                logger.info("IoExecutor.shutdown() Interrupted", e);
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("{} shutdown() completed", this.name);
+        }
+    }
+
+    private void closeChannels() {
+        for (DatagramChannel channel : channels) {
+            closeQuietly(channel);
+        }
+        channels.clear();
+    }
+
+    private void closeQuietly(DatagramChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("DatagramChannel close fail. Caused:{}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+public class BulkIncrementerTest {
+
+    private static final short SERVICE_TYPE = 1000;
+
+    @Test
+    public void stripeSize() {
+        Assert.assertEquals(1, new BulkIncrementer(1).getStripeSize());
+        Assert.assertEquals(4, new BulkIncrementer(3).getStripeSize());
+        Assert.assertEquals(64, new BulkIncrementer(1000).getStripeSize());
+    }
+
+    @Test
+    public void drain() {
+        BulkIncrementer bulkIncrementer = new BulkIncrementer(4);
+        bulkIncrementer.increment(newRowInfo("app", "agent1"));
+        bulkIncrementer.increment(newRowInfo("app", "agent1"));
+        bulkIncrementer.increment(newRowInfo("app", "agent2"), 3);
+
+        Map<RowInfo, Long> drain = bulkIncrementer.drain();
+        Assert.assertEquals(2, drain.size());
+        Assert.assertEquals(2L, (long) drain.get(newRowInfo("app", "agent1")));
+        Assert.assertEquals(3L, (long) drain.get(newRowInfo("app", "agent2")));
+
+        Assert.assertTrue(bulkIncrementer.drain().isEmpty());
+    }
+
+    @Test
+    public void drain_mergeStripes() throws InterruptedException {
+        final BulkIncrementer bulkIncrementer = new BulkIncrementer(8);
+        final int threadSize = 8;
+        final int incrementSize = 1000;
+        final CountDownLatch latch = new CountDownLatch(threadSize);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadSize; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < incrementSize; j++) {
+                        bulkIncrementer.increment(newRowInfo("app", "agent"));
+                    }
+                    latch.countDown();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        latch.await();
+
+        Map<RowInfo, Long> drain = bulkIncrementer.drain();
+        Assert.assertEquals(1, drain.size());
+        Assert.assertEquals((long) threadSize * incrementSize, (long) drain.get(newRowInfo("app", "agent")));
+    }
+
+    private RowInfo newRowInfo(String applicationName, String agentId) {
+        RowKey rowKey = new CallRowKey(applicationName, SERVICE_TYPE, 0L);
+        ColumnName columnName = new CalleeColumnName(agentId, SERVICE_TYPE, "callee", "host", (short) 0);
+        return new DefaultRowInfo(rowKey, columnName);
+    }
+}
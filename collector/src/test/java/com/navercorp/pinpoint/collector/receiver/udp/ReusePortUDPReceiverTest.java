@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.util.SocketUtils;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ReusePortUDPReceiverTest {
+
+    private static final String ADDRESS = "127.0.0.1";
+
+    @Test
+    public void receiveInline() throws Exception {
+        final int port = SocketUtils.findAvailableUdpPort(11999);
+        final CountDownLatch latch = new CountDownLatch(2);
+        final PacketHandler<DatagramPacket> packetHandler = new PacketHandler<DatagramPacket>() {
+            @Override
+            public void receive(DatagramSocket localSocket, DatagramPacket packet) {
+                Assert.assertEquals(1, packet.getLength());
+                latch.countDown();
+            }
+        };
+        final PacketHandlerFactory<DatagramPacket> packetHandlerFactory = new PacketHandlerFactory<DatagramPacket>() {
+            @Override
+            public PacketHandler<DatagramPacket> createPacketHandler() {
+                return packetHandler;
+            }
+        };
+
+        ReusePortUDPReceiver receiver = new ReusePortUDPReceiver("test", packetHandlerFactory, 2, 1024 * 64, new InetSocketAddress(ADDRESS, port));
+        DatagramSocket datagramSocket = null;
+        try {
+            receiver.start();
+            Assert.assertFalse(receiver.getChannels().isEmpty());
+
+            datagramSocket = new DatagramSocket();
+            datagramSocket.connect(new InetSocketAddress(ADDRESS, port));
+            // L4 health check packet is dropped
+            datagramSocket.send(new DatagramPacket(new byte[0], 0));
+            datagramSocket.send(new DatagramPacket(new byte[1], 1));
+            datagramSocket.send(new DatagramPacket(new byte[1], 1));
+
+            Assert.assertTrue(latch.await(10000, TimeUnit.MILLISECONDS));
+        } finally {
+            if (datagramSocket != null) {
+                datagramSocket.close();
+            }
+            receiver.shutdown();
+        }
+        Assert.assertTrue(receiver.getChannels().isEmpty());
+    }
+}
@@ -17,6 +17,9 @@
 
 package com.navercorp.pinpoint.common.hbase;
 
+import com.navercorp.pinpoint.common.hbase.batch.BatchAsyncWriteConfig;
+import com.navercorp.pinpoint.common.hbase.batch.BatchHBaseAsyncTemplate;
+import com.navercorp.pinpoint.common.hbase.batch.BatchWriteListener;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.client.Connection;
 import org.slf4j.Logger;
@@ -34,6 +37,11 @@ public class HBaseAsyncOperationFactory {
     public static final String ENABLE_ASYNC_METHOD = "hbase.client.async.enable";
     public static final boolean DEFAULT_ENABLE_ASYNC_METHOD = false;
 
+    // MULTIPLEXER : HTableMultiplexer, BATCH : BatchHBaseAsyncTemplate
+    public static final String ASYNC_TYPE = "hbase.client.async.type";
+    public static final String DEFAULT_ASYNC_TYPE = "MULTIPLEXER";
+    public static final String BATCH_ASYNC_TYPE = "BATCH";
+
     public static final String ASYNC_IN_QUEUE_SIZE = "hbase.client.async.in.queuesize";
     public static final int DEFAULT_ASYNC_IN_QUEUE_SIZE = 10000;
 
@@ -63,11 +71,21 @@ public class HBaseAsyncOperationFactory {
     }
 
     public static HBaseAsyncOperation create(Connection connection, Configuration configuration) throws IOException {
+        return create(connection, configuration, BatchWriteListener.EMPTY);
+    }
+
+    public static HBaseAsyncOperation create(Connection connection, Configuration configuration, BatchWriteListener batchWriteListener) throws IOException {
         boolean enableAsyncMethod = configuration.getBoolean(ENABLE_ASYNC_METHOD, DEFAULT_ENABLE_ASYNC_METHOD);
         if (!enableAsyncMethod) {
             return DisabledHBaseAsyncOperation.INSTANCE;
         }
 
+        String asyncType = configuration.getTrimmed(ASYNC_TYPE, DEFAULT_ASYNC_TYPE);
+        if (BATCH_ASYNC_TYPE.equalsIgnoreCase(asyncType)) {
+            LOGGER.info("create BatchHBaseAsyncTemplate");
+            return new BatchHBaseAsyncTemplate(connection, new BatchAsyncWriteConfig(configuration), batchWriteListener);
+        }
+
         int queueSize = configuration.getInt(ASYNC_IN_QUEUE_SIZE, DEFAULT_ASYNC_IN_QUEUE_SIZE);
 
         if (configuration.get(ASYNC_PERIODIC_FLUSH_TIME, null) == null) {
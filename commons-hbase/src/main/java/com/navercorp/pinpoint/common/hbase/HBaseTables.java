@@ -124,4 +124,10 @@ public final class HBaseTables {
     public static final TableName APPLICATION_STAT_AGGRE = TableName.valueOf("ApplicationStatAggre");
     public static final byte[] APPLICATION_STAT_CF_STATISTICS = Bytes.toBytes("S");
 
+    public static final TableName AGENT_STAT_ROLLUP_1M = TableName.valueOf("AgentStatRollup1m");
+    public static final TableName AGENT_STAT_ROLLUP_10M = TableName.valueOf("AgentStatRollup10m");
+    public static final TableName AGENT_STAT_ROLLUP_1H = TableName.valueOf("AgentStatRollup1h");
+    public static final byte[] AGENT_STAT_ROLLUP_CF_STATISTICS = Bytes.toBytes("S");
+    public static final byte[] AGENT_STAT_ROLLUP_CF_COUNT = Bytes.toBytes("C");
+
 }
@@ -41,6 +41,7 @@ import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.util.Assert;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -136,6 +137,10 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
 
             long remainingTime = Math.max(DEFAULT_DESTORY_TIMEOUT - stopWatch.stop(), 100);
             awaitAsyncPutOpsCleared(remainingTime, 50);
+
+            if (asyncOperation instanceof Closeable) {
+                ((Closeable) asyncOperation).close();
+            }
         }
     }
 
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.batch;
+
+import org.apache.hadoop.conf.Configuration;
+
+/**
+ * Options of {@link BatchHBaseAsyncTemplate}, read from the hbase {@link Configuration}.
+ */
+public class BatchAsyncWriteConfig {
+
+    public static final String MEMORY_LIMIT = "hbase.client.async.batch.memory.limit";
+    public static final long DEFAULT_MEMORY_LIMIT = 64 * 1024 * 1024;
+
+    public static final String BATCH_SIZE = "hbase.client.async.batch.size";
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    public static final String BATCH_BYTES = "hbase.client.async.batch.bytes";
+    public static final long DEFAULT_BATCH_BYTES = 2 * 1024 * 1024;
+
+    public static final String LINGER_MS = "hbase.client.async.batch.linger.ms";
+    public static final long DEFAULT_LINGER_MS = 50;
+
+    public static final String WRITER_THREADS = "hbase.client.async.batch.writer.threads";
+    public static final int DEFAULT_WRITER_THREADS = 4;
+
+    public static final String MAX_RETRIES = "hbase.client.async.batch.max.retries";
+    public static final int DEFAULT_MAX_RETRIES = 10;
+
+    public static final String RETRY_BACKOFF_MS = "hbase.client.async.batch.retry.backoff.ms";
+    public static final long DEFAULT_RETRY_BACKOFF_MS = 100;
+
+    public static final String RETRY_MAX_BACKOFF_MS = "hbase.client.async.batch.retry.max.backoff.ms";
+    public static final long DEFAULT_RETRY_MAX_BACKOFF_MS = 10000;
+
+    public static final String BACKPRESSURE_WAIT_MS = "hbase.client.async.batch.backpressure.wait.ms";
+    public static final long DEFAULT_BACKPRESSURE_WAIT_MS = 100;
+
+    private final long memoryLimit;
+    private final int batchSize;
+    private final long batchBytes;
+    private final long lingerMillis;
+    private final int writerThreads;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final long retryMaxBackoffMillis;
+    private final long backpressureWaitMillis;
+
+    public BatchAsyncWriteConfig(Configuration configuration) {
+        if (configuration == null) {
+            throw new NullPointerException("configuration must not be null");
+        }
+        this.memoryLimit = positive(configuration.getLong(MEMORY_LIMIT, DEFAULT_MEMORY_LIMIT), DEFAULT_MEMORY_LIMIT);
+        this.batchSize = (int) positive(configuration.getInt(BATCH_SIZE, DEFAULT_BATCH_SIZE), DEFAULT_BATCH_SIZE);
+        this.batchBytes = positive(configuration.getLong(BATCH_BYTES, DEFAULT_BATCH_BYTES), DEFAULT_BATCH_BYTES);
+        this.lingerMillis = positive(configuration.getLong(LINGER_MS, DEFAULT_LINGER_MS), DEFAULT_LINGER_MS);
+        this.writerThreads = (int) positive(configuration.getInt(WRITER_THREADS, DEFAULT_WRITER_THREADS), DEFAULT_WRITER_THREADS);
+        this.maxRetries = Math.max(0, configuration.getInt(MAX_RETRIES, DEFAULT_MAX_RETRIES));
+        this.retryBackoffMillis = positive(configuration.getLong(RETRY_BACKOFF_MS, DEFAULT_RETRY_BACKOFF_MS), DEFAULT_RETRY_BACKOFF_MS);
+        this.retryMaxBackoffMillis = Math.max(retryBackoffMillis, configuration.getLong(RETRY_MAX_BACKOFF_MS, DEFAULT_RETRY_MAX_BACKOFF_MS));
+        this.backpressureWaitMillis = Math.max(0, configuration.getLong(BACKPRESSURE_WAIT_MS, DEFAULT_BACKPRESSURE_WAIT_MS));
+    }
+
+    private static long positive(long value, long defaultValue) {
+        if (value <= 0) {
+            return defaultValue;
+        }
+        return value;
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getBatchBytes() {
+        return batchBytes;
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public int getWriterThreads() {
+        return writerThreads;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+
+    public long getRetryMaxBackoffMillis() {
+        return retryMaxBackoffMillis;
+    }
+
+    public long getBackpressureWaitMillis() {
+        return backpressureWaitMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchAsyncWriteConfig{" +
+                "memoryLimit=" + memoryLimit +
+                ", batchSize=" + batchSize +
+                ", batchBytes=" + batchBytes +
+                ", lingerMillis=" + lingerMillis +
+                ", writerThreads=" + writerThreads +
+                ", maxRetries=" + maxRetries +
+                ", retryBackoffMillis=" + retryBackoffMillis +
+                ", retryMaxBackoffMillis=" + retryMaxBackoffMillis +
+                ", backpressureWaitMillis=" + backpressureWaitMillis +
+                '}';
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.batch;
+
+import com.navercorp.pinpoint.common.hbase.HBaseAsyncOperation;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Async put operation that batches puts per table and writes them with {@link Table#put(List)}.
+ * <ul>
+ *     <li>a batch is written when it reaches batchSize puts or batchBytes, or when its first put is older than the linger time</li>
+ *     <li>every buffered, in-flight and spilled put counts against the memory budget</li>
+ *     <li>failed puts are spilled and retried with exponential backoff, and dropped after maxRetries</li>
+ *     <li>when the budget is full, put blocks the caller for up to backpressureWait and then rejects.
+ *     The dao writes rejected puts synchronously, so the receiver dispatch slows down instead of losing data</li>
+ * </ul>
+ * The ...ForEachRegionServer statistics are keyed by table name, because the writer does not track region servers.
+ */
+public class BatchHBaseAsyncTemplate implements HBaseAsyncOperation, Closeable {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 3000;
+
+    private final Connection connection;
+    private final BatchAsyncWriteConfig config;
+    private final BatchWriteListener listener;
+
+    private final MemoryBudget memoryBudget;
+    private final ConcurrentMap<TableName, TableWriteBuffer> tableBuffers = new ConcurrentHashMap<>();
+    private final DelayQueue<WriteBatch> spillQueue = new DelayQueue<>();
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService writer;
+    private final long lingerNanos;
+
+    private final LongAdder opsCount = new LongAdder();
+    private final LongAdder opsRejectedCount = new LongAdder();
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder writeCount = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+
+    // puts hold the read lock while they add to a table buffer, close() takes the write lock to stop them before draining
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed = false;
+
+    public BatchHBaseAsyncTemplate(Connection connection, BatchAsyncWriteConfig config) {
+        this(connection, config, BatchWriteListener.EMPTY);
+    }
+
+    public BatchHBaseAsyncTemplate(Connection connection, BatchAsyncWriteConfig config, BatchWriteListener listener) {
+        if (connection == null) {
+            throw new NullPointerException("connection must not be null");
+        }
+        if (config == null) {
+            throw new NullPointerException("config must not be null");
+        }
+        if (listener == null) {
+            throw new NullPointerException("listener must not be null");
+        }
+        this.connection = connection;
+        this.config = config;
+        this.listener = listener;
+        this.memoryBudget = new MemoryBudget(config.getMemoryLimit());
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(config.getLingerMillis());
+
+        this.writer = Executors.newFixedThreadPool(config.getWriterThreads(), new PinpointThreadFactory("Pinpoint-HBaseBatchWriter", true));
+        this.timer = Executors.newSingleThreadScheduledExecutor(new PinpointThreadFactory("Pinpoint-HBaseBatchWriter-Timer", true));
+        final long tickMillis = Math.max(1, config.getLingerMillis() / 2);
+        this.timer.scheduleWithFixedDelay(this::onTick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        logger.info("BatchHBaseAsyncTemplate started. {}", config);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean put(TableName tableName, Put put) {
+        opsCount.increment();
+        if (!enqueue(tableName, put, config.getBackpressureWaitMillis())) {
+            reject(tableName, 1);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public List<Put> put(TableName tableName, List<Put> puts) {
+        opsCount.add(puts.size());
+        List<Put> rejectedPuts = null;
+        // wait for the budget once per call
+        long waitMillis = config.getBackpressureWaitMillis();
+        for (Put put : puts) {
+            if (rejectedPuts == null && enqueue(tableName, put, waitMillis)) {
+                continue;
+            }
+            if (rejectedPuts == null) {
+                rejectedPuts = new ArrayList<>();
+                waitMillis = 0;
+            }
+            rejectedPuts.add(put);
+        }
+        if (rejectedPuts == null) {
+            return Collections.emptyList();
+        }
+        reject(tableName, rejectedPuts.size());
+        return rejectedPuts;
+    }
+
+    private boolean enqueue(TableName tableName, Put put, long waitMillis) {
+        if (closed) {
+            return false;
+        }
+        final long size = put.heapSize();
+        if (!memoryBudget.acquire(size, waitMillis)) {
+            return false;
+        }
+        final Lock lock = closeLock.readLock();
+        lock.lock();
+        try {
+            if (closed) {
+                memoryBudget.release(size);
+                return false;
+            }
+            final TableWriteBuffer tableBuffer = getTableBuffer(tableName);
+            pendingCount.incrementAndGet();
+            tableBuffer.pendingCount.incrementAndGet();
+
+            final WriteBatch fullBatch = tableBuffer.add(put, size, System.nanoTime());
+            if (fullBatch != null) {
+                submit(fullBatch);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reject(TableName tableName, int rejectedSize) {
+        opsRejectedCount.add(rejectedSize);
+        listener.onReject(tableName, rejectedSize);
+    }
+
+    private TableWriteBuffer getTableBuffer(TableName tableName) {
+        final TableWriteBuffer tableBuffer = tableBuffers.get(tableName);
+        if (tableBuffer != null) {
+            return tableBuffer;
+        }
+        final TableWriteBuffer newBuffer = new TableWriteBuffer(tableName, config.getBatchSize(), config.getBatchBytes());
+        final TableWriteBuffer exist = tableBuffers.putIfAbsent(tableName, newBuffer);
+        if (exist != null) {
+            return exist;
+        }
+        return newBuffer;
+    }
+
+    private void onTick() {
+        try {
+            final long currentNanos = System.nanoTime();
+            for (TableWriteBuffer tableBuffer : tableBuffers.values()) {
+                final WriteBatch batch = tableBuffer.drainIfExpired(currentNanos, lingerNanos);
+                if (batch != null) {
+                    submit(batch);
+                }
+            }
+            WriteBatch retryBatch;
+            while ((retryBatch = spillQueue.poll()) != null) {
+                submit(retryBatch);
+            }
+        } catch (Throwable th) {
+            logger.warn("BatchHBaseAsyncTemplate tick failed. Caused:{}", th.getMessage(), th);
+        }
+    }
+
+    private void submit(final WriteBatch batch) {
+        try {
+            writer.execute(() -> write(batch));
+        } catch (RejectedExecutionException e) {
+            logger.warn("writer is shut down. drop {}", batch);
+            drop(batch);
+        }
+    }
+
+    void write(WriteBatch batch) {
+        final long startTime = System.currentTimeMillis();
+        try (Table table = connection.getTable(batch.getTableName())) {
+            table.put(batch.getPuts());
+            written(batch, batch.size(), batch.getBytes(), startTime);
+        } catch (RetriesExhaustedWithDetailsException e) {
+            // rows not listed in the exception have been written
+            final List<Put> failedPuts = new ArrayList<>(e.getNumExceptions());
+            long failedBytes = 0;
+            for (int i = 0; i < e.getNumExceptions(); i++) {
+                final Row row = e.getRow(i);
+                if (row instanceof Put) {
+                    final Put failedPut = (Put) row;
+                    failedPuts.add(failedPut);
+                    failedBytes += failedPut.heapSize();
+                }
+            }
+            final int writtenSize = batch.size() - failedPuts.size();
+            if (writtenSize > 0) {
+                written(batch, writtenSize, batch.getBytes() - failedBytes, startTime);
+            }
+            if (!failedPuts.isEmpty()) {
+                retry(batch.subBatch(failedPuts, failedBytes), e);
+            }
+        } catch (Exception e) {
+            retry(batch, e);
+        }
+    }
+
+    private void written(WriteBatch batch, int writtenSize, long writtenBytes, long startTime) {
+        final long latency = System.currentTimeMillis() - startTime;
+        memoryBudget.release(writtenBytes);
+        pendingCount.addAndGet(-writtenSize);
+        writeCount.increment();
+        totalLatencyMillis.add(latency);
+
+        final TableWriteBuffer tableBuffer = getTableBuffer(batch.getTableName());
+        tableBuffer.pendingCount.addAndGet(-writtenSize);
+        tableBuffer.writeCount.incrementAndGet();
+        tableBuffer.totalLatencyMillis.addAndGet(latency);
+
+        listener.onWrite(batch.getTableName(), writtenSize, latency);
+    }
+
+    private void retry(WriteBatch failedBatch, Exception cause) {
+        final int attempt = failedBatch.getAttempt() + 1;
+        if (closed || attempt > config.getMaxRetries()) {
+            logger.warn("drop {} after {} attempts. Caused:{}", failedBatch, attempt, cause.getMessage(), cause);
+            drop(failedBatch);
+            return;
+        }
+        final long backoffMillis = backoffMillis(attempt);
+        if (logger.isInfoEnabled()) {
+            logger.info("retry {} in {}ms. Caused:{}", failedBatch, backoffMillis, cause.getMessage());
+        }
+        final long retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+        spillQueue.offer(failedBatch.nextAttempt(retryAtNanos));
+        listener.onRetry(failedBatch.getTableName(), failedBatch.size(), attempt);
+    }
+
+    long backoffMillis(int attempt) {
+        final int shift = Math.min(attempt - 1, 30);
+        final long backoff = config.getRetryBackoffMillis() << shift;
+        if (backoff <= 0 || backoff > config.getRetryMaxBackoffMillis()) {
+            return config.getRetryMaxBackoffMillis();
+        }
+        return backoff;
+    }
+
+    private void drop(WriteBatch batch) {
+        memoryBudget.release(batch.getBytes());
+        pendingCount.addAndGet(-batch.size());
+        failedCount.add(batch.size());
+
+        final TableWriteBuffer tableBuffer = getTableBuffer(batch.getTableName());
+        tableBuffer.pendingCount.addAndGet(-batch.size());
+        tableBuffer.failedCount.addAndGet(batch.size());
+
+        listener.onDrop(batch.getTableName(), batch.size());
+    }
+
+    @Override
+    public Long getOpsCount() {
+        return opsCount.sum();
+    }
+
+    @Override
+    public Long getOpsRejectedCount() {
+        return opsRejectedCount.sum();
+    }
+
+    @Override
+    public Long getCurrentOpsCount() {
+        return pendingCount.get();
+    }
+
+    @Override
+    public Long getOpsFailedCount() {
+        return failedCount.sum();
+    }
+
+    @Override
+    public Long getOpsAverageLatency() {
+        final long count = writeCount.sum();
+        if (count == 0) {
+            return 0L;
+        }
+        return totalLatencyMillis.sum() / count;
+    }
+
+    @Override
+    public Map<String, Long> getCurrentOpsCountForEachRegionServer() {
+        final Map<String, Long> result = new HashMap<>();
+        for (TableWriteBuffer tableBuffer : tableBuffers.values()) {
+            result.put(tableBuffer.getTableName().getNameAsString(), tableBuffer.pendingCount.get());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getOpsFailedCountForEachRegionServer() {
+        final Map<String, Long> result = new HashMap<>();
+        for (TableWriteBuffer tableBuffer : tableBuffers.values()) {
+            result.put(tableBuffer.getTableName().getNameAsString(), tableBuffer.failedCount.get());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getOpsAverageLatencyForEachRegionServer() {
+        final Map<String, Long> result = new HashMap<>();
+        for (TableWriteBuffer tableBuffer : tableBuffers.values()) {
+            result.put(tableBuffer.getTableName().getNameAsString(), tableBuffer.getAverageLatencyMillis());
+        }
+        return result;
+    }
+
+    public long getBufferedBytes() {
+        return memoryBudget.getUsed();
+    }
+
+    public int getSpilledBatchCount() {
+        return spillQueue.size();
+    }
+
+    /**
+     * rejects new puts, writes the remaining puts once without retry, and stops the writer threads.
+     */
+    @Override
+    public void close() {
+        final Lock lock = closeLock.writeLock();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        timer.shutdown();
+
+        for (TableWriteBuffer tableBuffer : tableBuffers.values()) {
+            final WriteBatch batch = tableBuffer.drain();
+            if (batch != null) {
+                submit(batch);
+            }
+        }
+        final List<WriteBatch> spilled = new ArrayList<>();
+        spillQueue.drainTo(spilled);
+        // drainTo of DelayQueue only moves the expired ones
+        WriteBatch remain;
+        while ((remain = spillQueue.peek()) != null) {
+            if (spillQueue.remove(remain)) {
+                spilled.add(remain);
+            }
+        }
+        for (WriteBatch batch : spilled) {
+            submit(batch);
+        }
+
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                logger.warn("BatchHBaseAsyncTemplate close timeout. pending:{}", pendingCount.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // a write that failed while closing may have been spilled after the drain above
+        while ((remain = spillQueue.peek()) != null) {
+            if (spillQueue.remove(remain)) {
+                logger.warn("writer is shut down. drop {}", remain);
+                drop(remain);
+            }
+        }
+        logger.info("BatchHBaseAsyncTemplate closed. ops:{}, rejected:{}, failed:{}", getOpsCount(), getOpsRejectedCount(), getOpsFailedCount());
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.batch;
+
+import org.apache.hadoop.hbase.TableName;
+
+/**
+ * Receives the events of {@link BatchHBaseAsyncTemplate}. Called from the writer threads, so implementations must be thread safe and fast.
+ */
+public interface BatchWriteListener {
+
+    BatchWriteListener EMPTY = new BatchWriteListener() {
+        @Override
+        public void onWrite(TableName tableName, int batchSize, long latencyMillis) {
+        }
+
+        @Override
+        public void onReject(TableName tableName, int rejectedSize) {
+        }
+
+        @Override
+        public void onRetry(TableName tableName, int batchSize, int attempt) {
+        }
+
+        @Override
+        public void onDrop(TableName tableName, int batchSize) {
+        }
+    };
+
+    void onWrite(TableName tableName, int batchSize, long latencyMillis);
+
+    /**
+     * puts refused because the memory budget stayed full. The caller writes them synchronously.
+     */
+    void onReject(TableName tableName, int rejectedSize);
+
+    void onRetry(TableName tableName, int batchSize, int attempt);
+
+    /**
+     * puts lost after the last retry.
+     */
+    void onDrop(TableName tableName, int batchSize);
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.batch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bytes of puts held by the writer, from the async put until the write succeeds or is given up.
+ */
+class MemoryBudget {
+
+    private final long limit;
+    private final AtomicLong used = new AtomicLong();
+
+    private final Object lock = new Object();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    MemoryBudget(long limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Invalid limit " + limit);
+        }
+        this.limit = limit;
+    }
+
+    boolean tryAcquire(long bytes) {
+        while (true) {
+            final long current = used.get();
+            final long next = current + bytes;
+            if (next > limit) {
+                return false;
+            }
+            if (used.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * blocks the caller up to waitMillis while the budget is full.
+     */
+    boolean acquire(long bytes, long waitMillis) {
+        if (tryAcquire(bytes)) {
+            return true;
+        }
+        if (waitMillis <= 0 || bytes > limit) {
+            return false;
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        waiters.incrementAndGet();
+        try {
+            synchronized (lock) {
+                while (!tryAcquire(bytes)) {
+                    final long remainNanos = deadline - System.nanoTime();
+                    if (remainNanos <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(lock, remainNanos);
+                }
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    void release(long bytes) {
+        used.addAndGet(-bytes);
+        if (waiters.get() > 0) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    long getUsed() {
+        return used.get();
+    }
+
+    long getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.batch;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the puts of one table until the batch is full or older than the linger time.
+ */
+class TableWriteBuffer {
+
+    private final TableName tableName;
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+
+    private List<Put> puts;
+    private long bytes;
+    private long firstPutNanos;
+
+    // statistics of the table
+    final AtomicLong pendingCount = new AtomicLong();
+    final AtomicLong failedCount = new AtomicLong();
+    final AtomicLong writeCount = new AtomicLong();
+    final AtomicLong totalLatencyMillis = new AtomicLong();
+
+    TableWriteBuffer(TableName tableName, int maxBatchSize, long maxBatchBytes) {
+        this.tableName = tableName;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    /**
+     * @return the full batch to write, null if the batch can take more puts
+     */
+    synchronized WriteBatch add(Put put, long size, long currentNanos) {
+        if (puts == null) {
+            puts = new ArrayList<>(maxBatchSize);
+            firstPutNanos = currentNanos;
+        }
+        puts.add(put);
+        bytes += size;
+        if (puts.size() >= maxBatchSize || bytes >= maxBatchBytes) {
+            return drain();
+        }
+        return null;
+    }
+
+    synchronized WriteBatch drainIfExpired(long currentNanos, long lingerNanos) {
+        if (puts == null) {
+            return null;
+        }
+        if (currentNanos - firstPutNanos < lingerNanos) {
+            return null;
+        }
+        return drain();
+    }
+
+    synchronized WriteBatch drain() {
+        final List<Put> copy = this.puts;
+        if (copy == null) {
+            return null;
+        }
+        final WriteBatch batch = new WriteBatch(tableName, copy, bytes);
+        this.puts = null;
+        this.bytes = 0;
+        return batch;
+    }
+
+    long getAverageLatencyMillis() {
+        final long count = writeCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        return totalLatencyMillis.get() / count;
+    }
+
+    TableName getTableName() {
+        return tableName;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.batch;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts of one table written in a single call. A failed batch waits in the spill queue until retryAtNanos.
+ */
+class WriteBatch implements Delayed {
+
+    private final TableName tableName;
+    private final List<Put> puts;
+    private final long bytes;
+    private final int attempt;
+    private final long retryAtNanos;
+
+    WriteBatch(TableName tableName, List<Put> puts, long bytes) {
+        this(tableName, puts, bytes, 0, 0);
+    }
+
+    WriteBatch(TableName tableName, List<Put> puts, long bytes, int attempt, long retryAtNanos) {
+        this.tableName = tableName;
+        this.puts = puts;
+        this.bytes = bytes;
+        this.attempt = attempt;
+        this.retryAtNanos = retryAtNanos;
+    }
+
+    WriteBatch subBatch(List<Put> puts, long bytes) {
+        return new WriteBatch(tableName, puts, bytes, attempt, retryAtNanos);
+    }
+
+    WriteBatch nextAttempt(long retryAtNanos) {
+        return new WriteBatch(tableName, puts, bytes, attempt + 1, retryAtNanos);
+    }
+
+    TableName getTableName() {
+        return tableName;
+    }
+
+    List<Put> getPuts() {
+        return puts;
+    }
+
+    int size() {
+        return puts.size();
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    int getAttempt() {
+        return attempt;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(retryAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+        final long diff = this.retryAtNanos - ((WriteBatch) o).retryAtNanos;
+        return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "WriteBatch{" +
+                "tableName=" + tableName +
+                ", size=" + puts.size() +
+                ", bytes=" + bytes +
+                ", attempt=" + attempt +
+                '}';
+    }
+}
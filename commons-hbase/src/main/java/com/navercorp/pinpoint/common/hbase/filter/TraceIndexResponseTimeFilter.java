@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase.filter;
+
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.exceptions.DeserializationException;
+import org.apache.hadoop.hbase.filter.FilterBase;
+
+import java.io.IOException;
+
+/**
+ * Region server side filter for the ApplicationTraceIndex table which only keeps the transactions whose elapsed time
+ * falls within the given response time range, so that narrow scatter chart selections do not transfer the whole time range.
+ * The elapsed time is the first variable-length int of the cell value.
+ * <p>
+ * pinpoint-commons and pinpoint-commons-hbase must be on the region servers' classpath to use this filter.
+ */
+public class TraceIndexResponseTimeFilter extends FilterBase {
+
+    private static final int SERIALIZED_SIZE = BytesUtils.INT_BYTE_LENGTH * 2;
+
+    private final int responseTimeFrom;
+    private final int responseTimeTo;
+
+    public TraceIndexResponseTimeFilter(int responseTimeFrom, int responseTimeTo) {
+        this.responseTimeFrom = responseTimeFrom;
+        this.responseTimeTo = responseTimeTo;
+    }
+
+    public int getResponseTimeFrom() {
+        return responseTimeFrom;
+    }
+
+    public int getResponseTimeTo() {
+        return responseTimeTo;
+    }
+
+    @Override
+    public ReturnCode filterKeyValue(Cell cell) throws IOException {
+        if (cell.getValueLength() == 0) {
+            return ReturnCode.SKIP;
+        }
+        final int elapsed = BytesUtils.bytesToVar32(cell.getValueArray(), cell.getValueOffset());
+        if (elapsed < responseTimeFrom || elapsed > responseTimeTo) {
+            return ReturnCode.SKIP;
+        }
+        return ReturnCode.INCLUDE;
+    }
+
+    @Override
+    public byte[] toByteArray() throws IOException {
+        final byte[] bytes = new byte[SERIALIZED_SIZE];
+        int offset = BytesUtils.writeInt(responseTimeFrom, bytes, 0);
+        BytesUtils.writeInt(responseTimeTo, bytes, offset);
+        return bytes;
+    }
+
+    /**
+     * invoked reflectively by the region servers to deserialize the filter
+     */
+    public static TraceIndexResponseTimeFilter parseFrom(final byte[] bytes) throws DeserializationException {
+        if (bytes == null || bytes.length != SERIALIZED_SIZE) {
+            throw new DeserializationException("invalid serialized filter");
+        }
+        final int responseTimeFrom = BytesUtils.bytesToInt(bytes, 0);
+        final int responseTimeTo = BytesUtils.bytesToInt(bytes, BytesUtils.INT_BYTE_LENGTH);
+        return new TraceIndexResponseTimeFilter(responseTimeFrom, responseTimeTo);
+    }
+
+    @Override
+    public String toString() {
+        return "TraceIndexResponseTimeFilter{" +
+                "responseTimeFrom=" + responseTimeFrom +
+                ", responseTimeTo=" + responseTimeTo +
+                '}';
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.batch;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BatchHBaseAsyncTemplateTest {
+
+    private static final TableName TABLE_A = TableName.valueOf("tableA");
+    private static final TableName TABLE_B = TableName.valueOf("tableB");
+
+    private static final long LONG_LINGER_MS = 60000;
+
+    private Connection connection;
+    private Table tableA;
+    private Table tableB;
+    private final List<List<Put>> tableAWrites = Collections.synchronizedList(new ArrayList<List<Put>>());
+    private final List<List<Put>> tableBWrites = Collections.synchronizedList(new ArrayList<List<Put>>());
+    private final CountingListener listener = new CountingListener();
+
+    private BatchHBaseAsyncTemplate template;
+
+    @Before
+    public void setUp() throws IOException {
+        connection = mock(Connection.class);
+        tableA = mock(Table.class);
+        tableB = mock(Table.class);
+        when(connection.getTable(TABLE_A)).thenReturn(tableA);
+        when(connection.getTable(TABLE_B)).thenReturn(tableB);
+        doAnswer(record(tableAWrites)).when(tableA).put(anyList());
+        doAnswer(record(tableBWrites)).when(tableB).put(anyList());
+    }
+
+    @After
+    public void tearDown() {
+        if (template != null) {
+            template.close();
+        }
+    }
+
+    @Test
+    public void batchPerTable() throws Exception {
+        template = newTemplate(config(2, LONG_LINGER_MS, 3));
+
+        Assert.assertTrue(template.put(TABLE_A, newPut(1)));
+        Assert.assertTrue(template.put(TABLE_B, newPut(2)));
+        Assert.assertTrue(template.put(TABLE_A, newPut(3)));
+
+        // table A reached the batch size, table B waits for the linger time
+        awaitWrites(tableAWrites, 1);
+        Assert.assertEquals(Arrays.asList("1", "3"), rows(tableAWrites.get(0)));
+        awaitPending(1);
+        Assert.assertTrue(tableBWrites.isEmpty());
+    }
+
+    @Test
+    public void lingerExpired() throws Exception {
+        template = newTemplate(config(100, 10, 3));
+
+        Assert.assertTrue(template.put(TABLE_B, newPut(1)));
+
+        awaitWrites(tableBWrites, 1);
+        Assert.assertEquals(Collections.singletonList("1"), rows(tableBWrites.get(0)));
+    }
+
+    @Test
+    public void partialFailure_retryFailedPuts() throws Exception {
+        final Put failedPut = newPut(2);
+        final AtomicInteger attempt = new AtomicInteger();
+        doAnswer(invocation -> {
+            List<Put> puts = invocation.getArgument(0);
+            tableAWrites.add(new ArrayList<>(puts));
+            if (attempt.getAndIncrement() == 0) {
+                throw new RetriesExhaustedWithDetailsException(Collections.<Throwable>singletonList(new IOException("test")),
+                        Collections.<Row>singletonList(failedPut), Collections.singletonList("localhost:16020"));
+            }
+            return null;
+        }).when(tableA).put(anyList());
+        template = newTemplate(config(3, 10, 3));
+
+        template.put(TABLE_A, Arrays.asList(newPut(1), failedPut, newPut(3)));
+
+        awaitWrites(tableAWrites, 2);
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), rows(tableAWrites.get(0)));
+        // only the failed put is spilled and written again
+        Assert.assertEquals(Collections.singletonList("2"), rows(tableAWrites.get(1)));
+        Assert.assertEquals(1, listener.retryCount.get());
+        awaitPending(0);
+        Assert.assertEquals(0, template.getOpsFailedCount().longValue());
+        Assert.assertEquals(0, template.getBufferedBytes());
+    }
+
+    @Test
+    public void backoff() {
+        template = newTemplate(config(100, LONG_LINGER_MS, 10, 100, 1000, 64 * 1024 * 1024));
+
+        Assert.assertEquals(100, template.backoffMillis(1));
+        Assert.assertEquals(200, template.backoffMillis(2));
+        Assert.assertEquals(800, template.backoffMillis(4));
+        Assert.assertEquals(1000, template.backoffMillis(5));
+        Assert.assertEquals(1000, template.backoffMillis(100));
+    }
+
+    @Test
+    public void dropAfterMaxRetries() throws Exception {
+        doAnswer(invocation -> {
+            List<Put> puts = invocation.getArgument(0);
+            tableAWrites.add(new ArrayList<>(puts));
+            throw new IOException("test");
+        }).when(tableA).put(anyList());
+        template = newTemplate(config(2, 10, 2));
+
+        template.put(TABLE_A, Arrays.asList(newPut(1), newPut(2)));
+
+        awaitWrites(tableAWrites, 3);
+        awaitPending(0);
+        Assert.assertEquals(2, listener.retryCount.get());
+        Assert.assertEquals(2, listener.droppedCount.get());
+        Assert.assertEquals(2, template.getOpsFailedCount().longValue());
+        Assert.assertEquals(0, template.getBufferedBytes());
+        Assert.assertEquals(0, template.getSpilledBatchCount());
+    }
+
+    @Test
+    public void rejectOverMemoryBudget() {
+        final long putSize = newPut(1).heapSize();
+        template = newTemplate(config(100, LONG_LINGER_MS, 3, 100, 1000, putSize * 2));
+
+        Assert.assertTrue(template.put(TABLE_A, newPut(1)));
+        Assert.assertTrue(template.put(TABLE_A, newPut(2)));
+        Assert.assertFalse(template.put(TABLE_A, newPut(3)));
+
+        List<Put> rejected = template.put(TABLE_B, Arrays.asList(newPut(4), newPut(5)));
+        Assert.assertEquals(Arrays.asList("4", "5"), rows(rejected));
+
+        Assert.assertEquals(3, template.getOpsRejectedCount().longValue());
+        Assert.assertEquals(3, listener.rejectedCount.get());
+        Assert.assertEquals(putSize * 2, template.getBufferedBytes());
+    }
+
+    @Test
+    public void close_drainBuffers() throws Exception {
+        template = newTemplate(config(100, LONG_LINGER_MS, 3));
+
+        template.put(TABLE_A, Arrays.asList(newPut(1), newPut(2)));
+        template.put(TABLE_B, newPut(3));
+        template.close();
+
+        Assert.assertEquals(1, tableAWrites.size());
+        Assert.assertEquals(Arrays.asList("1", "2"), rows(tableAWrites.get(0)));
+        Assert.assertEquals(1, tableBWrites.size());
+        Assert.assertEquals(0, template.getCurrentOpsCount().longValue());
+        Assert.assertEquals(0, template.getBufferedBytes());
+
+        Assert.assertFalse(template.put(TABLE_A, newPut(4)));
+    }
+
+    @Test
+    public void close_concurrentPut() throws Exception {
+        template = newTemplate(config(7, LONG_LINGER_MS, 3));
+
+        final int threadCount = 4;
+        final CountDownLatch started = new CountDownLatch(threadCount);
+        final AtomicLong accepted = new AtomicLong();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            final int threadId = i;
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int j = 0; j < 10000; j++) {
+                    if (template.put(TABLE_A, newPut(threadId * 100000 + j))) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        started.await();
+        template.close();
+        for (Thread thread : threads) {
+            thread.join(10000);
+        }
+
+        // every accepted put has been written, none is left behind in a table buffer
+        int written = 0;
+        synchronized (tableAWrites) {
+            for (List<Put> puts : tableAWrites) {
+                written += puts.size();
+            }
+        }
+        Assert.assertEquals(accepted.get(), written);
+        Assert.assertEquals(0, template.getCurrentOpsCount().longValue());
+        Assert.assertEquals(0, template.getBufferedBytes());
+    }
+
+    private BatchHBaseAsyncTemplate newTemplate(BatchAsyncWriteConfig config) {
+        return new BatchHBaseAsyncTemplate(connection, config, listener);
+    }
+
+    private BatchAsyncWriteConfig config(int batchSize, long lingerMillis, int maxRetries) {
+        return config(batchSize, lingerMillis, maxRetries, 10, 100, 64 * 1024 * 1024);
+    }
+
+    private BatchAsyncWriteConfig config(int batchSize, long lingerMillis, int maxRetries, long backoffMillis, long maxBackoffMillis, long memoryLimit) {
+        Configuration configuration = new Configuration(false);
+        configuration.setInt(BatchAsyncWriteConfig.BATCH_SIZE, batchSize);
+        configuration.setLong(BatchAsyncWriteConfig.LINGER_MS, lingerMillis);
+        configuration.setInt(BatchAsyncWriteConfig.MAX_RETRIES, maxRetries);
+        configuration.setLong(BatchAsyncWriteConfig.RETRY_BACKOFF_MS, backoffMillis);
+        configuration.setLong(BatchAsyncWriteConfig.RETRY_MAX_BACKOFF_MS, maxBackoffMillis);
+        configuration.setLong(BatchAsyncWriteConfig.MEMORY_LIMIT, memoryLimit);
+        configuration.setLong(BatchAsyncWriteConfig.BACKPRESSURE_WAIT_MS, 0);
+        configuration.setInt(BatchAsyncWriteConfig.WRITER_THREADS, 2);
+        return new BatchAsyncWriteConfig(configuration);
+    }
+
+    private static Answer<Void> record(final List<List<Put>> writes) {
+        return invocation -> {
+            List<Put> puts = invocation.getArgument(0);
+            writes.add(new ArrayList<>(puts));
+            return null;
+        };
+    }
+
+    private static Put newPut(int row) {
+        Put put = new Put(Bytes.toBytes(String.valueOf(row)));
+        put.addColumn(Bytes.toBytes("f"), Bytes.toBytes("q"), Bytes.toBytes("value"));
+        return put;
+    }
+
+    private static List<String> rows(List<Put> puts) {
+        List<String> rows = new ArrayList<>(puts.size());
+        for (Put put : puts) {
+            rows.add(Bytes.toString(put.getRow()));
+        }
+        return rows;
+    }
+
+    private static void awaitWrites(List<List<Put>> writes, int count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writes.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(count, writes.size());
+    }
+
+    private void awaitPending(long count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (template.getCurrentOpsCount() != count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(count, template.getCurrentOpsCount().longValue());
+    }
+
+    private static class CountingListener implements BatchWriteListener {
+        private final AtomicInteger rejectedCount = new AtomicInteger();
+        private final AtomicInteger retryCount = new AtomicInteger();
+        private final AtomicInteger droppedCount = new AtomicInteger();
+
+        @Override
+        public void onWrite(TableName tableName, int batchSize, long latencyMillis) {
+        }
+
+        @Override
+        public void onReject(TableName tableName, int rejectedSize) {
+            rejectedCount.addAndGet(rejectedSize);
+        }
+
+        @Override
+        public void onRetry(TableName tableName, int batchSize, int attempt) {
+            retryCount.incrementAndGet();
+        }
+
+        @Override
+        public void onDrop(TableName tableName, int batchSize) {
+            droppedCount.addAndGet(batchSize);
+        }
+    }
+}
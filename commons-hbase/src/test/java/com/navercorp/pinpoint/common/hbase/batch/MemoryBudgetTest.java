@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.batch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class MemoryBudgetTest {
+
+    @Test
+    public void tryAcquire() {
+        MemoryBudget budget = new MemoryBudget(100);
+        Assert.assertTrue(budget.tryAcquire(60));
+        Assert.assertFalse(budget.tryAcquire(50));
+        Assert.assertTrue(budget.tryAcquire(40));
+        Assert.assertEquals(100, budget.getUsed());
+
+        budget.release(60);
+        Assert.assertEquals(40, budget.getUsed());
+        Assert.assertTrue(budget.tryAcquire(50));
+    }
+
+    @Test
+    public void acquire_timeout() {
+        MemoryBudget budget = new MemoryBudget(100);
+        Assert.assertTrue(budget.acquire(100, 10));
+
+        long start = System.nanoTime();
+        Assert.assertFalse(budget.acquire(1, 20));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void acquire_largerThanLimit() {
+        MemoryBudget budget = new MemoryBudget(100);
+        Assert.assertFalse(budget.acquire(101, 1000));
+        Assert.assertEquals(0, budget.getUsed());
+    }
+
+    @Test
+    public void acquire_wakeUpOnRelease() throws InterruptedException {
+        final MemoryBudget budget = new MemoryBudget(100);
+        Assert.assertTrue(budget.tryAcquire(100));
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean acquired = new AtomicBoolean();
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                acquired.set(budget.acquire(30, 5000));
+            }
+        });
+        waiter.start();
+        started.await();
+
+        budget.release(50);
+        waiter.join(5000);
+
+        Assert.assertTrue(acquired.get());
+        Assert.assertEquals(80, budget.getUsed());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLimit() {
+        new MemoryBudget(0);
+    }
+}
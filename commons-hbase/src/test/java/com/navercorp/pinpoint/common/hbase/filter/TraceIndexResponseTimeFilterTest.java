@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase.filter;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TraceIndexResponseTimeFilterTest {
+
+    @Test
+    public void filterKeyValue() throws Exception {
+        TraceIndexResponseTimeFilter filter = new TraceIndexResponseTimeFilter(100, 1000);
+
+        Assert.assertEquals(Filter.ReturnCode.SKIP, filter.filterKeyValue(createCell(99)));
+        Assert.assertEquals(Filter.ReturnCode.INCLUDE, filter.filterKeyValue(createCell(100)));
+        Assert.assertEquals(Filter.ReturnCode.INCLUDE, filter.filterKeyValue(createCell(500)));
+        Assert.assertEquals(Filter.ReturnCode.INCLUDE, filter.filterKeyValue(createCell(1000)));
+        Assert.assertEquals(Filter.ReturnCode.SKIP, filter.filterKeyValue(createCell(1001)));
+        Assert.assertEquals(Filter.ReturnCode.SKIP, filter.filterKeyValue(createCell(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void serialize() throws Exception {
+        TraceIndexResponseTimeFilter filter = new TraceIndexResponseTimeFilter(3000, 60000);
+
+        TraceIndexResponseTimeFilter parsedFilter = TraceIndexResponseTimeFilter.parseFrom(filter.toByteArray());
+
+        Assert.assertEquals(filter.getResponseTimeFrom(), parsedFilter.getResponseTimeFrom());
+        Assert.assertEquals(filter.getResponseTimeTo(), parsedFilter.getResponseTimeTo());
+    }
+
+    private KeyValue createCell(int elapsed) {
+        // same layout as the collector's ApplicationTraceIndex value
+        final Buffer buffer = new AutomaticBuffer(10 + 16);
+        buffer.putVInt(elapsed);
+        buffer.putSVInt(0);
+        buffer.putPrefixedString("agentId");
+        return new KeyValue(Bytes.toBytes("row"), Bytes.toBytes("I"), Bytes.toBytes("qualifier"), buffer.getBuffer());
+    }
+}
@@ -51,4 +51,10 @@ public interface AgentStatCodec<T> {
 
     }
 
+    interface ColumnDecoder {
+
+        void decodeColumns(Buffer valueBuffer, AgentStatHeaderDecoder headerDecoder, int valueSize, AgentStatColumns columns);
+
+    }
+
 }
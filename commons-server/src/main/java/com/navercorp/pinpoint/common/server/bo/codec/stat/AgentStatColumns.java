@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Column oriented view of a single encoded agent stat cell.
+ * Every column has {@link #size()} entries, index {@code i} of each column belonging to the same data point.
+ */
+public class AgentStatColumns {
+
+    private final String agentId;
+    private final long[] startTimestamps;
+    private final long[] timestamps;
+    private final Map<String, double[]> doubleColumns = new LinkedHashMap<String, double[]>();
+
+    public AgentStatColumns(String agentId, long[] startTimestamps, long[] timestamps) {
+        if (startTimestamps == null) {
+            throw new NullPointerException("startTimestamps must not be null");
+        }
+        if (timestamps == null) {
+            throw new NullPointerException("timestamps must not be null");
+        }
+        if (startTimestamps.length != timestamps.length) {
+            throw new IllegalArgumentException("startTimestamps and timestamps must have the same length");
+        }
+        this.agentId = agentId;
+        this.startTimestamps = startTimestamps;
+        this.timestamps = timestamps;
+    }
+
+    public String getAgentId() {
+        return agentId;
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public long[] getStartTimestamps() {
+        return startTimestamps;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public void addDoubleColumn(String name, double[] values) {
+        if (name == null) {
+            throw new NullPointerException("name must not be null");
+        }
+        if (values == null) {
+            throw new NullPointerException("values must not be null");
+        }
+        if (values.length != timestamps.length) {
+            throw new IllegalArgumentException("column " + name + " size mismatch. expected:" + timestamps.length + ", actual:" + values.length);
+        }
+        this.doubleColumns.put(name, values);
+    }
+
+    public double[] getDoubleColumn(String name) {
+        final double[] values = doubleColumns.get(name);
+        if (values == null) {
+            throw new IllegalArgumentException("Unknown column : " + name);
+        }
+        return values;
+    }
+
+    public Set<String> getDoubleColumnNames() {
+        return Collections.unmodifiableSet(doubleColumns.keySet());
+    }
+
+    @Override
+    public String toString() {
+        return "AgentStatColumns{" +
+                "agentId='" + agentId + '\'' +
+                ", size=" + timestamps.length +
+                ", doubleColumns=" + doubleColumns.keySet() +
+                '}';
+    }
+}
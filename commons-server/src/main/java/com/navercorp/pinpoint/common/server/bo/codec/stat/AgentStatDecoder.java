@@ -39,11 +39,16 @@ public class AgentStatDecoder<T extends AgentStatDataPoint> {
 
     public List<T> decodeValue(Buffer valueBuffer, AgentStatDecodingContext decodingContext) {
         byte version = valueBuffer.readByte();
+        return getCodec(version).decodeValues(valueBuffer, decodingContext);
+    }
+
+    protected AgentStatCodec<T> getCodec(byte version) {
         for (AgentStatCodec<T> codec : this.codecs) {
             if (version == codec.getVersion()) {
-                return codec.decodeValues(valueBuffer, decodingContext);
+                return codec;
             }
         }
         throw new IllegalArgumentException("Unknown version : " + version);
     }
+
 }
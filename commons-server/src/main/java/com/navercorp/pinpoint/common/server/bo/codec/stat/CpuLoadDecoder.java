@@ -16,6 +16,9 @@
 
 package com.navercorp.pinpoint.common.server.bo.codec.stat;
 
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.CpuLoadCodecV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -26,10 +29,40 @@ import java.util.List;
  * @author HyunGil Jeong
  */
 @Component
-public class CpuLoadDecoder extends AgentStatDecoder<CpuLoadBo> {
+public class CpuLoadDecoder extends AgentStatDecoder<CpuLoadBo> implements AgentStatColumnsDecoder {
 
     @Autowired
     public CpuLoadDecoder(List<AgentStatCodec<CpuLoadBo>> cpuLoadCodecs) {
         super(cpuLoadCodecs);
     }
+
+    @Override
+    public AgentStatColumns decodeColumns(Buffer valueBuffer, AgentStatDecodingContext decodingContext) {
+        byte version = valueBuffer.readByte();
+        AgentStatCodec<CpuLoadBo> codec = getCodec(version);
+        if (codec instanceof CpuLoadCodecV2) {
+            return ((CpuLoadCodecV2) codec).decodeColumns(valueBuffer, decodingContext);
+        }
+        // older versions have no columnar decoder
+        return toColumns(decodingContext.getAgentId(), codec.decodeValues(valueBuffer, decodingContext));
+    }
+
+    private AgentStatColumns toColumns(String agentId, List<CpuLoadBo> cpuLoadBos) {
+        final int size = cpuLoadBos.size();
+        final long[] startTimestamps = new long[size];
+        final long[] timestamps = new long[size];
+        final double[] jvmCpuLoads = new double[size];
+        final double[] systemCpuLoads = new double[size];
+        for (int i = 0; i < size; i++) {
+            CpuLoadBo cpuLoadBo = cpuLoadBos.get(i);
+            startTimestamps[i] = cpuLoadBo.getStartTimestamp();
+            timestamps[i] = cpuLoadBo.getTimestamp();
+            jvmCpuLoads[i] = cpuLoadBo.getJvmCpuLoad();
+            systemCpuLoads[i] = cpuLoadBo.getSystemCpuLoad();
+        }
+        AgentStatColumns columns = new AgentStatColumns(agentId, startTimestamps, timestamps);
+        columns.addDoubleColumn(CpuLoadCodecV2.JVM_CPU_LOAD_COLUMN, jvmCpuLoads);
+        columns.addDoubleColumn(CpuLoadCodecV2.SYSTEM_CPU_LOAD_COLUMN, systemCpuLoads);
+        return columns;
+    }
 }
@@ -65,6 +65,18 @@ public enum UnsignedLongEncodingStrategy implements EncodingStrategy<Long> {
         return this.delegate.decodeValues(buffer, numValues);
     }
 
+    /**
+     * Decodes values written by {@link #encodeValues(Buffer, List)} into a primitive array.
+     */
+    public long[] decodeLongValues(Buffer buffer, int numValues) {
+        final List<Long> decodedValues = this.delegate.decodeValues(buffer, numValues);
+        final long[] values = new long[decodedValues.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = decodedValues.get(i);
+        }
+        return values;
+    }
+
     public static UnsignedLongEncodingStrategy getFromCode(int code) {
 
         for (UnsignedLongEncodingStrategy encodingStrategy : UNSIGNED_LONG_ENCODING_STRATEGY) {
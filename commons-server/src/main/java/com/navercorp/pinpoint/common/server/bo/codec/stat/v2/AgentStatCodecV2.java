@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.common.server.bo.codec.stat.v2;
 
 import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.CodecFactory;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderDecoder;
@@ -105,5 +106,27 @@ public class AgentStatCodecV2<T extends AgentStatDataPoint> implements AgentStat
         return result;
     }
 
+    /**
+     * Decodes a value written by {@link #encodeValues(Buffer, List)} into primitive columns.
+     * Only codecs whose decoder has a columnar form expose this.
+     */
+    protected AgentStatColumns decodeColumns(Buffer valueBuffer, AgentStatDecodingContext decodingContext, ColumnDecoder columnDecoder) {
+        Assert.notNull(columnDecoder, "columnDecoder must not be null");
+        final long initialTimestamp = decodingContext.getBaseTimestamp() + decodingContext.getTimestampDelta();
+
+        int numValues = valueBuffer.readVInt();
+        final AgentStatDataPointCodec codec = codecFactory.getCodec();
+        long[] startTimestamps = codec.decodeLongValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, numValues);
+        long[] timestamps = codec.decodeTimestampArray(initialTimestamp, valueBuffer, numValues);
+
+        // decode headers
+        final byte[] header = valueBuffer.readPrefixedBytes();
+        AgentStatHeaderDecoder headerDecoder = new BitCountingHeaderDecoder(header);
+
+        AgentStatColumns columns = new AgentStatColumns(decodingContext.getAgentId(), startTimestamps, timestamps);
+        columnDecoder.decodeColumns(valueBuffer, headerDecoder, numValues, columns);
+        return columns;
+    }
+
 
 }
@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.common.server.bo.codec.stat.v2;
 
 import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.CodecFactory;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderDecoder;
@@ -26,6 +27,7 @@ import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHead
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,9 +42,19 @@ import java.util.List;
 @Component("cpuLoadCodecV2")
 public class CpuLoadCodecV2 extends AgentStatCodecV2<CpuLoadBo> {
 
+    public static final String JVM_CPU_LOAD_COLUMN = "jvmCpuLoad";
+    public static final String SYSTEM_CPU_LOAD_COLUMN = "systemCpuLoad";
+
+    private final AgentStatDataPointCodec codec;
+
     @Autowired
     public CpuLoadCodecV2(AgentStatDataPointCodec codec) {
         super(new CpuLoadCodecFactory(codec));
+        this.codec = codec;
+    }
+
+    public AgentStatColumns decodeColumns(Buffer valueBuffer, AgentStatDecodingContext decodingContext) {
+        return decodeColumns(valueBuffer, decodingContext, new CpuLoadCodecDecoder(codec));
     }
 
 
@@ -106,7 +118,7 @@ public class CpuLoadCodecV2 extends AgentStatCodecV2<CpuLoadBo> {
 
     }
 
-    public static class CpuLoadCodecDecoder implements AgentStatCodec.CodecDecoder<CpuLoadBo> {
+    public static class CpuLoadCodecDecoder implements AgentStatCodec.CodecDecoder<CpuLoadBo>, AgentStatCodec.ColumnDecoder {
 
         private final AgentStatDataPointCodec codec;
 
@@ -127,6 +139,25 @@ public class CpuLoadCodecV2 extends AgentStatCodecV2<CpuLoadBo> {
             this.systemCpuLoads = this.codec.decodeValues(valueBuffer, systemCpuLoadEncodingStrategy, valueSize);
         }
 
+        @Override
+        public void decodeColumns(Buffer valueBuffer, AgentStatHeaderDecoder headerDecoder, int valueSize, AgentStatColumns columns) {
+            UnsignedLongEncodingStrategy jvmCpuLoadEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy systemCpuLoadEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            // decode values
+            final long[] jvmCpuLoads = this.codec.decodeLongValues(valueBuffer, jvmCpuLoadEncodingStrategy, valueSize);
+            final long[] systemCpuLoads = this.codec.decodeLongValues(valueBuffer, systemCpuLoadEncodingStrategy, valueSize);
+            columns.addDoubleColumn(JVM_CPU_LOAD_COLUMN, toDoubleColumn(jvmCpuLoads));
+            columns.addDoubleColumn(SYSTEM_CPU_LOAD_COLUMN, toDoubleColumn(systemCpuLoads));
+        }
+
+        private double[] toDoubleColumn(long[] values) {
+            final double[] column = new double[values.length];
+            for (int i = 0; i < values.length; i++) {
+                column[i] = AgentStatUtils.convertLongToDouble(values[i]);
+            }
+            return column;
+        }
+
         @Override
         public CpuLoadBo getValue(int index) {
             CpuLoadBo cpuLoadBo = new CpuLoadBo();
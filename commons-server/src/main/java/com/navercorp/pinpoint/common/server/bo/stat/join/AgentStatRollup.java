@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.join;
+
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import org.apache.hadoop.hbase.TableName;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolutions at which agent stats are rolled up, from finest to coarsest.
+ */
+public enum AgentStatRollup {
+    ONE_MINUTE(TimeUnit.MINUTES.toMillis(1), HBaseTables.AGENT_STAT_ROLLUP_1M),
+    TEN_MINUTES(TimeUnit.MINUTES.toMillis(10), HBaseTables.AGENT_STAT_ROLLUP_10M),
+    ONE_HOUR(TimeUnit.HOURS.toMillis(1), HBaseTables.AGENT_STAT_ROLLUP_1H);
+
+    private final long windowSize;
+    private final TableName tableName;
+
+    AgentStatRollup(long windowSize, TableName tableName) {
+        this.windowSize = windowSize;
+        this.tableName = tableName;
+    }
+
+    public long getWindowSize() {
+        return windowSize;
+    }
+
+    public TableName getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns the coarsest rollup whose buckets fit evenly into a time slot of the given size,
+     * or {@code null} if the raw data points have to be read.
+     */
+    public static AgentStatRollup findCoarsest(long timeSlotSize) {
+        AgentStatRollup coarsest = null;
+        for (AgentStatRollup rollup : values()) {
+            if (timeSlotSize >= rollup.windowSize && timeSlotSize % rollup.windowSize == 0) {
+                coarsest = rollup;
+            }
+        }
+        return coarsest;
+    }
+}
@@ -127,6 +127,34 @@ public class JoinActiveTraceBo implements JoinStatBo {
         this.minTotalCount = minTotalCount;
     }
 
+    /**
+     * incremental form of {@link #joinActiveTraceBoList(List, Long)}.
+     * totalCount of the returned bo is a running sum, use {@link #divideJoinActiveTraceBo(JoinActiveTraceBo, int, Long)} to get the joined bo.
+     */
+    public static JoinActiveTraceBo sumJoinActiveTraceBo(JoinActiveTraceBo sumJoinActiveTraceBo, JoinActiveTraceBo joinActiveTraceBo) {
+        if (sumJoinActiveTraceBo == null) {
+            return new JoinActiveTraceBo(joinActiveTraceBo.getId(), joinActiveTraceBo.getHistogramSchemaType(), joinActiveTraceBo.getVersion(), joinActiveTraceBo.getTotalCount(), joinActiveTraceBo.getMinTotalCount(), joinActiveTraceBo.getMinTotalCountAgentId(),
+                    joinActiveTraceBo.getMaxTotalCount(), joinActiveTraceBo.getMaxTotalCountAgentId(), joinActiveTraceBo.getTimestamp());
+        }
+
+        sumJoinActiveTraceBo.setTotalCount(sumJoinActiveTraceBo.getTotalCount() + joinActiveTraceBo.getTotalCount());
+        if (joinActiveTraceBo.getMaxTotalCount() > sumJoinActiveTraceBo.getMaxTotalCount()) {
+            sumJoinActiveTraceBo.setMaxTotalCount(joinActiveTraceBo.getMaxTotalCount());
+            sumJoinActiveTraceBo.setMaxTotalCountAgentId(joinActiveTraceBo.getMaxTotalCountAgentId());
+        }
+        if (joinActiveTraceBo.getMinTotalCount() < sumJoinActiveTraceBo.getMinTotalCount()) {
+            sumJoinActiveTraceBo.setMinTotalCount(joinActiveTraceBo.getMinTotalCount());
+            sumJoinActiveTraceBo.setMinTotalCountAgentId(joinActiveTraceBo.getMinTotalCountAgentId());
+        }
+
+        return sumJoinActiveTraceBo;
+    }
+
+    public static JoinActiveTraceBo divideJoinActiveTraceBo(JoinActiveTraceBo sumJoinActiveTraceBo, int boCount, Long timestamp) {
+        return new JoinActiveTraceBo(sumJoinActiveTraceBo.getId(), sumJoinActiveTraceBo.getHistogramSchemaType(), sumJoinActiveTraceBo.getVersion(), sumJoinActiveTraceBo.getTotalCount() / boCount, sumJoinActiveTraceBo.getMinTotalCount(), sumJoinActiveTraceBo.getMinTotalCountAgentId(),
+                sumJoinActiveTraceBo.getMaxTotalCount(), sumJoinActiveTraceBo.getMaxTotalCountAgentId(), timestamp);
+    }
+
     public static JoinActiveTraceBo joinActiveTraceBoList(List<JoinActiveTraceBo> joinActiveTraceBoList, Long timestamp) {
         final int boCount = joinActiveTraceBoList.size();
 
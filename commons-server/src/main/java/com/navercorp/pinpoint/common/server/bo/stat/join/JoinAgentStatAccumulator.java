@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.join;
+
+import java.util.Collections;
+
+/**
+ * Incrementally joins every {@link JoinAgentStatBo} of a single agent falling into one rollup bucket.
+ * Each stat is reduced to a single bo holding the min/max/avg of the bucket, and the number of joined samples is kept
+ * per stat so that readers can rebuild the sum of the bucket.
+ */
+public class JoinAgentStatAccumulator {
+
+    private String agentId;
+    private long agentStartTimestamp = Long.MIN_VALUE;
+
+    private JoinCpuLoadBo joinCpuLoadBoSum;
+    private int joinCpuLoadBoCount;
+    private JoinMemoryBo joinMemoryBoSum;
+    private int joinMemoryBoCount;
+    private JoinTransactionBo joinTransactionBoSum;
+    private int joinTransactionBoCount;
+    private JoinActiveTraceBo joinActiveTraceBoSum;
+    private int joinActiveTraceBoCount;
+    private JoinResponseTimeBo joinResponseTimeBoSum;
+    private int joinResponseTimeBoCount;
+    private JoinDataSourceListSum joinDataSourceListSum;
+    private int joinDataSourceListBoCount;
+
+    public void addJoinAgentStatBo(JoinAgentStatBo joinAgentStatBo) {
+        if (joinAgentStatBo == null) {
+            throw new NullPointerException("joinAgentStatBo must not be null");
+        }
+        if (agentId == null) {
+            agentId = joinAgentStatBo.getId();
+        }
+        agentStartTimestamp = Math.max(agentStartTimestamp, joinAgentStatBo.getAgentStartTimestamp());
+
+        for (JoinCpuLoadBo joinCpuLoadBo : joinAgentStatBo.getJoinCpuLoadBoList()) {
+            joinCpuLoadBoSum = JoinCpuLoadBo.sumJoinCpuLoadBo(joinCpuLoadBoSum, joinCpuLoadBo);
+            joinCpuLoadBoCount++;
+        }
+        for (JoinMemoryBo joinMemoryBo : joinAgentStatBo.getJoinMemoryBoList()) {
+            joinMemoryBoSum = JoinMemoryBo.sumJoinMemoryBo(joinMemoryBoSum, joinMemoryBo);
+            joinMemoryBoCount++;
+        }
+        for (JoinTransactionBo joinTransactionBo : joinAgentStatBo.getJoinTransactionBoList()) {
+            joinTransactionBoSum = JoinTransactionBo.sumJoinTransactionBo(joinTransactionBoSum, joinTransactionBo);
+            joinTransactionBoCount++;
+        }
+        for (JoinActiveTraceBo joinActiveTraceBo : joinAgentStatBo.getJoinActiveTraceBoList()) {
+            joinActiveTraceBoSum = JoinActiveTraceBo.sumJoinActiveTraceBo(joinActiveTraceBoSum, joinActiveTraceBo);
+            joinActiveTraceBoCount++;
+        }
+        for (JoinResponseTimeBo joinResponseTimeBo : joinAgentStatBo.getJoinResponseTimeBoList()) {
+            joinResponseTimeBoSum = JoinResponseTimeBo.sumJoinResponseTimeBo(joinResponseTimeBoSum, joinResponseTimeBo);
+            joinResponseTimeBoCount++;
+        }
+        for (JoinDataSourceListBo joinDataSourceListBo : joinAgentStatBo.getJoinDataSourceListBoList()) {
+            getJoinDataSourceListSum(joinDataSourceListBo.getId()).add(joinDataSourceListBo);
+            joinDataSourceListBoCount++;
+        }
+    }
+
+    public void merge(JoinAgentStatAccumulator other) {
+        if (other == null) {
+            throw new NullPointerException("other must not be null");
+        }
+        if (agentId == null) {
+            agentId = other.agentId;
+        }
+        agentStartTimestamp = Math.max(agentStartTimestamp, other.agentStartTimestamp);
+
+        if (other.joinCpuLoadBoSum != null) {
+            joinCpuLoadBoSum = JoinCpuLoadBo.sumJoinCpuLoadBo(joinCpuLoadBoSum, other.joinCpuLoadBoSum);
+            joinCpuLoadBoCount += other.joinCpuLoadBoCount;
+        }
+        if (other.joinMemoryBoSum != null) {
+            joinMemoryBoSum = JoinMemoryBo.sumJoinMemoryBo(joinMemoryBoSum, other.joinMemoryBoSum);
+            joinMemoryBoCount += other.joinMemoryBoCount;
+        }
+        if (other.joinTransactionBoSum != null) {
+            joinTransactionBoSum = JoinTransactionBo.sumJoinTransactionBo(joinTransactionBoSum, other.joinTransactionBoSum);
+            joinTransactionBoCount += other.joinTransactionBoCount;
+        }
+        if (other.joinActiveTraceBoSum != null) {
+            joinActiveTraceBoSum = JoinActiveTraceBo.sumJoinActiveTraceBo(joinActiveTraceBoSum, other.joinActiveTraceBoSum);
+            joinActiveTraceBoCount += other.joinActiveTraceBoCount;
+        }
+        if (other.joinResponseTimeBoSum != null) {
+            joinResponseTimeBoSum = JoinResponseTimeBo.sumJoinResponseTimeBo(joinResponseTimeBoSum, other.joinResponseTimeBoSum);
+            joinResponseTimeBoCount += other.joinResponseTimeBoCount;
+        }
+        if (other.joinDataSourceListSum != null) {
+            getJoinDataSourceListSum(other.joinDataSourceListSum.getId()).merge(other.joinDataSourceListSum);
+            joinDataSourceListBoCount += other.joinDataSourceListBoCount;
+        }
+    }
+
+    private JoinDataSourceListSum getJoinDataSourceListSum(String id) {
+        if (joinDataSourceListSum == null) {
+            joinDataSourceListSum = new JoinDataSourceListSum(id);
+        }
+        return joinDataSourceListSum;
+    }
+
+    /**
+     * Returns the number of samples joined for the given agent stat type, or 0 if none were.
+     */
+    public int getSampleCount(StatType statType) {
+        switch (statType) {
+            case AGENT_CPU_LOAD_AGGRE:
+                return joinCpuLoadBoCount;
+            case AGENT_MEMORY_USED_AGGRE:
+                return joinMemoryBoCount;
+            case AGENT_TRANSACTION_COUNT_AGGRE:
+                return joinTransactionBoCount;
+            case AGENT_ACTIVE_TRACE_COUNT_AGGRE:
+                return joinActiveTraceBoCount;
+            case AGENT_RESPONSE_TIME_AGGRE:
+                return joinResponseTimeBoCount;
+            case AGENT_DATA_SOURCE_AGGRE:
+                return joinDataSourceListBoCount;
+            default:
+                throw new IllegalArgumentException("unsupported statType : " + statType);
+        }
+    }
+
+    /**
+     * @param timestamp start of the rollup bucket, used as the timestamp of every joined bo
+     */
+    public JoinAgentStatBo toJoinAgentStatBo(long timestamp) {
+        if (agentId == null) {
+            return JoinAgentStatBo.EMPTY_JOIN_AGENT_STAT_BO;
+        }
+
+        JoinAgentStatBo joinAgentStatBo = new JoinAgentStatBo();
+        joinAgentStatBo.setId(agentId);
+        joinAgentStatBo.setAgentStartTimestamp(agentStartTimestamp);
+        joinAgentStatBo.setTimestamp(timestamp);
+
+        if (joinCpuLoadBoCount > 0) {
+            joinAgentStatBo.setJoinCpuLoadBoList(Collections.singletonList(JoinCpuLoadBo.divideJoinCpuLoadBo(joinCpuLoadBoSum, joinCpuLoadBoCount, timestamp)));
+        }
+        if (joinMemoryBoCount > 0) {
+            joinAgentStatBo.setJoinMemoryBoList(Collections.singletonList(JoinMemoryBo.divideJoinMemoryBo(joinMemoryBoSum, joinMemoryBoCount, timestamp)));
+        }
+        if (joinTransactionBoCount > 0) {
+            joinAgentStatBo.setJoinTransactionBoList(Collections.singletonList(JoinTransactionBo.divideJoinTransactionBo(joinTransactionBoSum, joinTransactionBoCount, timestamp)));
+        }
+        if (joinActiveTraceBoCount > 0) {
+            joinAgentStatBo.setJoinActiveTraceBoList(Collections.singletonList(JoinActiveTraceBo.divideJoinActiveTraceBo(joinActiveTraceBoSum, joinActiveTraceBoCount, timestamp)));
+        }
+        if (joinResponseTimeBoCount > 0) {
+            joinAgentStatBo.setJoinResponseTimeBoList(Collections.singletonList(JoinResponseTimeBo.divideJoinResponseTimeBo(joinResponseTimeBoSum, joinResponseTimeBoCount, timestamp)));
+        }
+        if (joinDataSourceListBoCount > 0) {
+            joinAgentStatBo.setJoinDataSourceListBoList(Collections.singletonList(joinDataSourceListSum.toJoinDataSourceListBo(timestamp)));
+        }
+        return joinAgentStatBo;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.stat.join;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental form of {@link JoinApplicationStatBo#joinApplicationStatBoByTimeSlice(List)}.
+ * Keeps one running sum per time slice instead of every joined bo, and produces the same result.
+ */
+public class JoinApplicationStatAccumulator {
+
+    private String applicationId;
+
+    private final Map<Long, SumBo<JoinCpuLoadBo>> joinCpuLoadBoSumMap = new HashMap<Long, SumBo<JoinCpuLoadBo>>();
+    private final Map<Long, SumBo<JoinMemoryBo>> joinMemoryBoSumMap = new HashMap<Long, SumBo<JoinMemoryBo>>();
+    private final Map<Long, SumBo<JoinTransactionBo>> joinTransactionBoSumMap = new HashMap<Long, SumBo<JoinTransactionBo>>();
+    private final Map<Long, SumBo<JoinActiveTraceBo>> joinActiveTraceBoSumMap = new HashMap<Long, SumBo<JoinActiveTraceBo>>();
+    private final Map<Long, SumBo<JoinResponseTimeBo>> joinResponseTimeBoSumMap = new HashMap<Long, SumBo<JoinResponseTimeBo>>();
+    private final Map<Long, JoinDataSourceListSum> joinDataSourceListBoSumMap = new HashMap<Long, JoinDataSourceListSum>();
+
+    public void addJoinApplicationStatBo(JoinApplicationStatBo joinApplicationStatBo) {
+        if (joinApplicationStatBo == null) {
+            throw new NullPointerException("joinApplicationStatBo must not be null");
+        }
+        if (applicationId == null) {
+            applicationId = joinApplicationStatBo.getId();
+        }
+
+        for (JoinCpuLoadBo joinCpuLoadBo : joinApplicationStatBo.getJoinCpuLoadBoList()) {
+            addJoinCpuLoadBo(JoinApplicationStatBo.shiftTimestamp(joinCpuLoadBo.getTimestamp()), joinCpuLoadBo, 1);
+        }
+        for (JoinMemoryBo joinMemoryBo : joinApplicationStatBo.getJoinMemoryBoList()) {
+            addJoinMemoryBo(JoinApplicationStatBo.shiftTimestamp(joinMemoryBo.getTimestamp()), joinMemoryBo, 1);
+        }
+        for (JoinTransactionBo joinTransactionBo : joinApplicationStatBo.getJoinTransactionBoList()) {
+            addJoinTransactionBo(JoinApplicationStatBo.shiftTimestamp(joinTransactionBo.getTimestamp()), joinTransactionBo, 1);
+        }
+        for (JoinActiveTraceBo joinActiveTraceBo : joinApplicationStatBo.getJoinActiveTraceBoList()) {
+            addJoinActiveTraceBo(JoinApplicationStatBo.shiftTimestamp(joinActiveTraceBo.getTimestamp()), joinActiveTraceBo, 1);
+        }
+        for (JoinResponseTimeBo joinResponseTimeBo : joinApplicationStatBo.getJoinResponseTimeBoList()) {
+            addJoinResponseTimeBo(JoinApplicationStatBo.shiftTimestamp(joinResponseTimeBo.getTimestamp()), joinResponseTimeBo, 1);
+        }
+        for (JoinDataSourceListBo joinDataSourceListBo : joinApplicationStatBo.getJoinDataSourceListBoList()) {
+            getDataSourceListSum(JoinApplicationStatBo.shiftTimestamp(joinDataSourceListBo.getTimestamp()), joinDataSourceListBo.getId()).add(joinDataSourceListBo);
+        }
+    }
+
+    public void merge(JoinApplicationStatAccumulator accumulator) {
+        if (accumulator == null) {
+            throw new NullPointerException("accumulator must not be null");
+        }
+        if (applicationId == null) {
+            applicationId = accumulator.applicationId;
+        }
+
+        for (Map.Entry<Long, SumBo<JoinCpuLoadBo>> entry : accumulator.joinCpuLoadBoSumMap.entrySet()) {
+            addJoinCpuLoadBo(entry.getKey(), entry.getValue().sum, entry.getValue().count);
+        }
+        for (Map.Entry<Long, SumBo<JoinMemoryBo>> entry : accumulator.joinMemoryBoSumMap.entrySet()) {
+            addJoinMemoryBo(entry.getKey(), entry.getValue().sum, entry.getValue().count);
+        }
+        for (Map.Entry<Long, SumBo<JoinTransactionBo>> entry : accumulator.joinTransactionBoSumMap.entrySet()) {
+            addJoinTransactionBo(entry.getKey(), entry.getValue().sum, entry.getValue().count);
+        }
+        for (Map.Entry<Long, SumBo<JoinActiveTraceBo>> entry : accumulator.joinActiveTraceBoSumMap.entrySet()) {
+            addJoinActiveTraceBo(entry.getKey(), entry.getValue().sum, entry.getValue().count);
+        }
+        for (Map.Entry<Long, SumBo<JoinResponseTimeBo>> entry : accumulator.joinResponseTimeBoSumMap.entrySet()) {
+            addJoinResponseTimeBo(entry.getKey(), entry.getValue().sum, entry.getValue().count);
+        }
+        for (Map.Entry<Long, JoinDataSourceListSum> entry : accumulator.joinDataSourceListBoSumMap.entrySet()) {
+            getDataSourceListSum(entry.getKey(), entry.getValue().getId()).merge(entry.getValue());
+        }
+    }
+
+    private void addJoinCpuLoadBo(Long shiftTimestamp, JoinCpuLoadBo joinCpuLoadBo, int count) {
+        final SumBo<JoinCpuLoadBo> sumBo = getSumBo(joinCpuLoadBoSumMap, shiftTimestamp);
+        sumBo.sum = JoinCpuLoadBo.sumJoinCpuLoadBo(sumBo.sum, joinCpuLoadBo);
+        sumBo.count += count;
+    }
+
+    private void addJoinMemoryBo(Long shiftTimestamp, JoinMemoryBo joinMemoryBo, int count) {
+        final SumBo<JoinMemoryBo> sumBo = getSumBo(joinMemoryBoSumMap, shiftTimestamp);
+        sumBo.sum = JoinMemoryBo.sumJoinMemoryBo(sumBo.sum, joinMemoryBo);
+        sumBo.count += count;
+    }
+
+    private void addJoinTransactionBo(Long shiftTimestamp, JoinTransactionBo joinTransactionBo, int count) {
+        final SumBo<JoinTransactionBo> sumBo = getSumBo(joinTransactionBoSumMap, shiftTimestamp);
+        sumBo.sum = JoinTransactionBo.sumJoinTransactionBo(sumBo.sum, joinTransactionBo);
+        sumBo.count += count;
+    }
+
+    private void addJoinActiveTraceBo(Long shiftTimestamp, JoinActiveTraceBo joinActiveTraceBo, int count) {
+        final SumBo<JoinActiveTraceBo> sumBo = getSumBo(joinActiveTraceBoSumMap, shiftTimestamp);
+        sumBo.sum = JoinActiveTraceBo.sumJoinActiveTraceBo(sumBo.sum, joinActiveTraceBo);
+        sumBo.count += count;
+    }
+
+    private void addJoinResponseTimeBo(Long shiftTimestamp, JoinResponseTimeBo joinResponseTimeBo, int count) {
+        final SumBo<JoinResponseTimeBo> sumBo = getSumBo(joinResponseTimeBoSumMap, shiftTimestamp);
+        sumBo.sum = JoinResponseTimeBo.sumJoinResponseTimeBo(sumBo.sum, joinResponseTimeBo);
+        sumBo.count += count;
+    }
+
+    private static <T> SumBo<T> getSumBo(Map<Long, SumBo<T>> sumBoMap, Long shiftTimestamp) {
+        SumBo<T> sumBo = sumBoMap.get(shiftTimestamp);
+        if (sumBo == null) {
+            sumBo = new SumBo<T>();
+            sumBoMap.put(shiftTimestamp, sumBo);
+        }
+        return sumBo;
+    }
+
+    private JoinDataSourceListSum getDataSourceListSum(Long shiftTimestamp, String id) {
+        JoinDataSourceListSum dataSourceListSum = joinDataSourceListBoSumMap.get(shiftTimestamp);
+        if (dataSourceListSum == null) {
+            dataSourceListSum = new JoinDataSourceListSum(id);
+            joinDataSourceListBoSumMap.put(shiftTimestamp, dataSourceListSum);
+        }
+        return dataSourceListSum;
+    }
+
+    public JoinApplicationStatBo toJoinApplicationStatBo() {
+        if (applicationId == null) {
+            return JoinApplicationStatBo.EMPTY_JOIN_APPLICATION_STAT_BO;
+        }
+
+        final JoinApplicationStatBo newJoinApplicationStatBo = new JoinApplicationStatBo();
+        newJoinApplicationStatBo.setId(applicationId);
+
+        final List<JoinCpuLoadBo> joinCpuLoadBoList = new ArrayList<JoinCpuLoadBo>(joinCpuLoadBoSumMap.size());
+        for (Map.Entry<Long, SumBo<JoinCpuLoadBo>> entry : joinCpuLoadBoSumMap.entrySet()) {
+            joinCpuLoadBoList.add(JoinCpuLoadBo.divideJoinCpuLoadBo(entry.getValue().sum, entry.getValue().count, entry.getKey()));
+        }
+        newJoinApplicationStatBo.setJoinCpuLoadBoList(joinCpuLoadBoList);
+
+        final List<JoinMemoryBo> joinMemoryBoList = new ArrayList<JoinMemoryBo>(joinMemoryBoSumMap.size());
+        for (Map.Entry<Long, SumBo<JoinMemoryBo>> entry : joinMemoryBoSumMap.entrySet()) {
+            joinMemoryBoList.add(JoinMemoryBo.divideJoinMemoryBo(entry.getValue().sum, entry.getValue().count, entry.getKey()));
+        }
+        newJoinApplicationStatBo.setJoinMemoryBoList(joinMemoryBoList);
+
+        final List<JoinTransactionBo> joinTransactionBoList = new ArrayList<JoinTransactionBo>(joinTransactionBoSumMap.size());
+        for (Map.Entry<Long, SumBo<JoinTransactionBo>> entry : joinTransactionBoSumMap.entrySet()) {
+            joinTransactionBoList.add(JoinTransactionBo.divideJoinTransactionBo(entry.getValue().sum, entry.getValue().count, entry.getKey()));
+        }
+        newJoinApplicationStatBo.setJoinTransactionBoList(joinTransactionBoList);
+
+        final List<JoinActiveTraceBo> joinActiveTraceBoList = new ArrayList<JoinActiveTraceBo>(joinActiveTraceBoSumMap.size());
+        for (Map.Entry<Long, SumBo<JoinActiveTraceBo>> entry : joinActiveTraceBoSumMap.entrySet()) {
+            joinActiveTraceBoList.add(JoinActiveTraceBo.divideJoinActiveTraceBo(entry.getValue().sum, entry.getValue().count, entry.getKey()));
+        }
+        newJoinApplicationStatBo.setJoinActiveTraceBoList(joinActiveTraceBoList);
+
+        final List<JoinResponseTimeBo> joinResponseTimeBoList = new ArrayList<JoinResponseTimeBo>(joinResponseTimeBoSumMap.size());
+        for (Map.Entry<Long, SumBo<JoinResponseTimeBo>> entry : joinResponseTimeBoSumMap.entrySet()) {
+            joinResponseTimeBoList.add(JoinResponseTimeBo.divideJoinResponseTimeBo(entry.getValue().sum, entry.getValue().count, entry.getKey()));
+        }
+        newJoinApplicationStatBo.setJoinResponseTimeBoList(joinResponseTimeBoList);
+
+        final List<JoinDataSourceListBo> joinDataSourceListBoList = new ArrayList<JoinDataSourceListBo>(joinDataSourceListBoSumMap.size());
+        for (Map.Entry<Long, JoinDataSourceListSum> entry : joinDataSourceListBoSumMap.entrySet()) {
+            joinDataSourceListBoList.add(entry.getValue().toJoinDataSourceListBo(entry.getKey()));
+        }
+        newJoinApplicationStatBo.setJoinDataSourceListBoList(joinDataSourceListBoList);
+
+        newJoinApplicationStatBo.setTimestamp(JoinApplicationStatBo.extractMinTimestamp(newJoinApplicationStatBo));
+        return newJoinApplicationStatBo;
+    }
+
+    private static class SumBo<T> {
+        private T sum;
+        private int count;
+    }
+}
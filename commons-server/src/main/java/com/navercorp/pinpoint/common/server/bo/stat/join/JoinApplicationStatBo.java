@@ -53,7 +53,7 @@ public class JoinApplicationStatBo implements JoinStatBo {
         return newJoinApplicationStatBo;
     }
 
-    private static long extractMinTimestamp(JoinApplicationStatBo joinApplicationStatBo) {
+    static long extractMinTimestamp(JoinApplicationStatBo joinApplicationStatBo) {
         long minTimestamp = Long.MAX_VALUE;
 
         for (JoinCpuLoadBo joinCpuLoadBo : joinApplicationStatBo.getJoinCpuLoadBoList()) {
@@ -288,7 +288,7 @@ public class JoinApplicationStatBo implements JoinStatBo {
         return newJoinApplicationStatBo;
     }
 
-    private static long shiftTimestamp(long timestamp) {
+    static long shiftTimestamp(long timestamp) {
         return timestamp - (timestamp % SHIFT_RANGE);
     }
 
@@ -58,6 +58,44 @@ public class JoinCpuLoadBo implements JoinStatBo {
         this.timestamp = timestamp;
     }
 
+    /**
+     * incremental form of {@link #joinCpuLoadBoList(List, Long)}.
+     * jvmCpuLoad and systemCpuLoad of the returned bo are running sums, use {@link #divideJoinCpuLoadBo(JoinCpuLoadBo, int, Long)} to get the joined bo.
+     */
+    public static JoinCpuLoadBo sumJoinCpuLoadBo(JoinCpuLoadBo sumJoinCpuLoadBo, JoinCpuLoadBo joinCpuLoadBo) {
+        if (sumJoinCpuLoadBo == null) {
+            return new JoinCpuLoadBo(joinCpuLoadBo.getId(), joinCpuLoadBo.getJvmCpuLoad(), joinCpuLoadBo.getMaxJvmCpuLoad(), joinCpuLoadBo.getMaxJvmCpuAgentId(), joinCpuLoadBo.getMinJvmCpuLoad(), joinCpuLoadBo.getMinJvmCpuAgentId(),
+                    joinCpuLoadBo.getSystemCpuLoad(), joinCpuLoadBo.getMaxSystemCpuLoad(), joinCpuLoadBo.getMaxSysCpuAgentId(), joinCpuLoadBo.getMinSystemCpuLoad(), joinCpuLoadBo.getMinSysCpuAgentId(), joinCpuLoadBo.getTimestamp());
+        }
+
+        sumJoinCpuLoadBo.setJvmCpuLoad(sumJoinCpuLoadBo.getJvmCpuLoad() + joinCpuLoadBo.getJvmCpuLoad());
+        if (joinCpuLoadBo.getMaxJvmCpuLoad() > sumJoinCpuLoadBo.getMaxJvmCpuLoad()) {
+            sumJoinCpuLoadBo.setMaxJvmCpuLoad(joinCpuLoadBo.getMaxJvmCpuLoad());
+            sumJoinCpuLoadBo.setMaxJvmCpuAgentId(joinCpuLoadBo.getMaxJvmCpuAgentId());
+        }
+        if (joinCpuLoadBo.getMinJvmCpuLoad() < sumJoinCpuLoadBo.getMinJvmCpuLoad()) {
+            sumJoinCpuLoadBo.setMinJvmCpuLoad(joinCpuLoadBo.getMinJvmCpuLoad());
+            sumJoinCpuLoadBo.setMinJvmCpuAgentId(joinCpuLoadBo.getMinJvmCpuAgentId());
+        }
+
+        sumJoinCpuLoadBo.setSystemCpuLoad(sumJoinCpuLoadBo.getSystemCpuLoad() + joinCpuLoadBo.getSystemCpuLoad());
+        if (joinCpuLoadBo.getMaxSystemCpuLoad() > sumJoinCpuLoadBo.getMaxSystemCpuLoad()) {
+            sumJoinCpuLoadBo.setMaxSystemCpuLoad(joinCpuLoadBo.getMaxSystemCpuLoad());
+            sumJoinCpuLoadBo.setMaxSysCpuAgentId(joinCpuLoadBo.getMaxSysCpuAgentId());
+        }
+        if (joinCpuLoadBo.getMinSystemCpuLoad() < sumJoinCpuLoadBo.getMinSystemCpuLoad()) {
+            sumJoinCpuLoadBo.setMinSystemCpuLoad(joinCpuLoadBo.getMinSystemCpuLoad());
+            sumJoinCpuLoadBo.setMinSysCpuAgentId(joinCpuLoadBo.getMinSysCpuAgentId());
+        }
+
+        return sumJoinCpuLoadBo;
+    }
+
+    public static JoinCpuLoadBo divideJoinCpuLoadBo(JoinCpuLoadBo sumJoinCpuLoadBo, int boCount, Long timestamp) {
+        return new JoinCpuLoadBo(sumJoinCpuLoadBo.getId(), sumJoinCpuLoadBo.getJvmCpuLoad() / (double) boCount, sumJoinCpuLoadBo.getMaxJvmCpuLoad(), sumJoinCpuLoadBo.getMaxJvmCpuAgentId(), sumJoinCpuLoadBo.getMinJvmCpuLoad(), sumJoinCpuLoadBo.getMinJvmCpuAgentId(),
+                sumJoinCpuLoadBo.getSystemCpuLoad() / (double) boCount, sumJoinCpuLoadBo.getMaxSystemCpuLoad(), sumJoinCpuLoadBo.getMaxSysCpuAgentId(), sumJoinCpuLoadBo.getMinSystemCpuLoad(), sumJoinCpuLoadBo.getMinSysCpuAgentId(), timestamp);
+    }
+
     public static JoinCpuLoadBo joinCpuLoadBoList(List<JoinCpuLoadBo> joinCpuLoadBoList, Long timestamp) {
         int boCount = joinCpuLoadBoList.size();
 
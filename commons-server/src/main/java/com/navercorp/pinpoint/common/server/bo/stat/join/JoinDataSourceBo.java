@@ -115,6 +115,34 @@ public class JoinDataSourceBo implements JoinStatBo {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * incremental form of {@link #joinDataSourceBoList(List)}.
+     * avgActiveConnectionSize of the returned bo is a running sum, use {@link #divideJoinDataSourceBo(JoinDataSourceBo, int)} to get the joined bo.
+     */
+    public static JoinDataSourceBo sumJoinDataSourceBo(JoinDataSourceBo sumJoinDataSourceBo, JoinDataSourceBo joinDataSourceBo) {
+        if (sumJoinDataSourceBo == null) {
+            return new JoinDataSourceBo(joinDataSourceBo.getServiceTypeCode(), joinDataSourceBo.getUrl(), joinDataSourceBo.getAvgActiveConnectionSize(), joinDataSourceBo.getMinActiveConnectionSize(), joinDataSourceBo.getMinActiveConnectionAgentId(),
+                    joinDataSourceBo.getMaxActiveConnectionSize(), joinDataSourceBo.getMaxActiveConnectionAgentId());
+        }
+
+        sumJoinDataSourceBo.setAvgActiveConnectionSize(sumJoinDataSourceBo.getAvgActiveConnectionSize() + joinDataSourceBo.getAvgActiveConnectionSize());
+        if (joinDataSourceBo.getMaxActiveConnectionSize() > sumJoinDataSourceBo.getMaxActiveConnectionSize()) {
+            sumJoinDataSourceBo.setMaxActiveConnectionSize(joinDataSourceBo.getMaxActiveConnectionSize());
+            sumJoinDataSourceBo.setMaxActiveConnectionAgentId(joinDataSourceBo.getMaxActiveConnectionAgentId());
+        }
+        if (joinDataSourceBo.getMinActiveConnectionSize() < sumJoinDataSourceBo.getMinActiveConnectionSize()) {
+            sumJoinDataSourceBo.setMinActiveConnectionSize(joinDataSourceBo.getMinActiveConnectionSize());
+            sumJoinDataSourceBo.setMinActiveConnectionAgentId(joinDataSourceBo.getMinActiveConnectionAgentId());
+        }
+
+        return sumJoinDataSourceBo;
+    }
+
+    public static JoinDataSourceBo divideJoinDataSourceBo(JoinDataSourceBo sumJoinDataSourceBo, int boCount) {
+        return new JoinDataSourceBo(sumJoinDataSourceBo.getServiceTypeCode(), sumJoinDataSourceBo.getUrl(), sumJoinDataSourceBo.getAvgActiveConnectionSize() / boCount, sumJoinDataSourceBo.getMinActiveConnectionSize(), sumJoinDataSourceBo.getMinActiveConnectionAgentId(),
+                sumJoinDataSourceBo.getMaxActiveConnectionSize(), sumJoinDataSourceBo.getMaxActiveConnectionAgentId());
+    }
+
     public static JoinDataSourceBo joinDataSourceBoList(List<JoinDataSourceBo> joinDataSourceBoList) {
         final int boCount = joinDataSourceBoList.size();
 
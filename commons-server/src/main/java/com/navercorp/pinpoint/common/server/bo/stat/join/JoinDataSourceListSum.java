@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.stat.join;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinDataSourceListBo.DataSourceKey;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running sum of {@link JoinDataSourceBo}s keyed by data source, used by the incremental joins.
+ */
+class JoinDataSourceListSum {
+
+    private final String id;
+    private final Map<DataSourceKey, JoinDataSourceBo> joinDataSourceBoSumMap = new HashMap<DataSourceKey, JoinDataSourceBo>();
+    private final Map<DataSourceKey, Integer> joinDataSourceBoCountMap = new HashMap<DataSourceKey, Integer>();
+
+    JoinDataSourceListSum(String id) {
+        this.id = id;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    void add(JoinDataSourceListBo joinDataSourceListBo) {
+        for (JoinDataSourceBo joinDataSourceBo : joinDataSourceListBo.getJoinDataSourceBoList()) {
+            add(joinDataSourceBo, 1);
+        }
+    }
+
+    void merge(JoinDataSourceListSum joinDataSourceListSum) {
+        for (Map.Entry<DataSourceKey, JoinDataSourceBo> entry : joinDataSourceListSum.joinDataSourceBoSumMap.entrySet()) {
+            add(entry.getValue(), joinDataSourceListSum.joinDataSourceBoCountMap.get(entry.getKey()));
+        }
+    }
+
+    private void add(JoinDataSourceBo joinDataSourceBo, int count) {
+        final DataSourceKey dataSourceKey = new DataSourceKey(joinDataSourceBo.getUrl(), joinDataSourceBo.getServiceTypeCode());
+        joinDataSourceBoSumMap.put(dataSourceKey, JoinDataSourceBo.sumJoinDataSourceBo(joinDataSourceBoSumMap.get(dataSourceKey), joinDataSourceBo));
+        final Integer sumCount = joinDataSourceBoCountMap.get(dataSourceKey);
+        joinDataSourceBoCountMap.put(dataSourceKey, sumCount == null ? count : sumCount + count);
+    }
+
+    JoinDataSourceListBo toJoinDataSourceListBo(long timestamp) {
+        final List<JoinDataSourceBo> joinDataSourceBoList = new ArrayList<JoinDataSourceBo>(joinDataSourceBoSumMap.size());
+        for (Map.Entry<DataSourceKey, JoinDataSourceBo> entry : joinDataSourceBoSumMap.entrySet()) {
+            joinDataSourceBoList.add(JoinDataSourceBo.divideJoinDataSourceBo(entry.getValue(), joinDataSourceBoCountMap.get(entry.getKey())));
+        }
+        return new JoinDataSourceListBo(id, joinDataSourceBoList, timestamp);
+    }
+}
@@ -156,6 +156,44 @@ public class JoinMemoryBo implements JoinStatBo {
         return nonHeapUsed;
     }
 
+    /**
+     * incremental form of {@link #joinMemoryBoList(List, Long)}.
+     * heapUsed and nonHeapUsed of the returned bo are running sums, use {@link #divideJoinMemoryBo(JoinMemoryBo, int, Long)} to get the joined bo.
+     */
+    public static JoinMemoryBo sumJoinMemoryBo(JoinMemoryBo sumJoinMemoryBo, JoinMemoryBo joinMemoryBo) {
+        if (sumJoinMemoryBo == null) {
+            return new JoinMemoryBo(joinMemoryBo.getId(), joinMemoryBo.getTimestamp(), joinMemoryBo.getHeapUsed(), joinMemoryBo.getMinHeapUsed(), joinMemoryBo.getMaxHeapUsed(), joinMemoryBo.getMinHeapAgentId(), joinMemoryBo.getMaxHeapAgentId(),
+                    joinMemoryBo.getNonHeapUsed(), joinMemoryBo.getMinNonHeapUsed(), joinMemoryBo.getMaxNonHeapUsed(), joinMemoryBo.getMinNonHeapAgentId(), joinMemoryBo.getMaxNonHeapAgentId());
+        }
+
+        sumJoinMemoryBo.setHeapUsed(sumJoinMemoryBo.getHeapUsed() + joinMemoryBo.getHeapUsed());
+        if (joinMemoryBo.getMaxHeapUsed() > sumJoinMemoryBo.getMaxHeapUsed()) {
+            sumJoinMemoryBo.setMaxHeapUsed(joinMemoryBo.getMaxHeapUsed());
+            sumJoinMemoryBo.setMaxHeapAgentId(joinMemoryBo.getMaxHeapAgentId());
+        }
+        if (joinMemoryBo.getMinHeapUsed() < sumJoinMemoryBo.getMinHeapUsed()) {
+            sumJoinMemoryBo.setMinHeapUsed(joinMemoryBo.getMinHeapUsed());
+            sumJoinMemoryBo.setMinHeapAgentId(joinMemoryBo.getMinHeapAgentId());
+        }
+
+        sumJoinMemoryBo.setNonHeapUsed(sumJoinMemoryBo.getNonHeapUsed() + joinMemoryBo.getNonHeapUsed());
+        if (joinMemoryBo.getMaxNonHeapUsed() > sumJoinMemoryBo.getMaxNonHeapUsed()) {
+            sumJoinMemoryBo.setMaxNonHeapUsed(joinMemoryBo.getMaxNonHeapUsed());
+            sumJoinMemoryBo.setMaxNonHeapAgentId(joinMemoryBo.getMaxNonHeapAgentId());
+        }
+        if (joinMemoryBo.getMinNonHeapUsed() < sumJoinMemoryBo.getMinNonHeapUsed()) {
+            sumJoinMemoryBo.setMinNonHeapUsed(joinMemoryBo.getMinNonHeapUsed());
+            sumJoinMemoryBo.setMinNonHeapAgentId(joinMemoryBo.getMinNonHeapAgentId());
+        }
+
+        return sumJoinMemoryBo;
+    }
+
+    public static JoinMemoryBo divideJoinMemoryBo(JoinMemoryBo sumJoinMemoryBo, int boCount, Long timestamp) {
+        return new JoinMemoryBo(sumJoinMemoryBo.getId(), timestamp, sumJoinMemoryBo.getHeapUsed() / (long) boCount, sumJoinMemoryBo.getMinHeapUsed(), sumJoinMemoryBo.getMaxHeapUsed(), sumJoinMemoryBo.getMinHeapAgentId(), sumJoinMemoryBo.getMaxHeapAgentId(),
+                sumJoinMemoryBo.getNonHeapUsed() / (long) boCount, sumJoinMemoryBo.getMinNonHeapUsed(), sumJoinMemoryBo.getMaxNonHeapUsed(), sumJoinMemoryBo.getMinNonHeapAgentId(), sumJoinMemoryBo.getMaxNonHeapAgentId());
+    }
+
     public static JoinMemoryBo joinMemoryBoList(List<JoinMemoryBo> joinMemoryBoList, Long timestamp) {
         final int boCount = joinMemoryBoList.size();
 
@@ -106,6 +106,34 @@ public class JoinResponseTimeBo implements JoinStatBo {
         return minAvg;
     }
 
+    /**
+     * incremental form of {@link #joinResponseTimeBoList(List, Long)}.
+     * avg of the returned bo is a running sum, use {@link #divideJoinResponseTimeBo(JoinResponseTimeBo, int, Long)} to get the joined bo.
+     */
+    public static JoinResponseTimeBo sumJoinResponseTimeBo(JoinResponseTimeBo sumJoinResponseTimeBo, JoinResponseTimeBo joinResponseTimeBo) {
+        if (sumJoinResponseTimeBo == null) {
+            return new JoinResponseTimeBo(joinResponseTimeBo.getId(), joinResponseTimeBo.getTimestamp(), joinResponseTimeBo.getAvg(), joinResponseTimeBo.getMinAvg(), joinResponseTimeBo.getMinAvgAgentId(),
+                    joinResponseTimeBo.getMaxAvg(), joinResponseTimeBo.getMaxAvgAgentId());
+        }
+
+        sumJoinResponseTimeBo.setAvg(sumJoinResponseTimeBo.getAvg() + joinResponseTimeBo.getAvg());
+        if (joinResponseTimeBo.getMaxAvg() > sumJoinResponseTimeBo.getMaxAvg()) {
+            sumJoinResponseTimeBo.setMaxAvg(joinResponseTimeBo.getMaxAvg());
+            sumJoinResponseTimeBo.setMaxAvgAgentId(joinResponseTimeBo.getMaxAvgAgentId());
+        }
+        if (joinResponseTimeBo.getMinAvg() < sumJoinResponseTimeBo.getMinAvg()) {
+            sumJoinResponseTimeBo.setMinAvg(joinResponseTimeBo.getMinAvg());
+            sumJoinResponseTimeBo.setMinAvgAgentId(joinResponseTimeBo.getMinAvgAgentId());
+        }
+
+        return sumJoinResponseTimeBo;
+    }
+
+    public static JoinResponseTimeBo divideJoinResponseTimeBo(JoinResponseTimeBo sumJoinResponseTimeBo, int boCount, Long timestamp) {
+        return new JoinResponseTimeBo(sumJoinResponseTimeBo.getId(), timestamp, sumJoinResponseTimeBo.getAvg() / (long) boCount, sumJoinResponseTimeBo.getMinAvg(), sumJoinResponseTimeBo.getMinAvgAgentId(),
+                sumJoinResponseTimeBo.getMaxAvg(), sumJoinResponseTimeBo.getMaxAvgAgentId());
+    }
+
     public static JoinResponseTimeBo joinResponseTimeBoList(List<JoinResponseTimeBo> joinResponseTimeBoList, Long timestamp) {
         final int boCount = joinResponseTimeBoList.size();
 
@@ -113,6 +113,34 @@ public class JoinTransactionBo implements JoinStatBo {
         this.id = id;
     }
 
+    /**
+     * incremental form of {@link #joinTransactionBoLIst(List, Long)}.
+     * totalCount of the returned bo is a running sum, use {@link #divideJoinTransactionBo(JoinTransactionBo, int, Long)} to get the joined bo.
+     */
+    public static JoinTransactionBo sumJoinTransactionBo(JoinTransactionBo sumJoinTransactionBo, JoinTransactionBo joinTransactionBo) {
+        if (sumJoinTransactionBo == null) {
+            return new JoinTransactionBo(joinTransactionBo.getId(), joinTransactionBo.getCollectInterval(), joinTransactionBo.getTotalCount(), joinTransactionBo.getMinTotalCount(), joinTransactionBo.getMinTotalCountAgentId(),
+                    joinTransactionBo.getMaxTotalCount(), joinTransactionBo.getMaxTotalCountAgentId(), joinTransactionBo.getTimestamp());
+        }
+
+        sumJoinTransactionBo.setTotalCount(sumJoinTransactionBo.getTotalCount() + joinTransactionBo.getTotalCount());
+        if (joinTransactionBo.getMaxTotalCount() > sumJoinTransactionBo.getMaxTotalCount()) {
+            sumJoinTransactionBo.setMaxTotalCount(joinTransactionBo.getMaxTotalCount());
+            sumJoinTransactionBo.setMaxTotalCountAgentId(joinTransactionBo.getMaxTotalCountAgentId());
+        }
+        if (joinTransactionBo.getMinTotalCount() < sumJoinTransactionBo.getMinTotalCount()) {
+            sumJoinTransactionBo.setMinTotalCount(joinTransactionBo.getMinTotalCount());
+            sumJoinTransactionBo.setMinTotalCountAgentId(joinTransactionBo.getMinTotalCountAgentId());
+        }
+
+        return sumJoinTransactionBo;
+    }
+
+    public static JoinTransactionBo divideJoinTransactionBo(JoinTransactionBo sumJoinTransactionBo, int boCount, Long timestamp) {
+        return new JoinTransactionBo(sumJoinTransactionBo.getId(), sumJoinTransactionBo.getCollectInterval(), sumJoinTransactionBo.getTotalCount() / (long) boCount, sumJoinTransactionBo.getMinTotalCount(), sumJoinTransactionBo.getMinTotalCountAgentId(),
+                sumJoinTransactionBo.getMaxTotalCount(), sumJoinTransactionBo.getMaxTotalCountAgentId(), timestamp);
+    }
+
     public static JoinTransactionBo joinTransactionBoLIst(List<JoinTransactionBo> joinTransactionBoList, Long timestamp) {
         final int boCount = joinTransactionBoList.size();
 
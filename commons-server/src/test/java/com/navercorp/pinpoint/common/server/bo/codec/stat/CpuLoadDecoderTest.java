@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v1.CpuLoadCodecV1;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.CpuLoadCodecV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CpuLoadDecoderTest {
+
+    private static final String AGENT_ID = "testAgentId";
+
+    private final AgentStatDataPointCodec codec = new AgentStatDataPointCodec();
+    private final CpuLoadCodecV1 cpuLoadCodecV1 = new CpuLoadCodecV1(codec);
+    private final CpuLoadCodecV2 cpuLoadCodecV2 = new CpuLoadCodecV2(codec);
+    private final List<AgentStatCodec<CpuLoadBo>> codecs = Arrays.<AgentStatCodec<CpuLoadBo>>asList(cpuLoadCodecV1, cpuLoadCodecV2);
+    private final CpuLoadDecoder decoder = new CpuLoadDecoder(codecs);
+
+    @Test
+    public void decodeColumns_v1() {
+        verifyColumns(cpuLoadCodecV1);
+    }
+
+    @Test
+    public void decodeColumns_v2() {
+        verifyColumns(cpuLoadCodecV2);
+    }
+
+    private void verifyColumns(AgentStatCodec<CpuLoadBo> encodeCodec) {
+        final long initialTimestamp = System.currentTimeMillis();
+        final long baseTimestamp = AgentStatUtils.getBaseTimestamp(initialTimestamp);
+        final List<CpuLoadBo> cpuLoadBos = TestAgentStatFactory.createCpuLoadBos(AGENT_ID, initialTimestamp - 10000, initialTimestamp);
+
+        Buffer valueBuffer = new AutomaticBuffer();
+        valueBuffer.putByte(encodeCodec.getVersion());
+        encodeCodec.encodeValues(valueBuffer, cpuLoadBos);
+
+        AgentStatDecodingContext decodingContext = new AgentStatDecodingContext();
+        decodingContext.setAgentId(AGENT_ID);
+        decodingContext.setBaseTimestamp(baseTimestamp);
+        decodingContext.setTimestampDelta(initialTimestamp - baseTimestamp);
+
+        List<CpuLoadBo> decodedValues = decoder.decodeValue(new FixedBuffer(valueBuffer.getBuffer()), decodingContext);
+        AgentStatColumns columns = decoder.decodeColumns(new FixedBuffer(valueBuffer.getBuffer()), decodingContext);
+
+        Assert.assertEquals(AGENT_ID, columns.getAgentId());
+        Assert.assertEquals(decodedValues.size(), columns.size());
+        double[] jvmCpuLoads = columns.getDoubleColumn(CpuLoadCodecV2.JVM_CPU_LOAD_COLUMN);
+        double[] systemCpuLoads = columns.getDoubleColumn(CpuLoadCodecV2.SYSTEM_CPU_LOAD_COLUMN);
+        for (int i = 0; i < decodedValues.size(); i++) {
+            CpuLoadBo decodedValue = decodedValues.get(i);
+            Assert.assertEquals("startTimestamp", decodedValue.getStartTimestamp(), columns.getStartTimestamps()[i]);
+            Assert.assertEquals("timestamp", decodedValue.getTimestamp(), columns.getTimestamps()[i]);
+            Assert.assertEquals("jvmCpuLoad", decodedValue.getJvmCpuLoad(), jvmCpuLoads[i], 0);
+            Assert.assertEquals("systemCpuLoad", decodedValue.getSystemCpuLoad(), systemCpuLoads[i], 0);
+        }
+    }
+}
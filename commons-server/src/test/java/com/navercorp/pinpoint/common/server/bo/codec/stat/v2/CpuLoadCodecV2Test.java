@@ -16,12 +16,18 @@
 
 package com.navercorp.pinpoint.common.server.bo.codec.stat.v2;
 
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodecTestBase;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.TestAgentStatFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import org.junit.Assert;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
@@ -51,6 +57,35 @@ public class CpuLoadCodecV2Test extends AgentStatCodecTestBase<CpuLoadBo> {
         return cpuLoadCodecV2;
     }
 
+    @Test
+    public void columns_should_match_decoded_values() {
+        final long initialTimestamp = System.currentTimeMillis();
+        final long baseTimestamp = AgentStatUtils.getBaseTimestamp(initialTimestamp);
+        final List<CpuLoadBo> cpuLoadBos = createAgentStats("testAgentId", initialTimestamp - 10000, initialTimestamp);
+
+        Buffer encodedValueBuffer = new AutomaticBuffer();
+        cpuLoadCodecV2.encodeValues(encodedValueBuffer, cpuLoadBos);
+
+        AgentStatDecodingContext decodingContext = new AgentStatDecodingContext();
+        decodingContext.setAgentId("testAgentId");
+        decodingContext.setBaseTimestamp(baseTimestamp);
+        decodingContext.setTimestampDelta(initialTimestamp - baseTimestamp);
+
+        List<CpuLoadBo> decodedValues = cpuLoadCodecV2.decodeValues(new FixedBuffer(encodedValueBuffer.getBuffer()), decodingContext);
+        AgentStatColumns columns = cpuLoadCodecV2.decodeColumns(new FixedBuffer(encodedValueBuffer.getBuffer()), decodingContext);
+
+        Assert.assertEquals(decodedValues.size(), columns.size());
+        double[] jvmCpuLoads = columns.getDoubleColumn(CpuLoadCodecV2.JVM_CPU_LOAD_COLUMN);
+        double[] systemCpuLoads = columns.getDoubleColumn(CpuLoadCodecV2.SYSTEM_CPU_LOAD_COLUMN);
+        for (int i = 0; i < decodedValues.size(); i++) {
+            CpuLoadBo decodedValue = decodedValues.get(i);
+            Assert.assertEquals("startTimestamp", decodedValue.getStartTimestamp(), columns.getStartTimestamps()[i]);
+            Assert.assertEquals("timestamp", decodedValue.getTimestamp(), columns.getTimestamps()[i]);
+            Assert.assertEquals("jvmCpuLoad", decodedValue.getJvmCpuLoad(), jvmCpuLoads[i], 0);
+            Assert.assertEquals("systemCpuLoad", decodedValue.getSystemCpuLoad(), systemCpuLoads[i], 0);
+        }
+    }
+
     @Override
     protected void verify(CpuLoadBo expected, CpuLoadBo actual) {
         Assert.assertEquals("agentId", expected.getAgentId(), actual.getAgentId());
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.join;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AgentStatRollupTest {
+
+    @Test
+    public void findCoarsest_should_return_null_for_slots_finer_than_rollups() {
+        assertNull(AgentStatRollup.findCoarsest(TimeUnit.SECONDS.toMillis(5)));
+        assertNull(AgentStatRollup.findCoarsest(TimeUnit.SECONDS.toMillis(50)));
+    }
+
+    @Test
+    public void findCoarsest_should_return_coarsest_rollup_dividing_slot() {
+        assertEquals(AgentStatRollup.ONE_MINUTE, AgentStatRollup.findCoarsest(TimeUnit.MINUTES.toMillis(1)));
+        assertEquals(AgentStatRollup.ONE_MINUTE, AgentStatRollup.findCoarsest(TimeUnit.MINUTES.toMillis(5)));
+        assertEquals(AgentStatRollup.TEN_MINUTES, AgentStatRollup.findCoarsest(TimeUnit.MINUTES.toMillis(20)));
+        assertEquals(AgentStatRollup.ONE_HOUR, AgentStatRollup.findCoarsest(TimeUnit.HOURS.toMillis(1)));
+        assertEquals(AgentStatRollup.ONE_HOUR, AgentStatRollup.findCoarsest(TimeUnit.HOURS.toMillis(3)));
+    }
+
+    @Test
+    public void findCoarsest_should_skip_rollups_not_aligned_to_slot() {
+        assertEquals(AgentStatRollup.TEN_MINUTES, AgentStatRollup.findCoarsest(TimeUnit.MINUTES.toMillis(90)));
+        assertNull(AgentStatRollup.findCoarsest(TimeUnit.SECONDS.toMillis(90)));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.stat.join;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class JoinAgentStatAccumulatorTest {
+
+    private static final String AGENT_ID = "agent1";
+    private static final long BUCKET_TIMESTAMP = 1487149800000L;
+    private static final short SERVICE_TYPE = 6050;
+
+    @Test
+    public void rollupBucket() {
+        JoinAgentStatAccumulator accumulator = new JoinAgentStatAccumulator();
+        for (JoinAgentStatBo joinAgentStatBo : createJoinAgentStatBoList()) {
+            accumulator.addJoinAgentStatBo(joinAgentStatBo);
+        }
+
+        assertRollup(accumulator);
+    }
+
+    @Test
+    public void merge() {
+        List<JoinAgentStatBo> joinAgentStatBoList = createJoinAgentStatBoList();
+        JoinAgentStatAccumulator accumulator1 = new JoinAgentStatAccumulator();
+        accumulator1.addJoinAgentStatBo(joinAgentStatBoList.get(0));
+        JoinAgentStatAccumulator accumulator2 = new JoinAgentStatAccumulator();
+        accumulator2.addJoinAgentStatBo(joinAgentStatBoList.get(1));
+        accumulator2.addJoinAgentStatBo(joinAgentStatBoList.get(2));
+
+        accumulator1.merge(accumulator2);
+
+        assertRollup(accumulator1);
+    }
+
+    @Test
+    public void empty() {
+        JoinAgentStatAccumulator accumulator = new JoinAgentStatAccumulator();
+        Assert.assertSame(JoinAgentStatBo.EMPTY_JOIN_AGENT_STAT_BO, accumulator.toJoinAgentStatBo(BUCKET_TIMESTAMP));
+        Assert.assertEquals(0, accumulator.getSampleCount(StatType.AGENT_CPU_LOAD_AGGRE));
+    }
+
+    private void assertRollup(JoinAgentStatAccumulator accumulator) {
+        JoinAgentStatBo rollup = accumulator.toJoinAgentStatBo(BUCKET_TIMESTAMP);
+        Assert.assertEquals(AGENT_ID, rollup.getId());
+        Assert.assertEquals(BUCKET_TIMESTAMP, rollup.getTimestamp());
+
+        Assert.assertEquals(1, rollup.getJoinCpuLoadBoList().size());
+        JoinCpuLoadBo joinCpuLoadBo = rollup.getJoinCpuLoadBoList().get(0);
+        Assert.assertEquals(BUCKET_TIMESTAMP, joinCpuLoadBo.getTimestamp());
+        Assert.assertEquals(0.1, joinCpuLoadBo.getMinJvmCpuLoad(), 0.0001);
+        Assert.assertEquals(0.7, joinCpuLoadBo.getMaxJvmCpuLoad(), 0.0001);
+        Assert.assertEquals(0.4, joinCpuLoadBo.getJvmCpuLoad(), 0.0001);
+        Assert.assertEquals(0.2, joinCpuLoadBo.getMinSystemCpuLoad(), 0.0001);
+        Assert.assertEquals(0.8, joinCpuLoadBo.getMaxSystemCpuLoad(), 0.0001);
+        Assert.assertEquals(0.5, joinCpuLoadBo.getSystemCpuLoad(), 0.0001);
+
+        JoinMemoryBo joinMemoryBo = rollup.getJoinMemoryBoList().get(0);
+        Assert.assertEquals(100, joinMemoryBo.getMinHeapUsed());
+        Assert.assertEquals(300, joinMemoryBo.getMaxHeapUsed());
+        Assert.assertEquals(200, joinMemoryBo.getHeapUsed());
+        Assert.assertEquals(10, joinMemoryBo.getMinNonHeapUsed());
+        Assert.assertEquals(30, joinMemoryBo.getMaxNonHeapUsed());
+        Assert.assertEquals(20, joinMemoryBo.getNonHeapUsed());
+
+        JoinTransactionBo joinTransactionBo = rollup.getJoinTransactionBoList().get(0);
+        Assert.assertEquals(10, joinTransactionBo.getMinTotalCount());
+        Assert.assertEquals(30, joinTransactionBo.getMaxTotalCount());
+        Assert.assertEquals(20, joinTransactionBo.getTotalCount());
+
+        JoinActiveTraceBo joinActiveTraceBo = rollup.getJoinActiveTraceBoList().get(0);
+        Assert.assertEquals(1, joinActiveTraceBo.getMinTotalCount());
+        Assert.assertEquals(5, joinActiveTraceBo.getMaxTotalCount());
+        Assert.assertEquals(3, joinActiveTraceBo.getTotalCount());
+
+        JoinResponseTimeBo joinResponseTimeBo = rollup.getJoinResponseTimeBoList().get(0);
+        Assert.assertEquals(100, joinResponseTimeBo.getMinAvg());
+        Assert.assertEquals(600, joinResponseTimeBo.getMaxAvg());
+        Assert.assertEquals(300, joinResponseTimeBo.getAvg());
+
+        JoinDataSourceListBo joinDataSourceListBo = rollup.getJoinDataSourceListBoList().get(0);
+        Assert.assertEquals(BUCKET_TIMESTAMP, joinDataSourceListBo.getTimestamp());
+        Assert.assertEquals(2, joinDataSourceListBo.getJoinDataSourceBoList().size());
+        for (JoinDataSourceBo joinDataSourceBo : joinDataSourceListBo.getJoinDataSourceBoList()) {
+            if ("jdbc:url1".equals(joinDataSourceBo.getUrl())) {
+                Assert.assertEquals(2, joinDataSourceBo.getMinActiveConnectionSize());
+                Assert.assertEquals(6, joinDataSourceBo.getMaxActiveConnectionSize());
+                Assert.assertEquals(4, joinDataSourceBo.getAvgActiveConnectionSize());
+            } else {
+                Assert.assertEquals("jdbc:url2", joinDataSourceBo.getUrl());
+                Assert.assertEquals(8, joinDataSourceBo.getAvgActiveConnectionSize());
+            }
+        }
+
+        Assert.assertEquals(3, accumulator.getSampleCount(StatType.AGENT_CPU_LOAD_AGGRE));
+        Assert.assertEquals(3, accumulator.getSampleCount(StatType.AGENT_MEMORY_USED_AGGRE));
+        Assert.assertEquals(3, accumulator.getSampleCount(StatType.AGENT_TRANSACTION_COUNT_AGGRE));
+        Assert.assertEquals(3, accumulator.getSampleCount(StatType.AGENT_ACTIVE_TRACE_COUNT_AGGRE));
+        Assert.assertEquals(3, accumulator.getSampleCount(StatType.AGENT_RESPONSE_TIME_AGGRE));
+        Assert.assertEquals(3, accumulator.getSampleCount(StatType.AGENT_DATA_SOURCE_AGGRE));
+    }
+
+    private List<JoinAgentStatBo> createJoinAgentStatBoList() {
+        List<JoinAgentStatBo> joinAgentStatBoList = new ArrayList<JoinAgentStatBo>();
+        joinAgentStatBoList.add(createJoinAgentStatBo(BUCKET_TIMESTAMP + 5000, 0.1, 0.5, 100, 20, 10, 1, 100, 2, 8));
+        joinAgentStatBoList.add(createJoinAgentStatBo(BUCKET_TIMESTAMP + 10000, 0.4, 0.2, 300, 10, 20, 5, 200, 4, -1));
+        joinAgentStatBoList.add(createJoinAgentStatBo(BUCKET_TIMESTAMP + 15000, 0.7, 0.8, 200, 30, 30, 3, 600, 6, -1));
+        return joinAgentStatBoList;
+    }
+
+    private JoinAgentStatBo createJoinAgentStatBo(long timestamp, double jvmCpuLoad, double systemCpuLoad, long heapUsed, long nonHeapUsed, long transactionCount,
+                                                  int activeTraceCount, long responseTime, int activeConnectionSize1, int activeConnectionSize2) {
+        JoinAgentStatBo joinAgentStatBo = new JoinAgentStatBo();
+        joinAgentStatBo.setId(AGENT_ID);
+        joinAgentStatBo.setTimestamp(timestamp);
+        joinAgentStatBo.setJoinCpuLoadBoList(Collections.singletonList(new JoinCpuLoadBo(AGENT_ID, jvmCpuLoad, jvmCpuLoad, AGENT_ID, jvmCpuLoad, AGENT_ID, systemCpuLoad, systemCpuLoad, AGENT_ID, systemCpuLoad, AGENT_ID, timestamp)));
+        joinAgentStatBo.setJoinMemoryBoList(Collections.singletonList(new JoinMemoryBo(AGENT_ID, timestamp, heapUsed, heapUsed, heapUsed, AGENT_ID, AGENT_ID, nonHeapUsed, nonHeapUsed, nonHeapUsed, AGENT_ID, AGENT_ID)));
+        joinAgentStatBo.setJoinTransactionBoList(Collections.singletonList(new JoinTransactionBo(AGENT_ID, 5000, transactionCount, transactionCount, AGENT_ID, transactionCount, AGENT_ID, timestamp)));
+        joinAgentStatBo.setJoinActiveTraceBoList(Collections.singletonList(new JoinActiveTraceBo(AGENT_ID, 1, (short) 1, activeTraceCount, activeTraceCount, AGENT_ID, activeTraceCount, AGENT_ID, timestamp)));
+        joinAgentStatBo.setJoinResponseTimeBoList(Collections.singletonList(new JoinResponseTimeBo(AGENT_ID, timestamp, responseTime, responseTime, AGENT_ID, responseTime, AGENT_ID)));
+
+        List<JoinDataSourceBo> joinDataSourceBoList = new ArrayList<JoinDataSourceBo>();
+        joinDataSourceBoList.add(new JoinDataSourceBo(SERVICE_TYPE, "jdbc:url1", activeConnectionSize1, activeConnectionSize1, AGENT_ID, activeConnectionSize1, AGENT_ID));
+        if (activeConnectionSize2 != -1) {
+            joinDataSourceBoList.add(new JoinDataSourceBo(SERVICE_TYPE, "jdbc:url2", activeConnectionSize2, activeConnectionSize2, AGENT_ID, activeConnectionSize2, AGENT_ID));
+        }
+        joinAgentStatBo.setJoinDataSourceListBoList(Collections.singletonList(new JoinDataSourceListBo(AGENT_ID, joinDataSourceBoList, timestamp)));
+        return joinAgentStatBo;
+    }
+}
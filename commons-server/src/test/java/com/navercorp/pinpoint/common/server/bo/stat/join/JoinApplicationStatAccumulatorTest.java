@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.stat.join;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class JoinApplicationStatAccumulatorTest {
+
+    private static final long CURRENT_TIME = 1487149800000L;
+
+    private final Random random = new Random(1234);
+
+    @Test
+    public void sameAsJoinByTimeSlice() {
+        List<JoinApplicationStatBo> joinApplicationStatBoList = createJoinApplicationStatBoList(20);
+
+        JoinApplicationStatAccumulator accumulator = new JoinApplicationStatAccumulator();
+        for (JoinApplicationStatBo joinApplicationStatBo : joinApplicationStatBoList) {
+            accumulator.addJoinApplicationStatBo(joinApplicationStatBo);
+        }
+
+        assertJoinApplicationStatBo(JoinApplicationStatBo.joinApplicationStatBoByTimeSlice(joinApplicationStatBoList), accumulator.toJoinApplicationStatBo());
+    }
+
+    @Test
+    public void merge() {
+        List<JoinApplicationStatBo> joinApplicationStatBoList = createJoinApplicationStatBoList(20);
+
+        JoinApplicationStatAccumulator accumulator1 = new JoinApplicationStatAccumulator();
+        JoinApplicationStatAccumulator accumulator2 = new JoinApplicationStatAccumulator();
+        for (int i = 0; i < joinApplicationStatBoList.size(); i++) {
+            if (i < 7) {
+                accumulator1.addJoinApplicationStatBo(joinApplicationStatBoList.get(i));
+            } else {
+                accumulator2.addJoinApplicationStatBo(joinApplicationStatBoList.get(i));
+            }
+        }
+        accumulator1.merge(accumulator2);
+
+        assertJoinApplicationStatBo(JoinApplicationStatBo.joinApplicationStatBoByTimeSlice(joinApplicationStatBoList), accumulator1.toJoinApplicationStatBo());
+    }
+
+    @Test
+    public void empty() {
+        JoinApplicationStatAccumulator accumulator = new JoinApplicationStatAccumulator();
+        Assert.assertSame(JoinApplicationStatBo.EMPTY_JOIN_APPLICATION_STAT_BO, accumulator.toJoinApplicationStatBo());
+    }
+
+    private void assertJoinApplicationStatBo(JoinApplicationStatBo expected, JoinApplicationStatBo actual) {
+        Assert.assertEquals(expected.getId(), actual.getId());
+        Assert.assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        Assert.assertEquals(sort(expected.getJoinCpuLoadBoList()), sort(actual.getJoinCpuLoadBoList()));
+        Assert.assertEquals(sort(expected.getJoinMemoryBoList()), sort(actual.getJoinMemoryBoList()));
+        Assert.assertEquals(sort(expected.getJoinTransactionBoList()), sort(actual.getJoinTransactionBoList()));
+        Assert.assertEquals(sort(expected.getJoinActiveTraceBoList()), sort(actual.getJoinActiveTraceBoList()));
+        Assert.assertEquals(sort(expected.getJoinResponseTimeBoList()), sort(actual.getJoinResponseTimeBoList()));
+
+        List<JoinDataSourceListBo> expectedDataSourceList = sort(expected.getJoinDataSourceListBoList());
+        List<JoinDataSourceListBo> actualDataSourceList = sort(actual.getJoinDataSourceListBoList());
+        Assert.assertEquals(expectedDataSourceList.size(), actualDataSourceList.size());
+        for (int i = 0; i < expectedDataSourceList.size(); i++) {
+            JoinDataSourceListBo expectedDataSource = expectedDataSourceList.get(i);
+            JoinDataSourceListBo actualDataSource = actualDataSourceList.get(i);
+            Assert.assertEquals(expectedDataSource.getId(), actualDataSource.getId());
+            Assert.assertEquals(expectedDataSource.getTimestamp(), actualDataSource.getTimestamp());
+            Assert.assertEquals(new HashSet<JoinDataSourceBo>(expectedDataSource.getJoinDataSourceBoList()), new HashSet<JoinDataSourceBo>(actualDataSource.getJoinDataSourceBoList()));
+        }
+    }
+
+    private <T extends JoinStatBo> List<T> sort(List<T> joinStatBoList) {
+        List<T> sortedList = new ArrayList<T>(joinStatBoList);
+        Collections.sort(sortedList, new Comparator<T>() {
+            @Override
+            public int compare(T o1, T o2) {
+                return o1.getTimestamp() < o2.getTimestamp() ? -1 : (o1.getTimestamp() == o2.getTimestamp() ? 0 : 1);
+            }
+        });
+        return sortedList;
+    }
+
+    private List<JoinApplicationStatBo> createJoinApplicationStatBoList(int agentCount) {
+        List<JoinApplicationStatBo> joinApplicationStatBoList = new ArrayList<JoinApplicationStatBo>();
+        for (int i = 0; i < agentCount; i++) {
+            String agentId = "agent" + i;
+            long timestamp = CURRENT_TIME + random.nextInt(3000);
+
+            JoinApplicationStatBo joinApplicationStatBo = new JoinApplicationStatBo();
+            joinApplicationStatBo.setId("application");
+            joinApplicationStatBo.setTimestamp(timestamp);
+
+            List<JoinCpuLoadBo> joinCpuLoadBoList = new ArrayList<JoinCpuLoadBo>();
+            List<JoinMemoryBo> joinMemoryBoList = new ArrayList<JoinMemoryBo>();
+            List<JoinTransactionBo> joinTransactionBoList = new ArrayList<JoinTransactionBo>();
+            List<JoinActiveTraceBo> joinActiveTraceBoList = new ArrayList<JoinActiveTraceBo>();
+            List<JoinResponseTimeBo> joinResponseTimeBoList = new ArrayList<JoinResponseTimeBo>();
+            List<JoinDataSourceListBo> joinDataSourceListBoList = new ArrayList<JoinDataSourceListBo>();
+            for (int slice = 0; slice < 4; slice++) {
+                long sliceTime = timestamp + (slice * 5000);
+                joinCpuLoadBoList.add(new JoinCpuLoadBo(agentId, randomInt(), randomInt(), agentId, randomInt(), agentId, randomInt(), randomInt(), agentId, randomInt(), agentId, sliceTime));
+                joinMemoryBoList.add(new JoinMemoryBo(agentId, sliceTime, randomInt(), randomInt(), randomInt(), agentId, agentId, randomInt(), randomInt(), randomInt(), agentId, agentId));
+                joinTransactionBoList.add(new JoinTransactionBo(agentId, 5000, randomInt(), randomInt(), agentId, randomInt(), agentId, sliceTime));
+                joinActiveTraceBoList.add(new JoinActiveTraceBo(agentId, 1, (short) 2, randomInt(), randomInt(), agentId, randomInt(), agentId, sliceTime));
+                joinResponseTimeBoList.add(new JoinResponseTimeBo(agentId, sliceTime, randomInt(), randomInt(), agentId, randomInt(), agentId));
+
+                List<JoinDataSourceBo> joinDataSourceBoList = new ArrayList<JoinDataSourceBo>();
+                joinDataSourceBoList.add(new JoinDataSourceBo((short) 1000, "jdbc:mysql", randomInt(), randomInt(), agentId, randomInt(), agentId));
+                if (i % 2 == 0) {
+                    joinDataSourceBoList.add(new JoinDataSourceBo((short) 2000, "jdbc:oracle", randomInt(), randomInt(), agentId, randomInt(), agentId));
+                }
+                joinDataSourceListBoList.add(new JoinDataSourceListBo(agentId, joinDataSourceBoList, sliceTime));
+            }
+
+            joinApplicationStatBo.setJoinCpuLoadBoList(joinCpuLoadBoList);
+            joinApplicationStatBo.setJoinMemoryBoList(joinMemoryBoList);
+            joinApplicationStatBo.setJoinTransactionBoList(joinTransactionBoList);
+            joinApplicationStatBo.setJoinActiveTraceBoList(joinActiveTraceBoList);
+            joinApplicationStatBo.setJoinResponseTimeBoList(joinResponseTimeBoList);
+            joinApplicationStatBo.setJoinDataSourceListBoList(joinDataSourceListBoList);
+            joinApplicationStatBoList.add(joinApplicationStatBo);
+        }
+        return joinApplicationStatBoList;
+    }
+
+    private int randomInt() {
+        return random.nextInt(100);
+    }
+}
@@ -94,6 +94,7 @@ import static com.navercorp.pinpoint.common.trace.AnnotationKeyProperty.*;
  * <tr><td>201</td><td>cxf.args</td></tr>
  * <tr><td>300</td><td>PROXY_HTTP_HEADER</td></tr>
  * <tr><td>310</td><td>REDIS.IO</td></tr>
+ * <tr><td>320</td><td>stack.sample</td></tr>
  * <tr><td>9000</td><td>gson.json.length</td></tr>
  * <tr><td>9001</td><td>jackson.json.length</td></tr>
  * <tr><td>9002</td><td>json-lib.json.length</td></tr>
@@ -205,4 +206,8 @@ public interface AnnotationKey {
 
     AnnotationKey PROXY_HTTP_HEADER = AnnotationKeyFactory.of(300, "PROXY_HTTP_HEADER", VIEW_IN_RECORD_SET);
     AnnotationKey REDIS_IO = AnnotationKeyFactory.of(310, "redis.io");
+
+    // stacks sampled while the transaction was running, in collapsed format. one "frame;frame;frame count" line per stack, root frame first.
+    // stacks cut at the sampling depth start with a "[truncated]" frame, and the samples of dropped stacks are counted in a "[truncated] count" line.
+    AnnotationKey STACK_SAMPLE = AnnotationKeyFactory.of(320, "stack.sample", VIEW_IN_RECORD_SET);
 }
\ No newline at end of file
@@ -118,7 +118,19 @@ public final class ThreadMXBeanUtils {
         }
     }
 
+    /**
+     * @deprecated Since 1.7.0. Use {@link #getThreadInfo(long[], int)}
+     */
+    @Deprecated
     public static ThreadInfo[] findThread(long[] id, int stackTraceMaxDepth) {
+        return getThreadInfo(id, stackTraceMaxDepth);
+    }
+
+    public static ThreadInfo[] getThreadInfo(long[] id) {
+        return getThreadInfo(id, DEFAULT_STACK_TRACE_MAX_DEPTH);
+    }
+
+    public static ThreadInfo[] getThreadInfo(long[] id, int stackTraceMaxDepth) {
         if (stackTraceMaxDepth <= 0) {
             return THREAD_MX_BEAN.getThreadInfo(id);
         } else {
@@ -19,9 +19,15 @@ package com.navercorp.pinpoint.flink;
  * @author minwoo.jung
  */
 
+import com.navercorp.pinpoint.common.server.bo.stat.join.AgentStatRollup;
 import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+import com.navercorp.pinpoint.flink.dao.hbase.AgentStatRollupDao;
 import com.navercorp.pinpoint.flink.dao.hbase.StatisticsDao;
+import com.navercorp.pinpoint.flink.function.AgentStatRollupAggregate;
+import com.navercorp.pinpoint.flink.function.AgentStatRollupWindow;
+import com.navercorp.pinpoint.flink.function.ApplicationStatBoAggregate;
 import com.navercorp.pinpoint.flink.function.ApplicationStatBoWindow;
+import com.navercorp.pinpoint.flink.function.JoinAgentStatBoFilter;
 import com.navercorp.pinpoint.flink.function.Timestamp;
 import com.navercorp.pinpoint.flink.function.ApplicationStatBoFliter;
 import com.navercorp.pinpoint.flink.receiver.TcpSourceFunction;
@@ -67,9 +73,20 @@ public class StatStreamingVer2Job implements Serializable {
             .keyBy(0)
             .window(TumblingEventTimeWindows.of(Time.milliseconds(ApplicationStatBoWindow.WINDOW_SIZE)))
             .allowedLateness(Time.milliseconds(ApplicationStatBoWindow.ALLOWED_LATENESS))
-            .apply(new ApplicationStatBoWindow());
+            .aggregate(new ApplicationStatBoAggregate(), new ApplicationStatBoWindow());
         applicationStatAggregationData.writeUsingOutputFormat(statisticsDao);
 
+        //1-3 roll up agent stat data into coarser resolutions
+        final DataStream<Tuple3<String, JoinStatBo, Long>> agentStatData = statOperator.filter(new JoinAgentStatBoFilter())
+            .assignTimestampsAndWatermarks(new Timestamp());
+        for (AgentStatRollup rollup : AgentStatRollup.values()) {
+            agentStatData.keyBy(0)
+                .window(TumblingEventTimeWindows.of(Time.milliseconds(rollup.getWindowSize())))
+                .allowedLateness(Time.milliseconds(ApplicationStatBoWindow.ALLOWED_LATENESS))
+                .aggregate(new AgentStatRollupAggregate(), new AgentStatRollupWindow())
+                .writeUsingOutputFormat(new AgentStatRollupDao(rollup));
+        }
+
         // 1-2. aggregate application stat data
 //        statOperator.filter(new FilterFunction<Tuple3<String, JoinStatBo, Long>>() {
 //            @Override
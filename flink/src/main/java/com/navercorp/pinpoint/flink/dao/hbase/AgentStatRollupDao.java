@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.flink.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.HbaseTemplate2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.ApplicationStatHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.join.ApplicationStatSerializer;
+import com.navercorp.pinpoint.common.server.bo.stat.join.AgentStatRollup;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinAgentStatAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinAgentStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.StatType;
+import com.navercorp.pinpoint.flink.Bootstrap;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.flink.api.common.io.OutputFormat;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes rolled up agent stats into the table of the given {@link AgentStatRollup}.
+ * Next to each rolled up stat, the number of samples it was rolled up from is stored in {@link HBaseTables#AGENT_STAT_ROLLUP_CF_COUNT}
+ * so that readers can weight bucket averages when rolling buckets up further.
+ */
+public class AgentStatRollupDao implements OutputFormat<Tuple3<String, JoinAgentStatAccumulator, Long>> {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private static final long serialVersionUID = 1L;
+
+    private final AgentStatRollup rollup;
+    private transient HbaseTemplate2 hbaseTemplate2;
+    private transient ApplicationStatHbaseOperationFactory applicationStatHbaseOperationFactory;
+    private transient ApplicationStatSerializer cpuLoadSerializer;
+    private transient ApplicationStatSerializer memorySerializer;
+    private transient ApplicationStatSerializer transactionSerializer;
+    private transient ApplicationStatSerializer activeTraceSerializer;
+    private transient ApplicationStatSerializer responseTimeSerializer;
+    private transient ApplicationStatSerializer dataSourceSerializer;
+
+    public AgentStatRollupDao(AgentStatRollup rollup) {
+        this.rollup = Objects.requireNonNull(rollup, "rollup must not be null");
+    }
+
+    @Override
+    public void configure(Configuration parameters) {
+        ApplicationContext applicationContext = Bootstrap.getInstance().getApplicationContext();
+        hbaseTemplate2 = applicationContext.getBean("hbaseTemplate", HbaseTemplate2.class);
+        applicationStatHbaseOperationFactory = applicationContext.getBean("applicationStatHbaseOperationFactory", ApplicationStatHbaseOperationFactory.class);
+        cpuLoadSerializer = applicationContext.getBean("cpuLoadSerializer", ApplicationStatSerializer.class);
+        memorySerializer = applicationContext.getBean("memorySerializer", ApplicationStatSerializer.class);
+        transactionSerializer = applicationContext.getBean("transactionSerializer", ApplicationStatSerializer.class);
+        activeTraceSerializer = applicationContext.getBean("activeTraceSerializer", ApplicationStatSerializer.class);
+        responseTimeSerializer = applicationContext.getBean("responseTimeSerializer", ApplicationStatSerializer.class);
+        dataSourceSerializer = applicationContext.getBean("dataSourceSerializer", ApplicationStatSerializer.class);
+    }
+
+    @Override
+    public void open(int taskNumber, int numTasks) throws IOException {
+    }
+
+    @Override
+    public void writeRecord(Tuple3<String, JoinAgentStatAccumulator, Long> statData) throws IOException {
+        final JoinAgentStatAccumulator accumulator = statData.f1;
+        final long timestamp = statData.f2;
+        final JoinAgentStatBo joinAgentStatBo = accumulator.toJoinAgentStatBo(timestamp);
+        if (joinAgentStatBo == JoinAgentStatBo.EMPTY_JOIN_AGENT_STAT_BO) {
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} rollup insert data : {}", rollup, joinAgentStatBo);
+        }
+
+        final String agentId = joinAgentStatBo.getId();
+        List<Put> puts = new ArrayList<>();
+        addPuts(puts, agentId, timestamp, joinAgentStatBo.getJoinCpuLoadBoList(), StatType.AGENT_CPU_LOAD_AGGRE, cpuLoadSerializer, accumulator);
+        addPuts(puts, agentId, timestamp, joinAgentStatBo.getJoinMemoryBoList(), StatType.AGENT_MEMORY_USED_AGGRE, memorySerializer, accumulator);
+        addPuts(puts, agentId, timestamp, joinAgentStatBo.getJoinTransactionBoList(), StatType.AGENT_TRANSACTION_COUNT_AGGRE, transactionSerializer, accumulator);
+        addPuts(puts, agentId, timestamp, joinAgentStatBo.getJoinActiveTraceBoList(), StatType.AGENT_ACTIVE_TRACE_COUNT_AGGRE, activeTraceSerializer, accumulator);
+        addPuts(puts, agentId, timestamp, joinAgentStatBo.getJoinResponseTimeBoList(), StatType.AGENT_RESPONSE_TIME_AGGRE, responseTimeSerializer, accumulator);
+        addPuts(puts, agentId, timestamp, joinAgentStatBo.getJoinDataSourceListBoList(), StatType.AGENT_DATA_SOURCE_AGGRE, dataSourceSerializer, accumulator);
+        if (puts.isEmpty()) {
+            return;
+        }
+
+        List<Put> rejectedPuts = hbaseTemplate2.asyncPut(rollup.getTableName(), puts);
+        if (CollectionUtils.isNotEmpty(rejectedPuts)) {
+            hbaseTemplate2.put(rollup.getTableName(), rejectedPuts);
+        }
+    }
+
+    private void addPuts(List<Put> puts, String agentId, long timestamp, List<? extends JoinStatBo> joinStatBoList, StatType statType,
+                         ApplicationStatSerializer serializer, JoinAgentStatAccumulator accumulator) {
+        if (CollectionUtils.isEmpty(joinStatBoList)) {
+            return;
+        }
+        final byte[] sampleCount = Bytes.toBytes(accumulator.getSampleCount(statType));
+        for (Put put : applicationStatHbaseOperationFactory.createPuts(agentId, new ArrayList<JoinStatBo>(joinStatBoList), statType, serializer)) {
+            put.addColumn(HBaseTables.AGENT_STAT_ROLLUP_CF_COUNT, Bytes.toBytes(timestamp), sampleCount);
+            puts.add(put);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.flink.function;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinAgentStatAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinAgentStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+
+/**
+ * rolls up an agent's stat incrementally. The accumulator itself is the result as the bucket timestamp is only known to {@link AgentStatRollupWindow}.
+ */
+public class AgentStatRollupAggregate implements AggregateFunction<Tuple3<String, JoinStatBo, Long>, JoinAgentStatAccumulator, JoinAgentStatAccumulator> {
+
+    @Override
+    public JoinAgentStatAccumulator createAccumulator() {
+        return new JoinAgentStatAccumulator();
+    }
+
+    @Override
+    public void add(Tuple3<String, JoinStatBo, Long> value, JoinAgentStatAccumulator accumulator) {
+        accumulator.addJoinAgentStatBo((JoinAgentStatBo) value.f1);
+    }
+
+    @Override
+    public JoinAgentStatAccumulator getResult(JoinAgentStatAccumulator accumulator) {
+        return accumulator;
+    }
+
+    @Override
+    public JoinAgentStatAccumulator merge(JoinAgentStatAccumulator a, JoinAgentStatAccumulator b) {
+        a.merge(b);
+        return a;
+    }
+}
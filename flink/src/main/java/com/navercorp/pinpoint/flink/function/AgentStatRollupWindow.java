@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.flink.function;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinAgentStatAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinAgentStatBo;
+import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.streaming.api.functions.windowing.WindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * emits the rolled up accumulator with the start of its window, so that the sample counts can be stored alongside the rolled up stats.
+ */
+public class AgentStatRollupWindow implements WindowFunction<JoinAgentStatAccumulator, Tuple3<String, JoinAgentStatAccumulator, Long>, Tuple, TimeWindow> {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Override
+    public void apply(Tuple tuple, TimeWindow window, Iterable<JoinAgentStatAccumulator> values, Collector<Tuple3<String, JoinAgentStatAccumulator, Long>> out) throws Exception {
+        try {
+            // values holds the single result of AgentStatRollupAggregate
+            JoinAgentStatAccumulator accumulator = values.iterator().next();
+            JoinAgentStatBo joinAgentStatBo = accumulator.toJoinAgentStatBo(window.getStart());
+            if (joinAgentStatBo == JoinAgentStatBo.EMPTY_JOIN_AGENT_STAT_BO) {
+                return;
+            }
+
+            out.collect(new Tuple3<>(joinAgentStatBo.getId(), accumulator, window.getStart()));
+        } catch (Exception e) {
+            logger.error("rollup window function error", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.flink.function;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinApplicationStatAccumulator;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinApplicationStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+
+/**
+ * joins application stat incrementally, so the window state holds one running sum per time slice instead of every agent's stat.
+ */
+public class ApplicationStatBoAggregate implements AggregateFunction<Tuple3<String, JoinStatBo, Long>, JoinApplicationStatAccumulator, JoinApplicationStatBo> {
+
+    @Override
+    public JoinApplicationStatAccumulator createAccumulator() {
+        return new JoinApplicationStatAccumulator();
+    }
+
+    @Override
+    public void add(Tuple3<String, JoinStatBo, Long> value, JoinApplicationStatAccumulator accumulator) {
+        accumulator.addJoinApplicationStatBo((JoinApplicationStatBo) value.f1);
+    }
+
+    @Override
+    public JoinApplicationStatBo getResult(JoinApplicationStatAccumulator accumulator) {
+        return accumulator.toJoinApplicationStatBo();
+    }
+
+    @Override
+    public JoinApplicationStatAccumulator merge(JoinApplicationStatAccumulator a, JoinApplicationStatAccumulator b) {
+        a.merge(b);
+        return a;
+    }
+}
@@ -25,23 +25,22 @@ import org.apache.flink.util.Collector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
 
 /**
  * @author minwoo.jung
  */
-public class ApplicationStatBoWindow implements WindowFunction<Tuple3<String, JoinStatBo, Long>, Tuple3<String, JoinStatBo, Long>, Tuple, TimeWindow> {
+public class ApplicationStatBoWindow implements WindowFunction<JoinApplicationStatBo, Tuple3<String, JoinStatBo, Long>, Tuple, TimeWindow> {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     public static final int WINDOW_SIZE = 10000;
     public static final int ALLOWED_LATENESS = 45000;
 
     @Override
-    public void apply(Tuple tuple, TimeWindow window, Iterable<Tuple3<String, JoinStatBo, Long>> values, Collector<Tuple3<String, JoinStatBo, Long>> out) throws Exception {
+    public void apply(Tuple tuple, TimeWindow window, Iterable<JoinApplicationStatBo> values, Collector<Tuple3<String, JoinStatBo, Long>> out) throws Exception {
         try {
-            JoinApplicationStatBo joinApplicationStatBo = join(values);
+            // values holds the single result of ApplicationStatBoAggregate
+            JoinApplicationStatBo joinApplicationStatBo = values.iterator().next();
             long delayTime = new Date().getTime() - joinApplicationStatBo.getTimestamp();
             if (delayTime > 35000) {
                 if (logger.isDebugEnabled()) {
@@ -70,15 +69,4 @@ public class ApplicationStatBoWindow implements WindowFunction<Tuple3<String, Jo
             logger.error("window function error", e);
         }
     }
-
-    private JoinApplicationStatBo join(Iterable<Tuple3<String, JoinStatBo, Long>> values) {
-        List<JoinApplicationStatBo> joinApplicaitonStatBoList = new ArrayList<JoinApplicationStatBo>();
-
-        for (Tuple3<String, JoinStatBo, Long> value : values) {
-            joinApplicaitonStatBoList.add((JoinApplicationStatBo) value.f1);
-        }
-
-        return JoinApplicationStatBo.joinApplicationStatBoByTimeSlice(joinApplicaitonStatBoList);
-
-    }
 }
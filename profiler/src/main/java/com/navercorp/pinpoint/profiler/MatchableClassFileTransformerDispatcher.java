@@ -23,8 +23,10 @@ import com.navercorp.pinpoint.profiler.instrument.InstrumentEngine;
 import com.navercorp.pinpoint.profiler.instrument.classreading.InternalClassMetadata;
 import com.navercorp.pinpoint.profiler.instrument.classreading.InternalClassMetadataReader;
 import com.navercorp.pinpoint.profiler.instrument.transformer.DebugTransformerRegistry;
+import com.navercorp.pinpoint.profiler.instrument.transformer.DisabledUntransformedClassCache;
 import com.navercorp.pinpoint.profiler.instrument.transformer.MatchableTransformerRegistry;
 import com.navercorp.pinpoint.profiler.instrument.transformer.TransformerRegistry;
+import com.navercorp.pinpoint.profiler.instrument.transformer.UntransformedClassCache;
 import com.navercorp.pinpoint.profiler.plugin.MatchableClassFileTransformer;
 import com.navercorp.pinpoint.profiler.plugin.PluginContextLoadResult;
 import org.slf4j.Logger;
@@ -45,9 +47,10 @@ public class MatchableClassFileTransformerDispatcher implements ClassFileTransfo
     private final ClassLoader agentClassLoader = this.getClass().getClassLoader();
 
     private final BaseClassFileTransformer baseClassFileTransformer;
-    private final TransformerRegistry transformerRegistry;
+    private final MatchableTransformerRegistry transformerRegistry;
     private final DynamicTransformerRegistry dynamicTransformerRegistry;
     private final TransformerRegistry debugTransformerRegistry;
+    private final UntransformedClassCache untransformedClassCache;
 
     private final ClassFileFilter classLoaderFilter;
     private final ClassFileFilter pinpointClassFilter;
@@ -57,15 +60,23 @@ public class MatchableClassFileTransformerDispatcher implements ClassFileTransfo
 
     public MatchableClassFileTransformerDispatcher(ProfilerConfig profilerConfig, PluginContextLoadResult pluginContextLoadResult, InstrumentEngine instrumentEngine,
                                                    DynamicTransformTrigger dynamicTransformTrigger, DynamicTransformerRegistry dynamicTransformerRegistry) {
+        this(profilerConfig, pluginContextLoadResult, instrumentEngine, dynamicTransformTrigger, dynamicTransformerRegistry, DisabledUntransformedClassCache.INSTANCE);
+    }
+
+    public MatchableClassFileTransformerDispatcher(ProfilerConfig profilerConfig, PluginContextLoadResult pluginContextLoadResult, InstrumentEngine instrumentEngine,
+                                                   DynamicTransformTrigger dynamicTransformTrigger, DynamicTransformerRegistry dynamicTransformerRegistry,
+                                                   UntransformedClassCache untransformedClassCache) {
         Assert.requireNonNull(profilerConfig, "profilerConfig must not be null");
         Assert.requireNonNull(pluginContextLoadResult, "pluginContexts must not be null");
         Assert.requireNonNull(instrumentEngine, "instrumentEngine must not be null");
         Assert.requireNonNull(dynamicTransformerRegistry, "dynamicTransformerRegistry must not be null");
+        Assert.requireNonNull(untransformedClassCache, "untransformedClassCache must not be null");
 
         this.baseClassFileTransformer = new BaseClassFileTransformer(agentClassLoader);
         this.debugTransformerRegistry = new DebugTransformerRegistry(profilerConfig, instrumentEngine, dynamicTransformTrigger);
         this.transformerRegistry = createTransformerRegistry(pluginContextLoadResult, profilerConfig);
         this.dynamicTransformerRegistry = dynamicTransformerRegistry;
+        this.untransformedClassCache = untransformedClassCache;
 
         this.classLoaderFilter = new PinpointClassLoaderFilter(agentClassLoader);
         this.pinpointClassFilter = new PinpointClassFilter();
@@ -118,12 +129,22 @@ public class MatchableClassFileTransformerDispatcher implements ClassFileTransfo
             return null;
         }
 
+        // lambda class names are generated per run.
+        // hierarchy matching depends on the class loader, not only on the class file.
+        final boolean cacheable = classInternalName != null && !transformerRegistry.isHierarchyDependent(internalName);
+        if (cacheable && untransformedClassCache.isUntransformed(internalName, classFileBuffer)) {
+            return null;
+        }
+
         ClassFileTransformer transformer = this.transformerRegistry.findTransformer(classLoader, internalName, classFileBuffer, classMetadata);
         if (transformer == null) {
             // For debug
             // TODO What if a modifier is duplicated?
             transformer = this.debugTransformerRegistry.findTransformer(classLoader, internalName, classFileBuffer);
             if (transformer == null) {
+                if (cacheable) {
+                    untransformedClassCache.untransformed(internalName, classFileBuffer);
+                }
                 return null;
             }
         }
@@ -131,7 +152,7 @@ public class MatchableClassFileTransformerDispatcher implements ClassFileTransfo
         return baseClassFileTransformer.transform(classLoader, internalName, classBeingRedefined, protectionDomain, classFileBuffer, transformer);
     }
 
-    private TransformerRegistry createTransformerRegistry(PluginContextLoadResult pluginContexts, final ProfilerConfig profilerConfig) {
+    private MatchableTransformerRegistry createTransformerRegistry(PluginContextLoadResult pluginContexts, final ProfilerConfig profilerConfig) {
         final MatchableTransformerRegistry registry = new MatchableTransformerRegistry(profilerConfig);
         for (ClassFileTransformer transformer : pluginContexts.getClassFileTransformer()) {
             if (transformer instanceof MatchableClassFileTransformer) {
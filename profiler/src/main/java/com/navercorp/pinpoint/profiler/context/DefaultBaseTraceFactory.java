@@ -26,11 +26,13 @@ import com.navercorp.pinpoint.common.util.Assert;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceHandle;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
 import com.navercorp.pinpoint.profiler.context.id.IdGenerator;
+import com.navercorp.pinpoint.profiler.context.id.TraceIdFlags;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 import com.navercorp.pinpoint.profiler.context.id.TraceRootFactory;
 import com.navercorp.pinpoint.profiler.context.id.ListenableAsyncState;
 import com.navercorp.pinpoint.profiler.context.recorder.RecorderFactory;
 import com.navercorp.pinpoint.profiler.context.recorder.WrappedSpanEventRecorder;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.Storage;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
 
@@ -45,6 +47,7 @@ public class DefaultBaseTraceFactory implements BaseTraceFactory {
 
     private final StorageFactory storageFactory;
     private final Sampler sampler;
+    private final DeferredStorageFactory deferredStorageFactory;
 
     private final IdGenerator idGenerator;
     private final AsyncContextFactory asyncContextFactory;
@@ -60,11 +63,19 @@ public class DefaultBaseTraceFactory implements BaseTraceFactory {
     public DefaultBaseTraceFactory(TraceRootFactory traceRootFactory, CallStackFactory callStackFactory, StorageFactory storageFactory,
                                    Sampler sampler, IdGenerator idGenerator, AsyncContextFactory asyncContextFactory,
                                    SpanFactory spanFactory, RecorderFactory recorderFactory, ActiveTraceRepository activeTraceRepository) {
+        this(traceRootFactory, callStackFactory, storageFactory, sampler, DeferredStorageFactory.DISABLE, idGenerator, asyncContextFactory,
+                spanFactory, recorderFactory, activeTraceRepository);
+    }
+
+    public DefaultBaseTraceFactory(TraceRootFactory traceRootFactory, CallStackFactory callStackFactory, StorageFactory storageFactory,
+                                   Sampler sampler, DeferredStorageFactory deferredStorageFactory, IdGenerator idGenerator, AsyncContextFactory asyncContextFactory,
+                                   SpanFactory spanFactory, RecorderFactory recorderFactory, ActiveTraceRepository activeTraceRepository) {
 
         this.traceRootFactory = Assert.requireNonNull(traceRootFactory, "traceRootFactory must not be null");
         this.callStackFactory = Assert.requireNonNull(callStackFactory, "callStackFactory must not be null");
         this.storageFactory = Assert.requireNonNull(storageFactory, "storageFactory must not be null");
         this.sampler = Assert.requireNonNull(sampler, "sampler must not be null");
+        this.deferredStorageFactory = Assert.requireNonNull(deferredStorageFactory, "deferredStorageFactory must not be null");
         this.idGenerator = Assert.requireNonNull(idGenerator, "idGenerator must not be null");
         this.asyncContextFactory = Assert.requireNonNull(asyncContextFactory, "asyncContextFactory must not be null");
 
@@ -77,6 +88,10 @@ public class DefaultBaseTraceFactory implements BaseTraceFactory {
     // continue to trace the request that has been determined to be sampled on previous nodes
     @Override
     public Trace continueTraceObject(final TraceId traceId) {
+        if (TraceIdFlags.isDeferred(traceId.getFlags())) {
+            // the previous node may still drop its span, so this node does not record the request either
+            return disableSampling();
+        }
         // TODO need to modify how to bind a datasender
         // always set true because the decision of sampling has been  made on previous nodes
         // TODO need to consider as a target to sample in case Trace object has a sampling flag (true) marked on previous node.
@@ -125,11 +140,31 @@ public class DefaultBaseTraceFactory implements BaseTraceFactory {
             final DefaultTrace trace = new DefaultTrace(span, callStack, storage, asyncContextFactory, sampling, spanRecorder, wrappedSpanEventRecorder, handle);
 
             return trace;
+        } else if (deferredStorageFactory.isEnable()) {
+            return newDeferredTrace();
         } else {
             return newDisableTrace();
         }
     }
 
+    // recorded like a sampled trace, but sent only if the span end rules keep it
+    // counted as an unsampled transaction, and marked as deferred so that the next nodes do not record it
+    private Trace newDeferredTrace() {
+        final boolean sampling = true;
+        final TraceRoot traceRoot = traceRootFactory.newDeferredTraceRoot();
+        final Span span = spanFactory.newSpan(traceRoot);
+
+        final Storage storage = deferredStorageFactory.createStorage(storageFactory.createStorage(traceRoot));
+        final CallStack callStack = callStackFactory.newCallStack(traceRoot);
+
+        final TraceId traceId = traceRoot.getTraceId();
+        final SpanRecorder spanRecorder = recorderFactory.newSpanRecorder(span, traceId.isRoot(), sampling);
+        final WrappedSpanEventRecorder wrappedSpanEventRecorder = recorderFactory.newWrappedSpanEventRecorder();
+
+        final ActiveTraceHandle handle = registerActiveTrace(traceRoot);
+        return new DefaultTrace(span, callStack, storage, asyncContextFactory, sampling, spanRecorder, wrappedSpanEventRecorder, handle);
+    }
+
 
     // internal async trace.
     @Override
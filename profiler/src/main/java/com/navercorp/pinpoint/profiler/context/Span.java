@@ -20,6 +20,7 @@ import com.navercorp.pinpoint.bootstrap.context.FrameAttachment;
 import com.navercorp.pinpoint.bootstrap.context.SpanId;
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.profiler.context.active.FoldedStackSamples;
 import com.navercorp.pinpoint.profiler.context.id.Shared;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 import com.navercorp.pinpoint.common.util.StringUtils;
@@ -142,5 +143,13 @@ public class Span extends TSpan implements FrameAttachment {
 
         final byte loggingInfo = shared.getLoggingInfo();
         this.setLoggingTransactionInfo(loggingInfo);
+
+        final FoldedStackSamples stackSamples = shared.getStackSamples();
+        if (stackSamples != null) {
+            final String foldedStacks = stackSamples.close();
+            if (foldedStacks != null) {
+                this.addAnnotation(new Annotation(AnnotationKey.STACK_SAMPLE.getCode(), foldedStacks));
+            }
+        }
     }
 }
\ No newline at end of file
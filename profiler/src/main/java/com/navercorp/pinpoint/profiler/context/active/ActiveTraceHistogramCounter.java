@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.active;
+
+import com.navercorp.pinpoint.common.trace.HistogramSchema;
+import com.navercorp.pinpoint.common.trace.HistogramSlot;
+import com.navercorp.pinpoint.common.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live counter of active traces bucketed by start time, so that a histogram can be built
+ * without walking every active trace.
+ * <p>
+ * Each slot of the ring covers one millisecond of start time and packs (startTime, count) into a single long.
+ * Traces that started before the ring window are not tracked per slot, they are counted separately
+ * and always fall into the very slow bucket.
+ */
+public class ActiveTraceHistogramCounter {
+
+    private static final int COUNT_BITS = 22;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private static final int STRIPE_PADDING = 8;
+
+    private final HistogramSchema histogramSchema;
+
+    private final int windowSize;
+    private final int windowMask;
+    private final AtomicLongArray slots;
+
+    private final int stripeMask;
+    // padded to avoid false sharing
+    private final AtomicLongArray totalCount;
+    // traces that are not held by any slot
+    private final AtomicLongArray untrackedCount;
+
+    public ActiveTraceHistogramCounter(HistogramSchema histogramSchema, int stripeSize) {
+        this.histogramSchema = Assert.requireNonNull(histogramSchema, "histogramSchema must not be null");
+        if (stripeSize <= 0) {
+            throw new IllegalArgumentException("stripeSize");
+        }
+        // must cover the slow slot. anything older is very slow
+        final int slowTime = histogramSchema.getSlowSlot().getSlotTime();
+        this.windowSize = powerOfTwo(slowTime + 1);
+        this.windowMask = windowSize - 1;
+        this.slots = new AtomicLongArray(windowSize);
+
+        final int stripes = powerOfTwo(stripeSize);
+        this.stripeMask = stripes - 1;
+        this.totalCount = new AtomicLongArray(stripes * STRIPE_PADDING);
+        this.untrackedCount = new AtomicLongArray(stripes * STRIPE_PADDING);
+    }
+
+    static int powerOfTwo(int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        if (highestOneBit == value) {
+            return value;
+        }
+        return highestOneBit << 1;
+    }
+
+    public void start(long startTime) {
+        final int stripeIndex = stripeIndex();
+        final int index = slotIndex(startTime);
+        while (true) {
+            final long slot = slots.get(index);
+            final long slotStartTime = startTime(slot);
+            final long update;
+            if (slotStartTime == startTime) {
+                update = slot + 1;
+            } else if (slotStartTime < startTime) {
+                update = pack(startTime, 1);
+            } else {
+                // slot already reused by a newer start time. this trace is older than the window.
+                untrackedCount.incrementAndGet(stripeIndex);
+                break;
+            }
+            if (slots.compareAndSet(index, slot, update)) {
+                if (slotStartTime != startTime && count(slot) > 0) {
+                    // stale slot. the remaining traces of the slot are older than the window
+                    untrackedCount.addAndGet(stripeIndex, count(slot));
+                }
+                break;
+            }
+        }
+        totalCount.incrementAndGet(stripeIndex);
+    }
+
+    public void finish(long startTime) {
+        final int stripeIndex = stripeIndex();
+        final int index = slotIndex(startTime);
+        while (true) {
+            final long slot = slots.get(index);
+            if (startTime(slot) != startTime || count(slot) == 0) {
+                // slot was reused
+                untrackedCount.decrementAndGet(stripeIndex);
+                break;
+            }
+            if (slots.compareAndSet(index, slot, slot - 1)) {
+                break;
+            }
+        }
+        totalCount.decrementAndGet(stripeIndex);
+    }
+
+    public ActiveTraceHistogram histogram(long currentTime) {
+        final long total = totalCount();
+        if (total <= 0) {
+            return new EmptyActiveTraceHistogram(histogramSchema);
+        }
+
+        final DefaultActiveTraceHistogram histogram = new DefaultActiveTraceHistogram(histogramSchema);
+        long verySlowCount = sum(untrackedCount);
+        for (int i = 0; i < windowSize; i++) {
+            final long slot = slots.get(i);
+            final int count = count(slot);
+            if (count == 0) {
+                continue;
+            }
+            final long elapsedTime = currentTime - startTime(slot);
+            if (elapsedTime >= windowSize) {
+                // outside of the window, not reused yet
+                verySlowCount += count;
+                continue;
+            }
+            final HistogramSlot histogramSlot = histogramSchema.findHistogramSlot((int) elapsedTime, false);
+            histogram.add(histogramSlot, count);
+        }
+        // may be transiently negative while a stale slot is handed over
+        if (verySlowCount > 0) {
+            histogram.add(histogramSchema.getVerySlowSlot(), (int) verySlowCount);
+        }
+        return histogram;
+    }
+
+    public long totalCount() {
+        return sum(totalCount);
+    }
+
+    private static long sum(AtomicLongArray stripedCount) {
+        long sum = 0;
+        final int length = stripedCount.length();
+        for (int i = 0; i < length; i += STRIPE_PADDING) {
+            sum += stripedCount.get(i);
+        }
+        return sum;
+    }
+
+    private int stripeIndex() {
+        final long threadId = Thread.currentThread().getId();
+        return ((int) threadId & stripeMask) * STRIPE_PADDING;
+    }
+
+    private int slotIndex(long startTime) {
+        return (int) (startTime & windowMask);
+    }
+
+    private static long pack(long startTime, int count) {
+        return (startTime << COUNT_BITS) | count;
+    }
+
+    private static long startTime(long slot) {
+        return slot >>> COUNT_BITS;
+    }
+
+    private static int count(long slot) {
+        return (int) (slot & COUNT_MASK);
+    }
+}
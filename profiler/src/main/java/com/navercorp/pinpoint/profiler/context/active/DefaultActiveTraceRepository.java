@@ -16,11 +16,8 @@
 
 package com.navercorp.pinpoint.profiler.context.active;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.navercorp.pinpoint.common.trace.BaseHistogramSchema;
 import com.navercorp.pinpoint.common.trace.HistogramSchema;
-import com.navercorp.pinpoint.common.trace.HistogramSlot;
 import com.navercorp.pinpoint.common.util.Assert;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 import com.navercorp.pinpoint.profiler.monitor.metric.response.ResponseTimeCollector;
@@ -31,54 +28,83 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Active traces are sharded by the registering thread.
+ * The histogram is maintained by {@link ActiveTraceHistogramCounter} when traces start and finish,
+ * so only {@link #snapshot()} and {@link #getThreadIdList()} walk the active traces.
+ * When a shard is full, its oldest trace is evicted to make room for the new one.
+ *
  * @author Taejin Koo
  */
 public class DefaultActiveTraceRepository implements ActiveTraceRepository {
 
     // memory leak defense threshold
     private static final int DEFAULT_MAX_ACTIVE_TRACE_SIZE = 1024 * 10;
+    private static final int MAX_SHARD_SIZE = 64;
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final boolean isDebug = logger.isDebugEnabled();
 
-    // oom safe cache
-    private final ConcurrentMap<ActiveTraceHandle, ActiveTrace> activeTraceInfoMap;
+    private final Shard[] shards;
+    private final int shardMask;
 
     private final ResponseTimeCollector responseTimeCollector;
 
     private final HistogramSchema histogramSchema = BaseHistogramSchema.NORMAL_SCHEMA;
     private final ActiveTraceHistogram emptyActiveTraceHistogram = new EmptyActiveTraceHistogram(histogramSchema);
+    private final ActiveTraceHistogramCounter histogramCounter;
 
     public DefaultActiveTraceRepository(ResponseTimeCollector responseTimeCollector) {
         this(responseTimeCollector, DEFAULT_MAX_ACTIVE_TRACE_SIZE);
     }
 
     public DefaultActiveTraceRepository(ResponseTimeCollector responseTimeCollector, int maxActiveTraceSize) {
-        this.responseTimeCollector = Assert.requireNonNull(responseTimeCollector, "responseTimeCollector must not be null");
-        this.activeTraceInfoMap = createCache(maxActiveTraceSize);
+        this(responseTimeCollector, maxActiveTraceSize, defaultShardSize());
     }
 
-    private ConcurrentMap<ActiveTraceHandle, ActiveTrace> createCache(int maxActiveTraceSize) {
-        final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
-        cacheBuilder.concurrencyLevel(64);
-        cacheBuilder.initialCapacity(maxActiveTraceSize);
-        cacheBuilder.maximumSize(maxActiveTraceSize);
+    public DefaultActiveTraceRepository(ResponseTimeCollector responseTimeCollector, int maxActiveTraceSize, int shardSize) {
+        this.responseTimeCollector = Assert.requireNonNull(responseTimeCollector, "responseTimeCollector must not be null");
+        if (maxActiveTraceSize <= 0) {
+            throw new IllegalArgumentException("maxActiveTraceSize");
+        }
+        if (shardSize <= 0) {
+            throw new IllegalArgumentException("shardSize");
+        }
+        final int shardCount = ActiveTraceHistogramCounter.powerOfTwo(Math.min(shardSize, MAX_SHARD_SIZE));
+        this.shardMask = shardCount - 1;
+        this.shards = createShards(shardCount, maxActiveTraceSize);
+        this.histogramCounter = new ActiveTraceHistogramCounter(histogramSchema, shardCount);
+    }
 
-        final Cache<ActiveTraceHandle, ActiveTrace> localCache = cacheBuilder.build();
-        return localCache.asMap();
+    private static int defaultShardSize() {
+        return Runtime.getRuntime().availableProcessors() * 2;
     }
 
+    private Shard[] createShards(int shardCount, int maxActiveTraceSize) {
+        final int maxShardActiveTraceSize = (maxActiveTraceSize + shardCount - 1) / shardCount;
+        final Shard[] shards = new Shard[shardCount];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(maxShardActiveTraceSize);
+        }
+        return shards;
+    }
 
-    private void remove(ActiveTraceHandle key, long purgeTime) {
+    private void remove(DefaultActiveTraceHandle handle, long purgeTime) {
         if (isDebug) {
-            logger.debug("remove ActiveTrace key:{}", key);
+            logger.debug("remove ActiveTrace key:{}", handle);
         }
-        final ActiveTrace activeTrace = this.activeTraceInfoMap.remove(key);
+        final ActiveTrace activeTrace = handle.shard.remove(handle);
         if (activeTrace != null) {
-            final long responseTime = purgeTime - activeTrace.getStartTime();
+            final long startTime = activeTrace.getStartTime();
+            if (isStarted(startTime)) {
+                histogramCounter.finish(startTime);
+            }
+            final long responseTime = purgeTime - startTime;
             responseTimeCollector.add(responseTime);
         }
     }
@@ -109,34 +135,86 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
         }
 
         final long id = activeTrace.getId();
-        final ActiveTraceHandle handle = new DefaultActiveTraceHandle(id);
-        final ActiveTrace old = this.activeTraceInfoMap.put(handle, activeTrace);
+        final Shard shard = currentShard();
+        final DefaultActiveTraceHandle handle = new DefaultActiveTraceHandle(id, shard);
+        while (!shard.reserve()) {
+            // full of leaked traces. evict the oldest one so that new traces are still tracked
+            if (!evictEldest(shard)) {
+                if (isDebug) {
+                    logger.debug("too many activeTrace. discard:{}", activeTrace);
+                }
+                return new UntrackedActiveTraceHandle(activeTrace.getStartTime());
+            }
+        }
+        final long startTime = activeTrace.getStartTime();
+        if (isStarted(startTime)) {
+            histogramCounter.start(startTime);
+        }
+        final ActiveTrace old = shard.put(handle, activeTrace);
         if (old != null) {
             if (logger.isWarnEnabled()) {
                 logger.warn("old activeTrace exist:{}", old);
             }
+            if (isStarted(old.getStartTime())) {
+                histogramCounter.finish(old.getStartTime());
+            }
         }
         return handle;
     }
 
+    private boolean evictEldest(Shard shard) {
+        final Map.Entry<ActiveTraceHandle, ActiveTrace> eldest = shard.eldest();
+        if (eldest == null) {
+            // reserved by concurrent registrations, not put yet
+            return false;
+        }
+        final ActiveTrace evicted = shard.remove(eldest.getKey());
+        if (evicted != null) {
+            if (logger.isInfoEnabled()) {
+                logger.info("too many activeTrace. evict:{}", evicted);
+            }
+            if (isStarted(evicted.getStartTime())) {
+                histogramCounter.finish(evicted.getStartTime());
+            }
+        }
+        return true;
+    }
+
+    private Shard currentShard() {
+        final long threadId = Thread.currentThread().getId();
+        return shards[(int) threadId & shardMask];
+    }
+
+    private boolean isEmpty() {
+        return histogramCounter.totalCount() <= 0 && isAllShardEmpty();
+    }
+
+    private boolean isAllShardEmpty() {
+        for (Shard shard : shards) {
+            if (!shard.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     // @ThreadSafe
     @Override
     public List<ActiveTraceSnapshot> snapshot() {
-        if (this.activeTraceInfoMap.isEmpty()) {
+        if (isEmpty()) {
             return Collections.emptyList();
         }
-        final Collection<ActiveTrace> activeTraceCollection = this.activeTraceInfoMap.values();
-        final List<ActiveTraceSnapshot> collectData = new ArrayList<ActiveTraceSnapshot>(activeTraceCollection.size());
-
-        for (ActiveTrace trace : activeTraceCollection) {
-            final long startTime = trace.getStartTime();
-            // not started
-            if (!isStarted(startTime)) {
-                continue;
+        final List<ActiveTraceSnapshot> collectData = new ArrayList<ActiveTraceSnapshot>();
+        for (Shard shard : shards) {
+            for (ActiveTrace trace : shard.values()) {
+                final long startTime = trace.getStartTime();
+                // not started
+                if (!isStarted(startTime)) {
+                    continue;
+                }
+                final ActiveTraceSnapshot snapshot = trace.snapshot();
+                collectData.add(snapshot);
             }
-            final ActiveTraceSnapshot snapshot = trace.snapshot();
-            collectData.add(snapshot);
         }
         if (isDebug) {
             logger.debug("activeTraceSnapshot size:{}", collectData.size());
@@ -148,20 +226,20 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
     // @ThreadSafe
     @Override
     public List<Long> getThreadIdList() {
-        if (this.activeTraceInfoMap.isEmpty()) {
+        if (isEmpty()) {
             return Collections.emptyList();
         }
-        final Collection<ActiveTrace> activeTraceCollection = this.activeTraceInfoMap.values();
-        final List<Long> collectData = new ArrayList<Long>(activeTraceCollection.size());
-
-        for (ActiveTrace trace : activeTraceCollection) {
-            final long startTime = trace.getStartTime();
-            // not started
-            if (!isStarted(startTime)) {
-                continue;
+        final List<Long> collectData = new ArrayList<Long>();
+        for (Shard shard : shards) {
+            for (ActiveTrace trace : shard.values()) {
+                final long startTime = trace.getStartTime();
+                // not started
+                if (!isStarted(startTime)) {
+                    continue;
+                }
+                final ActiveTraceSnapshot snapshot = trace.snapshot();
+                collectData.add(snapshot.getThreadId());
             }
-            final ActiveTraceSnapshot snapshot = trace.snapshot();
-            collectData.add(snapshot.getThreadId());
         }
         if (isDebug) {
             logger.debug("activeTraceSnapshot size:{}", collectData.size());
@@ -172,36 +250,79 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
     // @ThreadSafe
     @Override
     public ActiveTraceHistogram getActiveTraceHistogram(long currentTime) {
-        if (this.activeTraceInfoMap.isEmpty()) {
+        if (histogramCounter.totalCount() <= 0) {
             return emptyActiveTraceHistogram;
         }
-        final Collection<ActiveTrace> activeTraceCollection = this.activeTraceInfoMap.values();
+        return histogramCounter.histogram(currentTime);
+    }
+
+    private boolean isStarted(long startTime) {
+        return startTime > 0;
+    }
+
+
+    private static class Shard {
+        private final ConcurrentMap<ActiveTraceHandle, ActiveTrace> activeTraceInfoMap;
+        private final AtomicInteger size = new AtomicInteger();
+        private final int maxSize;
+
+        private Shard(int maxSize) {
+            this.maxSize = maxSize;
+            this.activeTraceInfoMap = new ConcurrentHashMap<ActiveTraceHandle, ActiveTrace>(16, 0.75f, 4);
+        }
 
+        private boolean reserve() {
+            if (size.incrementAndGet() > maxSize) {
+                size.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
 
-        final DefaultActiveTraceHistogram histogram = new DefaultActiveTraceHistogram(histogramSchema);
-        for (ActiveTrace activeTraceInfo : activeTraceCollection) {
-            final long startTime = activeTraceInfo.getStartTime();
-            if (!isStarted(startTime)) {
-                continue;
+        // call after reserve()
+        private ActiveTrace put(ActiveTraceHandle handle, ActiveTrace activeTrace) {
+            final ActiveTrace old = activeTraceInfoMap.put(handle, activeTrace);
+            if (old != null) {
+                size.decrementAndGet();
             }
-            final int elapsedTime = (int) (currentTime - startTime);
-            final HistogramSlot slot = histogramSchema.findHistogramSlot(elapsedTime, false);
-            histogram.increment(slot);
+            return old;
         }
 
-        return histogram;
-    }
+        private ActiveTrace remove(ActiveTraceHandle handle) {
+            final ActiveTrace activeTrace = activeTraceInfoMap.remove(handle);
+            if (activeTrace != null) {
+                size.decrementAndGet();
+            }
+            return activeTrace;
+        }
 
-    private boolean isStarted(long startTime) {
-        return startTime > 0;
-    }
+        private boolean isEmpty() {
+            return activeTraceInfoMap.isEmpty();
+        }
+
+        // the entry with the smallest start time
+        private Map.Entry<ActiveTraceHandle, ActiveTrace> eldest() {
+            Map.Entry<ActiveTraceHandle, ActiveTrace> eldest = null;
+            for (Map.Entry<ActiveTraceHandle, ActiveTrace> entry : activeTraceInfoMap.entrySet()) {
+                if (eldest == null || entry.getValue().getStartTime() < eldest.getValue().getStartTime()) {
+                    eldest = entry;
+                }
+            }
+            return eldest;
+        }
 
+        private Collection<ActiveTrace> values() {
+            return activeTraceInfoMap.values();
+        }
+    }
 
     private class DefaultActiveTraceHandle implements ActiveTraceHandle {
         private final long id;
+        private final Shard shard;
 
-        DefaultActiveTraceHandle(long id) {
+        DefaultActiveTraceHandle(long id, Shard shard) {
             this.id = id;
+            this.shard = shard;
         }
 
         @Override
@@ -232,4 +353,18 @@ public class DefaultActiveTraceRepository implements ActiveTraceRepository {
         }
     }
 
+    private class UntrackedActiveTraceHandle implements ActiveTraceHandle {
+        private final long startTime;
+
+        UntrackedActiveTraceHandle(long startTime) {
+            this.startTime = startTime;
+        }
+
+        @Override
+        public void purge(long purgeTime) {
+            final long responseTime = purgeTime - startTime;
+            responseTimeCollector.add(responseTime);
+        }
+    }
+
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.active;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stack samples of one transaction, folded into the collapsed format ("frame;frame;frame count" per line, root frame first)
+ * so that they can be rendered as a flame graph.
+ * Samples are added by the stack sampler thread and drained once when the span finishes.
+ */
+public class FoldedStackSamples {
+
+    public static final String TRUNCATED_STACK = "[truncated]";
+
+    // in utf-8 bytes. well below the udp packet size(65507), the span also carries its span events and other annotations.
+    static final int MAX_FOLDED_LENGTH = 8 * 1024;
+
+    private static final char FRAME_SEPARATOR = ';';
+    private static final char COUNT_SEPARATOR = ' ';
+    private static final char LINE_SEPARATOR = '\n';
+
+    private final int maxStacks;
+
+    private final Map<String, Counter> stacks = new HashMap<String, Counter>();
+    private int truncatedCount;
+    private boolean closed = false;
+
+    public FoldedStackSamples(int maxStacks) {
+        if (maxStacks <= 0) {
+            throw new IllegalArgumentException("maxStacks must be greater than 0");
+        }
+        this.maxStacks = maxStacks;
+    }
+
+    /**
+     * ThreadMXBean keeps the maxDepth frames closest to the leaf, so a stack of maxDepth frames may have lost its root frames.
+     * Such a stack starts with a {@link #TRUNCATED_STACK} frame instead of a misleading root.
+     */
+    public static String fold(StackTraceElement[] stackTrace, int maxDepth) {
+        if (stackTrace == null || stackTrace.length == 0) {
+            return null;
+        }
+        final StringBuilder buffer = new StringBuilder((stackTrace.length + 1) * 48);
+        if (stackTrace.length >= maxDepth) {
+            buffer.append(TRUNCATED_STACK).append(FRAME_SEPARATOR);
+        }
+        // ThreadInfo reports the leaf frame first
+        for (int i = stackTrace.length - 1; i >= 0; i--) {
+            final StackTraceElement element = stackTrace[i];
+            buffer.append(element.getClassName()).append('.').append(element.getMethodName());
+            if (i != 0) {
+                buffer.append(FRAME_SEPARATOR);
+            }
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * @return false if the samples are already drained
+     */
+    public synchronized boolean add(String foldedStack) {
+        if (closed) {
+            return false;
+        }
+        if (foldedStack == null) {
+            return true;
+        }
+        final Counter counter = stacks.get(foldedStack);
+        if (counter != null) {
+            counter.count++;
+            return true;
+        }
+        if (stacks.size() >= maxStacks) {
+            truncatedCount++;
+            return true;
+        }
+        stacks.put(foldedStack, new Counter(foldedStack));
+        return true;
+    }
+
+    public synchronized int getSampleCount() {
+        int sampleCount = truncatedCount;
+        for (Counter counter : stacks.values()) {
+            sampleCount += counter.count;
+        }
+        return sampleCount;
+    }
+
+    /**
+     * Drains the samples. Samples added afterwards are discarded.
+     * @return the folded stacks ordered by sample count, or null if nothing was sampled
+     */
+    public synchronized String close() {
+        if (closed) {
+            return null;
+        }
+        closed = true;
+        if (stacks.isEmpty()) {
+            return null;
+        }
+
+        final List<Counter> counters = new ArrayList<Counter>(stacks.values());
+        Collections.sort(counters, COUNT_DESCENDING);
+        stacks.clear();
+
+        int truncated = truncatedCount;
+        // reserved for the truncated line
+        int length = TRUNCATED_STACK.length() + 12;
+        final StringBuilder buffer = new StringBuilder(512);
+        for (Counter counter : counters) {
+            final int lineLength = utf8Length(counter.stack) + 12;
+            if (length + lineLength > MAX_FOLDED_LENGTH) {
+                truncated += counter.count;
+                continue;
+            }
+            length += lineLength;
+            appendLine(buffer, counter.stack, counter.count);
+        }
+        if (truncated > 0) {
+            appendLine(buffer, TRUNCATED_STACK, truncated);
+        }
+        // remove last line separator
+        buffer.setLength(buffer.length() - 1);
+        return buffer.toString();
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            if (ch < 0x80) {
+                length++;
+            } else if (ch < 0x800) {
+                length += 2;
+            } else {
+                // a surrogate pair is 4 bytes
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private void appendLine(StringBuilder buffer, String stack, int count) {
+        buffer.append(stack).append(COUNT_SEPARATOR).append(count).append(LINE_SEPARATOR);
+    }
+
+    private static final Comparator<Counter> COUNT_DESCENDING = new Comparator<Counter>() {
+        @Override
+        public int compare(Counter o1, Counter o2) {
+            if (o1.count == o2.count) {
+                return o1.stack.compareTo(o2.stack);
+            }
+            return o1.count > o2.count ? -1 : 1;
+        }
+    };
+
+    private static class Counter {
+        private final String stack;
+        private int count = 1;
+
+        private Counter(String stack) {
+            this.stack = stack;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "FoldedStackSamples{" +
+                "stacks=" + stacks.size() +
+                ", truncatedCount=" + truncatedCount +
+                ", closed=" + closed +
+                '}';
+    }
+}
@@ -31,6 +31,10 @@ public class SampledActiveTraceSnapshot implements ActiveTraceSnapshot {
 
     }
 
+    public TraceRoot getTraceRoot() {
+        return traceRoot;
+    }
+
     @Override
     public long getLocalTransactionId() {
         return traceRoot.getLocalTransactionId();
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.profiler.context.id;
 
+import com.navercorp.pinpoint.profiler.context.active.FoldedStackSamples;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +33,9 @@ public class DefaultShared implements Shared {
     private static final AtomicReferenceFieldUpdater<DefaultShared, String> RPC_UPDATER
             = AtomicReferenceFieldUpdater.newUpdater(DefaultShared.class, String.class, "rpc");
 
+    private static final AtomicReferenceFieldUpdater<DefaultShared, FoldedStackSamples> STACK_SAMPLES_UPDATER
+            = AtomicReferenceFieldUpdater.newUpdater(DefaultShared.class, FoldedStackSamples.class, "stackSamples");
+
     private volatile int errorCode;
     private volatile byte loggingInfo;
 
@@ -45,6 +49,9 @@ public class DefaultShared implements Shared {
 
     private volatile int statusCode;
 
+    @SuppressWarnings("unused")
+    private volatile FoldedStackSamples stackSamples;
+
     @Override
     public void maskErrorCode(int errorCode) {
 //        synchronized (this) {
@@ -122,4 +129,19 @@ public class DefaultShared implements Shared {
     public int getStatusCode() {
         return this.statusCode;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void setStackSamples(FoldedStackSamples stackSamples) {
+        final boolean updated = STACK_SAMPLES_UPDATER.compareAndSet(this, null, stackSamples);
+        if (!updated) {
+            final Logger logger = LoggerFactory.getLogger(this.getClass());
+            // for debug
+            logger.debug("already set StackSamples {}", stackSamples);
+        }
+    }
+
+    @Override
+    public FoldedStackSamples getStackSamples() {
+        return STACK_SAMPLES_UPDATER.get(this);
+    }
+}
@@ -53,6 +53,14 @@ public class DefaultTraceRootFactory implements TraceRootFactory {
         return new DefaultTraceRoot(traceId, this.agentId, startTime, localTransactionId);
     }
 
+    @Override
+    public TraceRoot newDeferredTraceRoot() {
+        final long localTransactionId = idGenerator.nextDisabledId();
+        final TraceId traceId = traceIdFactory.newTraceId(localTransactionId, TraceIdFlags.FLAG_DEFERRED);
+        final long startTime = traceStartTime();
+        return new DefaultTraceRoot(traceId, this.agentId, startTime, localTransactionId);
+    }
+
     private long traceStartTime() {
         return System.currentTimeMillis();
     }
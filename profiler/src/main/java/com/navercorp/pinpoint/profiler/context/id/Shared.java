@@ -16,6 +16,8 @@
 
 package com.navercorp.pinpoint.profiler.context.id;
 
+import com.navercorp.pinpoint.profiler.context.active.FoldedStackSamples;
+
 /**
  * @author Woonduk Kang(emeroad)
  */
@@ -46,4 +48,8 @@ public interface Shared {
     void setStatusCode(int statusCode);
 
     int getStatusCode();
+
+    void setStackSamples(FoldedStackSamples stackSamples);
+
+    FoldedStackSamples getStackSamples();
 }
@@ -25,6 +25,8 @@ public interface TraceIdFactory {
 
     TraceId newTraceId(long localTransactionId);
 
+    TraceId newTraceId(long localTransactionId, short flags);
+
     TraceId continueTraceId(String transactionId, long parentSpanId, long spanId, short flags);
 
 }
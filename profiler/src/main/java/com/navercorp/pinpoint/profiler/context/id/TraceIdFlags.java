@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.id;
+
+/**
+ * Bits of {@link com.navercorp.pinpoint.bootstrap.context.TraceId#getFlags()}, propagated to the next nodes with the trace id.
+ */
+public final class TraceIdFlags {
+
+    /**
+     * The transaction was rejected by the sampler and is recorded only for the span end rules,
+     * so its span may still be dropped. The next nodes should not record it.
+     */
+    public static final short FLAG_DEFERRED = 0x01;
+
+    private TraceIdFlags() {
+    }
+
+    public static boolean isDeferred(short flags) {
+        return (flags & FLAG_DEFERRED) != 0;
+    }
+}
@@ -25,5 +25,7 @@ public interface TraceRootFactory {
 
     TraceRoot newTraceRoot();
 
+    TraceRoot newDeferredTraceRoot();
+
     TraceRoot continueTraceRoot(TraceId traceId);
 }
@@ -34,9 +34,11 @@ import com.navercorp.pinpoint.profiler.context.ServerMetaDataRegistryService;
 import com.navercorp.pinpoint.profiler.instrument.ASMBytecodeDumpService;
 import com.navercorp.pinpoint.profiler.instrument.BytecodeDumpTransformer;
 import com.navercorp.pinpoint.profiler.instrument.InstrumentEngine;
+import com.navercorp.pinpoint.profiler.instrument.transformer.UntransformedClassCache;
 import com.navercorp.pinpoint.profiler.interceptor.registry.InterceptorRegistryBinder;
 import com.navercorp.pinpoint.profiler.monitor.AgentStatMonitor;
 import com.navercorp.pinpoint.profiler.monitor.DeadlockMonitor;
+import com.navercorp.pinpoint.profiler.monitor.StackSampler;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
 import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
 import com.navercorp.pinpoint.rpc.client.PinpointClientFactory;
@@ -56,6 +58,7 @@ public class DefaultApplicationContext implements ApplicationContext {
     private final ProfilerConfig profilerConfig;
 
     private final DeadlockMonitor deadlockMonitor;
+    private final StackSampler stackSampler;
     private final AgentInfoSender agentInfoSender;
     private final AgentStatMonitor agentStatMonitor;
 
@@ -75,6 +78,7 @@ public class DefaultApplicationContext implements ApplicationContext {
     private final ServiceTypeRegistryService serviceTypeRegistryService;
 
     private final ClassFileTransformerDispatcher classFileDispatcher;
+    private final UntransformedClassCache untransformedClassCache;
 
     private final Instrumentation instrumentation;
     private final InstrumentEngine instrumentEngine;
@@ -104,6 +108,7 @@ public class DefaultApplicationContext implements ApplicationContext {
         this.instrumentEngine = injector.getInstance(InstrumentEngine.class);
 
         this.classFileDispatcher = injector.getInstance(ClassFileTransformerDispatcher.class);
+        this.untransformedClassCache = injector.getInstance(UntransformedClassCache.class);
         this.dynamicTransformTrigger = injector.getInstance(DynamicTransformTrigger.class);
 //        ClassFileTransformer classFileTransformer = injector.getInstance(ClassFileTransformer.class);
         ClassFileTransformer classFileTransformer = wrap(classFileDispatcher);
@@ -131,6 +136,7 @@ public class DefaultApplicationContext implements ApplicationContext {
         this.serverMetaDataRegistryService = injector.getInstance(ServerMetaDataRegistryService.class);
 
         this.deadlockMonitor = injector.getInstance(DeadlockMonitor.class);
+        this.stackSampler = injector.getInstance(StackSampler.class);
         this.agentInfoSender = injector.getInstance(AgentInfoSender.class);
         this.agentStatMonitor = injector.getInstance(AgentStatMonitor.class);
     }
@@ -204,6 +210,7 @@ public class DefaultApplicationContext implements ApplicationContext {
     @Override
     public void start() {
         this.deadlockMonitor.start();
+        this.stackSampler.start();
         this.agentInfoSender.start();
         this.agentStatMonitor.start();
     }
@@ -213,6 +220,7 @@ public class DefaultApplicationContext implements ApplicationContext {
         this.agentInfoSender.stop();
         this.agentStatMonitor.stop();
         this.deadlockMonitor.stop();
+        this.stackSampler.stop();
 
         // Need to process stop
         this.spanDataSender.stop();
@@ -222,6 +230,8 @@ public class DefaultApplicationContext implements ApplicationContext {
         }
 
         closeTcpDataSender();
+
+        this.untransformedClassCache.close();
     }
 
     private void closeTcpDataSender() {
@@ -30,6 +30,7 @@ import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
 import com.navercorp.pinpoint.profiler.context.id.IdGenerator;
 import com.navercorp.pinpoint.profiler.context.id.TraceRootFactory;
 import com.navercorp.pinpoint.profiler.context.recorder.RecorderFactory;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +43,7 @@ public class BaseTraceFactoryProvider implements Provider<BaseTraceFactory> {
     private final TraceRootFactory traceRootFactory;
     private final StorageFactory storageFactory;
     private final Sampler sampler;
+    private final DeferredStorageFactory deferredStorageFactory;
     private final IdGenerator idGenerator;
 
     private final Provider<AsyncContextFactory> asyncContextFactoryProvider;
@@ -54,7 +56,7 @@ public class BaseTraceFactoryProvider implements Provider<BaseTraceFactory> {
     private final ActiveTraceRepository activeTraceRepository;
 
     @Inject
-    public BaseTraceFactoryProvider(TraceRootFactory traceRootFactory, StorageFactory storageFactory, Sampler sampler,
+    public BaseTraceFactoryProvider(TraceRootFactory traceRootFactory, StorageFactory storageFactory, Sampler sampler, DeferredStorageFactory deferredStorageFactory,
                                     IdGenerator idGenerator, Provider<AsyncContextFactory> asyncContextFactoryProvider,
                                     CallStackFactory callStackFactory, SpanFactory spanFactory, RecorderFactory recorderFactory, ActiveTraceRepository activeTraceRepository) {
         this.traceRootFactory = Assert.requireNonNull(traceRootFactory, "traceRootFactory must not be null");
@@ -62,6 +64,7 @@ public class BaseTraceFactoryProvider implements Provider<BaseTraceFactory> {
         this.callStackFactory = Assert.requireNonNull(callStackFactory, "callStackFactory must not be null");
         this.storageFactory = Assert.requireNonNull(storageFactory, "storageFactory must not be null");
         this.sampler = Assert.requireNonNull(sampler, "sampler must not be null");
+        this.deferredStorageFactory = Assert.requireNonNull(deferredStorageFactory, "deferredStorageFactory must not be null");
         this.idGenerator = Assert.requireNonNull(idGenerator, "idGenerator must not be null");
 
         this.asyncContextFactoryProvider = Assert.requireNonNull(asyncContextFactoryProvider, "asyncContextFactory must not be null");
@@ -75,7 +78,7 @@ public class BaseTraceFactoryProvider implements Provider<BaseTraceFactory> {
     @Override
     public BaseTraceFactory get() {
         final AsyncContextFactory asyncContextFactory = asyncContextFactoryProvider.get();
-        BaseTraceFactory baseTraceFactory = new DefaultBaseTraceFactory(traceRootFactory, callStackFactory, storageFactory, sampler, idGenerator,
+        BaseTraceFactory baseTraceFactory = new DefaultBaseTraceFactory(traceRootFactory, callStackFactory, storageFactory, sampler, deferredStorageFactory, idGenerator,
                 asyncContextFactory, spanFactory, recorderFactory, activeTraceRepository);
         if (isDebugEnabled()) {
             baseTraceFactory = LoggingBaseTraceFactory.wrap(baseTraceFactory);
@@ -25,6 +25,7 @@ import com.navercorp.pinpoint.profiler.instrument.InstrumentEngine;
 import com.navercorp.pinpoint.profiler.ClassFileTransformerDispatcher;
 import com.navercorp.pinpoint.profiler.DefaultClassFileTransformerDispatcher;
 import com.navercorp.pinpoint.profiler.DynamicTransformerRegistry;
+import com.navercorp.pinpoint.profiler.instrument.transformer.UntransformedClassCache;
 import com.navercorp.pinpoint.profiler.plugin.PluginContextLoadResult;
 
 /**
@@ -37,10 +38,12 @@ public class ClassFileTransformerDispatcherProvider implements Provider<ClassFil
     private final InstrumentEngine instrumentEngine;
     private final DynamicTransformTrigger dynamicTransformTrigger;
     private final DynamicTransformerRegistry dynamicTransformerRegistry;
+    private final UntransformedClassCache untransformedClassCache;
 
     @Inject
     public ClassFileTransformerDispatcherProvider(ProfilerConfig profilerConfig, InstrumentEngine instrumentEngine, PluginContextLoadResult pluginContextLoadResult,
-                                                  DynamicTransformTrigger dynamicTransformTrigger, DynamicTransformerRegistry dynamicTransformerRegistry) {
+                                                  DynamicTransformTrigger dynamicTransformTrigger, DynamicTransformerRegistry dynamicTransformerRegistry,
+                                                  UntransformedClassCache untransformedClassCache) {
         if (profilerConfig == null) {
             throw new NullPointerException("profilerConfig must not be null");
         }
@@ -56,17 +59,21 @@ public class ClassFileTransformerDispatcherProvider implements Provider<ClassFil
         if (dynamicTransformerRegistry == null) {
             throw new NullPointerException("dynamicTransformerRegistry must not be null");
         }
+        if (untransformedClassCache == null) {
+            throw new NullPointerException("untransformedClassCache must not be null");
+        }
         this.profilerConfig = profilerConfig;
         this.instrumentEngine = instrumentEngine;
         this.pluginContextLoadResult = pluginContextLoadResult;
         this.dynamicTransformTrigger = dynamicTransformTrigger;
         this.dynamicTransformerRegistry = dynamicTransformerRegistry;
+        this.untransformedClassCache = untransformedClassCache;
     }
 
     @Override
     public ClassFileTransformerDispatcher get() {
         if(this.profilerConfig.isInstrumentMatcherEnable()) {
-            return new MatchableClassFileTransformerDispatcher(profilerConfig, pluginContextLoadResult, instrumentEngine, dynamicTransformTrigger, dynamicTransformerRegistry);
+            return new MatchableClassFileTransformerDispatcher(profilerConfig, pluginContextLoadResult, instrumentEngine, dynamicTransformTrigger, dynamicTransformerRegistry, untransformedClassCache);
         }
         return new DefaultClassFileTransformerDispatcher(profilerConfig, pluginContextLoadResult, instrumentEngine, dynamicTransformTrigger, dynamicTransformerRegistry);
     }
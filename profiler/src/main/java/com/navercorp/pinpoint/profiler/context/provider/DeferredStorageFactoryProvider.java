@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredStorage;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredStorageFactory;
+import com.navercorp.pinpoint.profiler.sampler.SpanEndSampler;
+
+public class DeferredStorageFactoryProvider implements Provider<DeferredStorageFactory> {
+
+    private final ProfilerConfig profilerConfig;
+    private final SpanEndSampler spanEndSampler;
+
+    @Inject
+    public DeferredStorageFactoryProvider(ProfilerConfig profilerConfig, SpanEndSampler spanEndSampler) {
+        if (profilerConfig == null) {
+            throw new NullPointerException("profilerConfig must not be null");
+        }
+        if (spanEndSampler == null) {
+            throw new NullPointerException("spanEndSampler must not be null");
+        }
+        this.profilerConfig = profilerConfig;
+        this.spanEndSampler = spanEndSampler;
+    }
+
+    @Override
+    public DeferredStorageFactory get() {
+        if (!spanEndSampler.isEnable()) {
+            return DeferredStorageFactory.DISABLE;
+        }
+        final int maxTotalBufferSize = profilerConfig.getSamplingAdaptiveDeferredBufferSize();
+        return new DeferredStorageFactory(spanEndSampler, DeferredStorage.DEFAULT_MAX_BUFFER_SIZE, maxTotalBufferSize);
+    }
+}
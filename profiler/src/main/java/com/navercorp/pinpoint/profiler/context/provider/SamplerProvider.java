@@ -21,6 +21,7 @@ import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
 import com.navercorp.pinpoint.profiler.sampler.SamplerFactory;
+import com.navercorp.pinpoint.profiler.sampler.SamplerType;
 
 /**
  * @author Woonduk Kang(emeroad)
@@ -37,9 +38,14 @@ public class SamplerProvider implements Provider<Sampler> {
     @Override
     public Sampler get() {
         boolean samplingEnable = profilerConfig.isSamplingEnable();
-        int samplingRate = profilerConfig.getSamplingRate();
 
         SamplerFactory samplerFactory = new SamplerFactory();
+        SamplerType samplerType = samplerFactory.getSamplerType(profilerConfig.getSamplingType());
+        if (samplerType == SamplerType.ADAPTIVE) {
+            int targetTps = profilerConfig.getSamplingAdaptiveTargetTps();
+            return samplerFactory.createAdaptiveSampler(samplingEnable, targetTps);
+        }
+        int samplingRate = profilerConfig.getSamplingRate();
         return samplerFactory.createSampler(samplingEnable, samplingRate);
     }
 }
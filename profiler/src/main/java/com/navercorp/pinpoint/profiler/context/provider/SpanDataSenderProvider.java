@@ -20,6 +20,7 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.profiler.context.module.SpanStatClientFactory;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueingExecutorConfig;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSenderFactory;
@@ -47,6 +48,7 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
     private final int sendBufferSize;
     private final String ioType;
     private final String transportType;
+    private final AsyncQueueingExecutorConfig executorConfig;
 
     @Inject
     public SpanDataSenderProvider(ProfilerConfig profilerConfig, @SpanStatClientFactory Provider<PinpointClientFactory> clientFactoryProvider) {
@@ -66,6 +68,8 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
         this.sendBufferSize = profilerConfig.getSpanDataSenderSocketSendBufferSize();
         this.ioType = profilerConfig.getSpanDataSenderSocketType();
         this.transportType = profilerConfig.getSpanDataSenderTransportType();
+        this.executorConfig = AsyncQueueingExecutorConfig.create(profilerConfig.getSenderExecutorQueueType(),
+                profilerConfig.getSenderExecutorMaxDrainSize(), profilerConfig.getSenderExecutorWaitStrategy());
     }
 
     @Override
@@ -77,9 +81,9 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
 
             PinpointClientFactory pinpointClientFactory = clientFactoryProvider.get();
             InetSocketAddress address = new InetSocketAddress(ip, port);
-            return new TcpDataSender("SpanDataSender", address, pinpointClientFactory);
+            return new TcpDataSender("SpanDataSender", address, pinpointClientFactory, executorConfig);
         } else {
-            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize);
+            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize, executorConfig);
             return factory.create(ioType);
         }
     }
@@ -94,6 +98,7 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
         sb.append(", sendBufferSize=").append(sendBufferSize);
         sb.append(", ioType='").append(ioType).append('\'');
         sb.append(", transportType='").append(transportType).append('\'');
+        sb.append(", executorConfig=").append(executorConfig);
         sb.append('}');
         return sb.toString();
     }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
+import com.navercorp.pinpoint.profiler.monitor.DefaultStackSampler;
+import com.navercorp.pinpoint.profiler.monitor.DisabledStackSampler;
+import com.navercorp.pinpoint.profiler.monitor.StackSampler;
+import com.navercorp.pinpoint.profiler.monitor.StackSamplerTask;
+
+public class StackSamplerProvider implements Provider<StackSampler> {
+
+    public static final String STACK_SAMPLING_ENABLE = "profiler.monitor.stacksampling.enable";
+    public static final String STACK_SAMPLING_INTERVAL = "profiler.monitor.stacksampling.interval";
+    public static final String STACK_SAMPLING_THRESHOLD = "profiler.monitor.stacksampling.threshold";
+    public static final String STACK_SAMPLING_CPU_BUDGET = "profiler.monitor.stacksampling.cpu.budget";
+    public static final String STACK_SAMPLING_MAX_DEPTH = "profiler.monitor.stacksampling.max.depth";
+    public static final String STACK_SAMPLING_MAX_STACKS = "profiler.monitor.stacksampling.max.stacks";
+
+    private static final int DEFAULT_INTERVAL = 100;
+    private static final int DEFAULT_THRESHOLD = 1000;
+    private static final int DEFAULT_CPU_BUDGET = 1;
+    private static final int DEFAULT_MAX_DEPTH = 32;
+    private static final int DEFAULT_MAX_STACKS = 32;
+
+    private final ProfilerConfig profilerConfig;
+    private final ActiveTraceRepository activeTraceRepository;
+
+    @Inject
+    public StackSamplerProvider(ProfilerConfig profilerConfig, ActiveTraceRepository activeTraceRepository) {
+        this.profilerConfig = Assert.requireNonNull(profilerConfig, "profilerConfig must not be null");
+        this.activeTraceRepository = Assert.requireNonNull(activeTraceRepository, "activeTraceRepository must not be null");
+    }
+
+    @Override
+    public StackSampler get() {
+        final boolean enable = profilerConfig.readBoolean(STACK_SAMPLING_ENABLE, false);
+        if (!enable) {
+            return new DisabledStackSampler();
+        }
+
+        final int interval = profilerConfig.readInt(STACK_SAMPLING_INTERVAL, DEFAULT_INTERVAL);
+        final int threshold = profilerConfig.readInt(STACK_SAMPLING_THRESHOLD, DEFAULT_THRESHOLD);
+        final int cpuBudget = profilerConfig.readInt(STACK_SAMPLING_CPU_BUDGET, DEFAULT_CPU_BUDGET);
+        final int maxDepth = profilerConfig.readInt(STACK_SAMPLING_MAX_DEPTH, DEFAULT_MAX_DEPTH);
+        final int maxStacks = profilerConfig.readInt(STACK_SAMPLING_MAX_STACKS, DEFAULT_MAX_STACKS);
+
+        final StackSamplerTask stackSamplerTask = new StackSamplerTask(activeTraceRepository, interval, threshold, cpuBudget, maxDepth, maxStacks);
+        return new DefaultStackSampler(stackSamplerTask);
+    }
+
+}
@@ -20,6 +20,7 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.profiler.context.module.DefaultClientFactory;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueingExecutorConfig;
 import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.rpc.client.PinpointClientFactory;
@@ -51,6 +52,8 @@ public class TcpDataSenderProvider implements Provider<EnhancedDataSender> {
     public EnhancedDataSender get() {
         PinpointClientFactory clientFactory = clientFactoryProvider.get();
         InetSocketAddress address = new InetSocketAddress(profilerConfig.getCollectorTcpServerIp(), profilerConfig.getCollectorTcpServerPort());
-        return new TcpDataSender("Default", address, clientFactory);
+        AsyncQueueingExecutorConfig executorConfig = AsyncQueueingExecutorConfig.create(profilerConfig.getSenderExecutorQueueType(),
+                profilerConfig.getSenderExecutorMaxDrainSize(), profilerConfig.getSenderExecutorWaitStrategy());
+        return new TcpDataSender("Default", address, clientFactory, executorConfig);
     }
 }
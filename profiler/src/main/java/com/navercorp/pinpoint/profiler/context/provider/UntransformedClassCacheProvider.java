@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.common.Version;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.profiler.context.module.AgentId;
+import com.navercorp.pinpoint.profiler.context.module.PluginJars;
+import com.navercorp.pinpoint.profiler.instrument.transformer.DisabledUntransformedClassCache;
+import com.navercorp.pinpoint.profiler.instrument.transformer.FileUntransformedClassCache;
+import com.navercorp.pinpoint.profiler.instrument.transformer.UntransformedClassCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class UntransformedClassCacheProvider implements Provider<UntransformedClassCache> {
+
+    public static final String CACHE_ENABLE = "profiler.instrument.cache.enable";
+    public static final String CACHE_DIR = "profiler.instrument.cache.dir";
+    public static final String CACHE_MAX_SIZE = "profiler.instrument.cache.max.size";
+
+    private static final String DEFAULT_CACHE_DIR_NAME = "pinpoint-agent-cache";
+    private static final int DEFAULT_CACHE_MAX_SIZE = 100000;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final ProfilerConfig profilerConfig;
+    private final String agentId;
+    private final URL[] pluginJars;
+
+    @Inject
+    public UntransformedClassCacheProvider(ProfilerConfig profilerConfig, @AgentId String agentId, @PluginJars URL[] pluginJars) {
+        this.profilerConfig = Assert.requireNonNull(profilerConfig, "profilerConfig must not be null");
+        this.agentId = Assert.requireNonNull(agentId, "agentId must not be null");
+        this.pluginJars = Assert.requireNonNull(pluginJars, "pluginJars must not be null");
+    }
+
+    @Override
+    public UntransformedClassCache get() {
+        final boolean enable = profilerConfig.readBoolean(CACHE_ENABLE, false);
+        if (!enable) {
+            return DisabledUntransformedClassCache.INSTANCE;
+        }
+
+        String cacheDir = profilerConfig.readString(CACHE_DIR, "");
+        if (cacheDir.isEmpty()) {
+            cacheDir = new File(System.getProperty("java.io.tmpdir"), DEFAULT_CACHE_DIR_NAME).getPath();
+        }
+        final int maxSize = profilerConfig.readInt(CACHE_MAX_SIZE, DEFAULT_CACHE_MAX_SIZE);
+        final File cacheFile = new File(cacheDir, agentId + ".untransformed");
+
+        logger.info("UntransformedClassCache enabled. cacheFile:{}", cacheFile);
+        return new FileUntransformedClassCache(cacheFile, fingerprint(), maxSize);
+    }
+
+    // the cache is only valid for the same agent version, plugins, application class path and profiler config
+    private long fingerprint() {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, Version.VERSION);
+        for (URL pluginJar : pluginJars) {
+            hash = mix(hash, pluginJar.toExternalForm());
+            final File file = toFile(pluginJar);
+            if (file != null) {
+                hash = mix(hash, file.length() + ":" + file.lastModified());
+            }
+        }
+        // application jars
+        final String classPath = System.getProperty("java.class.path", "");
+        for (String path : classPath.split(File.pathSeparator)) {
+            if (path.isEmpty()) {
+                continue;
+            }
+            hash = mix(hash, path);
+            final File file = new File(path);
+            if (file.isFile()) {
+                hash = mix(hash, file.length() + ":" + file.lastModified());
+            }
+        }
+        final Map<String, String> properties = new TreeMap<String, String>(profilerConfig.readPattern(".*"));
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            hash = mix(hash, entry.getKey());
+            hash = mix(hash, entry.getValue());
+        }
+        return hash;
+    }
+
+    private File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // separator
+        return (hash ^ 0xffff) * FNV_PRIME;
+    }
+}
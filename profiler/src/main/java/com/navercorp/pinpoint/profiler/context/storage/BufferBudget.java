@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Number of span events that all {@link DeferredStorage}s sharing this budget may hold at the same time.
+ */
+public class BufferBudget {
+
+    private final int maxSize;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public BufferBudget(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid maxSize " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = size.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(int count) {
+        if (count > 0) {
+            size.addAndGet(-count);
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public String toString() {
+        return "BufferBudget{" +
+                "maxSize=" + maxSize +
+                ", size=" + size +
+                '}';
+    }
+}
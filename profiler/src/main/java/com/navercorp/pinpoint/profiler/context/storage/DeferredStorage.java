@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.sampler.SpanEndSampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the span events of a transaction rejected by the sampler until the span ends,
+ * and passes them to the delegate only if the {@link SpanEndSampler} keeps the span.
+ * Nothing is sent for a dropped span.
+ * The buffer is bounded per transaction by maxBufferSize, and across all deferred transactions by the shared {@link BufferBudget}.
+ */
+public class DeferredStorage implements Storage {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredStorage.class);
+    private static final boolean isDebug = logger.isDebugEnabled();
+
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 1024;
+
+    private final Storage delegate;
+    private final SpanEndSampler spanEndSampler;
+    private final int maxBufferSize;
+    private final BufferBudget bufferBudget;
+
+    private List<SpanEvent> buffer;
+    private int droppedSpanEventCount;
+
+    public DeferredStorage(Storage delegate, SpanEndSampler spanEndSampler) {
+        this(delegate, spanEndSampler, DEFAULT_MAX_BUFFER_SIZE);
+    }
+
+    public DeferredStorage(Storage delegate, SpanEndSampler spanEndSampler, int maxBufferSize) {
+        this(delegate, spanEndSampler, maxBufferSize, new BufferBudget(maxBufferSize));
+    }
+
+    public DeferredStorage(Storage delegate, SpanEndSampler spanEndSampler, int maxBufferSize, BufferBudget bufferBudget) {
+        this.delegate = Assert.requireNonNull(delegate, "delegate must not be null");
+        this.spanEndSampler = Assert.requireNonNull(spanEndSampler, "spanEndSampler must not be null");
+        if (maxBufferSize <= 0) {
+            throw new IllegalArgumentException("Invalid maxBufferSize " + maxBufferSize);
+        }
+        this.maxBufferSize = maxBufferSize;
+        this.bufferBudget = Assert.requireNonNull(bufferBudget, "bufferBudget must not be null");
+    }
+
+    @Override
+    public void store(SpanEvent spanEvent) {
+        List<SpanEvent> buffer = this.buffer;
+        if (buffer == null) {
+            buffer = new ArrayList<SpanEvent>();
+            this.buffer = buffer;
+        }
+        if (buffer.size() >= maxBufferSize || !bufferBudget.tryAcquire()) {
+            droppedSpanEventCount++;
+            return;
+        }
+        buffer.add(spanEvent);
+    }
+
+    @Override
+    public void store(Span span) {
+        final List<SpanEvent> buffer = releaseBuffer();
+        if (!spanEndSampler.isSampling(span)) {
+            return;
+        }
+        if (isDebug) {
+            logger.debug("[DeferredStorage] keep span. droppedSpanEventCount:{}, span:{}", droppedSpanEventCount, span);
+        }
+        if (buffer != null) {
+            for (SpanEvent spanEvent : buffer) {
+                delegate.store(spanEvent);
+            }
+        }
+        delegate.store(span);
+    }
+
+    private List<SpanEvent> releaseBuffer() {
+        final List<SpanEvent> buffer = this.buffer;
+        this.buffer = null;
+        if (buffer != null) {
+            bufferBudget.release(buffer.size());
+        }
+        return buffer;
+    }
+
+    @Override
+    public void flush() {
+        // the span has not ended yet, so nothing can be sent
+        // memory is bounded by maxBufferSize and the shared bufferBudget instead
+    }
+
+    @Override
+    public void close() {
+        releaseBuffer();
+        delegate.close();
+    }
+
+    int getBufferSize() {
+        final List<SpanEvent> buffer = this.buffer;
+        if (buffer == null) {
+            return 0;
+        }
+        return buffer.size();
+    }
+
+    @Override
+    public String toString() {
+        return "DeferredStorage{" +
+                "delegate=" + delegate +
+                ", spanEndSampler=" + spanEndSampler +
+                ", maxBufferSize=" + maxBufferSize +
+                ", bufferBudget=" + bufferBudget +
+                '}';
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.profiler.sampler.SpanEndSampler;
+
+/**
+ * Creates the {@link DeferredStorage}s of the transactions rejected by the sampler.
+ * All of them share one {@link BufferBudget}, so the memory held by deferred transactions is bounded for the whole agent.
+ */
+public class DeferredStorageFactory {
+
+    public static final DeferredStorageFactory DISABLE = new DeferredStorageFactory(SpanEndSampler.DISABLE, DeferredStorage.DEFAULT_MAX_BUFFER_SIZE, 0);
+
+    private final SpanEndSampler spanEndSampler;
+    private final int maxBufferSize;
+    private final BufferBudget bufferBudget;
+
+    /**
+     * @param maxBufferSize max span events buffered by one transaction
+     * @param maxTotalBufferSize max span events buffered by all deferred transactions
+     */
+    public DeferredStorageFactory(SpanEndSampler spanEndSampler, int maxBufferSize, int maxTotalBufferSize) {
+        this.spanEndSampler = Assert.requireNonNull(spanEndSampler, "spanEndSampler must not be null");
+        if (maxBufferSize <= 0) {
+            throw new IllegalArgumentException("Invalid maxBufferSize " + maxBufferSize);
+        }
+        this.maxBufferSize = maxBufferSize;
+        this.bufferBudget = new BufferBudget(maxTotalBufferSize);
+    }
+
+    public boolean isEnable() {
+        return spanEndSampler.isEnable();
+    }
+
+    public Storage createStorage(Storage delegate) {
+        return new DeferredStorage(delegate, spanEndSampler, maxBufferSize, bufferBudget);
+    }
+
+    BufferBudget getBufferBudget() {
+        return bufferBudget;
+    }
+
+    @Override
+    public String toString() {
+        return "DeferredStorageFactory{" +
+                "spanEndSampler=" + spanEndSampler +
+                ", maxBufferSize=" + maxBufferSize +
+                ", bufferBudget=" + bufferBudget +
+                '}';
+    }
+}
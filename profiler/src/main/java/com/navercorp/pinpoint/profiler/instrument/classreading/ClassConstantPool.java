@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.classreading;
+
+/**
+ * Locates the CONSTANT_Utf8 entries of a class file without parsing the rest of the class.
+ */
+public class ClassConstantPool {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int FLOAT = 4;
+    private static final int LONG = 5;
+    private static final int DOUBLE = 6;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int INTERFACE_METHOD_REF = 11;
+    private static final int NAME_AND_TYPE = 12;
+    private static final int METHOD_HANDLE = 15;
+    private static final int METHOD_TYPE = 16;
+    private static final int DYNAMIC = 17;
+    private static final int INVOKE_DYNAMIC = 18;
+    private static final int MODULE = 19;
+    private static final int PACKAGE = 20;
+
+    private final byte[] classFileBuffer;
+    // offset of the first byte of each utf8 entry.
+    private final int[] utf8Offsets;
+    private final int[] utf8Lengths;
+    private final int utf8Count;
+
+    private ClassConstantPool(byte[] classFileBuffer, int[] utf8Offsets, int[] utf8Lengths, int utf8Count) {
+        this.classFileBuffer = classFileBuffer;
+        this.utf8Offsets = utf8Offsets;
+        this.utf8Lengths = utf8Lengths;
+        this.utf8Count = utf8Count;
+    }
+
+    /**
+     * @return null if the class file can not be read
+     */
+    public static ClassConstantPool read(final byte[] classFileBuffer) {
+        if (classFileBuffer == null || classFileBuffer.length < 10) {
+            return null;
+        }
+        if (readInt(classFileBuffer, 0) != MAGIC) {
+            return null;
+        }
+        final int constantPoolCount = readUnsignedShort(classFileBuffer, 8);
+        final int[] utf8Offsets = new int[constantPoolCount];
+        final int[] utf8Lengths = new int[constantPoolCount];
+        int utf8Count = 0;
+
+        int offset = 10;
+        try {
+            for (int i = 1; i < constantPoolCount; i++) {
+                final int tag = classFileBuffer[offset];
+                switch (tag) {
+                    case UTF8:
+                        final int length = readUnsignedShort(classFileBuffer, offset + 1);
+                        utf8Offsets[utf8Count] = offset + 3;
+                        utf8Lengths[utf8Count] = length;
+                        utf8Count++;
+                        offset += 3 + length;
+                        break;
+                    case CLASS:
+                    case STRING:
+                    case METHOD_TYPE:
+                    case MODULE:
+                    case PACKAGE:
+                        offset += 3;
+                        break;
+                    case METHOD_HANDLE:
+                        offset += 4;
+                        break;
+                    case INTEGER:
+                    case FLOAT:
+                    case FIELD_REF:
+                    case METHOD_REF:
+                    case INTERFACE_METHOD_REF:
+                    case NAME_AND_TYPE:
+                    case DYNAMIC:
+                    case INVOKE_DYNAMIC:
+                        offset += 5;
+                        break;
+                    case LONG:
+                    case DOUBLE:
+                        // takes two entries.
+                        offset += 9;
+                        i++;
+                        break;
+                    default:
+                        // unknown constant.
+                        return null;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+        if (offset > classFileBuffer.length) {
+            return null;
+        }
+        return new ClassConstantPool(classFileBuffer, utf8Offsets, utf8Lengths, utf8Count);
+    }
+
+    /**
+     * @param value ascii encoded string
+     */
+    public boolean containsUtf8(final byte[] value) {
+        for (int i = 0; i < utf8Count; i++) {
+            if (utf8Lengths[i] == value.length && equals(utf8Offsets[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean equals(final int offset, final byte[] value) {
+        for (int i = 0; i < value.length; i++) {
+            if (classFileBuffer[offset + i] != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readUnsignedShort(final byte[] buffer, final int offset) {
+        return ((buffer[offset] & 0xFF) << 8) | (buffer[offset + 1] & 0xFF);
+    }
+
+    private static int readInt(final byte[] buffer, final int offset) {
+        return ((buffer[offset] & 0xFF) << 24) | ((buffer[offset + 1] & 0xFF) << 16) | ((buffer[offset + 2] & 0xFF) << 8) | (buffer[offset + 3] & 0xFF);
+    }
+}
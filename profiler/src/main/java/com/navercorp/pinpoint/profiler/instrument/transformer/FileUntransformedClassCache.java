@@ -0,0 +1,316 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import com.navercorp.pinpoint.common.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Untransformed class cache backed by a file.
+ * <p>
+ * The file holds the sorted 64-bit keys (class name + class bytes) of classes that no transformer matched.
+ * It is only used when its fingerprint (agent version, plugins, application class path and profiler config) matches the current agent,
+ * and is rewritten on close with the keys that were actually seen during this run.
+ * The keys are copied to the heap on load, so the file is not held open or mapped and can be replaced on every platform.
+ */
+public class FileUntransformedClassCache implements UntransformedClassCache {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    static final int MAGIC = 0x50554343;
+    static final int VERSION = 1;
+    // magic, version, fingerprint, key count
+    static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+    // checksum
+    static final int TRAILER_SIZE = 8;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final File cacheFile;
+    private final long fingerprint;
+    private final int maxSize;
+
+    private final long[] loadedKeys;
+    private final AtomicLongArray loadedKeyHits;
+
+    private final Set<Long> newKeys = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    public FileUntransformedClassCache(File cacheFile, long fingerprint, int maxSize) {
+        this.cacheFile = Assert.requireNonNull(cacheFile, "cacheFile must not be null");
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive. maxSize:" + maxSize);
+        }
+        this.fingerprint = fingerprint;
+        this.maxSize = maxSize;
+
+        this.loadedKeys = load();
+        this.loadedKeyHits = new AtomicLongArray((loadedKeys.length + 63) >>> 6);
+        if (logger.isInfoEnabled()) {
+            logger.info("untransformed class cache file:{}, loaded:{}", cacheFile, loadedKeys.length);
+        }
+    }
+
+    private long[] load() {
+        if (!cacheFile.isFile()) {
+            return new long[0];
+        }
+        try {
+            final ByteBuffer buffer = read(cacheFile);
+            if (buffer != null) {
+                final long[] keys = validate(buffer);
+                if (keys != null) {
+                    return keys;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("untransformed class cache load fail. file:{}", cacheFile, e);
+        }
+        return new long[0];
+    }
+
+    private ByteBuffer read(File file) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            final long size = channel.size();
+            if (size > HEADER_SIZE + TRAILER_SIZE + (long) maxSize * 8) {
+                logger.info("untransformed class cache too large. size:{}", size);
+                return null;
+            }
+            // read into the heap instead of mapping, a mapped file can not be replaced on windows until it is unmapped
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("unexpected end of file " + file);
+                }
+            }
+            buffer.flip();
+            return buffer;
+        } finally {
+            close(randomAccessFile);
+        }
+    }
+
+    private long[] validate(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_SIZE + TRAILER_SIZE) {
+            logger.info("invalid untransformed class cache. size:{}", buffer.capacity());
+            return null;
+        }
+        final int magic = buffer.getInt(0);
+        final int version = buffer.getInt(4);
+        if (magic != MAGIC || version != VERSION) {
+            logger.info("invalid untransformed class cache. magic:{}, version:{}", magic, version);
+            return null;
+        }
+        final long fileFingerprint = buffer.getLong(8);
+        if (fileFingerprint != this.fingerprint) {
+            logger.info("untransformed class cache fingerprint changed. discard cache");
+            return null;
+        }
+        final int count = buffer.getInt(16);
+        if (count < 0 || (long) HEADER_SIZE + (long) count * 8 + TRAILER_SIZE != buffer.capacity()) {
+            logger.info("invalid untransformed class cache. count:{}, size:{}", count, buffer.capacity());
+            return null;
+        }
+
+        final long[] keys = new long[count];
+        long checksum = FNV_OFFSET_BASIS;
+        for (int i = 0; i < count; i++) {
+            final long key = buffer.getLong(HEADER_SIZE + i * 8);
+            keys[i] = key;
+            if (i > 0 && keys[i - 1] >= key) {
+                logger.info("invalid untransformed class cache. unsorted key index:{}", i);
+                return null;
+            }
+            checksum = mix(checksum, key);
+        }
+        if (checksum != buffer.getLong(HEADER_SIZE + count * 8)) {
+            logger.info("invalid untransformed class cache. checksum mismatch");
+            return null;
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean isUntransformed(String classInternalName, byte[] classFileBuffer) {
+        final long key = classKey(classInternalName, classFileBuffer);
+        final int index = Arrays.binarySearch(loadedKeys, key);
+        if (index >= 0) {
+            markHit(index);
+            return true;
+        }
+        return newKeys.contains(key);
+    }
+
+    @Override
+    public void untransformed(String classInternalName, byte[] classFileBuffer) {
+        if (newKeys.size() >= maxSize) {
+            return;
+        }
+        newKeys.add(classKey(classInternalName, classFileBuffer));
+    }
+
+    private void markHit(int index) {
+        final int slot = index >>> 6;
+        final long mask = 1L << (index & 63);
+        while (true) {
+            final long bits = loadedKeyHits.get(slot);
+            if ((bits & mask) != 0 || loadedKeyHits.compareAndSet(slot, bits, bits | mask)) {
+                return;
+            }
+        }
+    }
+
+    private boolean isHit(int index) {
+        return (loadedKeyHits.get(index >>> 6) & (1L << (index & 63))) != 0;
+    }
+
+    static long classKey(String classInternalName, byte[] classFileBuffer) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < classInternalName.length(); i++) {
+            hash = (hash ^ classInternalName.charAt(i)) * FNV_PRIME;
+        }
+        hash = (hash ^ classFileBuffer.length) * FNV_PRIME;
+        for (byte b : classFileBuffer) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        final long[] keys = collectKeys();
+        if (keys.length == loadedKeys.length && newKeys.isEmpty()) {
+            // nothing changed
+            return;
+        }
+        try {
+            write(keys);
+            if (logger.isInfoEnabled()) {
+                logger.info("untransformed class cache saved. file:{}, size:{}", cacheFile, keys.length);
+            }
+        } catch (IOException e) {
+            logger.warn("untransformed class cache save fail. file:{}", cacheFile, e);
+        }
+    }
+
+    private long[] collectKeys() {
+        final int loadedSize = loadedKeys.length;
+        long[] keys = new long[loadedSize + newKeys.size()];
+        int size = 0;
+        // drop the keys of classes that were not loaded during this run
+        for (int i = 0; i < loadedSize; i++) {
+            if (isHit(i)) {
+                keys[size++] = loadedKeys[i];
+            }
+        }
+        for (Long key : newKeys) {
+            if (size == keys.length) {
+                break;
+            }
+            keys[size++] = key;
+        }
+        size = Math.min(size, maxSize);
+        Arrays.sort(keys, 0, size);
+
+        // remove duplicates
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || keys[unique - 1] != keys[i]) {
+                keys[unique++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, unique);
+    }
+
+    private void write(long[] keys) throws IOException {
+        final File parent = cacheFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("can not create directory " + parent);
+        }
+        final File tempFile = new File(cacheFile.getPath() + ".tmp");
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint);
+            out.writeInt(keys.length);
+            long checksum = FNV_OFFSET_BASIS;
+            for (long key : keys) {
+                out.writeLong(key);
+                checksum = mix(checksum, key);
+            }
+            out.writeLong(checksum);
+        } finally {
+            close(out);
+        }
+
+        if (!tempFile.renameTo(cacheFile)) {
+            // the target can not be replaced in place on some platforms
+            if (!cacheFile.delete() || !tempFile.renameTo(cacheFile)) {
+                tempFile.delete();
+                throw new IOException("can not rename " + tempFile + " to " + cacheFile);
+            }
+        }
+    }
+
+    private void close(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+            // skip
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileUntransformedClassCache{" +
+                "cacheFile=" + cacheFile +
+                ", loadedSize=" + loadedKeys.length +
+                ", newSize=" + newKeys.size() +
+                '}';
+    }
+}
@@ -22,25 +22,25 @@ import com.navercorp.pinpoint.bootstrap.instrument.matcher.MatcherType;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.ClassInternalNameMatcherOperand;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.MatcherOperand;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.PackageInternalNameMatcherOperand;
+import com.navercorp.pinpoint.profiler.instrument.classreading.ClassConstantPool;
 import com.navercorp.pinpoint.profiler.instrument.classreading.InternalClassMetadata;
 import com.navercorp.pinpoint.profiler.instrument.classreading.InternalClassMetadataReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.instrument.ClassFileTransformer;
-import java.util.Comparator;
+import java.nio.charset.Charset;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author jaehong.kim
  */
 public class MatchableTransformerRegistry implements TransformerRegistry {
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final boolean isDebug = logger.isDebugEnabled();
 
@@ -50,20 +50,12 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
     // class matcher operand.
     private final Map<String, IndexValue> classNameBasedIndex = new HashMap<String, IndexValue>(64);
     // package matcher operand.
-    private final Map<String, Set<IndexValue>> packageNameBasedIndex;
+    private final PackageInternalNameTrie<IndexValue> packageNameBasedIndex = new PackageInternalNameTrie<IndexValue>();
 
     private final TransformerMatcherExecutionPlanner executionPlanner = new TransformerMatcherExecutionPlanner();
     private final TransformerMatcher transformerMatcher;
 
     public MatchableTransformerRegistry(final ProfilerConfig profilerConfig) {
-        // sorted by package name length.
-        this.packageNameBasedIndex = new TreeMap<String, Set<IndexValue>>(new Comparator<String>() {
-            @Override
-            public int compare(String key1, String key2) {
-                return key1.length() - key2.length();
-            }
-        });
-
         this.transformerMatcher = new DefaultTransformerMatcher(profilerConfig.getInstrumentMatcherCacheConfig());
     }
 
@@ -101,6 +93,25 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
         return null;
     }
 
+    /**
+     * Whether a candidate transformer of the class is matched through the class hierarchy or meta annotations.
+     * Such a match depends on the class loader and the other classes it loads, so the result must not be cached by the class file alone.
+     */
+    public boolean isHierarchyDependent(final String classInternalName) {
+        final IndexValue classIndexValue = this.classNameBasedIndex.get(classInternalName);
+        if (classIndexValue != null && classIndexValue.hierarchyDependent) {
+            return true;
+        }
+        if (!this.packageNameBasedIndex.isEmpty()) {
+            for (IndexValue value : this.packageNameBasedIndex.find(classInternalName)) {
+                if (value.hierarchyDependent) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private ClassFileTransformer findClassBasedTransformer(final ClassLoader classLoader, final String classInternalName, final ClassMetadataWrapper classMetadataWrapper) {
         IndexValue indexValue = this.classNameBasedIndex.get(classInternalName);
         if (indexValue != null) {
@@ -119,15 +130,11 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
     }
 
     private ClassFileTransformer findPackageBasedTransformer(final ClassLoader classLoader, final String classInternalName, final ClassMetadataWrapper classMetadataWrapper) {
-        for (Map.Entry<String, Set<IndexValue>> entry : this.packageNameBasedIndex.entrySet()) {
-            final String packageInternalName = entry.getKey();
-            if (classInternalName.startsWith(packageInternalName)) {
-                for (IndexValue value : entry.getValue()) {
-                    ClassFileTransformer transformer = match(classLoader, value, classMetadataWrapper);
-                    if (transformer != null) {
-                        return transformer;
-                    }
-                }
+        // sorted by package name length.
+        for (IndexValue value : this.packageNameBasedIndex.find(classInternalName)) {
+            ClassFileTransformer transformer = match(classLoader, value, classMetadataWrapper);
+            if (transformer != null) {
+                return transformer;
             }
         }
 
@@ -135,6 +142,11 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
     }
 
     private ClassFileTransformer match(final ClassLoader classLoader, final IndexValue indexValue, final ClassMetadataWrapper classMetadataWrapper) {
+        if (!indexValue.isCandidate(classMetadataWrapper)) {
+            // required super class, interface or annotation is not referenced by the class file.
+            return null;
+        }
+
         final long startTime = System.currentTimeMillis();
         if (transformerMatcher.match(classLoader, indexValue.operand, classMetadataWrapper.get())) {
             long elapsedTime = indexValue.accumulatorTime(startTime);
@@ -168,7 +180,7 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
         }
 
         boolean indexed;
-        final IndexValue indexValue = new IndexValue(condition, transformer);
+        final IndexValue indexValue = new IndexValue(condition, transformer, toConstantPoolIndex(executionPlanner.findConstantPoolIndex(condition)), executionPlanner.isHierarchyDependent(condition));
         for (MatcherOperand operand : indexedMatcherOperands) {
             if (operand instanceof ClassInternalNameMatcherOperand) {
                 ClassInternalNameMatcherOperand classInternalNameMatcherOperand = (ClassInternalNameMatcherOperand) operand;
@@ -179,7 +191,7 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
                 indexed = true;
             } else if (operand instanceof PackageInternalNameMatcherOperand) {
                 PackageInternalNameMatcherOperand packageInternalNameMatcherOperand = (PackageInternalNameMatcherOperand) operand;
-                addIndexData(packageInternalNameMatcherOperand.getPackageInternalName(), indexValue, this.packageNameBasedIndex);
+                this.packageNameBasedIndex.put(packageInternalNameMatcherOperand.getPackageInternalName(), indexValue);
                 indexed = true;
             } else {
                 throw new IllegalArgumentException("invalid matcher or execution planner - unknown operand. condition=" + condition + ", unknown operand=" + operand);
@@ -191,23 +203,66 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
         }
     }
 
-    private void addIndexData(final String key, final IndexValue indexValue, final Map<String, Set<IndexValue>> index) {
-        Set<IndexValue> indexValueSet = index.get(key);
-        if (indexValueSet == null) {
-            indexValueSet = new HashSet<IndexValue>();
-            index.put(key, indexValueSet);
+    private byte[][] toConstantPoolIndex(final List<String> constants) {
+        if (constants == null) {
+            return null;
         }
-        indexValueSet.add(indexValue);
+        final byte[][] constantPoolIndex = new byte[constants.size()][];
+        for (int i = 0; i < constants.size(); i++) {
+            final String constant = constants.get(i);
+            if (!isAscii(constant)) {
+                // modified utf-8 may differ from the standard encoding.
+                return null;
+            }
+            constantPoolIndex[i] = constant.getBytes(ASCII);
+        }
+        return constantPoolIndex;
+    }
+
+    private boolean isAscii(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == 0 || c > 127) {
+                return false;
+            }
+        }
+        return true;
     }
 
     static class IndexValue {
         private final MatcherOperand operand;
         private final ClassFileTransformer transformer;
+        // at least one of them must be in the constant pool of the matched class.
+        private final byte[][] constantPoolIndex;
+        private final boolean hierarchyDependent;
         private final AtomicLong accumulatorTimeMillis = new AtomicLong(0);
 
         public IndexValue(final MatcherOperand operand, final ClassFileTransformer transformer) {
+            this(operand, transformer, null, false);
+        }
+
+        public IndexValue(final MatcherOperand operand, final ClassFileTransformer transformer, final byte[][] constantPoolIndex, final boolean hierarchyDependent) {
             this.operand = operand;
             this.transformer = transformer;
+            this.constantPoolIndex = constantPoolIndex;
+            this.hierarchyDependent = hierarchyDependent;
+        }
+
+        public boolean isCandidate(final ClassMetadataWrapper classMetadataWrapper) {
+            if (constantPoolIndex == null) {
+                return true;
+            }
+            final ClassConstantPool constantPool = classMetadataWrapper.getConstantPool();
+            if (constantPool == null) {
+                // unknown class file format.
+                return true;
+            }
+            for (byte[] constant : constantPoolIndex) {
+                if (constantPool.containsUtf8(constant)) {
+                    return true;
+                }
+            }
+            return false;
         }
 
         public long accumulatorTime(final long startTimeMillis) {
@@ -220,6 +275,8 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
     class ClassMetadataWrapper {
         private final byte[] classFileBuffer;
         private InternalClassMetadata classMetadata;
+        private ClassConstantPool constantPool;
+        private boolean constantPoolRead;
 
         ClassMetadataWrapper(final byte[] classFileBuffer, final InternalClassMetadata classMetadata) {
             this.classFileBuffer = classFileBuffer;
@@ -240,5 +297,13 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
 
             return this.classMetadata;
         }
+
+        public ClassConstantPool getConstantPool() {
+            if (!this.constantPoolRead) {
+                this.constantPool = ClassConstantPool.read(this.classFileBuffer);
+                this.constantPoolRead = true;
+            }
+            return this.constantPool;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Character trie of package internal name prefixes.
+ * A lookup walks the class internal name once instead of testing every registered package.
+ */
+class PackageInternalNameTrie<V> {
+
+    private final Node<V> root = new Node<V>();
+    private boolean empty = true;
+
+    public void put(final String packageInternalName, final V value) {
+        Node<V> node = root;
+        for (int i = 0; i < packageInternalName.length(); i++) {
+            final Character key = packageInternalName.charAt(i);
+            Node<V> child = node.children.get(key);
+            if (child == null) {
+                child = new Node<V>();
+                node.children.put(key, child);
+            }
+            node = child;
+        }
+        if (node.values == null) {
+            node.values = new ArrayList<V>(2);
+        }
+        if (!node.values.contains(value)) {
+            node.values.add(value);
+        }
+        empty = false;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * @return values of all prefixes of the class internal name, shortest prefix first
+     */
+    public List<V> find(final String classInternalName) {
+        List<V> result = null;
+        Node<V> node = root;
+        for (int i = 0; i < classInternalName.length(); i++) {
+            node = node.children.get(classInternalName.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.values != null) {
+                if (result == null) {
+                    result = new ArrayList<V>(node.values);
+                } else {
+                    result.addAll(node.values);
+                }
+            }
+        }
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        return result;
+    }
+
+    private static class Node<V> {
+        private final Map<Character, Node<V>> children = new HashMap<Character, Node<V>>(4);
+        private List<V> values;
+    }
+}
@@ -15,7 +15,10 @@
  */
 package com.navercorp.pinpoint.profiler.instrument.transformer;
 
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.AnnotationInternalNameMatcherOperand;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.InterfaceInternalNameMatcherOperand;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.MatcherOperand;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.SuperClassInternalNameMatcherOperand;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operator.AndMatcherOperator;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operator.MatcherOperator;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operator.NotMatcherOperator;
@@ -77,4 +80,101 @@ public class TransformerMatcherExecutionPlanner {
             throw new IllegalArgumentException("unknown operator. operator=" + operand);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Find the constant pool strings of which at least one must be present in the class file for the operand to match.
+     *
+     * @return null if the operand can match without any specific constant. (e.g. hierarchy or meta annotation)
+     */
+    public List<String> findConstantPoolIndex(final MatcherOperand operand) {
+        if (!operand.isOperator()) {
+            final String constant = findConstant(operand);
+            if (constant == null) {
+                return null;
+            }
+            final List<String> index = new ArrayList<String>(1);
+            index.add(constant);
+            return index;
+        }
+
+        if (operand instanceof NotMatcherOperator) {
+            return null;
+        }
+
+        final MatcherOperator operator = (MatcherOperator) operand;
+        final MatcherOperand leftOperand = operator.getLeftOperand();
+        final MatcherOperand rightOperand = operator.getRightOperand();
+        if (leftOperand == null || rightOperand == null) {
+            return null;
+        }
+
+        final List<String> leftIndex = findConstantPoolIndex(leftOperand);
+        final List<String> rightIndex = findConstantPoolIndex(rightOperand);
+        if (operand instanceof AndMatcherOperator) {
+            // either one is required.
+            if (leftIndex == null) {
+                return rightIndex;
+            }
+            if (rightIndex == null) {
+                return leftIndex;
+            }
+            return leftIndex.size() <= rightIndex.size() ? leftIndex : rightIndex;
+        } else if (operand instanceof OrMatcherOperator) {
+            // both are required.
+            if (leftIndex == null || rightIndex == null) {
+                return null;
+            }
+            final List<String> index = new ArrayList<String>(leftIndex.size() + rightIndex.size());
+            index.addAll(leftIndex);
+            index.addAll(rightIndex);
+            return index;
+        }
+        return null;
+    }
+
+    /**
+     * Whether the operand resolves the class hierarchy or meta annotations through the class loader.
+     * The result of such an operand depends on other classes, not only on the class file being matched.
+     */
+    public boolean isHierarchyDependent(final MatcherOperand operand) {
+        if (operand == null) {
+            return false;
+        }
+        if (!operand.isOperator()) {
+            if (operand instanceof SuperClassInternalNameMatcherOperand) {
+                return ((SuperClassInternalNameMatcherOperand) operand).isConsiderHierarchy();
+            } else if (operand instanceof InterfaceInternalNameMatcherOperand) {
+                return ((InterfaceInternalNameMatcherOperand) operand).isConsiderHierarchy();
+            } else if (operand instanceof AnnotationInternalNameMatcherOperand) {
+                return ((AnnotationInternalNameMatcherOperand) operand).isConsiderMetaAnnotation();
+            }
+            return false;
+        }
+
+        final MatcherOperator operator = (MatcherOperator) operand;
+        return isHierarchyDependent(operator.getLeftOperand()) || isHierarchyDependent(operator.getRightOperand());
+    }
+
+    private String findConstant(final MatcherOperand operand) {
+        if (operand instanceof SuperClassInternalNameMatcherOperand) {
+            final SuperClassInternalNameMatcherOperand superClassOperand = (SuperClassInternalNameMatcherOperand) operand;
+            if (!superClassOperand.isConsiderHierarchy()) {
+                // CONSTANT_Class name.
+                return superClassOperand.getSuperClassInternalNames();
+            }
+        } else if (operand instanceof InterfaceInternalNameMatcherOperand) {
+            final InterfaceInternalNameMatcherOperand interfaceOperand = (InterfaceInternalNameMatcherOperand) operand;
+            if (!interfaceOperand.isConsiderHierarchy()) {
+                // CONSTANT_Class name.
+                return interfaceOperand.getInterfaceInternalName();
+            }
+        } else if (operand instanceof AnnotationInternalNameMatcherOperand) {
+            final AnnotationInternalNameMatcherOperand annotationOperand = (AnnotationInternalNameMatcherOperand) operand;
+            if (!annotationOperand.isConsiderMetaAnnotation()) {
+                // annotation type descriptor.
+                return "L" + annotationOperand.getAnnotationInternalName() + ";";
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+/**
+ * Remembers classes for which no transformer was found, so that they can skip matching on the next agent start.
+ */
+public interface UntransformedClassCache {
+
+    boolean isUntransformed(String classInternalName, byte[] classFileBuffer);
+
+    void untransformed(String classInternalName, byte[] classFileBuffer);
+
+    void close();
+
+}
@@ -16,11 +16,15 @@
 
 package com.navercorp.pinpoint.profiler.metadata;
 
+import com.google.common.cache.CacheBuilder;
 import com.navercorp.pinpoint.bootstrap.context.ParsingResult;
 import com.navercorp.pinpoint.common.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * @author emeroad
  */
@@ -33,9 +37,24 @@ public class DefaultCachingSqlNormalizer implements CachingSqlNormalizer {
     private final SimpleCache<String> sqlCache;
     private final SqlParser sqlParser;
 
+    // the same original sql is always normalized into the same sql and parameters, so repeated statements skip parsing entirely
+    private final ConcurrentMap<String, CachedParsingResult> originalSqlCache;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
     public DefaultCachingSqlNormalizer(int cacheSize) {
         this.sqlCache = new SimpleCache<String>(cacheSize);
         this.sqlParser = new DefaultSqlParser();
+        this.originalSqlCache = createOriginalSqlCache(cacheSize);
+    }
+
+    private ConcurrentMap<String, CachedParsingResult> createOriginalSqlCache(int cacheSize) {
+        final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+        cacheBuilder.concurrencyLevel(64);
+        cacheBuilder.initialCapacity(cacheSize);
+        cacheBuilder.maximumSize(cacheSize);
+        return cacheBuilder.<String, CachedParsingResult>build().asMap();
     }
 
     @Override
@@ -69,24 +88,69 @@ public class DefaultCachingSqlNormalizer implements CachingSqlNormalizer {
         final ParsingResultInternal parsingResultInternal = (ParsingResultInternal) parsingResult;
 
         final String originalSql = parsingResultInternal.getOriginalSql();
+        final CachedParsingResult cachedParsingResult = this.originalSqlCache.get(originalSql);
+        if (cachedParsingResult != null) {
+            hitCount.incrementAndGet();
+            setParsingResult(parsingResultInternal, cachedParsingResult.id, cachedParsingResult.sql, cachedParsingResult.output);
+            // the sql has been cached by sqlCache before
+            return false;
+        }
+        missCount.incrementAndGet();
+
         final NormalizedSql normalizedSql = this.sqlParser.normalizedSql(originalSql);
 
         final Result cachingResult = this.sqlCache.put(normalizedSql.getNormalizedSql());
 
+        setParsingResult(parsingResultInternal, cachingResult.getId(), normalizedSql.getNormalizedSql(), normalizedSql.getParseParameter());
+        this.originalSqlCache.put(originalSql, new CachedParsingResult(cachingResult.getId(), normalizedSql.getNormalizedSql(), normalizedSql.getParseParameter()));
+
+        return cachingResult.isNewValue();
+    }
+
+    private void setParsingResult(ParsingResultInternal parsingResultInternal, int id, String sql, String output) {
         // set normalizedSql
         // set sqlId
-        final boolean success = parsingResultInternal.setId(cachingResult.getId());
+        final boolean success = parsingResultInternal.setId(id);
         if (!success) {
             if (logger.isWarnEnabled()) {
-                logger.warn("invalid state. setSqlId fail setId:{}, ParsingResultInternal:{}", cachingResult.getId(), parsingResultInternal);
+                logger.warn("invalid state. setSqlId fail setId:{}, ParsingResultInternal:{}", id, parsingResultInternal);
             }
         }
 
-        parsingResultInternal.setSql(normalizedSql.getNormalizedSql());
-        parsingResultInternal.setOutput(normalizedSql.getParseParameter());
+        parsingResultInternal.setSql(sql);
+        parsingResultInternal.setOutput(output);
+    }
 
-        return cachingResult.isNewValue();
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
     }
 
+    @Override
+    public String toString() {
+        final long hit = hitCount.get();
+        final long miss = missCount.get();
+        final long total = hit + miss;
+        final long hitRatio = total == 0 ? 0 : hit * 100 / total;
+        return "DefaultCachingSqlNormalizer{" +
+                "hitCount=" + hit +
+                ", missCount=" + miss +
+                ", hitRatio=" + hitRatio + "%" +
+                '}';
+    }
+
+    private static final class CachedParsingResult {
+        private final int id;
+        private final String sql;
+        private final String output;
 
+        private CachedParsingResult(int id, String sql, String output) {
+            this.id = id;
+            this.sql = sql;
+            this.output = output;
+        }
+    }
 }
@@ -76,8 +76,7 @@ public class DefaultSqlMetaDataService implements SqlMetaDataService {
         boolean isNewValue = this.cachingSqlNormalizer.normalizedSql(parsingResult);
         if (isNewValue) {
             if (isDebug) {
-                // TODO logging hit ratio could help debugging
-                logger.debug("NewSQLParsingResult:{}", parsingResult);
+                logger.debug("NewSQLParsingResult:{}, {}", parsingResult, cachingSqlNormalizer);
             }
 
             // isNewValue means that the value is newly cached.
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.monitor;
+
+import com.navercorp.pinpoint.common.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class DefaultStackSampler implements StackSampler {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final StackSamplerTask stackSamplerTask;
+    private final Thread stackSamplerThread;
+
+    public DefaultStackSampler(StackSamplerTask stackSamplerTask) {
+        this.stackSamplerTask = Assert.requireNonNull(stackSamplerTask, "stackSamplerTask must not be null");
+        this.stackSamplerThread = new Thread(stackSamplerTask, "Pinpoint-stack-sampler");
+        this.stackSamplerThread.setDaemon(true);
+    }
+
+    @Override
+    public void start() {
+        stackSamplerThread.start();
+        logger.info("DefaultStackSampler started. {}", stackSamplerTask);
+    }
+
+    @Override
+    public void stop() {
+        stackSamplerTask.stop();
+        stackSamplerThread.interrupt();
+        logger.info("DefaultStackSampler stopped");
+    }
+
+}
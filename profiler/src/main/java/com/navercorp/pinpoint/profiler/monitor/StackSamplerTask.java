@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.monitor;
+
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.ThreadMXBeanUtils;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceSnapshot;
+import com.navercorp.pinpoint.profiler.context.active.FoldedStackSamples;
+import com.navercorp.pinpoint.profiler.context.active.SampledActiveTraceSnapshot;
+import com.navercorp.pinpoint.profiler.context.id.Shared;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Samples the stacks of sampled transactions running longer than the threshold and folds them into the {@link Shared} state of the trace.
+ * The time spent sampling is measured every round and the next round is delayed so that the sampler stays within its cpu budget.
+ */
+public class StackSamplerTask implements Runnable {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final ActiveTraceRepository activeTraceRepository;
+    private final long intervalMillis;
+    private final long thresholdMillis;
+    private final int cpuBudgetPercent;
+    private final int maxDepth;
+    private final int maxStacks;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported;
+
+    private final AtomicBoolean stop = new AtomicBoolean(false);
+
+    public StackSamplerTask(ActiveTraceRepository activeTraceRepository, long intervalMillis, long thresholdMillis, int cpuBudgetPercent, int maxDepth, int maxStacks) {
+        this.activeTraceRepository = Assert.requireNonNull(activeTraceRepository, "activeTraceRepository must not be null");
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("intervalMillis must be greater than 0");
+        }
+        if (cpuBudgetPercent <= 0 || cpuBudgetPercent > 100) {
+            throw new IllegalArgumentException("cpuBudgetPercent must be between 1 and 100");
+        }
+        if (maxDepth <= 0) {
+            throw new IllegalArgumentException("maxDepth must be greater than 0");
+        }
+        this.intervalMillis = intervalMillis;
+        this.thresholdMillis = thresholdMillis;
+        this.cpuBudgetPercent = cpuBudgetPercent;
+        this.maxDepth = maxDepth;
+        this.maxStacks = maxStacks;
+        this.cpuTimeSupported = isCpuTimeSupported(threadMXBean);
+    }
+
+    private static boolean isCpuTimeSupported(ThreadMXBean threadMXBean) {
+        try {
+            return threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!stop.get()) {
+            final long cost = doTask();
+            waitNextTask(getNextIntervalMillis(cost));
+        }
+        logger.info("StackSamplerTask stop completed");
+    }
+
+    /**
+     * @return the cpu time (wall time if not supported) spent sampling in nanoseconds
+     */
+    long doTask() {
+        final long startTime = currentTime();
+        try {
+            sample(System.currentTimeMillis());
+        } catch (Exception e) {
+            logger.warn("stack sampling failed. Caused:{}", e.getMessage(), e);
+        }
+        return currentTime() - startTime;
+    }
+
+    private long currentTime() {
+        if (cpuTimeSupported) {
+            return threadMXBean.getCurrentThreadCpuTime();
+        }
+        return System.nanoTime();
+    }
+
+    void sample(long currentTimeMillis) {
+        final List<ActiveTraceSnapshot> snapshotList = activeTraceRepository.snapshot();
+        if (snapshotList.isEmpty()) {
+            return;
+        }
+
+        final List<TraceRoot> targetList = new ArrayList<TraceRoot>();
+        for (ActiveTraceSnapshot snapshot : snapshotList) {
+            // unsampled transactions do not send a span
+            if (!(snapshot instanceof SampledActiveTraceSnapshot)) {
+                continue;
+            }
+            if (currentTimeMillis - snapshot.getStartTime() < thresholdMillis) {
+                continue;
+            }
+            if (snapshot.getThreadId() == 0) {
+                continue;
+            }
+            targetList.add(((SampledActiveTraceSnapshot) snapshot).getTraceRoot());
+        }
+        if (targetList.isEmpty()) {
+            return;
+        }
+
+        final long[] threadIds = new long[targetList.size()];
+        for (int i = 0; i < threadIds.length; i++) {
+            threadIds[i] = targetList.get(i).getShared().getThreadId();
+        }
+        final ThreadInfo[] threadInfos = ThreadMXBeanUtils.getThreadInfo(threadIds, maxDepth);
+        for (int i = 0; i < threadInfos.length; i++) {
+            final ThreadInfo threadInfo = threadInfos[i];
+            if (threadInfo == null) {
+                continue;
+            }
+            final String foldedStack = FoldedStackSamples.fold(threadInfo.getStackTrace(), maxDepth);
+            if (foldedStack == null) {
+                continue;
+            }
+            getStackSamples(targetList.get(i).getShared()).add(foldedStack);
+        }
+    }
+
+    private FoldedStackSamples getStackSamples(Shared shared) {
+        final FoldedStackSamples stackSamples = shared.getStackSamples();
+        if (stackSamples != null) {
+            return stackSamples;
+        }
+        shared.setStackSamples(new FoldedStackSamples(maxStacks));
+        return shared.getStackSamples();
+    }
+
+    long getNextIntervalMillis(long costNanos) {
+        // cost / (cost + wait) <= cpuBudgetPercent / 100
+        final long budgetIntervalMillis = TimeUnit.NANOSECONDS.toMillis(costNanos * 100 / cpuBudgetPercent - costNanos);
+        return Math.max(intervalMillis, budgetIntervalMillis);
+    }
+
+    private void waitNextTask(long waitMillis) {
+        if (!Thread.interrupted()) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException ignore) {
+                // It only exhaust time to wait using interrupt.
+                // The end of the job is confirmed by using the stop field.
+            }
+        }
+    }
+
+    void stop() {
+        if (stop.compareAndSet(false, true)) {
+            logger.info("StackSamplerTask stop started");
+        } else {
+            logger.info("StackSamplerTask already stopped");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StackSamplerTask{" +
+                "intervalMillis=" + intervalMillis +
+                ", thresholdMillis=" + thresholdMillis +
+                ", cpuBudgetPercent=" + cpuBudgetPercent +
+                ", maxDepth=" + maxDepth +
+                ", maxStacks=" + maxStacks +
+                ", cpuTimeSupported=" + cpuTimeSupported +
+                '}';
+    }
+}
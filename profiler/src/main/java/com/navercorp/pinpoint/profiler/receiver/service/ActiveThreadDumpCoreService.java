@@ -17,111 +17,184 @@
 package com.navercorp.pinpoint.profiler.receiver.service;
 
 import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
 import com.navercorp.pinpoint.common.util.ThreadMXBeanUtils;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author Woonduk Kang(emeroad)
  */
 public class ActiveThreadDumpCoreService {
 
+    // ThreadMXBean stops the world for each call, so threads are captured in bounded batches.
+    static final int CAPTURE_BATCH_SIZE = 64;
+    static final long DEFAULT_CAPTURE_TIME_BUDGET_MILLIS = 3000;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     private final ActiveTraceRepository activeTraceRepository;
 
     private final Comparator<ThreadDump> reverseOrder =  Collections.reverseOrder(new ThreadDumpComparator());
+    private final Comparator<ActiveTraceSnapshot> snapshotReverseOrder = Collections.reverseOrder(new ActiveTraceSnapshotComparator());
+
+    private final int captureBatchSize;
+    private final long captureTimeBudgetMillis;
+    // the command thread waits for the capture at most captureTimeBudgetMillis
+    private final ExecutorService captureExecutor;
 
     public ActiveThreadDumpCoreService(ActiveTraceRepository activeTraceRepository) {
+        this(activeTraceRepository, DEFAULT_CAPTURE_TIME_BUDGET_MILLIS);
+    }
+
+    public ActiveThreadDumpCoreService(ActiveTraceRepository activeTraceRepository, long captureTimeBudgetMillis) {
+        this(activeTraceRepository, CAPTURE_BATCH_SIZE, captureTimeBudgetMillis);
+    }
+
+    ActiveThreadDumpCoreService(ActiveTraceRepository activeTraceRepository, int captureBatchSize, long captureTimeBudgetMillis) {
         this.activeTraceRepository = Assert.requireNonNull(activeTraceRepository, "activeTraceRepository must not be null");
+        Assert.isTrue(captureBatchSize > 0, "captureBatchSize must be positive");
+        this.captureBatchSize = captureBatchSize;
+        this.captureTimeBudgetMillis = captureTimeBudgetMillis;
+        this.captureExecutor = newCaptureExecutor();
     }
 
-    public Collection<ThreadDump> getActiveThreadDumpList(ThreadDumpRequest request) {
+    private ExecutorService newCaptureExecutor() {
+        // the capture thread is released when idle. at most one request waits behind a running capture, the others are rejected
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(1), new PinpointThreadFactory("Pinpoint-active-thread-dump", true));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 
-        final List<ActiveTraceSnapshot> activeTraceInfoList = activeTraceRepository.snapshot();
+    public Collection<ThreadDump> getActiveThreadDumpList(final ThreadDumpRequest request) {
+        final long deadline = getDeadline(System.currentTimeMillis());
+        final CaptureResult captureResult = new CaptureResult(request.getLimit());
+
+        final Future<?> future;
+        try {
+            future = captureExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    final List<ActiveTraceSnapshot> activeTraceInfoList = activeTraceRepository.snapshot();
+                    getActiveThreadDumpList(activeTraceInfoList, request, deadline, captureResult);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.info("previous thread dump is still in progress. skip request");
+            return captureResult.complete(reverseOrder);
+        }
 
-        return getActiveThreadDumpList(activeTraceInfoList, request);
+        try {
+            future.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.info("thread dump time budget exceeded. captured:{}, limit:{}", captureResult.size(), request.getLimit());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("thread dump capture fail. Caused:{}", e.getCause().getMessage(), e.getCause());
+        }
+        // threads captured so far, the capture stops at the next batch
+        final Collection<ThreadDump> result = captureResult.complete(reverseOrder);
+        future.cancel(false);
+        return result;
     }
 
-    private Collection<ThreadDump> getActiveThreadDumpList(List<ActiveTraceSnapshot> activeTraceInfoList, ThreadDumpRequest request) {
+    private long getDeadline(long currentTimeMillis) {
+        final long budget = Math.max(captureTimeBudgetMillis, 0);
+        if (Long.MAX_VALUE - currentTimeMillis < budget) {
+            return Long.MAX_VALUE;
+        }
+        return currentTimeMillis + budget;
+    }
 
+    private void getActiveThreadDumpList(List<ActiveTraceSnapshot> activeTraceInfoList, ThreadDumpRequest request, long deadline, CaptureResult captureResult) {
+        // spare candidates backfill the threads that end before their stack is captured
+        final int candidateSize = request.getLimit() + captureBatchSize;
+        final Collection<ActiveTraceSnapshot> targetList;
         if (request.isEnableFilter()) {
-            return filterActiveThreadDump(activeTraceInfoList, request);
+            targetList = filterActiveTrace(activeTraceInfoList, request, candidateSize);
         } else {
-
-            return getAllActiveThreadDump(activeTraceInfoList, request);
+            targetList = getAllActiveTrace(activeTraceInfoList, candidateSize);
         }
+        // stack traces are only captured for the threads that will be returned
+        capture(targetList, request, deadline, captureResult);
     }
 
-    private Collection<ThreadDump> filterActiveThreadDump(List<ActiveTraceSnapshot> activeTraceInfoList, ThreadDumpRequest request) {
-
-        final Collection<ThreadDump> result = new LimitedList<ThreadDump>(request.getLimit(), reverseOrder);
+    private Collection<ActiveTraceSnapshot> filterActiveTrace(List<ActiveTraceSnapshot> activeTraceInfoList, ThreadDumpRequest request, int candidateSize) {
 
+        final Collection<ActiveTraceSnapshot> result = new LimitedList<ActiveTraceSnapshot>(candidateSize, snapshotReverseOrder);
+        final List<ActiveTraceSnapshot> threadNameCandidateList = new ArrayList<ActiveTraceSnapshot>();
         for (ActiveTraceSnapshot activeTraceInfo : activeTraceInfoList) {
             final long threadId = activeTraceInfo.getThreadId();
             if (!isTraceThread(threadId)) {
                 continue;
             }
 
-            final ThreadDump threadDump = filter(activeTraceInfo, request);
-            if (threadDump != null) {
-                result.add(threadDump);
+            if (request.isEnableLocalTransactionIdFilter()) {
+                final long localTransactionId = activeTraceInfo.getLocalTransactionId();
+                if (request.findLocalTransactionId(localTransactionId)) {
+                    result.add(activeTraceInfo);
+                    continue;
+                }
             }
+
+            if (request.isEnableThreadNameFilter()) {
+                threadNameCandidateList.add(activeTraceInfo);
+            }
+        }
+
+        if (!threadNameCandidateList.isEmpty()) {
+            filterThreadName(threadNameCandidateList, request, result);
         }
 
         return result;
     }
 
-    private ThreadDump filter(ActiveTraceSnapshot activeTraceInfo, ThreadDumpRequest request) {
-
-        if (request.isEnableLocalTransactionIdFilter()) {
-
-            final long localTransactionId = activeTraceInfo.getLocalTransactionId();
-            if (request.findLocalTransactionId(localTransactionId)) {
-
-                final long threadId = activeTraceInfo.getThreadId();
-                final ThreadInfo threadInfo = getThreadInfo(threadId, request.getStackTrace());
-                if (threadInfo != null) {
-                    return newThreadDump(activeTraceInfo, threadInfo);
-                }
-            }
-        }
-
-        if (request.isEnableThreadNameFilter()) {
-            // native call
-            final long threadId = activeTraceInfo.getThreadId();
-            final ThreadInfo threadInfo = getThreadInfo(threadId, request.getStackTrace());
-            if (threadInfo != null) {
-                if (request.findThreadName(threadInfo.getThreadName())) {
-                    return newThreadDump(activeTraceInfo, threadInfo);
+    private void filterThreadName(List<ActiveTraceSnapshot> candidateList, ThreadDumpRequest request, Collection<ActiveTraceSnapshot> result) {
+        // thread names only, without stack traces
+        for (int from = 0; from < candidateList.size(); from += captureBatchSize) {
+            final List<ActiveTraceSnapshot> batch = candidateList.subList(from, Math.min(from + captureBatchSize, candidateList.size()));
+            final ThreadInfo[] threadInfos = ThreadMXBeanUtils.getThreadInfo(toThreadIds(batch), 0);
+            for (int i = 0; i < threadInfos.length; i++) {
+                final ThreadInfo threadInfo = threadInfos[i];
+                if (threadInfo != null && request.findThreadName(threadInfo.getThreadName())) {
+                    result.add(batch.get(i));
                 }
             }
         }
-
-        return null;
     }
 
-    private Collection<ThreadDump> getAllActiveThreadDump(List<ActiveTraceSnapshot> activeTraceInfoList, ThreadDumpRequest request) {
-        Collection<ThreadDump> activeThreadDumpList = new LimitedList<ThreadDump>(request.getLimit(), reverseOrder);
+    private Collection<ActiveTraceSnapshot> getAllActiveTrace(List<ActiveTraceSnapshot> activeTraceInfoList, int candidateSize) {
+        Collection<ActiveTraceSnapshot> result = new LimitedList<ActiveTraceSnapshot>(candidateSize, snapshotReverseOrder);
 
         for (ActiveTraceSnapshot activeTraceInfo : activeTraceInfoList) {
             final long threadId = activeTraceInfo.getThreadId();
             if (!isTraceThread(threadId)) {
                 continue;
             }
-            final ThreadInfo threadInfo = getThreadInfo(threadId, request.getStackTrace());
-            if (threadInfo != null) {
-                ThreadDump threadDump = newThreadDump(activeTraceInfo, threadInfo);
-                activeThreadDumpList.add(threadDump);
-            }
+            result.add(activeTraceInfo);
         }
 
-        return activeThreadDumpList;
+        return result;
     }
 
     private boolean isTraceThread(long threadId) {
@@ -131,21 +204,91 @@ public class ActiveThreadDumpCoreService {
         return true;
     }
 
+    private void capture(Collection<ActiveTraceSnapshot> targetList, ThreadDumpRequest request, long deadline, CaptureResult captureResult) {
+        // oldest first, the newer ones are spares
+        final List<ActiveTraceSnapshot> captureList = new ArrayList<ActiveTraceSnapshot>(targetList);
+        Collections.sort(captureList, new Comparator<ActiveTraceSnapshot>() {
+            @Override
+            public int compare(ActiveTraceSnapshot o1, ActiveTraceSnapshot o2) {
+                final long startTime1 = o1.getStartTime();
+                final long startTime2 = o2.getStartTime();
+                return startTime1 < startTime2 ? -1 : (startTime1 == startTime2 ? 0 : 1);
+            }
+        });
 
+        int from = 0;
+        while (from < captureList.size()) {
+            final int remaining = request.getLimit() - captureResult.size();
+            if (remaining <= 0 || captureResult.isCompleted()) {
+                return;
+            }
+            if (from > 0 && System.currentTimeMillis() > deadline) {
+                return;
+            }
+            // ended threads leave room for the next candidates
+            final int to = Math.min(from + Math.min(remaining, captureBatchSize), captureList.size());
+            final List<ActiveTraceSnapshot> batch = captureList.subList(from, to);
+            final ThreadInfo[] threadInfos = getThreadInfo(toThreadIds(batch), request.getStackTrace());
+            for (int i = 0; i < threadInfos.length; i++) {
+                final ThreadInfo threadInfo = threadInfos[i];
+                if (threadInfo != null) {
+                    captureResult.add(newThreadDump(batch.get(i), threadInfo));
+                }
+            }
+            from = to;
+        }
+    }
 
-    private ThreadInfo getThreadInfo(long threadId, StackTrace dumpType) {
-        if (threadId == -1) {
-            return null;
+    private long[] toThreadIds(List<ActiveTraceSnapshot> activeTraceInfoList) {
+        final long[] threadIds = new long[activeTraceInfoList.size()];
+        for (int i = 0; i < threadIds.length; i++) {
+            threadIds[i] = activeTraceInfoList.get(i).getThreadId();
         }
+        return threadIds;
+    }
 
+    private ThreadInfo[] getThreadInfo(long[] threadIds, StackTrace dumpType) {
         if (StackTrace.DUMP == dumpType) {
-            return ThreadMXBeanUtils.getThreadInfo(threadId);
+            return ThreadMXBeanUtils.getThreadInfo(threadIds);
         } else {
-            return ThreadMXBeanUtils.getThreadInfo(threadId, 0);
+            return ThreadMXBeanUtils.getThreadInfo(threadIds, 0);
         }
     }
 
     private ThreadDump newThreadDump(ActiveTraceSnapshot activeTraceInfo, ThreadInfo threadInfo) {
         return new ThreadDump(activeTraceInfo, threadInfo);
     }
+
+    private static class CaptureResult {
+        private final int limit;
+        private final List<ThreadDump> threadDumpList = new ArrayList<ThreadDump>();
+        private boolean completed;
+
+        private CaptureResult(int limit) {
+            this.limit = limit;
+        }
+
+        synchronized void add(ThreadDump threadDump) {
+            if (completed || threadDumpList.size() >= limit) {
+                return;
+            }
+            threadDumpList.add(threadDump);
+        }
+
+        synchronized int size() {
+            return threadDumpList.size();
+        }
+
+        synchronized boolean isCompleted() {
+            return completed;
+        }
+
+        // threads captured after completion are dropped
+        synchronized Collection<ThreadDump> complete(Comparator<ThreadDump> comparator) {
+            completed = true;
+            final Collection<ThreadDump> result = new LimitedList<ThreadDump>(limit, comparator);
+            result.addAll(threadDumpList);
+            return result;
+        }
+    }
 }
@@ -29,7 +29,9 @@ import org.apache.thrift.TBase;
 import java.lang.management.ThreadInfo;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Taejin Koo
@@ -71,8 +73,10 @@ public class ActiveThreadDumpService implements ProfilerRequestCommandService {
     private List<TActiveThreadDump> toTActiveThreadDump(Collection<ThreadDump> activeTraceInfoList) {
 
         final List<TActiveThreadDump> result = new ArrayList<TActiveThreadDump>(activeTraceInfoList.size());
+        // threads of the same pool mostly share their frames
+        final Map<StackTraceElement, String> stackFrameCache = new HashMap<StackTraceElement, String>();
         for (ThreadDump threadDump : activeTraceInfoList) {
-            TActiveThreadDump tActiveThreadDump = createTActiveThreadDump(threadDump);
+            TActiveThreadDump tActiveThreadDump = createTActiveThreadDump(threadDump, stackFrameCache);
             result.add(tActiveThreadDump);
         }
 
@@ -80,11 +84,11 @@ public class ActiveThreadDumpService implements ProfilerRequestCommandService {
     }
 
 
-    private TActiveThreadDump createTActiveThreadDump(ThreadDump threadDump) {
+    private TActiveThreadDump createTActiveThreadDump(ThreadDump threadDump, Map<StackTraceElement, String> stackFrameCache) {
         final ActiveTraceSnapshot activeTraceInfo = threadDump.getActiveTraceSnapshot();
         final ThreadInfo threadInfo = threadDump.getThreadInfo();
 
-        TThreadDump tThreadDump = ThreadDumpUtils.createTThreadDump(threadInfo);
+        TThreadDump tThreadDump = ThreadDumpUtils.createTThreadDump(threadInfo, stackFrameCache);
 
         TActiveThreadDump activeThreadDump = new TActiveThreadDump();
         activeThreadDump.setStartTime(activeTraceInfo.getStartTime());
@@ -45,7 +45,7 @@ public class ActiveThreadService implements ProfilerCommandServiceGroup {
             serviceList.add(new ActiveThreadCountService(activeTraceRepository));
         }
 
-        ActiveThreadDumpCoreService activeThreadDump = new ActiveThreadDumpCoreService(activeTraceRepository);
+        ActiveThreadDumpCoreService activeThreadDump = new ActiveThreadDumpCoreService(activeTraceRepository, profilerConfig.getTcpDataSenderCommandActiveThreadDumpTimeBudget());
         if (profilerConfig.isTcpDataSenderCommandActiveThreadLightDumpEnable()) {
             serviceList.add(new ActiveThreadLightDumpService(activeThreadDump));
         }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples up to targetTps transactions per second regardless of the traffic.
+ * Low traffic is sampled entirely, and a burst is cut at maxBurst transactions
+ * instead of increasing the trace volume linearly like {@link SamplingRateSampler}.
+ * <p>
+ * Implemented as a lock free GCRA (virtual scheduling) rate limiter.
+ * A rejected call only reads one volatile value.
+ *
+ * @see SamplerType#ADAPTIVE
+ */
+public class AdaptiveSampler implements Sampler {
+
+    private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int targetTps;
+    private final int maxBurst;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+
+    // theoretical arrival time of the next sampled transaction
+    private final AtomicLong theoreticalArrivalTime;
+
+    public AdaptiveSampler(int targetTps) {
+        this(targetTps, targetTps);
+    }
+
+    public AdaptiveSampler(int targetTps, int maxBurst) {
+        this(targetTps, maxBurst, System.nanoTime());
+    }
+
+    AdaptiveSampler(int targetTps, int maxBurst, long startNanos) {
+        if (targetTps <= 0) {
+            throw new IllegalArgumentException("Invalid targetTps " + targetTps);
+        }
+        if (maxBurst <= 0) {
+            throw new IllegalArgumentException("Invalid maxBurst " + maxBurst);
+        }
+        this.targetTps = targetTps;
+        this.maxBurst = maxBurst;
+        this.emissionIntervalNanos = Math.max(1, ONE_SECOND_NANOS / targetTps);
+        this.burstToleranceNanos = emissionIntervalNanos * (maxBurst - 1);
+        this.theoreticalArrivalTime = new AtomicLong(startNanos);
+    }
+
+    @Override
+    public boolean isSampling() {
+        return isSampling(System.nanoTime());
+    }
+
+    boolean isSampling(final long currentNanos) {
+        while (true) {
+            final long arrivalTime = theoreticalArrivalTime.get();
+            // nanoTime may overflow, compare the difference only
+            if (arrivalTime - currentNanos > burstToleranceNanos) {
+                return false;
+            }
+            final long base = (arrivalTime - currentNanos) < 0 ? currentNanos : arrivalTime;
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, base + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    public int getTargetTps() {
+        return targetTps;
+    }
+
+    public int getMaxBurst() {
+        return maxBurst;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveSampler{" +
+                "targetTps=" + targetTps +
+                ", maxBurst=" + maxBurst +
+                '}';
+    }
+}
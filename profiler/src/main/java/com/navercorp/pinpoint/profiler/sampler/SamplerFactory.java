@@ -17,11 +17,16 @@
 package com.navercorp.pinpoint.profiler.sampler;
 
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author emeroad
  */
 public class SamplerFactory {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     public Sampler createSampler(boolean sampling, int samplingRate) {
         if (!sampling || samplingRate <= 0) {
             return new FalseSampler();
@@ -31,4 +36,38 @@ public class SamplerFactory {
         }
         return new SamplingRateSampler(samplingRate);
     }
+
+    public Sampler createAdaptiveSampler(boolean sampling, int targetTps) {
+        if (!sampling || targetTps <= 0) {
+            return new FalseSampler();
+        }
+        return new AdaptiveSampler(targetTps);
+    }
+
+    /**
+     * @param ruleTps limit of the traces kept by the rules, unlimited if not positive
+     */
+    public SpanEndSampler createSpanEndSampler(boolean errorSampling, int slowThreshold, int ruleTps) {
+        if (!errorSampling && slowThreshold <= 0) {
+            return SpanEndSampler.DISABLE;
+        }
+        final Sampler ruleSampler = ruleTps > 0 ? new AdaptiveSampler(ruleTps) : new TrueSampler();
+        return new SpanEndSampler(errorSampling, slowThreshold, ruleSampler);
+    }
+
+    public SamplerType getSamplerType(String typeName) {
+        if (typeName == null) {
+            return SamplerType.COUNTING;
+        }
+        final String trimmed = typeName.trim();
+        if (trimmed.isEmpty()) {
+            return SamplerType.COUNTING;
+        }
+        try {
+            return SamplerType.valueOf(trimmed.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("unknown sampler type:{}, fall back to {}", typeName, SamplerType.COUNTING);
+            return SamplerType.COUNTING;
+        }
+    }
 }
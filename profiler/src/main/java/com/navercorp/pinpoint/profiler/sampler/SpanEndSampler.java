@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.profiler.context.Span;
+
+/**
+ * Always-sample rules evaluated when a span ends.
+ * Transactions rejected by the {@link Sampler} are still recorded when a rule is enabled,
+ * and only those ending with an error or slower than slowThreshold are sent.
+ * The traces kept by the rules are limited separately by ruleSampler so that an error storm cannot flood the collector.
+ */
+public class SpanEndSampler {
+
+    public static final SpanEndSampler DISABLE = new SpanEndSampler(false, -1, new FalseSampler());
+
+    private final boolean errorSampling;
+    private final int slowThreshold;
+    private final Sampler ruleSampler;
+
+    /**
+     * @param errorSampling keep spans that ended with an error
+     * @param slowThreshold keep spans slower than this many milliseconds, disabled if not positive
+     * @param ruleSampler limits the spans kept by the rules
+     */
+    public SpanEndSampler(boolean errorSampling, int slowThreshold, Sampler ruleSampler) {
+        if (ruleSampler == null) {
+            throw new NullPointerException("ruleSampler must not be null");
+        }
+        this.errorSampling = errorSampling;
+        this.slowThreshold = slowThreshold;
+        this.ruleSampler = ruleSampler;
+    }
+
+    public boolean isEnable() {
+        return errorSampling || slowThreshold > 0;
+    }
+
+    public boolean isSampling(Span span) {
+        if (span == null) {
+            throw new NullPointerException("span must not be null");
+        }
+        if (!matches(span)) {
+            return false;
+        }
+        return ruleSampler.isSampling();
+    }
+
+    private boolean matches(Span span) {
+        if (errorSampling && span.getTraceRoot().getShared().getErrorCode() != 0) {
+            return true;
+        }
+        if (slowThreshold > 0 && span.getElapsed() >= slowThreshold) {
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "SpanEndSampler{" +
+                "errorSampling=" + errorSampling +
+                ", slowThreshold=" + slowThreshold +
+                ", ruleSampler=" + ruleSampler +
+                '}';
+    }
+}
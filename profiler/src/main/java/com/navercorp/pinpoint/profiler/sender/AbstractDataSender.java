@@ -56,7 +56,11 @@ public abstract class AbstractDataSender implements DataSender {
     }
 
     protected AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName) {
-        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queueSize, executorName);
+        return createAsyncQueueingExecutor(queueSize, executorName, AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    protected AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName, AsyncQueueingExecutorConfig executorConfig) {
+        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queueSize, executorName, executorConfig);
         executor.setListener(new AsyncQueueingExecutorListener<Object>() {
             @Override
             public void execute(Collection<Object> messageList) {
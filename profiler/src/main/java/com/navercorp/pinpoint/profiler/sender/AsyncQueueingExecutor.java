@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.profiler.sender;
 
 import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -37,7 +38,7 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final boolean isWarn = logger.isWarnEnabled();
 
-    private final LinkedBlockingQueue<T> queue;
+    private final BlockingQueue<T> queue;
     private final AtomicBoolean isRun = new AtomicBoolean(true);
     private final Thread executeThread;
     private final String executorName;
@@ -54,18 +55,35 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     }
 
     public AsyncQueueingExecutor(int queueSize, String executorName) {
+        this(queueSize, executorName, AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    public AsyncQueueingExecutor(int queueSize, String executorName, AsyncQueueingExecutorConfig config) {
         if (executorName == null) {
             throw new NullPointerException("executorName must not be null");
         }
+        if (config == null) {
+            throw new NullPointerException("config must not be null");
+        }
         // BEFORE executeThread start
-        this.maxDrainSize = 10;
+        this.maxDrainSize = config.getMaxDrainSize();
         this.drain = new UnsafeArrayCollection<T>(maxDrainSize);
-        this.queue = new LinkedBlockingQueue<T>(queueSize);
+        this.queue = createQueue(queueSize, executorName, config);
 
         this.executeThread = this.createExecuteThread(executorName);
         this.executorName = executeThread.getName();
     }
 
+    private BlockingQueue<T> createQueue(int queueSize, String executorName, AsyncQueueingExecutorConfig config) {
+        final AsyncQueueType queueType = config.getQueueType();
+        if (queueType == AsyncQueueType.RING_BUFFER) {
+            final MpscArrayBlockingQueue<T> ringBuffer = new MpscArrayBlockingQueue<T>(queueSize, config.getWaitStrategy());
+            logger.info("{} use RING_BUFFER queue. capacity:{}, waitStrategy:{}", executorName, ringBuffer.capacity(), config.getWaitStrategy());
+            return ringBuffer;
+        }
+        return new LinkedBlockingQueue<T>(queueSize);
+    }
+
     private Thread createExecuteThread(String executorName) {
         final ThreadFactory threadFactory = new PinpointThreadFactory(executorName, true);
         Thread thread = threadFactory.newThread(this);
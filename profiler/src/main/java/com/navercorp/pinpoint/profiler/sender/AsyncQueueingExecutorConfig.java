@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queueing options of {@link AsyncQueueingExecutor}.
+ */
+public class AsyncQueueingExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncQueueingExecutorConfig.class);
+
+    public static final int DEFAULT_MAX_DRAIN_SIZE = 10;
+
+    public static final AsyncQueueingExecutorConfig DEFAULT = new AsyncQueueingExecutorConfig(AsyncQueueType.LINKED_BLOCKING, DEFAULT_MAX_DRAIN_SIZE, QueueWaitStrategy.PARK);
+
+    private final AsyncQueueType queueType;
+    private final int maxDrainSize;
+    private final QueueWaitStrategy waitStrategy;
+
+    public AsyncQueueingExecutorConfig(AsyncQueueType queueType, int maxDrainSize, QueueWaitStrategy waitStrategy) {
+        if (queueType == null) {
+            throw new NullPointerException("queueType must not be null");
+        }
+        if (maxDrainSize <= 0) {
+            throw new IllegalArgumentException("maxDrainSize");
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy must not be null");
+        }
+        this.queueType = queueType;
+        this.maxDrainSize = maxDrainSize;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public static AsyncQueueingExecutorConfig create(String queueTypeName, int maxDrainSize, String waitStrategyName) {
+        final AsyncQueueType queueType = getQueueType(queueTypeName);
+        final QueueWaitStrategy waitStrategy = getWaitStrategy(waitStrategyName);
+        if (maxDrainSize <= 0) {
+            maxDrainSize = DEFAULT_MAX_DRAIN_SIZE;
+        }
+        return new AsyncQueueingExecutorConfig(queueType, maxDrainSize, waitStrategy);
+    }
+
+    private static AsyncQueueType getQueueType(String queueTypeName) {
+        try {
+            return AsyncQueueType.valueOf(toUpperCase(queueTypeName, AsyncQueueType.LINKED_BLOCKING.name()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("unknown queue type:{}, fall back to {}", queueTypeName, AsyncQueueType.LINKED_BLOCKING);
+            return AsyncQueueType.LINKED_BLOCKING;
+        }
+    }
+
+    private static QueueWaitStrategy getWaitStrategy(String waitStrategyName) {
+        try {
+            return QueueWaitStrategy.valueOf(toUpperCase(waitStrategyName, QueueWaitStrategy.PARK.name()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("unknown wait strategy:{}, fall back to {}", waitStrategyName, QueueWaitStrategy.PARK);
+            return QueueWaitStrategy.PARK;
+        }
+    }
+
+    private static String toUpperCase(String name, String defaultName) {
+        if (name == null) {
+            return defaultName;
+        }
+        final String trimmed = name.trim();
+        if (trimmed.isEmpty()) {
+            return defaultName;
+        }
+        return trimmed.toUpperCase();
+    }
+
+    public AsyncQueueType getQueueType() {
+        return queueType;
+    }
+
+    public int getMaxDrainSize() {
+        return maxDrainSize;
+    }
+
+    public QueueWaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AsyncQueueingExecutorConfig{");
+        sb.append("queueType=").append(queueType);
+        sb.append(", maxDrainSize=").append(maxDrainSize);
+        sb.append(", waitStrategy=").append(waitStrategy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
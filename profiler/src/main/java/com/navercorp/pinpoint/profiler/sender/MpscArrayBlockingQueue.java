@@ -0,0 +1,323 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer queue backed by a ring buffer.
+ * Producers claim a slot with a single CAS and never allocate.
+ * <p>
+ * Caution. poll/take/drainTo must be called from a single consumer thread only.
+ * The ring buffer is sized to the next power of two for index masking, but the queue never holds more than the given capacity.
+ */
+public class MpscArrayBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    // single writer (consumer thread)
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    private final int spinCount;
+    private volatile Thread waitingConsumer;
+
+    public MpscArrayBlockingQueue(int capacity) {
+        this(capacity, QueueWaitStrategy.PARK);
+    }
+
+    public MpscArrayBlockingQueue(int capacity, QueueWaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity");
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy must not be null");
+        }
+        this.capacity = capacity;
+        final int bufferSize = roundToPowerOfTwo(capacity);
+        this.mask = bufferSize - 1;
+        this.buffer = new AtomicReferenceArray<E>(bufferSize);
+        this.spinCount = waitStrategy.getSpinCount();
+    }
+
+    static int roundToPowerOfTwo(int value) {
+        if (value > (1 << 30)) {
+            throw new IllegalArgumentException("capacity too large:" + value);
+        }
+        int highestOneBit = Integer.highestOneBit(value);
+        if (highestOneBit == value) {
+            return value;
+        }
+        return highestOneBit << 1;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("e must not be null");
+        }
+        long currentProducerIndex;
+        do {
+            currentProducerIndex = producerIndex.get();
+            if (currentProducerIndex - consumerIndex.get() >= capacity) {
+                // queue is full
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(currentProducerIndex, currentProducerIndex + 1));
+
+        // volatile write. pairs with the waitingConsumer check below so that no wakeup is lost.
+        buffer.set(index(currentProducerIndex), e);
+
+        final Thread consumer = this.waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        final long currentConsumerIndex = consumerIndex.get();
+        final int index = index(currentConsumerIndex);
+        E e = buffer.get(index);
+        if (e == null) {
+            if (currentConsumerIndex == producerIndex.get()) {
+                return null;
+            }
+            // slot is claimed but the producer has not published it yet
+            do {
+                e = buffer.get(index);
+            } while (e == null);
+        }
+        buffer.lazySet(index, null);
+        consumerIndex.lazySet(currentConsumerIndex + 1);
+        return e;
+    }
+
+    @Override
+    public E peek() {
+        return buffer.get(index(consumerIndex.get()));
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        if (e != null) {
+            return e;
+        }
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int spin = this.spinCount;
+        while (true) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            if (spin > 0) {
+                spin--;
+            } else {
+                this.waitingConsumer = Thread.currentThread();
+                // re-check after publishing waitingConsumer
+                e = poll();
+                if (e == null) {
+                    LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+                }
+                this.waitingConsumer = null;
+                if (e != null) {
+                    return e;
+                }
+            }
+            e = poll();
+            if (e != null) {
+                return e;
+            }
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        while (true) {
+            E e = poll(MAX_PARK_NANOS, TimeUnit.NANOSECONDS);
+            if (e != null) {
+                return e;
+            }
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+        }
+        return true;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException("c must not be null");
+        }
+        if (c == this) {
+            throw new IllegalArgumentException("c");
+        }
+        int count = 0;
+        while (count < maxElements) {
+            final E e = poll();
+            if (e == null) {
+                break;
+            }
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int size() {
+        // read consumerIndex first. the result may be stale but never negative or over capacity.
+        final long currentConsumerIndex = consumerIndex.get();
+        final long size = producerIndex.get() - currentConsumerIndex;
+        if (size < 0) {
+            return 0;
+        }
+        if (size > capacity) {
+            return capacity;
+        }
+        return (int) size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements queued at the time of the call.
+     * Elements consumed concurrently may or may not be returned, and remove() is not supported.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(consumerIndex.get(), producerIndex.get());
+    }
+
+    private class Itr implements Iterator<E> {
+        private long nextIndex;
+        private final long endIndex;
+        private E nextElement;
+
+        private Itr(long startIndex, long endIndex) {
+            this.nextIndex = startIndex;
+            this.endIndex = endIndex;
+            advance();
+        }
+
+        private void advance() {
+            nextElement = null;
+            while (nextIndex < endIndex) {
+                final long sequence = nextIndex++;
+                if (sequence < consumerIndex.get()) {
+                    // already consumed
+                    continue;
+                }
+                final E e = buffer.get(index(sequence));
+                if (e != null) {
+                    nextElement = e;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextElement != null;
+        }
+
+        @Override
+        public E next() {
+            final E e = nextElement;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return e;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    @Override
+    public String toString() {
+        return "MpscArrayBlockingQueue{" +
+                "capacity=" + capacity +
+                ", size=" + size() +
+                ", spinCount=" + spinCount +
+                '}';
+    }
+}
@@ -60,6 +60,10 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
     }
 
     public NioUDPDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    public NioUDPDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueingExecutorConfig executorConfig) {
         if (host == null ) {
             throw new NullPointerException("host must not be null");
         }
@@ -75,6 +79,9 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
         if (sendBufferSize <= 0) {
             throw new IllegalArgumentException("sendBufferSize");
         }
+        if (executorConfig == null) {
+            throw new NullPointerException("executorConfig must not be null");
+        }
 
         // TODO If fail to create socket, stop agent start
         logger.info("NioUDPDataSender initialized. host={}, port={}", host, port);
@@ -87,7 +94,7 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
         ByteBuffer byteBuffer = bufferFactory.getBuffer(UDP_MAX_PACKET_LENGTH);
         this.byteBufferOutputStream = new ByteBufferOutputStream(byteBuffer);
 
-        this.executor = createAsyncQueueingExecutor(queueSize, threadName);
+        this.executor = createAsyncQueueingExecutor(queueSize, threadName, executorConfig);
     }
 
     private DatagramChannel createChannel(String host, int port, int timeout, int sendBufferSize) {
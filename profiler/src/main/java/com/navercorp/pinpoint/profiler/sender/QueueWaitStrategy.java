@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+/**
+ * How the consumer thread of {@link MpscArrayBlockingQueue} waits for new data.
+ */
+public enum QueueWaitStrategy {
+
+    // park immediately and wait to be unparked by a producer
+    PARK(0),
+    // busy-spin for a while before parking. lower latency, burns more cpu while idle.
+    SPIN_PARK(1024);
+
+    private final int spinCount;
+
+    QueueWaitStrategy(int spinCount) {
+        this.spinCount = spinCount;
+    }
+
+    public int getSpinCount() {
+        return spinCount;
+    }
+}
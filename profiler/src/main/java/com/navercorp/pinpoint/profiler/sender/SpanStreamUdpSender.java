@@ -68,6 +68,10 @@ public class SpanStreamUdpSender extends AbstractDataSender {
     }
 
     public SpanStreamUdpSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, int dataBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, dataBufferSize, AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    public SpanStreamUdpSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, int dataBufferSize, AsyncQueueingExecutorConfig executorConfig) {
         if (host == null) {
             throw new NullPointerException("host must not be null");
         }
@@ -83,6 +87,9 @@ public class SpanStreamUdpSender extends AbstractDataSender {
         if (sendBufferSize <= 0) {
             throw new IllegalArgumentException("sendBufferSize");
         }
+        if (executorConfig == null) {
+            throw new NullPointerException("executorConfig must not be null");
+        }
 
         // TODO If fail to create socket, stop agent start
         logger.info("UdpDataSender initialized. host={}, port={}", host, port);
@@ -98,7 +105,7 @@ public class SpanStreamUdpSender extends AbstractDataSender {
         this.standbySpanStreamDataSendWorker = new StandbySpanStreamDataSendWorker(new FlushHandler(), new StandbySpanStreamDataStorage());
         this.standbySpanStreamDataSendWorker.start();
 
-        this.executor = createAsyncQueueingExecutor(queueSize, threadName);
+        this.executor = createAsyncQueueingExecutor(queueSize, threadName, executorConfig);
     }
 
     private DatagramChannel createChannel(String host, int port, int timeout, int sendBufferSize) {
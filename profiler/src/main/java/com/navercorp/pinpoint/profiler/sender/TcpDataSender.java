@@ -84,6 +84,14 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
     }
 
     public TcpDataSender(String name, InetSocketAddress address, PinpointClientFactory clientFactory, HeaderTBaseSerializer serializer) {
+        this(name, address, clientFactory, serializer, AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    public TcpDataSender(String name, InetSocketAddress address, PinpointClientFactory clientFactory, AsyncQueueingExecutorConfig executorConfig) {
+        this(name, address, clientFactory, HeaderTBaseSerializerFactory.DEFAULT_FACTORY.createSerializer(), executorConfig);
+    }
+
+    public TcpDataSender(String name, InetSocketAddress address, PinpointClientFactory clientFactory, HeaderTBaseSerializer serializer, AsyncQueueingExecutorConfig executorConfig) {
         if (address == null) {
             throw new NullPointerException("address must not be null");
         }
@@ -93,6 +101,9 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
         if (serializer == null) {
             throw new NullPointerException("serializer must not be null");
         }
+        if (executorConfig == null) {
+            throw new NullPointerException("executorConfig must not be null");
+        }
 
         String executorName = "Pinpoint-TcpDataSender-Executor";
         if (name != null) {
@@ -108,7 +119,7 @@ public class TcpDataSender extends AbstractDataSender implements EnhancedDataSen
         this.serializer = serializer;
         this.timer = createTimer(name);
         writeFailFutureListener = new WriteFailFutureListener(logger, "io write fail.", "host", -1);
-        this.executor = createAsyncQueueingExecutor(1024 * 5, executorName);
+        this.executor = createAsyncQueueingExecutor(1024 * 5, executorName, executorConfig);
     }
 
     private Timer createTimer(String name) {
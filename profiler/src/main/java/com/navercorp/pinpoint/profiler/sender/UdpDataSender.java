@@ -57,6 +57,10 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
     }
 
     public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueingExecutorConfig executorConfig) {
         if (host == null ) {
             throw new NullPointerException("host must not be null");
         }
@@ -72,12 +76,15 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         if (sendBufferSize <= 0) {
             throw new IllegalArgumentException("sendBufferSize");
         }
+        if (executorConfig == null) {
+            throw new NullPointerException("executorConfig must not be null");
+        }
 
         // TODO If fail to create socket, stop agent start
         logger.info("UdpDataSender initialized. host={}, port={}", host, port);
         this.udpSocket = createSocket(host, port, timeout, sendBufferSize);
 
-        this.executor = createAsyncQueueingExecutor(queueSize, threadName);
+        this.executor = createAsyncQueueingExecutor(queueSize, threadName, executorConfig);
     }
 
     @Override
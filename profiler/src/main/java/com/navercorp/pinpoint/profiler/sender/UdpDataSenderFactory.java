@@ -30,14 +30,23 @@ public final class UdpDataSenderFactory {
     private final int queueSize;
     private final int timeout;
     private final int sendBufferSize;
+    private final AsyncQueueingExecutorConfig executorConfig;
 
     public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, AsyncQueueingExecutorConfig.DEFAULT);
+    }
+
+    public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueingExecutorConfig executorConfig) {
+        if (executorConfig == null) {
+            throw new NullPointerException("executorConfig must not be null");
+        }
         this.host = host;
         this.port = port;
         this.threadName = threadName;
         this.queueSize = queueSize;
         this.timeout = timeout;
         this.sendBufferSize = sendBufferSize;
+        this.executorConfig = executorConfig;
     }
 
     public DataSender create(String typeName) {
@@ -46,9 +55,9 @@ public final class UdpDataSenderFactory {
 
     public DataSender create(UdpDataSenderType type) {
         if (type == UdpDataSenderType.NIO) {
-            return new NioUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize);
+            return new NioUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, executorConfig);
         } else if (type == UdpDataSenderType.OIO) {
-            return new UdpDataSender(host, port, threadName, queueSize, timeout, sendBufferSize);
+            return new UdpDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, executorConfig);
         } else {
             throw new IllegalArgumentException("Unknown type.");
         }
@@ -26,6 +26,7 @@ import java.lang.management.LockInfo;
 import java.lang.management.MonitorInfo;
 import java.lang.management.ThreadInfo;
 import java.util.Collections;
+import java.util.Map;
 
 /**
  * @author Taejin Koo
@@ -56,10 +57,17 @@ public class ThreadDumpUtils {
     }
 
     public static TThreadDump createTThreadDump(ThreadInfo threadInfo) {
+        return createTThreadDump(threadInfo, null);
+    }
+
+    /**
+     * @param stackFrameCache shares the formatted frames between threads with identical stack frames. may be null.
+     */
+    public static TThreadDump createTThreadDump(ThreadInfo threadInfo, Map<StackTraceElement, String> stackFrameCache) {
         TThreadDump threadDump = new TThreadDump();
         setThreadInfo(threadDump, threadInfo);
         setThreadStatus(threadDump, threadInfo);
-        setStackTrace(threadDump, threadInfo);
+        setStackTrace(threadDump, threadInfo, stackFrameCache);
         setMonitorInfo(threadDump, threadInfo);
         setLockInfo(threadDump, threadInfo);
 
@@ -120,20 +128,32 @@ public class ThreadDumpUtils {
         threadDump.setThreadState(getThreadState(threadInfo));
     }
 
-    private static void setStackTrace(TThreadDump threadDump, ThreadInfo threadInfo) {
+    private static void setStackTrace(TThreadDump threadDump, ThreadInfo threadInfo, Map<StackTraceElement, String> stackFrameCache) {
         StackTraceElement[] stackTraceElements = threadInfo.getStackTrace();
         if (stackTraceElements != null) {
             for (StackTraceElement element : stackTraceElements) {
                 if (element == null) {
                     continue;
                 }
-                threadDump.addToStackTrace(element.toString());
+                threadDump.addToStackTrace(toStackFrame(element, stackFrameCache));
             }
         } else {
             threadDump.setStackTrace(Collections.<String>emptyList());
         }
     }
 
+    private static String toStackFrame(StackTraceElement element, Map<StackTraceElement, String> stackFrameCache) {
+        if (stackFrameCache == null) {
+            return element.toString();
+        }
+        String stackFrame = stackFrameCache.get(element);
+        if (stackFrame == null) {
+            stackFrame = element.toString();
+            stackFrameCache.put(element, stackFrame);
+        }
+        return stackFrame;
+    }
+
     private static void setMonitorInfo(TThreadDump threadDump, ThreadInfo threadInfo) {
         MonitorInfo[] monitorInfos = threadInfo.getLockedMonitors();
         if (monitorInfos != null) {
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.active;
+
+import com.navercorp.pinpoint.common.trace.BaseHistogramSchema;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ActiveTraceHistogramCounterTest {
+
+    @Test
+    public void histogram() {
+        ActiveTraceHistogramCounter counter = new ActiveTraceHistogramCounter(BaseHistogramSchema.NORMAL_SCHEMA, 4);
+        final long currentTime = 1000000;
+
+        counter.start(currentTime - 10);
+        counter.start(currentTime - 10);
+        counter.start(currentTime - 2000);
+        counter.start(currentTime - 4000);
+        counter.start(currentTime - 6000);
+        counter.start(currentTime - 60000);
+
+        ActiveTraceHistogram histogram = counter.histogram(currentTime);
+        Assert.assertEquals(2, histogram.getFastCount());
+        Assert.assertEquals(1, histogram.getNormalCount());
+        Assert.assertEquals(1, histogram.getSlowCount());
+        Assert.assertEquals(2, histogram.getVerySlowCount());
+
+        counter.finish(currentTime - 10);
+        counter.finish(currentTime - 60000);
+
+        histogram = counter.histogram(currentTime);
+        Assert.assertEquals(1, histogram.getFastCount());
+        Assert.assertEquals(1, histogram.getVerySlowCount());
+        Assert.assertEquals(4, counter.totalCount());
+    }
+
+    @Test
+    public void histogram_aging() {
+        ActiveTraceHistogramCounter counter = new ActiveTraceHistogramCounter(BaseHistogramSchema.NORMAL_SCHEMA, 4);
+        final long startTime = 1000000;
+        counter.start(startTime);
+
+        Assert.assertEquals(1, counter.histogram(startTime + 500).getFastCount());
+        Assert.assertEquals(1, counter.histogram(startTime + 2000).getNormalCount());
+        Assert.assertEquals(1, counter.histogram(startTime + 5000).getSlowCount());
+        Assert.assertEquals(1, counter.histogram(startTime + 5001).getVerySlowCount());
+        Assert.assertEquals(1, counter.histogram(startTime + 100000).getVerySlowCount());
+    }
+
+    @Test
+    public void slotReuse() {
+        ActiveTraceHistogramCounter counter = new ActiveTraceHistogramCounter(BaseHistogramSchema.NORMAL_SCHEMA, 4);
+        final long oldStartTime = 1000000;
+        // same ring slot, newer start time
+        final long newStartTime = oldStartTime + 8192;
+        counter.start(oldStartTime);
+        counter.start(newStartTime);
+
+        ActiveTraceHistogram histogram = counter.histogram(newStartTime + 1);
+        Assert.assertEquals(1, histogram.getFastCount());
+        Assert.assertEquals(1, histogram.getVerySlowCount());
+
+        counter.finish(oldStartTime);
+        histogram = counter.histogram(newStartTime + 1);
+        Assert.assertEquals(1, histogram.getFastCount());
+        Assert.assertEquals(0, histogram.getVerySlowCount());
+
+        counter.finish(newStartTime);
+        Assert.assertEquals(0, counter.totalCount());
+        Assert.assertEquals(0, counter.histogram(newStartTime + 1).getFastCount());
+    }
+
+    @Test
+    public void olderThanSlot() {
+        ActiveTraceHistogramCounter counter = new ActiveTraceHistogramCounter(BaseHistogramSchema.NORMAL_SCHEMA, 4);
+        final long newStartTime = 1000000 + 8192;
+        // same ring slot, older start time
+        final long oldStartTime = 1000000;
+        counter.start(newStartTime);
+        counter.start(oldStartTime);
+
+        ActiveTraceHistogram histogram = counter.histogram(newStartTime + 1);
+        Assert.assertEquals(1, histogram.getFastCount());
+        Assert.assertEquals(1, histogram.getVerySlowCount());
+
+        counter.finish(oldStartTime);
+        histogram = counter.histogram(newStartTime + 1);
+        Assert.assertEquals(1, histogram.getFastCount());
+        Assert.assertEquals(0, histogram.getVerySlowCount());
+        Assert.assertEquals(1, counter.totalCount());
+    }
+}
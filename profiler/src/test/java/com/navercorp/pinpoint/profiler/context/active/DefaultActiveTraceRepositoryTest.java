@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.active;
+
+import com.navercorp.pinpoint.profiler.monitor.metric.response.ReuseResponseTimeCollector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class DefaultActiveTraceRepositoryTest {
+
+    @Test
+    public void evictOldestWhenShardIsFull() {
+        final int maxActiveTraceSize = 4;
+        DefaultActiveTraceRepository activeTraceRepository = new DefaultActiveTraceRepository(new ReuseResponseTimeCollector(), maxActiveTraceSize, 1);
+
+        final long threadId = Thread.currentThread().getId();
+        final long startTime = System.currentTimeMillis() - 10000;
+        // leaked handles, never purged
+        for (int i = 0; i < maxActiveTraceSize; i++) {
+            activeTraceRepository.register(i, startTime + i, threadId);
+        }
+        final long newTransactionId = maxActiveTraceSize;
+        ActiveTraceHandle handle = activeTraceRepository.register(newTransactionId, startTime + 1000, threadId);
+
+        List<ActiveTraceSnapshot> snapshotList = activeTraceRepository.snapshot();
+        Assert.assertEquals(maxActiveTraceSize, snapshotList.size());
+        Assert.assertTrue(contains(snapshotList, newTransactionId));
+        // oldest one is evicted
+        Assert.assertFalse(contains(snapshotList, 0));
+        Assert.assertEquals(maxActiveTraceSize, activeTraceRepository.getActiveTraceHistogram(System.currentTimeMillis()).getVerySlowCount());
+
+        handle.purge(System.currentTimeMillis());
+        Assert.assertFalse(contains(activeTraceRepository.snapshot(), newTransactionId));
+    }
+
+    private boolean contains(List<ActiveTraceSnapshot> snapshotList, long localTransactionId) {
+        for (ActiveTraceSnapshot snapshot : snapshotList) {
+            if (snapshot.getLocalTransactionId() == localTransactionId) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.active;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FoldedStackSamplesTest {
+
+    @Test
+    public void fold() {
+        StackTraceElement[] stackTrace = new StackTraceElement[]{
+                new StackTraceElement("java.net.SocketInputStream", "read", "SocketInputStream.java", 10),
+                new StackTraceElement("a.Service", "call", "Service.java", 20),
+                new StackTraceElement("a.Main", "main", "Main.java", 30)
+        };
+
+        Assert.assertEquals("a.Main.main;a.Service.call;java.net.SocketInputStream.read", FoldedStackSamples.fold(stackTrace, 10));
+        Assert.assertNull(FoldedStackSamples.fold(new StackTraceElement[0], 10));
+    }
+
+    @Test
+    public void fold_maxDepth() {
+        // the root frame was cut by the max depth
+        StackTraceElement[] stackTrace = new StackTraceElement[]{
+                new StackTraceElement("java.net.SocketInputStream", "read", "SocketInputStream.java", 10),
+                new StackTraceElement("a.Service", "call", "Service.java", 20)
+        };
+
+        Assert.assertEquals(FoldedStackSamples.TRUNCATED_STACK + ";a.Service.call;java.net.SocketInputStream.read", FoldedStackSamples.fold(stackTrace, 2));
+    }
+
+    @Test
+    public void close_orderedByCount() {
+        FoldedStackSamples stackSamples = new FoldedStackSamples(10);
+        stackSamples.add("a;b");
+        stackSamples.add("a;c");
+        stackSamples.add("a;c");
+        Assert.assertEquals(3, stackSamples.getSampleCount());
+
+        Assert.assertEquals("a;c 2\na;b 1", stackSamples.close());
+    }
+
+    @Test
+    public void close_discardLateSamples() {
+        FoldedStackSamples stackSamples = new FoldedStackSamples(10);
+        Assert.assertNull(stackSamples.close());
+
+        Assert.assertFalse(stackSamples.add("a;b"));
+        Assert.assertNull(stackSamples.close());
+    }
+
+    @Test
+    public void maxStacks() {
+        FoldedStackSamples stackSamples = new FoldedStackSamples(2);
+        stackSamples.add("a;b");
+        stackSamples.add("a;c");
+        stackSamples.add("a;d");
+        stackSamples.add("a;e");
+        stackSamples.add("a;b");
+
+        Assert.assertEquals("a;b 2\na;c 1\n" + FoldedStackSamples.TRUNCATED_STACK + " 2", stackSamples.close());
+    }
+
+    @Test
+    public void maxFoldedLength() {
+        StringBuilder longStack = new StringBuilder();
+        while (longStack.length() < FoldedStackSamples.MAX_FOLDED_LENGTH) {
+            longStack.append("a.Frame.call;");
+        }
+        FoldedStackSamples stackSamples = new FoldedStackSamples(10);
+        stackSamples.add("a;b");
+        stackSamples.add("a;b");
+        stackSamples.add(longStack.toString());
+
+        Assert.assertEquals("a;b 2\n" + FoldedStackSamples.TRUNCATED_STACK + " 1", stackSamples.close());
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.id;
+
+import com.navercorp.pinpoint.bootstrap.context.TraceId;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DefaultTraceRootFactoryTest {
+
+    private final String agentId = "agentId";
+    private final long agentStartTime = System.currentTimeMillis();
+
+    @Test
+    public void newTraceRoot() {
+        IdGenerator idGenerator = new AtomicIdGenerator();
+        TraceRootFactory traceRootFactory = new DefaultTraceRootFactory(agentId, new DefaultTraceIdFactory(agentId, agentStartTime), idGenerator);
+
+        TraceRoot traceRoot = traceRootFactory.newTraceRoot();
+        Assert.assertEquals(AtomicIdGenerator.INITIAL_TRANSACTION_ID, traceRoot.getLocalTransactionId());
+        Assert.assertFalse(TraceIdFlags.isDeferred(traceRoot.getTraceId().getFlags()));
+    }
+
+    @Test
+    public void newDeferredTraceRoot() {
+        IdGenerator idGenerator = new AtomicIdGenerator();
+        TraceRootFactory traceRootFactory = new DefaultTraceRootFactory(agentId, new DefaultTraceIdFactory(agentId, agentStartTime), idGenerator);
+
+        TraceRoot traceRoot = traceRootFactory.newDeferredTraceRoot();
+        Assert.assertEquals(AtomicIdGenerator.INITIAL_DISABLED_ID, traceRoot.getLocalTransactionId());
+        // counted as an unsampled new transaction
+        Assert.assertEquals(AtomicIdGenerator.INITIAL_TRANSACTION_ID, idGenerator.currentTransactionId());
+
+        TraceId traceId = traceRoot.getTraceId();
+        Assert.assertTrue(traceId.isRoot());
+        Assert.assertTrue(TraceIdFlags.isDeferred(traceId.getFlags()));
+        Assert.assertTrue(TraceIdFlags.isDeferred(traceId.getNextTraceId().getFlags()));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.bootstrap.context.TraceId;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.sampler.SpanEndSampler;
+import com.navercorp.pinpoint.profiler.sampler.TrueSampler;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DeferredStorageTest {
+
+    private final String agentId = "agentId";
+    private final long agentStartTime = System.currentTimeMillis();
+
+    private final SpanEndSampler spanEndSampler = new SpanEndSampler(true, 1000, new TrueSampler());
+
+    private Storage delegate;
+    private TraceRoot traceRoot;
+
+    @Before
+    public void setUp() {
+        delegate = mock(Storage.class);
+        TraceId traceId = new DefaultTraceId(agentId, agentStartTime, 100);
+        traceRoot = new DefaultTraceRoot(traceId, agentId, agentStartTime, 100);
+    }
+
+    @Test
+    public void dropFastSpan() {
+        DeferredStorage storage = new DeferredStorage(delegate, spanEndSampler);
+        storage.store(new SpanEvent(traceRoot));
+        storage.store(new SpanEvent(traceRoot));
+        storage.flush();
+
+        Span span = new Span(traceRoot);
+        span.setElapsed(10);
+        storage.store(span);
+        storage.close();
+
+        verify(delegate, never()).store(any(SpanEvent.class));
+        verify(delegate, never()).store(any(Span.class));
+        verify(delegate, never()).flush();
+        verify(delegate).close();
+    }
+
+    @Test
+    public void keepSlowSpan() {
+        DeferredStorage storage = new DeferredStorage(delegate, spanEndSampler);
+        storage.store(new SpanEvent(traceRoot));
+        storage.store(new SpanEvent(traceRoot));
+
+        Span span = new Span(traceRoot);
+        span.setElapsed(1000);
+        storage.store(span);
+
+        verify(delegate, times(2)).store(any(SpanEvent.class));
+        verify(delegate).store(span);
+    }
+
+    @Test
+    public void keepErrorSpan() {
+        DeferredStorage storage = new DeferredStorage(delegate, spanEndSampler);
+        storage.store(new SpanEvent(traceRoot));
+        traceRoot.getShared().maskErrorCode(1);
+
+        Span span = new Span(traceRoot);
+        storage.store(span);
+
+        verify(delegate).store(any(SpanEvent.class));
+        verify(delegate).store(span);
+    }
+
+    @Test
+    public void maxBufferSize() {
+        DeferredStorage storage = new DeferredStorage(delegate, spanEndSampler, 2);
+        storage.store(new SpanEvent(traceRoot));
+        storage.store(new SpanEvent(traceRoot));
+        storage.store(new SpanEvent(traceRoot));
+        Assert.assertEquals(2, storage.getBufferSize());
+
+        Span span = new Span(traceRoot);
+        span.setElapsed(2000);
+        storage.store(span);
+
+        verify(delegate, times(2)).store(any(SpanEvent.class));
+        Assert.assertEquals(0, storage.getBufferSize());
+    }
+
+    @Test
+    public void sharedBufferBudget() {
+        BufferBudget bufferBudget = new BufferBudget(3);
+        DeferredStorage storage1 = new DeferredStorage(delegate, spanEndSampler, 1024, bufferBudget);
+        DeferredStorage storage2 = new DeferredStorage(delegate, spanEndSampler, 1024, bufferBudget);
+        storage1.store(new SpanEvent(traceRoot));
+        storage1.store(new SpanEvent(traceRoot));
+        storage2.store(new SpanEvent(traceRoot));
+        storage2.store(new SpanEvent(traceRoot));
+        Assert.assertEquals(2, storage1.getBufferSize());
+        Assert.assertEquals(1, storage2.getBufferSize());
+        Assert.assertEquals(3, bufferBudget.size());
+
+        Span span = new Span(traceRoot);
+        span.setElapsed(10);
+        storage1.store(span);
+        Assert.assertEquals(1, bufferBudget.size());
+
+        storage2.store(new SpanEvent(traceRoot));
+        Assert.assertEquals(2, storage2.getBufferSize());
+        storage2.close();
+        Assert.assertEquals(0, bufferBudget.size());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.classreading;
+
+import com.navercorp.pinpoint.common.util.ClassLoaderUtils;
+import com.navercorp.pinpoint.profiler.util.BytecodeUtils;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+public class ClassConstantPoolTest {
+
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    @Test
+    public void containsUtf8() throws Exception {
+        final byte[] classBinary = BytecodeUtils.getClassFile(ClassLoaderUtils.getDefaultClassLoader(), Target.class.getName());
+
+        ClassConstantPool constantPool = ClassConstantPool.read(classBinary);
+        assertNotNull(constantPool);
+        // super
+        assertTrue(constantPool.containsUtf8("java/lang/Thread".getBytes(ASCII)));
+        // interface
+        assertTrue(constantPool.containsUtf8("java/io/Serializable".getBytes(ASCII)));
+        // annotation
+        assertTrue(constantPool.containsUtf8("Ljava/lang/Deprecated;".getBytes(ASCII)));
+        // constants after long and double entries
+        assertTrue(constantPool.containsUtf8("afterWideConstants".getBytes(ASCII)));
+
+        assertFalse(constantPool.containsUtf8("java/lang/Runnable2".getBytes(ASCII)));
+    }
+
+    @Test
+    public void invalidClassFile() {
+        assertNull(ClassConstantPool.read(null));
+        assertNull(ClassConstantPool.read(new byte[]{1, 2, 3}));
+
+        byte[] truncated = new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 50, 0, 2, 1, 0, 10, 'a'};
+        assertNull(ClassConstantPool.read(truncated));
+    }
+
+    @Deprecated
+    static class Target extends Thread implements Serializable {
+        private long longValue = 123456789012L;
+        private double doubleValue = 0.123456789;
+
+        public String afterWideConstants() {
+            return longValue + ":" + doubleValue;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+public class FileUntransformedClassCacheTest {
+
+    private static final byte[] CLASS_A = new byte[]{(byte) 0xCA, (byte) 0xFE, 0x00, 0x01};
+    private static final byte[] CLASS_B = new byte[]{(byte) 0xCA, (byte) 0xFE, 0x00, 0x02};
+
+    private File cacheFile;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheFile = File.createTempFile("untransformed", ".cache");
+        cacheFile.delete();
+    }
+
+    @After
+    public void tearDown() {
+        cacheFile.delete();
+    }
+
+    @Test
+    public void reload() {
+        FileUntransformedClassCache cache = new FileUntransformedClassCache(cacheFile, 1, 100);
+        Assert.assertFalse(cache.isUntransformed("test/A", CLASS_A));
+        cache.untransformed("test/A", CLASS_A);
+        Assert.assertTrue(cache.isUntransformed("test/A", CLASS_A));
+        cache.close();
+        Assert.assertTrue(cacheFile.isFile());
+
+        FileUntransformedClassCache reloaded = new FileUntransformedClassCache(cacheFile, 1, 100);
+        Assert.assertTrue(reloaded.isUntransformed("test/A", CLASS_A));
+        // changed class bytes
+        Assert.assertFalse(reloaded.isUntransformed("test/A", CLASS_B));
+        Assert.assertFalse(reloaded.isUntransformed("test/B", CLASS_A));
+    }
+
+    @Test
+    public void fingerprintChanged() {
+        FileUntransformedClassCache cache = new FileUntransformedClassCache(cacheFile, 1, 100);
+        cache.untransformed("test/A", CLASS_A);
+        cache.close();
+
+        FileUntransformedClassCache reloaded = new FileUntransformedClassCache(cacheFile, 2, 100);
+        Assert.assertFalse(reloaded.isUntransformed("test/A", CLASS_A));
+    }
+
+    @Test
+    public void corruptedFile() throws IOException {
+        FileUntransformedClassCache cache = new FileUntransformedClassCache(cacheFile, 1, 100);
+        cache.untransformed("test/A", CLASS_A);
+        cache.close();
+
+        RandomAccessFile file = new RandomAccessFile(cacheFile, "rw");
+        try {
+            file.seek(FileUntransformedClassCache.HEADER_SIZE);
+            final int value = file.read();
+            file.seek(FileUntransformedClassCache.HEADER_SIZE);
+            file.write(value ^ 0xff);
+        } finally {
+            file.close();
+        }
+
+        FileUntransformedClassCache reloaded = new FileUntransformedClassCache(cacheFile, 1, 100);
+        Assert.assertFalse(reloaded.isUntransformed("test/A", CLASS_A));
+    }
+
+    @Test
+    public void dropUnusedKeys() {
+        FileUntransformedClassCache cache = new FileUntransformedClassCache(cacheFile, 1, 100);
+        cache.untransformed("test/A", CLASS_A);
+        cache.untransformed("test/B", CLASS_B);
+        cache.close();
+
+        FileUntransformedClassCache secondRun = new FileUntransformedClassCache(cacheFile, 1, 100);
+        Assert.assertTrue(secondRun.isUntransformed("test/A", CLASS_A));
+        secondRun.close();
+
+        FileUntransformedClassCache thirdRun = new FileUntransformedClassCache(cacheFile, 1, 100);
+        Assert.assertTrue(thirdRun.isUntransformed("test/A", CLASS_A));
+        Assert.assertFalse(thirdRun.isUntransformed("test/B", CLASS_B));
+    }
+
+    @Test
+    public void replaceLoadedFile() {
+        FileUntransformedClassCache cache = new FileUntransformedClassCache(cacheFile, 1, 100);
+        cache.untransformed("test/A", CLASS_A);
+        cache.close();
+
+        FileUntransformedClassCache reloaded = new FileUntransformedClassCache(cacheFile, 1, 100);
+        // the loaded file is not held, so it can be removed and rewritten while the cache is in use
+        Assert.assertTrue(cacheFile.delete());
+        Assert.assertTrue(reloaded.isUntransformed("test/A", CLASS_A));
+        reloaded.untransformed("test/B", CLASS_B);
+        reloaded.close();
+
+        FileUntransformedClassCache thirdRun = new FileUntransformedClassCache(cacheFile, 1, 100);
+        Assert.assertTrue(thirdRun.isUntransformed("test/A", CLASS_A));
+        Assert.assertTrue(thirdRun.isUntransformed("test/B", CLASS_B));
+    }
+
+    @Test
+    public void tooLargeFile() {
+        FileUntransformedClassCache cache = new FileUntransformedClassCache(cacheFile, 1, 100);
+        cache.untransformed("test/A", CLASS_A);
+        cache.untransformed("test/B", CLASS_B);
+        cache.close();
+
+        FileUntransformedClassCache reloaded = new FileUntransformedClassCache(cacheFile, 1, 1);
+        Assert.assertFalse(reloaded.isUntransformed("test/A", CLASS_A));
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class PackageInternalNameTrieTest {
+
+    @Test
+    public void find() {
+        PackageInternalNameTrie<String> trie = new PackageInternalNameTrie<String>();
+        assertTrue(trie.isEmpty());
+
+        trie.put("com/foo", "foo");
+        trie.put("com/bar", "bar");
+        trie.put("com/foo/service", "service");
+        trie.put("com/foo", "foo2");
+        trie.put("com/foo", "foo");
+        assertFalse(trie.isEmpty());
+
+        // shortest prefix first
+        assertEquals(Arrays.asList("foo", "foo2", "service"), trie.find("com/foo/service/UserService"));
+        assertEquals(Arrays.asList("foo", "foo2"), trie.find("com/foo/Foo"));
+        // same package name length
+        assertEquals(Collections.singletonList("bar"), trie.find("com/bar/Bar"));
+        // prefix, not package boundary
+        assertEquals(Arrays.asList("foo", "foo2"), trie.find("com/foobar/Foo"));
+
+        assertTrue(trie.find("com/baz/Baz").isEmpty());
+        assertTrue(trie.find("com").isEmpty());
+    }
+}
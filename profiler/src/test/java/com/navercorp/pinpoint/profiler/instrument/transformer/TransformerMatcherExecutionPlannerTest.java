@@ -24,6 +24,8 @@ import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.PackageIntern
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.SuperClassInternalNameMatcherOperand;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -71,4 +73,62 @@ public class TransformerMatcherExecutionPlannerTest {
         result = executionPlanner.findIndex(operand);
         assertEquals(0, result.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void findConstantPoolIndex() throws Exception {
+        TransformerMatcherExecutionPlanner executionPlanner = new TransformerMatcherExecutionPlanner();
+
+        // and
+        MatcherOperand operand = new PackageInternalNameMatcherOperand("com/foo");
+        operand = operand.and(new InterfaceInternalNameMatcherOperand("com/foo/Service", false));
+
+        List<String> result = executionPlanner.findConstantPoolIndex(operand);
+        assertEquals(Collections.singletonList("com/foo/Service"), result);
+
+        // or
+        operand = new PackageInternalNameMatcherOperand("com/foo");
+        operand = operand.and(new SuperClassInternalNameMatcherOperand("com/foo/AbstractService", false).or(new AnnotationInternalNameMatcherOperand("com/foo/Service", false)));
+
+        result = executionPlanner.findConstantPoolIndex(operand);
+        assertEquals(Arrays.asList("com/foo/AbstractService", "Lcom/foo/Service;"), result);
+
+        // hierarchy
+        operand = new PackageInternalNameMatcherOperand("com/foo");
+        operand = operand.and(new InterfaceInternalNameMatcherOperand("com/foo/Service", true));
+        assertNull(executionPlanner.findConstantPoolIndex(operand));
+
+        // meta annotation
+        operand = new PackageInternalNameMatcherOperand("com/foo");
+        operand = operand.and(new SuperClassInternalNameMatcherOperand("com/foo/AbstractService", false).or(new AnnotationInternalNameMatcherOperand("com/foo/Service", true)));
+        assertNull(executionPlanner.findConstantPoolIndex(operand));
+
+        // not
+        operand = new PackageInternalNameMatcherOperand("com/foo");
+        operand = operand.and(new InterfaceInternalNameMatcherOperand("com/foo/Service", false).not());
+        assertNull(executionPlanner.findConstantPoolIndex(operand));
+    }
+
+    @Test
+    public void isHierarchyDependent() throws Exception {
+        TransformerMatcherExecutionPlanner executionPlanner = new TransformerMatcherExecutionPlanner();
+
+        MatcherOperand operand = new PackageInternalNameMatcherOperand("com/foo");
+        operand = operand.and(new InterfaceInternalNameMatcherOperand("com/foo/Service", false).or(new AnnotationInternalNameMatcherOperand("com/foo/Service", false)));
+        assertFalse(executionPlanner.isHierarchyDependent(operand));
+
+        // hierarchy
+        operand = new PackageInternalNameMatcherOperand("com/foo");
+        operand = operand.and(new SuperClassInternalNameMatcherOperand("com/foo/AbstractService", true));
+        assertTrue(executionPlanner.isHierarchyDependent(operand));
+
+        // meta annotation
+        operand = new ClassInternalNameMatcherOperand("com/foo/Service");
+        operand = operand.or(new AnnotationInternalNameMatcherOperand("com/foo/Service", true));
+        assertTrue(executionPlanner.isHierarchyDependent(operand));
+
+        // not
+        operand = new PackageInternalNameMatcherOperand("com/foo");
+        operand = operand.and(new InterfaceInternalNameMatcherOperand("com/foo/Service", true).not());
+        assertTrue(executionPlanner.isHierarchyDependent(operand));
+    }
+}
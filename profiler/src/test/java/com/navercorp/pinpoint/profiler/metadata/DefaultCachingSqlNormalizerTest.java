@@ -60,4 +60,39 @@ public class DefaultCachingSqlNormalizerTest {
         boolean newCache_parsingResult1_recached = normalizer.normalizedSql(parsingResult1_recached);
         Assert.assertTrue(newCache_parsingResult1_recached);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNormalizedSql_originalSqlCache() throws Exception {
+        DefaultCachingSqlNormalizer normalizer = new DefaultCachingSqlNormalizer(10);
+        ParsingResult parsingResult = normalizer.wrapSql("select * from table where id = 10");
+        Assert.assertTrue(normalizer.normalizedSql(parsingResult));
+        Assert.assertEquals(0, normalizer.getHitCount());
+        Assert.assertEquals(1, normalizer.getMissCount());
+
+        ParsingResult sameSql = normalizer.wrapSql("select * from table where id = 10");
+        Assert.assertFalse(normalizer.normalizedSql(sameSql));
+        Assert.assertEquals(1, normalizer.getHitCount());
+        Assert.assertEquals(1, normalizer.getMissCount());
+
+        Assert.assertEquals(parsingResult.getId(), sameSql.getId());
+        Assert.assertEquals(parsingResult.getSql(), sameSql.getSql());
+        Assert.assertEquals(parsingResult.getOutput(), sameSql.getOutput());
+    }
+
+    @Test
+    public void testNormalizedSql_sameNormalizedSql() throws Exception {
+        DefaultCachingSqlNormalizer normalizer = new DefaultCachingSqlNormalizer(10);
+        ParsingResult parsingResult = normalizer.wrapSql("select * from table where id = 10");
+        Assert.assertTrue(normalizer.normalizedSql(parsingResult));
+
+        // different literal, same normalized sql
+        ParsingResult otherLiteral = normalizer.wrapSql("select * from table where id = 20");
+        Assert.assertFalse(normalizer.normalizedSql(otherLiteral));
+        Assert.assertEquals(0, normalizer.getHitCount());
+        Assert.assertEquals(2, normalizer.getMissCount());
+
+        Assert.assertEquals(parsingResult.getId(), otherLiteral.getId());
+        Assert.assertEquals(parsingResult.getSql(), otherLiteral.getSql());
+        Assert.assertEquals("20", otherLiteral.getOutput());
+    }
+}
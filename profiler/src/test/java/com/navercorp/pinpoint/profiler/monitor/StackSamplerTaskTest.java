@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.monitor;
+
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceSnapshot;
+import com.navercorp.pinpoint.profiler.context.active.FoldedStackSamples;
+import com.navercorp.pinpoint.profiler.context.active.SampledActiveTraceSnapshot;
+import com.navercorp.pinpoint.profiler.context.active.UnsampledActiveTraceSnapshot;
+import com.navercorp.pinpoint.profiler.context.id.DefaultShared;
+import com.navercorp.pinpoint.profiler.context.id.Shared;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StackSamplerTaskTest {
+
+    private static final long THRESHOLD = 1000;
+
+    @Test
+    public void sample() {
+        final long currentTime = System.currentTimeMillis();
+        final Shared slowTrace = new DefaultShared();
+        final Shared fastTrace = new DefaultShared();
+
+        List<ActiveTraceSnapshot> snapshotList = Arrays.asList(
+                newSnapshot(slowTrace, currentTime - THRESHOLD),
+                newSnapshot(fastTrace, currentTime - THRESHOLD + 1),
+                new UnsampledActiveTraceSnapshot(1, currentTime - THRESHOLD, Thread.currentThread().getId()));
+        ActiveTraceRepository activeTraceRepository = mock(ActiveTraceRepository.class);
+        when(activeTraceRepository.snapshot()).thenReturn(snapshotList);
+
+        StackSamplerTask task = new StackSamplerTask(activeTraceRepository, 100, THRESHOLD, 1, 32, 10);
+        task.sample(currentTime);
+        task.sample(currentTime);
+
+        Assert.assertNull(fastTrace.getStackSamples());
+        FoldedStackSamples stackSamples = slowTrace.getStackSamples();
+        Assert.assertNotNull(stackSamples);
+        Assert.assertEquals(2, stackSamples.getSampleCount());
+        Assert.assertTrue(stackSamples.close().contains(StackSamplerTaskTest.class.getName() + ".sample"));
+    }
+
+    private ActiveTraceSnapshot newSnapshot(Shared shared, long startTime) {
+        shared.setThreadId(Thread.currentThread().getId());
+        TraceRoot traceRoot = mock(TraceRoot.class);
+        when(traceRoot.getShared()).thenReturn(shared);
+        when(traceRoot.getTraceStartTime()).thenReturn(startTime);
+        return new SampledActiveTraceSnapshot(traceRoot);
+    }
+
+    @Test
+    public void getNextIntervalMillis() {
+        StackSamplerTask task = new StackSamplerTask(mock(ActiveTraceRepository.class), 100, THRESHOLD, 1, 32, 10);
+
+        Assert.assertEquals(100, task.getNextIntervalMillis(0));
+        Assert.assertEquals(100, task.getNextIntervalMillis(TimeUnit.MICROSECONDS.toNanos(500)));
+        // 10ms of sampling within a 1% budget
+        Assert.assertEquals(990, task.getNextIntervalMillis(TimeUnit.MILLISECONDS.toNanos(10)));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.receiver.service;
+
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.util.ThreadMXBeanUtils;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceRepository;
+import com.navercorp.pinpoint.profiler.context.active.ActiveTraceSnapshot;
+import com.navercorp.pinpoint.profiler.context.active.UnsampledActiveTraceSnapshot;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ActiveThreadDumpCoreServiceTest {
+
+    private static final int CREATE_SIZE = 10;
+    private static final int BATCH_SIZE = 3;
+
+    private static final long DEFAULT_TIME_MILLIS = System.currentTimeMillis() - 1000000;
+    private static final long TIME_DIFF_INTERVAL = 100;
+    private static final long JOB_TIMEOUT = 1000 * 10;
+
+    private final PinpointThreadFactory pinpointThreadFactory = new PinpointThreadFactory(this.getClass().getSimpleName());
+
+    private final WaitingJobListFactory waitingJobListFactory = new WaitingJobListFactory();
+
+    @After
+    public void tearDown() throws Exception {
+        waitingJobListFactory.close();
+    }
+
+    @Test
+    public void captureInBatches() throws Exception {
+        List<ActiveTraceSnapshot> activeTraceInfoList = createActiveTraceInfoList();
+
+        ActiveThreadDumpCoreService service = createService(activeTraceInfoList, Long.MAX_VALUE);
+        Collection<ThreadDump> result = service.getActiveThreadDumpList(new ThreadDumpRequest(StackTrace.DUMP, 100, null, null));
+
+        Assert.assertEquals(CREATE_SIZE, result.size());
+        for (ThreadDump threadDump : result) {
+            Assert.assertEquals(threadDump.getActiveTraceSnapshot().getThreadId(), threadDump.getThreadInfo().getThreadId());
+        }
+    }
+
+    @Test
+    public void captureOnlyLimitedThreads() throws Exception {
+        List<ActiveTraceSnapshot> activeTraceInfoList = createActiveTraceInfoList();
+        Collections.reverse(activeTraceInfoList);
+
+        final int limit = 4;
+        ActiveThreadDumpCoreService service = createService(activeTraceInfoList, Long.MAX_VALUE);
+        Collection<ThreadDump> result = service.getActiveThreadDumpList(new ThreadDumpRequest(StackTrace.SKIP, limit, null, null));
+
+        Assert.assertEquals(limit, result.size());
+        for (ThreadDump threadDump : result) {
+            // oldest traces
+            Assert.assertTrue(threadDump.getActiveTraceSnapshot().getStartTime() < DEFAULT_TIME_MILLIS + TIME_DIFF_INTERVAL * limit);
+            Assert.assertEquals(0, threadDump.getThreadInfo().getStackTrace().length);
+        }
+    }
+
+    @Test
+    public void filterThreadName() throws Exception {
+        List<ActiveTraceSnapshot> activeTraceInfoList = createActiveTraceInfoList();
+
+        List<String> threadNameList = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            final long threadId = activeTraceInfoList.get(i * 2).getThreadId();
+            threadNameList.add(ThreadMXBeanUtils.getThreadInfo(threadId).getThreadName());
+        }
+
+        ActiveThreadDumpCoreService service = createService(activeTraceInfoList, Long.MAX_VALUE);
+        Collection<ThreadDump> result = service.getActiveThreadDumpList(new ThreadDumpRequest(StackTrace.DUMP, 100, null, threadNameList));
+
+        Assert.assertEquals(threadNameList.size(), result.size());
+        for (ThreadDump threadDump : result) {
+            Assert.assertTrue(threadNameList.contains(threadDump.getThreadInfo().getThreadName()));
+        }
+    }
+
+    @Test
+    public void backfillEndedThreads() throws Exception {
+        List<ActiveTraceSnapshot> activeTraceInfoList = createActiveTraceInfoList();
+        // the oldest traces belong to threads that have already ended
+        final long endedThreadId = createEndedThreadId();
+        activeTraceInfoList.add(new UnsampledActiveTraceSnapshot(CREATE_SIZE, DEFAULT_TIME_MILLIS - TIME_DIFF_INTERVAL, endedThreadId));
+        activeTraceInfoList.add(new UnsampledActiveTraceSnapshot(CREATE_SIZE + 1, DEFAULT_TIME_MILLIS - (TIME_DIFF_INTERVAL * 2), endedThreadId));
+
+        final int limit = 4;
+        ActiveThreadDumpCoreService service = createService(activeTraceInfoList, Long.MAX_VALUE);
+        Collection<ThreadDump> result = service.getActiveThreadDumpList(new ThreadDumpRequest(StackTrace.SKIP, limit, null, null));
+
+        Assert.assertEquals(limit, result.size());
+        for (ThreadDump threadDump : result) {
+            Assert.assertNotEquals(endedThreadId, threadDump.getActiveTraceSnapshot().getThreadId());
+        }
+    }
+
+    @Test
+    public void timeBudgetExceeded() throws Exception {
+        List<ActiveTraceSnapshot> activeTraceInfoList = createActiveTraceInfoList();
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        ActiveTraceRepository activeTraceRepository = mock(ActiveTraceRepository.class);
+        when(activeTraceRepository.snapshot()).thenAnswer(new Answer<List<ActiveTraceSnapshot>>() {
+            @Override
+            public List<ActiveTraceSnapshot> answer(InvocationOnMock invocation) throws Throwable {
+                latch.await(JOB_TIMEOUT, TimeUnit.MILLISECONDS);
+                return Collections.emptyList();
+            }
+        });
+        ActiveThreadDumpCoreService service = new ActiveThreadDumpCoreService(activeTraceRepository, BATCH_SIZE, 100);
+
+        final long startTime = System.currentTimeMillis();
+        try {
+            Collection<ThreadDump> result = service.getActiveThreadDumpList(new ThreadDumpRequest(StackTrace.DUMP, 100, null, null));
+            // the command thread does not wait for the capture
+            Assert.assertTrue(System.currentTimeMillis() - startTime < JOB_TIMEOUT);
+            Assert.assertTrue(result.isEmpty());
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    private long createEndedThreadId() throws InterruptedException {
+        Thread thread = pinpointThreadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+        thread.start();
+        thread.join();
+        return thread.getId();
+    }
+
+    private List<ActiveTraceSnapshot> createActiveTraceInfoList() {
+        List<WaitingJob> waitingJobList = this.waitingJobListFactory.createList(CREATE_SIZE, JOB_TIMEOUT);
+
+        List<ActiveTraceSnapshot> activeTraceInfoList = new ArrayList<ActiveTraceSnapshot>(CREATE_SIZE);
+        for (int i = 0; i < CREATE_SIZE; i++) {
+            Thread thread = pinpointThreadFactory.newThread(waitingJobList.get(i));
+            thread.start();
+            activeTraceInfoList.add(new UnsampledActiveTraceSnapshot(i, DEFAULT_TIME_MILLIS + (TIME_DIFF_INTERVAL * i), thread.getId()));
+        }
+        return activeTraceInfoList;
+    }
+
+    private ActiveThreadDumpCoreService createService(List<ActiveTraceSnapshot> activeTraceInfoList, long timeBudgetMillis) {
+        ActiveTraceRepository activeTraceRepository = mock(ActiveTraceRepository.class);
+        when(activeTraceRepository.snapshot()).thenReturn(activeTraceInfoList);
+
+        return new ActiveThreadDumpCoreService(activeTraceRepository, BATCH_SIZE, timeBudgetMillis);
+    }
+}
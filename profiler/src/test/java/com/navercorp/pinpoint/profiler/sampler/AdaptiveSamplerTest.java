@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveSamplerTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void burstIsLimited() {
+        final long start = 1000;
+        AdaptiveSampler sampler = new AdaptiveSampler(10, 5, start);
+
+        int sampled = countSampled(sampler, start, 1000);
+        Assert.assertEquals(5, sampled);
+    }
+
+    @Test
+    public void steadyRate() {
+        final long start = 0;
+        AdaptiveSampler sampler = new AdaptiveSampler(10, 1, start);
+
+        int sampled = 0;
+        // 1000 calls per second for 10 seconds
+        for (int i = 0; i < 10000; i++) {
+            final long now = start + i * (ONE_SECOND / 1000);
+            if (sampler.isSampling(now)) {
+                sampled++;
+            }
+        }
+        Assert.assertEquals(100, sampled);
+    }
+
+    @Test
+    public void lowTrafficIsFullySampled() {
+        final long start = 0;
+        AdaptiveSampler sampler = new AdaptiveSampler(10, 10, start);
+
+        for (int i = 0; i < 100; i++) {
+            final long now = start + i * ONE_SECOND;
+            Assert.assertTrue(sampler.isSampling(now));
+        }
+    }
+
+    @Test
+    public void refillAfterIdle() {
+        final long start = 0;
+        AdaptiveSampler sampler = new AdaptiveSampler(10, 5, start);
+
+        Assert.assertEquals(5, countSampled(sampler, start, 100));
+        // the budget does not accumulate beyond maxBurst
+        Assert.assertEquals(5, countSampled(sampler, start + 60 * ONE_SECOND, 100));
+    }
+
+    @Test
+    public void nanoTimeOverflow() {
+        final long start = Long.MAX_VALUE - ONE_SECOND / 2;
+        AdaptiveSampler sampler = new AdaptiveSampler(10, 1, start);
+
+        Assert.assertTrue(sampler.isSampling(start));
+        Assert.assertFalse(sampler.isSampling(start + 1));
+        Assert.assertTrue(sampler.isSampling(start + ONE_SECOND));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidTargetTps() {
+        new AdaptiveSampler(0);
+    }
+
+    private int countSampled(AdaptiveSampler sampler, long now, int count) {
+        int sampled = 0;
+        for (int i = 0; i < count; i++) {
+            if (sampler.isSampling(now)) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+}
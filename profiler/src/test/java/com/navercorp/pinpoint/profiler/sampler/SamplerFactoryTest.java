@@ -42,4 +42,30 @@ public class SamplerFactoryTest {
         boolean sampling = sampler.isSampling();
         Assert.assertFalse(sampling);
     }
+
+    @Test
+    public void createAdaptiveSampler() {
+        SamplerFactory samplerFactory = new SamplerFactory();
+        Assert.assertTrue(samplerFactory.createAdaptiveSampler(true, 10) instanceof AdaptiveSampler);
+        Assert.assertFalse(samplerFactory.createAdaptiveSampler(true, 0).isSampling());
+        Assert.assertFalse(samplerFactory.createAdaptiveSampler(false, 10).isSampling());
+    }
+
+    @Test
+    public void createSpanEndSampler() {
+        SamplerFactory samplerFactory = new SamplerFactory();
+        Assert.assertSame(SpanEndSampler.DISABLE, samplerFactory.createSpanEndSampler(false, -1, 10));
+        Assert.assertTrue(samplerFactory.createSpanEndSampler(true, -1, 10).isEnable());
+        Assert.assertTrue(samplerFactory.createSpanEndSampler(false, 1000, 0).isEnable());
+    }
+
+    @Test
+    public void getSamplerType() {
+        SamplerFactory samplerFactory = new SamplerFactory();
+        Assert.assertEquals(SamplerType.COUNTING, samplerFactory.getSamplerType(null));
+        Assert.assertEquals(SamplerType.COUNTING, samplerFactory.getSamplerType(" "));
+        Assert.assertEquals(SamplerType.ADAPTIVE, samplerFactory.getSamplerType("adaptive"));
+        // typo
+        Assert.assertEquals(SamplerType.COUNTING, samplerFactory.getSamplerType("adaptiv"));
+    }
 }
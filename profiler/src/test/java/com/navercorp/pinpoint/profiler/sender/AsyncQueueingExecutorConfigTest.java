@@ -0,0 +1,39 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsyncQueueingExecutorConfigTest {
+
+    @Test
+    public void create() {
+        AsyncQueueingExecutorConfig config = AsyncQueueingExecutorConfig.create(null, 0, " spin_park ");
+        Assert.assertEquals(QueueWaitStrategy.SPIN_PARK, config.getWaitStrategy());
+        Assert.assertEquals(AsyncQueueType.LINKED_BLOCKING, config.getQueueType());
+        Assert.assertEquals(AsyncQueueingExecutorConfig.DEFAULT_MAX_DRAIN_SIZE, config.getMaxDrainSize());
+    }
+
+    @Test
+    public void create_unknownName() {
+        AsyncQueueingExecutorConfig config = AsyncQueueingExecutorConfig.create("LINKED_BLOCKNG", 10, "PRAK");
+        Assert.assertEquals(AsyncQueueType.LINKED_BLOCKING, config.getQueueType());
+        Assert.assertEquals(QueueWaitStrategy.PARK, config.getWaitStrategy());
+    }
+}
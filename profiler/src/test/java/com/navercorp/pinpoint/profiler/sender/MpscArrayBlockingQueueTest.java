@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MpscArrayBlockingQueueTest {
+
+    @Test
+    public void capacity() {
+        Assert.assertEquals(8, new MpscArrayBlockingQueue<Object>(8).capacity());
+        Assert.assertEquals(9, new MpscArrayBlockingQueue<Object>(9).capacity());
+        Assert.assertEquals(1, new MpscArrayBlockingQueue<Object>(1).capacity());
+    }
+
+    @Test
+    public void offer_exactCapacity() {
+        MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(5);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        Assert.assertFalse(queue.offer(5));
+        Assert.assertEquals(0, queue.remainingCapacity());
+
+        // wrap around the power of two sized buffer
+        for (int round = 0; round < 20; round++) {
+            Assert.assertEquals(Integer.valueOf(round), queue.poll());
+            Assert.assertTrue(queue.offer(round + 5));
+            Assert.assertFalse(queue.offer(-1));
+        }
+        Assert.assertEquals(5, queue.size());
+    }
+
+    @Test
+    public void iterator() {
+        MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(3);
+        queue.offer(1);
+        queue.offer(2);
+        queue.offer(3);
+        queue.poll();
+        queue.offer(4);
+
+        List<Integer> elements = new ArrayList<Integer>();
+        Iterator<Integer> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            elements.add(iterator.next());
+        }
+        Assert.assertEquals(Arrays.asList(2, 3, 4), elements);
+        Assert.assertTrue(queue.contains(3));
+        Assert.assertFalse(queue.contains(1));
+    }
+
+    @Test
+    public void offer_full() {
+        MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(2);
+        Assert.assertTrue(queue.offer(1));
+        Assert.assertTrue(queue.offer(2));
+        Assert.assertFalse(queue.offer(3));
+        Assert.assertEquals(2, queue.size());
+        Assert.assertEquals(0, queue.remainingCapacity());
+
+        Assert.assertEquals(Integer.valueOf(1), queue.poll());
+        Assert.assertTrue(queue.offer(3));
+        Assert.assertEquals(Integer.valueOf(2), queue.poll());
+        Assert.assertEquals(Integer.valueOf(3), queue.poll());
+        Assert.assertNull(queue.poll());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void drainTo() {
+        MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(16);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        List<Integer> drain = new ArrayList<Integer>();
+        Assert.assertEquals(3, queue.drainTo(drain, 3));
+        Assert.assertEquals(3, drain.size());
+        Assert.assertEquals(Integer.valueOf(0), drain.get(0));
+        Assert.assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void poll_timeout() throws InterruptedException {
+        MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(4, QueueWaitStrategy.SPIN_PARK);
+        Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void multiProducer() throws InterruptedException {
+        final int producerCount = 4;
+        final int messagePerProducer = 10000;
+        final MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(128);
+        final CountDownLatch latch = new CountDownLatch(producerCount);
+        for (int i = 0; i < producerCount; i++) {
+            Thread producer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < messagePerProducer; j++) {
+                            queue.put(j);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+            producer.setDaemon(true);
+            producer.start();
+        }
+
+        final AtomicInteger received = new AtomicInteger();
+        long sum = 0;
+        while (received.get() < producerCount * messagePerProducer) {
+            Integer value = queue.poll(1, TimeUnit.SECONDS);
+            Assert.assertNotNull(value);
+            sum += value;
+            received.incrementAndGet();
+        }
+        Assert.assertTrue(latch.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(queue.isEmpty());
+
+        long expected = (long) producerCount * ((long) messagePerProducer * (messagePerProducer - 1) / 2);
+        Assert.assertEquals(expected, sum);
+    }
+}
@@ -19,6 +19,8 @@ package com.navercorp.pinpoint.web.alarm;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import com.navercorp.pinpoint.common.server.bo.stat.DataSourceListBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import com.navercorp.pinpoint.web.alarm.collector.AgentDataBulkReader;
 import com.navercorp.pinpoint.web.alarm.collector.AgentEventDataCollector;
 import com.navercorp.pinpoint.web.alarm.collector.AgentStatDataCollector;
 import com.navercorp.pinpoint.web.alarm.collector.DataCollector;
@@ -31,16 +33,27 @@ import com.navercorp.pinpoint.web.dao.hbase.HbaseMapResponseTimeDao;
 import com.navercorp.pinpoint.web.dao.hbase.HbaseMapStatisticsCallerDao;
 import com.navercorp.pinpoint.web.dao.stat.AgentStatDao;
 import com.navercorp.pinpoint.web.vo.Application;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author minwoo.jung
  */
 @Component
 public class DataCollectorFactory {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     public final static long SLOT_INTERVAL_FIVE_MIN = 300000;
 
     public final static long SLOT_INTERVAL_THREE_MIN = 180000;
@@ -69,18 +82,47 @@ public class DataCollectorFactory {
     @Autowired
     private HbaseMapStatisticsCallerDao mapStatisticsCallerDao;
 
+    // number of agents read concurrently by a collector. 0 = read agents one by one
+    @Value("#{pinpointWebProps['web.alarm.collector.parallel.maxthreads'] ?: 8}")
+    private int collectorMaxThreads = 8;
+
+    private ExecutorService collectorExecutor;
+
+    private AgentDataBulkReader agentDataBulkReader = AgentDataBulkReader.SERIAL;
+
+    @PostConstruct
+    public void setup() {
+        logger.info("alarm DataCollector parallel maxThreads : {}", collectorMaxThreads);
+        if (collectorMaxThreads > 0) {
+            this.collectorExecutor = Executors.newFixedThreadPool(collectorMaxThreads, new PinpointThreadFactory("Pinpoint-alarm-collector", true));
+            this.agentDataBulkReader = new AgentDataBulkReader(collectorExecutor);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (collectorExecutor != null) {
+            collectorExecutor.shutdown();
+            try {
+                collectorExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     public DataCollector createDataCollector(CheckerCategory checker, Application application, long timeSlotEndTime) {
         switch (checker.getDataCollectorCategory()) {
             case RESPONSE_TIME:
                 return new ResponseTimeDataCollector(DataCollectorCategory.RESPONSE_TIME, application, hbaseMapResponseTimeDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
             case AGENT_STAT:
-                return new AgentStatDataCollector(DataCollectorCategory.AGENT_STAT, application, jvmGcDao, cpuLoadDao, hbaseApplicationIndexDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
+                return new AgentStatDataCollector(DataCollectorCategory.AGENT_STAT, application, jvmGcDao, cpuLoadDao, hbaseApplicationIndexDao, agentDataBulkReader, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
             case AGENT_EVENT:
-                return new AgentEventDataCollector(DataCollectorCategory.AGENT_EVENT, application, agentEventDao, hbaseApplicationIndexDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
+                return new AgentEventDataCollector(DataCollectorCategory.AGENT_EVENT, application, agentEventDao, hbaseApplicationIndexDao, agentDataBulkReader, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
             case CALLER_STAT:
                 return new MapStatisticsCallerDataCollector(DataCollectorCategory.CALLER_STAT, application, mapStatisticsCallerDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
             case DATA_SOURCE_STAT:
-                return new DataSourceDataCollector(DataCollectorCategory.DATA_SOURCE_STAT, application, dataSourceDao, hbaseApplicationIndexDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
+                return new DataSourceDataCollector(DataCollectorCategory.DATA_SOURCE_STAT, application, dataSourceDao, hbaseApplicationIndexDao, agentDataBulkReader, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
         }
 
         throw new IllegalArgumentException("unable to create DataCollector : " + checker.getName());
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.alarm.collector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Reads the data of every agent of an application for a DataCollector.
+ * Reads run on the given executor, so the number of concurrent agent scans is bounded by its thread count.
+ */
+public class AgentDataBulkReader {
+
+    public static final AgentDataBulkReader SERIAL = new AgentDataBulkReader(null);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final ExecutorService executorService;
+
+    /**
+     * @param executorService null to read agents one by one on the caller thread
+     */
+    public AgentDataBulkReader(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * @return agentId -> result, in the order of agentIds
+     */
+    public <T> Map<String, T> read(List<String> agentIds, Function<String, T> reader) {
+        if (agentIds == null) {
+            throw new NullPointerException("agentIds must not be null");
+        }
+        if (reader == null) {
+            throw new NullPointerException("reader must not be null");
+        }
+
+        final Map<String, T> result = new LinkedHashMap<>(agentIds.size());
+        if (executorService == null || agentIds.size() <= 1) {
+            for (String agentId : agentIds) {
+                result.put(agentId, reader.apply(agentId));
+            }
+            return result;
+        }
+
+        final List<Future<T>> futures = new ArrayList<>(agentIds.size());
+        for (String agentId : agentIds) {
+            futures.add(executorService.submit(() -> reader.apply(agentId)));
+        }
+
+        try {
+            for (int i = 0; i < agentIds.size(); i++) {
+                result.put(agentIds.get(i), futures.get(i).get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(futures);
+            throw new IllegalStateException("interrupted while reading agent data", e);
+        } catch (ExecutionException e) {
+            logger.warn("failed to read agent data. agentIds:{}", agentIds, e.getCause());
+            cancel(futures);
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private void cancel(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
@@ -39,6 +39,7 @@ public class AgentEventDataCollector extends DataCollector {
 
     private final ApplicationIndexDao applicationIndexDao;
     private final AgentEventDao agentEventDao;
+    private final AgentDataBulkReader agentDataBulkReader;
 
     private final long timeSlotEndTime;
     private final long slotInterval;
@@ -47,11 +48,16 @@ public class AgentEventDataCollector extends DataCollector {
     private final Map<String, Boolean> agentDeadlockEventDetected = new HashMap<>();
 
     public AgentEventDataCollector(DataCollectorFactory.DataCollectorCategory dataCollectorCategory, Application application, AgentEventDao agentEventDao, ApplicationIndexDao applicationIndexDao, long timeSlotEndTime, long slotInterval) {
+        this(dataCollectorCategory, application, agentEventDao, applicationIndexDao, AgentDataBulkReader.SERIAL, timeSlotEndTime, slotInterval);
+    }
+
+    public AgentEventDataCollector(DataCollectorFactory.DataCollectorCategory dataCollectorCategory, Application application, AgentEventDao agentEventDao, ApplicationIndexDao applicationIndexDao, AgentDataBulkReader agentDataBulkReader, long timeSlotEndTime, long slotInterval) {
         super(dataCollectorCategory);
         this.application = application;
 
         this.agentEventDao = agentEventDao;
         this.applicationIndexDao = applicationIndexDao;
+        this.agentDataBulkReader = agentDataBulkReader;
 
         this.timeSlotEndTime = timeSlotEndTime;
 
@@ -66,9 +72,10 @@ public class AgentEventDataCollector extends DataCollector {
 
         Range range = Range.createUncheckedRange(timeSlotEndTime - slotInterval, timeSlotEndTime);
         List<String> agentIds = applicationIndexDao.selectAgentIds(application.getName());
+        Map<String, List<AgentEventBo>> agentEventBos = agentDataBulkReader.read(agentIds, agentId -> agentEventDao.getAgentEvents(agentId, range, Collections.emptySet()));
 
         for (String agentId : agentIds) {
-            List<AgentEventBo> agentEventBoList = agentEventDao.getAgentEvents(agentId, range, Collections.emptySet());
+            List<AgentEventBo> agentEventBoList = agentEventBos.get(agentId);
             if (hasDeadlockEvent(agentEventBoList)) {
                 agentDeadlockEventDetected.put(agentId, true);
             }
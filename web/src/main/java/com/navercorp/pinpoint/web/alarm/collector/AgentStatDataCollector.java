@@ -38,6 +38,7 @@ public class AgentStatDataCollector extends DataCollector {
     private final AgentStatDao<JvmGcBo> jvmGcDao;
     private final AgentStatDao<CpuLoadBo> cpuLoadDao;
     private final ApplicationIndexDao applicationIndexDao;
+    private final AgentDataBulkReader agentDataBulkReader;
     private final long timeSlotEndTime;
     private final long slotInterval;
     private final AtomicBoolean init = new AtomicBoolean(false); // need to consider a race condition when checkers start simultaneously.
@@ -47,11 +48,16 @@ public class AgentStatDataCollector extends DataCollector {
     private final Map<String, Long> agentJvmCpuUsageRate = new HashMap<>();
 
     public AgentStatDataCollector(DataCollectorCategory category, Application application, AgentStatDao<JvmGcBo> jvmGcDao, AgentStatDao<CpuLoadBo> cpuLoadDao, ApplicationIndexDao applicationIndexDao, long timeSlotEndTime, long slotInterval) {
+        this(category, application, jvmGcDao, cpuLoadDao, applicationIndexDao, AgentDataBulkReader.SERIAL, timeSlotEndTime, slotInterval);
+    }
+
+    public AgentStatDataCollector(DataCollectorCategory category, Application application, AgentStatDao<JvmGcBo> jvmGcDao, AgentStatDao<CpuLoadBo> cpuLoadDao, ApplicationIndexDao applicationIndexDao, AgentDataBulkReader agentDataBulkReader, long timeSlotEndTime, long slotInterval) {
         super(category);
         this.application = application;
         this.jvmGcDao = jvmGcDao;
         this.cpuLoadDao = cpuLoadDao;
         this.applicationIndexDao = applicationIndexDao;
+        this.agentDataBulkReader = agentDataBulkReader;
         this.timeSlotEndTime = timeSlotEndTime;
         this.slotInterval = slotInterval;
     }
@@ -64,10 +70,12 @@ public class AgentStatDataCollector extends DataCollector {
 
         Range range = Range.createUncheckedRange(timeSlotEndTime - slotInterval, timeSlotEndTime);
         List<String> agentIds = applicationIndexDao.selectAgentIds(application.getName());
+        Map<String, List<JvmGcBo>> agentJvmGcBos = agentDataBulkReader.read(agentIds, agentId -> jvmGcDao.getAgentStatList(agentId, range));
+        Map<String, List<CpuLoadBo>> agentCpuLoadBos = agentDataBulkReader.read(agentIds, agentId -> cpuLoadDao.getAgentStatList(agentId, range));
 
         for(String agentId : agentIds) {
-            List<JvmGcBo> jvmGcBos = jvmGcDao.getAgentStatList(agentId, range);
-            List<CpuLoadBo> cpuLoadBos = cpuLoadDao.getAgentStatList(agentId, range);
+            List<JvmGcBo> jvmGcBos = agentJvmGcBos.get(agentId);
+            List<CpuLoadBo> cpuLoadBos = agentCpuLoadBos.get(agentId);
             long totalHeapSize = 0;
             long usedHeapSize = 0;
             long jvmCpuUsaged = 0;
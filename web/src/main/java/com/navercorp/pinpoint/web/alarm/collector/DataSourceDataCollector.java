@@ -43,6 +43,7 @@ public class DataSourceDataCollector extends DataCollector {
     private final AgentStatDao<DataSourceListBo> dataSourceDao;
 
     private final ApplicationIndexDao applicationIndexDao;
+    private final AgentDataBulkReader agentDataBulkReader;
     private final long timeSlotEndTime;
     private final long slotInterval;
 
@@ -51,12 +52,17 @@ public class DataSourceDataCollector extends DataCollector {
     private final AtomicBoolean init = new AtomicBoolean(false); // need to consider a race condition when checkers start simultaneously.
 
     public DataSourceDataCollector(DataCollectorFactory.DataCollectorCategory dataCollectorCategory, Application application, AgentStatDao<DataSourceListBo> dataSourceDao, ApplicationIndexDao applicationIndexDao, long timeSlotEndTime, long slotInterval) {
+        this(dataCollectorCategory, application, dataSourceDao, applicationIndexDao, AgentDataBulkReader.SERIAL, timeSlotEndTime, slotInterval);
+    }
+
+    public DataSourceDataCollector(DataCollectorFactory.DataCollectorCategory dataCollectorCategory, Application application, AgentStatDao<DataSourceListBo> dataSourceDao, ApplicationIndexDao applicationIndexDao, AgentDataBulkReader agentDataBulkReader, long timeSlotEndTime, long slotInterval) {
         super(dataCollectorCategory);
         this.application = application;
 
         this.dataSourceDao = dataSourceDao;
 
         this.applicationIndexDao = applicationIndexDao;
+        this.agentDataBulkReader = agentDataBulkReader;
         this.timeSlotEndTime = timeSlotEndTime;
         this.slotInterval = slotInterval;
     }
@@ -69,8 +75,9 @@ public class DataSourceDataCollector extends DataCollector {
 
         Range range = Range.createUncheckedRange(timeSlotEndTime - slotInterval, timeSlotEndTime);
         List<String> agentIds = applicationIndexDao.selectAgentIds(application.getName());
+        Map<String, List<DataSourceListBo>> agentDataSourceListBos = agentDataBulkReader.read(agentIds, agentId -> dataSourceDao.getAgentStatList(agentId, range));
         for (String agentId : agentIds) {
-            List<DataSourceListBo> dataSourceListBos = dataSourceDao.getAgentStatList(agentId, range);
+            List<DataSourceListBo> dataSourceListBos = agentDataSourceListBos.get(agentId);
             MultiValueMap<Integer, DataSourceBo> partitions = partitionDataSourceId(dataSourceListBos);
 
             for (Map.Entry<Integer, List<DataSourceBo>> entry : partitions.entrySet()) {
@@ -89,18 +89,25 @@ public class BusinessTransactionController {
                                                     @RequestParam(value = "focusTimestamp", required = false, defaultValue = "0") long focusTimestamp,
                                                     @RequestParam(value = "agentId", required = false) String agentId,
                                                     @RequestParam(value = "spanId", required = false, defaultValue = "-1") long spanId,
-                                                    @RequestParam(value = "v", required = false, defaultValue = "0") int viewVersion) {
-        logger.debug("GET /transactionInfo params {traceId={}, focusTimestamp={}, agentId={}, spanId={}, v={}}", traceIdParam, focusTimestamp, agentId, spanId, viewVersion);
+                                                    @RequestParam(value = "v", required = false, defaultValue = "0") int viewVersion,
+                                                    @RequestParam(value = "callstackOffset", required = false, defaultValue = "0") int callstackOffset,
+                                                    @RequestParam(value = "callstackLimit", required = false, defaultValue = "0") int callstackLimit) {
+        logger.debug("GET /transactionInfo params {traceId={}, focusTimestamp={}, agentId={}, spanId={}, v={}, callstackOffset={}, callstackLimit={}}", traceIdParam, focusTimestamp, agentId, spanId, viewVersion, callstackOffset, callstackLimit);
 
         final TransactionId transactionId = TransactionIdUtils.parseTransactionId(traceIdParam);
 
+        // callstackLimit <= 0 returns the whole call stack
+        final int recordLimit = callstackLimit > 0 ? callstackLimit : Integer.MAX_VALUE;
+        // annotations are resolved only for the span aligns making up the first offset + limit records
+        final int resolveLimit = (int) Math.min((long) callstackOffset + recordLimit, Integer.MAX_VALUE);
+
         // select spans
-        final SpanResult spanResult = this.spanService.selectSpan(transactionId, focusTimestamp);
+        final SpanResult spanResult = this.spanService.selectSpan(transactionId, focusTimestamp, resolveLimit);
         final CallTreeIterator callTreeIterator = spanResult.getCallTree();
 
         // application map
         ApplicationMap map = filteredMapService.selectApplicationMap(transactionId, viewVersion);
-        RecordSet recordSet = this.transactionInfoService.createRecordSet(callTreeIterator, focusTimestamp, agentId, spanId);
+        RecordSet recordSet = this.transactionInfoService.createRecordSet(callTreeIterator, focusTimestamp, agentId, spanId, callstackOffset, recordLimit);
 
         TransactionInfoViewModel result = new TransactionInfoViewModel(transactionId, map.getNodes(), map.getLinks(), recordSet, spanResult.getCompleteTypeString(), logLinkEnable, logButtonName, logPageUrl, disableButtonMessage);
         return result;
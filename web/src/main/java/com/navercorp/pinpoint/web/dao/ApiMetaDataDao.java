@@ -19,10 +19,13 @@ package com.navercorp.pinpoint.web.dao;
 import java.util.List;
 
 import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 /**
  * @author emeroad
  */
 public interface ApiMetaDataDao {
     List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId);
+
+    List<List<ApiMetaDataBo>> getApiMetaDataList(List<MetaDataKey> metaDataKeyList);
 }
@@ -16,6 +16,8 @@
 
 package com.navercorp.pinpoint.web.dao.hbase;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
@@ -31,6 +33,7 @@ import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 /**
  * @author emeroad
@@ -58,11 +61,32 @@ public class HbaseApiMetaDataDao implements ApiMetaDataDao {
             throw new NullPointerException("agentId must not be null");
         }
 
+        Get get = createGet(agentId, time, apiId);
+        return hbaseOperations2.get(HBaseTables.API_METADATA, get, apiMetaDataMapper);
+    }
+
+    @Override
+    public List<List<ApiMetaDataBo>> getApiMetaDataList(List<MetaDataKey> metaDataKeyList) {
+        if (metaDataKeyList == null) {
+            throw new NullPointerException("metaDataKeyList must not be null");
+        }
+        if (metaDataKeyList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Get> getList = new ArrayList<>(metaDataKeyList.size());
+        for (MetaDataKey metaDataKey : metaDataKeyList) {
+            getList.add(createGet(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()));
+        }
+        return hbaseOperations2.get(HBaseTables.API_METADATA, getList, apiMetaDataMapper);
+    }
+
+    private Get createGet(String agentId, long time, int apiId) {
         ApiMetaDataBo apiMetaDataBo = new ApiMetaDataBo(agentId, time, apiId);
-        byte[] sqlId = getDistributedKey(apiMetaDataBo.toRowKey());
-        Get get = new Get(sqlId);
+        byte[] rowKey = getDistributedKey(apiMetaDataBo.toRowKey());
+        Get get = new Get(rowKey);
         get.addFamily(HBaseTables.API_METADATA_CF_API);
-        return hbaseOperations2.get(HBaseTables.API_METADATA, get, apiMetaDataMapper);
+        return get;
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
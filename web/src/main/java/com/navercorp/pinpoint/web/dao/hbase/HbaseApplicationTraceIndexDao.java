@@ -17,12 +17,11 @@
 package com.navercorp.pinpoint.web.dao.hbase;
 
 import com.navercorp.pinpoint.common.PinpointConstants;
-import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
-import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.LimitEventHandler;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.hbase.filter.TraceIndexResponseTimeFilter;
 import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.common.util.DateUtils;
 import com.navercorp.pinpoint.common.server.util.SpanUtils;
@@ -44,17 +43,12 @@ import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
-import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.Filter;
-import org.apache.hadoop.hbase.filter.FilterList;
-import org.apache.hadoop.hbase.filter.FilterList.Operator;
-import org.apache.hadoop.hbase.filter.QualifierFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
@@ -86,6 +80,9 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
     @Qualifier("applicationTraceIndexDistributor")
     private AbstractRowKeyDistributor traceIdRowKeyDistributor;
 
+    @Value("#{pinpointWebProps['web.hbase.traceIndex.serverFilter.enable'] ?: false}")
+    private boolean serverFilterEnable;
+
     private int scanCacheSize = 256;
 
     public void setScanCacheSize(int scanCacheSize) {
@@ -146,6 +143,9 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         }
         logger.debug("scanTraceIndex");
         Scan scan = createScan(applicationName, area.getTimeRange());
+        if (serverFilterEnable) {
+            scan.setFilter(createResponseTimeFilter(area));
+        }
 
         final LimitedScanResult<List<TransactionId>> limitedScanResult = new LimitedScanResult<>();
         LastRowAccessor lastRowAccessor = new LastRowAccessor();
@@ -260,12 +260,11 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         }
         logger.debug("scanTraceScatter");
         Scan scan = createScan(applicationName, area.getTimeRange());
+        if (serverFilterEnable) {
+            // dots outside of the selected response time range are dropped by the region servers
+            scan.setFilter(createResponseTimeFilter(area));
+        }
 
-        // method 1
-        // not used yet. instead, use another row mapper (testing)
-        // scan.setFilter(makeResponseTimeFilter(area, offsetTransactionId, offsetTransactionElapsed));
-
-        // method 2
         ResponseTimeRange responseTimeRange = area.getResponseTimeRange();
         TraceIndexScatterMapper2 mapper = new TraceIndexScatterMapper2(responseTimeRange.getFrom(), responseTimeRange.getTo());
 
@@ -308,35 +307,8 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         }
     }
 
-    /**
-     * make the hbase filter for selecting values of y-axis(response time) in order to select transactions in scatter chart.
-     * 4 bytes for elapsed time should be attached for the prefix of column qualifier for to use this filter.
-     *
-     * @param area
-     * @param offsetTransactionId
-     * @param offsetTransactionElapsed
-     * @return
-     */
-    private Filter makeResponseTimeFilter(final SelectedScatterArea area, final TransactionId offsetTransactionId, int offsetTransactionElapsed) {
-        // filter by response time
+    private TraceIndexResponseTimeFilter createResponseTimeFilter(SelectedScatterArea area) {
         ResponseTimeRange responseTimeRange = area.getResponseTimeRange();
-        byte[] responseFrom = Bytes.toBytes(responseTimeRange.getFrom());
-        byte[] responseTo = Bytes.toBytes(responseTimeRange.getTo());
-        FilterList filterList = new FilterList(Operator.MUST_PASS_ALL);
-        filterList.addFilter(new QualifierFilter(CompareOp.GREATER_OR_EQUAL, new BinaryPrefixComparator(responseFrom)));
-        filterList.addFilter(new QualifierFilter(CompareOp.LESS_OR_EQUAL, new BinaryPrefixComparator(responseTo)));
-
-        // add offset
-        if (offsetTransactionId != null) {
-            final Buffer buffer = new AutomaticBuffer(32);
-            buffer.putInt(offsetTransactionElapsed);
-            buffer.putPrefixedString(offsetTransactionId.getAgentId());
-            buffer.putSVLong(offsetTransactionId.getAgentStartTime());
-            buffer.putVLong(offsetTransactionId.getTransactionSequence());
-            byte[] qualifierOffset = buffer.getBuffer();
-
-            filterList.addFilter(new QualifierFilter(CompareOp.GREATER, new BinaryPrefixComparator(qualifierOffset)));
-        }
-        return filterList;
+        return new TraceIndexResponseTimeFilter(responseTimeRange.getFrom(), responseTimeRange.getTo());
     }
 }
@@ -16,18 +16,22 @@
 
 package com.navercorp.pinpoint.web.dao.hbase;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 
 import org.apache.hadoop.hbase.client.Get;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 
 import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 /**
  * @author emeroad
@@ -35,6 +39,7 @@ import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
  */
 //@Repository
 public class HbaseSqlMetaDataDao implements SqlMetaDataDao {
+    static final String SPEL_KEY = "#agentId.toString() + '.' + #time.toString() + '.' + #sqlId.toString()";
 
     @Autowired
     private HbaseOperations2 hbaseOperations2;
@@ -48,18 +53,39 @@ public class HbaseSqlMetaDataDao implements SqlMetaDataDao {
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
     @Override
+    @Cacheable(value="sqlMetaData", key=SPEL_KEY)
     public List<SqlMetaDataBo> getSqlMetaData(String agentId, long time, int sqlId) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
         }
 
+        Get get = createGet(agentId, time, sqlId);
+        return hbaseOperations2.get(HBaseTables.SQL_METADATA_VER2, get, sqlMetaDataMapper);
+    }
+
+    @Override
+    public List<List<SqlMetaDataBo>> getSqlMetaDataList(List<MetaDataKey> metaDataKeyList) {
+        if (metaDataKeyList == null) {
+            throw new NullPointerException("metaDataKeyList must not be null");
+        }
+        if (metaDataKeyList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Get> getList = new ArrayList<>(metaDataKeyList.size());
+        for (MetaDataKey metaDataKey : metaDataKeyList) {
+            getList.add(createGet(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()));
+        }
+        return hbaseOperations2.get(HBaseTables.SQL_METADATA_VER2, getList, sqlMetaDataMapper);
+    }
+
+    private Get createGet(String agentId, long time, int sqlId) {
         SqlMetaDataBo sqlMetaData = new SqlMetaDataBo(agentId, time, sqlId);
         byte[] rowKey = getDistributedKey(sqlMetaData.toRowKey());
 
         Get get = new Get(rowKey);
         get.addFamily(HBaseTables.SQL_METADATA_VER2_CF_SQL);
-
-        return hbaseOperations2.get(HBaseTables.SQL_METADATA_VER2, get, sqlMetaDataMapper);
+        return get;
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
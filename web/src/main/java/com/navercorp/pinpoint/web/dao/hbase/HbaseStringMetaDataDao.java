@@ -21,13 +21,17 @@ import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 
 import org.apache.hadoop.hbase.client.Get;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -35,6 +39,7 @@ import java.util.List;
  */
 @Repository
 public class HbaseStringMetaDataDao implements StringMetaDataDao {
+    static final String SPEL_KEY = "#agentId.toString() + '.' + #time.toString() + '.' + #stringId.toString()";
 
     @Autowired
     private HbaseOperations2 hbaseOperations2;
@@ -48,18 +53,39 @@ public class HbaseStringMetaDataDao implements StringMetaDataDao {
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
     @Override
+    @Cacheable(value="stringMetaData", key=SPEL_KEY)
     public List<StringMetaDataBo> getStringMetaData(String agentId, long time, int stringId) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
         }
 
+        Get get = createGet(agentId, time, stringId);
+        return hbaseOperations2.get(HBaseTables.STRING_METADATA, get, stringMetaDataMapper);
+    }
+
+    @Override
+    public List<List<StringMetaDataBo>> getStringMetaDataList(List<MetaDataKey> metaDataKeyList) {
+        if (metaDataKeyList == null) {
+            throw new NullPointerException("metaDataKeyList must not be null");
+        }
+        if (metaDataKeyList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Get> getList = new ArrayList<>(metaDataKeyList.size());
+        for (MetaDataKey metaDataKey : metaDataKeyList) {
+            getList.add(createGet(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()));
+        }
+        return hbaseOperations2.get(HBaseTables.STRING_METADATA, getList, stringMetaDataMapper);
+    }
+
+    private Get createGet(String agentId, long time, int stringId) {
         StringMetaDataBo stringMetaData = new StringMetaDataBo(agentId, time, stringId);
         byte[] rowKey = getDistributedKey(stringMetaData.toRowKey());
 
         Get get = new Get(rowKey);
         get.addFamily(HBaseTables.STRING_METADATA_CF_STR);
-
-        return hbaseOperations2.get(HBaseTables.STRING_METADATA, get, stringMetaDataMapper);
+        return get;
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
@@ -19,14 +19,21 @@ package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumnsDecoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDecoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.ApplicationStatDecoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.ApplicationStatHbaseOperationFactory;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.join.AgentStatRollup;
+import com.navercorp.pinpoint.common.server.bo.stat.join.StatType;
 import com.navercorp.pinpoint.web.mapper.RangeTimestampFilter;
 import com.navercorp.pinpoint.web.mapper.TimestampFilter;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatColumnsMapper;
 import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.ApplicationStatMapper;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
 import org.apache.hadoop.hbase.client.Scan;
@@ -55,6 +62,9 @@ public class HbaseAgentStatDaoOperationsV2 {
     @Autowired
     private AgentStatHbaseOperationFactory operationFactory;
 
+    @Autowired
+    private ApplicationStatHbaseOperationFactory rollupOperationFactory;
+
     <T extends AgentStatDataPoint> List<T> getAgentStatList(AgentStatType agentStatType, AgentStatMapperV2<T> mapper, String agentId, Range range) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
@@ -111,11 +121,51 @@ public class HbaseAgentStatDaoOperationsV2 {
         return hbaseOperations2.findParallel(HBaseTables.AGENT_STAT_VER2, scan, this.operationFactory.getRowKeyDistributor(), resultExtractor, AGENT_STAT_VER2_NUM_PARTITIONS);
     }
 
+    <S extends SampledAgentStatDataPoint> List<S> getSampledAgentStatRollupList(AgentStatRollup rollup, StatType statType, ResultsExtractor<List<S>> resultExtractor, String agentId, Range range) {
+        if (rollup == null) {
+            throw new NullPointerException("rollup must not be null");
+        }
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (resultExtractor == null) {
+            throw new NullPointerException("resultExtractor must not be null");
+        }
+        Scan scan = this.createRollupScan(rollup, statType, agentId, range);
+        return hbaseOperations2.findParallel(rollup.getTableName(), scan, this.rollupOperationFactory.getRowKeyDistributor(), resultExtractor, AGENT_STAT_VER2_NUM_PARTITIONS);
+    }
+
     <T extends AgentStatDataPoint> AgentStatMapperV2<T> createRowMapper(AgentStatDecoder<T> decoder, Range range) {
         TimestampFilter filter = new RangeTimestampFilter(range);
         return new AgentStatMapperV2<>(this.operationFactory, decoder, filter);
     }
 
+    AgentStatColumnsMapper createColumnsMapper(AgentStatColumnsDecoder decoder) {
+        return new AgentStatColumnsMapper(this.operationFactory, decoder);
+    }
+
+    ApplicationStatMapper createRollupRowMapper(ApplicationStatDecoder decoder, Range range) {
+        TimestampFilter filter = new RangeTimestampFilter(range);
+        return new ApplicationStatMapper(this.rollupOperationFactory, decoder, filter);
+    }
+
+    private Scan createRollupScan(AgentStatRollup rollup, StatType statType, String agentId, Range range) {
+        long scanRange = range.getTo() - range.getFrom();
+        long expectedNumRows = ((scanRange - 1) / HBaseTables.APPLICATION_STAT_TIMESPAN_MS) + 1;
+        if (range.getFrom() != AgentStatUtils.getBaseTimestamp(range.getFrom())) {
+            expectedNumRows++;
+        }
+        Scan scan = this.rollupOperationFactory.createScan(agentId, statType, range.getFrom(), range.getTo());
+        scan.setCaching((int) Math.min(expectedNumRows, MAX_SCAN_CACHE_SIZE));
+        scan.setId("AgentStatRollup_" + rollup + "_" + statType);
+        scan.addFamily(HBaseTables.AGENT_STAT_ROLLUP_CF_STATISTICS);
+        scan.addFamily(HBaseTables.AGENT_STAT_ROLLUP_CF_COUNT);
+        return scan;
+    }
+
     private Scan createScan(AgentStatType agentStatType, String agentId, Range range) {
         long scanRange = range.getTo() - range.getFrom();
         long expectedNumRows = ((scanRange - 1) / HBaseTables.AGENT_STAT_TIMESPAN_MS) + 1;
@@ -16,17 +16,25 @@
 
 package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
 
+import com.navercorp.pinpoint.common.server.bo.codec.stat.ApplicationStatDecoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.CpuLoadDecoder;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
-import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.AgentStatRollup;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinCpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.StatType;
 import com.navercorp.pinpoint.web.dao.stat.SampledCpuLoadDao;
-import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.RangeTimestampFilter;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatColumnsMapper;
+import com.navercorp.pinpoint.web.mapper.stat.ApplicationStatMapper;
+import com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatColumnsResultExtractor;
+import com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatRollupResultExtractor;
 import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.CpuLoadSampler;
-import com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatResultExtractor;
 import com.navercorp.pinpoint.web.util.TimeWindow;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.stat.SampledCpuLoad;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -40,19 +48,34 @@ public class HbaseSampledCpuLoadDaoV2 implements SampledCpuLoadDao {
     @Autowired
     private CpuLoadDecoder cpuLoadDecoder;
 
+    @Autowired
+    @Qualifier("joinCpuLoadDecoder")
+    private ApplicationStatDecoder joinCpuLoadDecoder;
+
     @Autowired
     private CpuLoadSampler cpuLoadSampler;
 
     @Autowired
     private HbaseAgentStatDaoOperationsV2 operations;
 
+    @Value("#{pinpointWebProps['web.stat.rollup.enable'] ?: false}")
+    private boolean rollupEnabled;
+
     @Override
     public List<SampledCpuLoad> getSampledAgentStatList(String agentId, TimeWindow timeWindow) {
         long scanFrom = timeWindow.getWindowRange().getFrom();
         long scanTo = timeWindow.getWindowRange().getTo() + timeWindow.getWindowSlotSize();
         Range range = new Range(scanFrom, scanTo);
-        AgentStatMapperV2<CpuLoadBo> mapper = operations.createRowMapper(cpuLoadDecoder, range);
-        SampledAgentStatResultExtractor<CpuLoadBo, SampledCpuLoad> resultExtractor = new SampledAgentStatResultExtractor<>(timeWindow, mapper, cpuLoadSampler);
+        if (rollupEnabled) {
+            AgentStatRollup rollup = AgentStatRollup.findCoarsest(timeWindow.getWindowSlotSize());
+            if (rollup != null) {
+                ApplicationStatMapper mapper = operations.createRollupRowMapper(joinCpuLoadDecoder, range);
+                SampledAgentStatRollupResultExtractor<JoinCpuLoadBo, SampledCpuLoad> resultExtractor = new SampledAgentStatRollupResultExtractor<>(timeWindow, mapper, cpuLoadSampler);
+                return operations.getSampledAgentStatRollupList(rollup, StatType.AGENT_CPU_LOAD_AGGRE, resultExtractor, agentId, range);
+            }
+        }
+        AgentStatColumnsMapper mapper = operations.createColumnsMapper(cpuLoadDecoder);
+        SampledAgentStatColumnsResultExtractor<SampledCpuLoad> resultExtractor = new SampledAgentStatColumnsResultExtractor<>(timeWindow, mapper, new RangeTimestampFilter(range), cpuLoadSampler);
         return operations.getSampledAgentStatList(AgentStatType.CPU_LOAD, resultExtractor, agentId, range);
     }
 }
@@ -16,17 +16,25 @@
 
 package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
 
+import com.navercorp.pinpoint.common.server.bo.codec.stat.ApplicationStatDecoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.ResponseTimeDecoder;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
 import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.AgentStatRollup;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinResponseTimeBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.StatType;
 import com.navercorp.pinpoint.web.dao.stat.SampledResponseTimeDao;
 import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.ApplicationStatMapper;
 import com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatResultExtractor;
+import com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatRollupResultExtractor;
 import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.ResponseTimeSampler;
 import com.navercorp.pinpoint.web.util.TimeWindow;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.stat.SampledResponseTime;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -40,17 +48,32 @@ public class HbaseSampledResponseTimeDaoV2 implements SampledResponseTimeDao {
     @Autowired
     private ResponseTimeDecoder responseTimeDecoder;
 
+    @Autowired
+    @Qualifier("joinResponseTimeDecoder")
+    private ApplicationStatDecoder joinResponseTimeDecoder;
+
     @Autowired
     private ResponseTimeSampler responseTimeSampler;
 
     @Autowired
     private HbaseAgentStatDaoOperationsV2 operations;
 
+    @Value("#{pinpointWebProps['web.stat.rollup.enable'] ?: false}")
+    private boolean rollupEnabled;
+
     @Override
     public List<SampledResponseTime> getSampledAgentStatList(String agentId, TimeWindow timeWindow) {
         long scanFrom = timeWindow.getWindowRange().getFrom();
         long scanTo = timeWindow.getWindowRange().getTo() + timeWindow.getWindowSlotSize();
         Range range = new Range(scanFrom, scanTo);
+        if (rollupEnabled) {
+            AgentStatRollup rollup = AgentStatRollup.findCoarsest(timeWindow.getWindowSlotSize());
+            if (rollup != null) {
+                ApplicationStatMapper mapper = operations.createRollupRowMapper(joinResponseTimeDecoder, range);
+                SampledAgentStatRollupResultExtractor<JoinResponseTimeBo, SampledResponseTime> resultExtractor = new SampledAgentStatRollupResultExtractor<>(timeWindow, mapper, responseTimeSampler);
+                return operations.getSampledAgentStatRollupList(rollup, StatType.AGENT_RESPONSE_TIME_AGGRE, resultExtractor, agentId, range);
+            }
+        }
         AgentStatMapperV2<ResponseTimeBo> mapper = operations.createRowMapper(responseTimeDecoder, range);
 
         SampledAgentStatResultExtractor<ResponseTimeBo, SampledResponseTime> resultExtractor = new SampledAgentStatResultExtractor<>(timeWindow, mapper, responseTimeSampler);
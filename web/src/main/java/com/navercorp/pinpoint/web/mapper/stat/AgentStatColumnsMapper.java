@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumnsDecoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Columnar counterpart of {@link AgentStatMapperV2}. Each cell is decoded into a single {@link AgentStatColumns}
+ * without materializing data point objects. Timestamp filtering is left to the consumer.
+ */
+public class AgentStatColumnsMapper implements RowMapper<List<AgentStatColumns>> {
+
+    private final AgentStatHbaseOperationFactory hbaseOperationFactory;
+    private final AgentStatColumnsDecoder decoder;
+
+    public AgentStatColumnsMapper(AgentStatHbaseOperationFactory hbaseOperationFactory, AgentStatColumnsDecoder decoder) {
+        this.hbaseOperationFactory = Objects.requireNonNull(hbaseOperationFactory, "hbaseOperationFactory must not be null");
+        this.decoder = Objects.requireNonNull(decoder, "decoder must not be null");
+    }
+
+    @Override
+    public List<AgentStatColumns> mapRow(Result result, int rowNum) throws Exception {
+        if (result.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final byte[] distributedRowKey = result.getRow();
+        final String agentId = this.hbaseOperationFactory.getAgentId(distributedRowKey);
+        final long baseTimestamp = this.hbaseOperationFactory.getBaseTimestamp(distributedRowKey);
+
+        List<AgentStatColumns> columnsList = new ArrayList<>();
+        for (Cell cell : result.rawCells()) {
+            if (CellUtil.matchingFamily(cell, HBaseTables.AGENT_STAT_CF_STATISTICS)) {
+                Buffer qualifierBuffer = new OffsetFixedBuffer(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+                Buffer valueBuffer = new OffsetFixedBuffer(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+
+                long timestampDelta = this.decoder.decodeQualifier(qualifierBuffer);
+
+                AgentStatDecodingContext decodingContext = new AgentStatDecodingContext();
+                decodingContext.setAgentId(agentId);
+                decodingContext.setBaseTimestamp(baseTimestamp);
+                decodingContext.setTimestampDelta(timestampDelta);
+                columnsList.add(this.decoder.decodeColumns(valueBuffer, decodingContext));
+            }
+        }
+        return columnsList;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat;
+
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
+import com.navercorp.pinpoint.web.mapper.TimestampFilter;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.ColumnarDownSampler;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.AgentStatColumnSampler;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Columnar counterpart of {@link SampledAgentStatResultExtractor}.
+ * Decoded columns are folded straight into per-timeslot primitive accumulators.
+ */
+public class SampledAgentStatColumnsResultExtractor<S extends SampledAgentStatDataPoint> implements ResultsExtractor<List<S>> {
+
+    private final TimeWindow timeWindow;
+    private final RowMapper<List<AgentStatColumns>> rowMapper;
+    private final TimestampFilter filter;
+    private final AgentStatColumnSampler<S> sampler;
+
+    public SampledAgentStatColumnsResultExtractor(TimeWindow timeWindow, RowMapper<List<AgentStatColumns>> rowMapper, TimestampFilter filter, AgentStatColumnSampler<S> sampler) {
+        if (timeWindow.getWindowRangeCount() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("range yields too many timeslots");
+        }
+        this.timeWindow = timeWindow;
+        this.rowMapper = Objects.requireNonNull(rowMapper, "rowMapper must not be null");
+        this.filter = Objects.requireNonNull(filter, "filter must not be null");
+        this.sampler = Objects.requireNonNull(sampler, "sampler must not be null");
+    }
+
+    @Override
+    public List<S> extractData(ResultScanner results) throws Exception {
+        int rowNum = 0;
+        ColumnarDownSampler downSampler = new ColumnarDownSampler(timeWindow, filter, sampler.getColumnNames(), sampler.getUncollectedValue());
+        for (Result result : results) {
+            for (AgentStatColumns columns : this.rowMapper.mapRow(result, rowNum++)) {
+                downSampler.addColumns(columns);
+            }
+        }
+        List<S> sampledDataPoints = new ArrayList<>();
+        for (int slot = 0; slot < downSampler.getSlotCount(); slot++) {
+            if (downSampler.isSampled(slot)) {
+                sampledDataPoints.add(sampler.sampleColumns(slot, downSampler));
+            }
+        }
+        return sampledDataPoints;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat;
+
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.AgentStatRollupSampler;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.stat.AgentStatRollupDataPoint;
+import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Samples agent stat rollups read from one of the rollup tables. Rollup buckets are aligned to the time slots,
+ * so each bucket falls into exactly one slot. Each bucket is paired with its sample count, stored under
+ * {@link HBaseTables#AGENT_STAT_ROLLUP_CF_COUNT} keyed by the bucket timestamp.
+ */
+public class SampledAgentStatRollupResultExtractor<T extends JoinStatBo, S extends SampledAgentStatDataPoint> implements ResultsExtractor<List<S>> {
+
+    private final TimeWindow timeWindow;
+    private final ApplicationStatMapper rowMapper;
+    private final AgentStatRollupSampler<T, S> sampler;
+
+    public SampledAgentStatRollupResultExtractor(TimeWindow timeWindow, ApplicationStatMapper rowMapper, AgentStatRollupSampler<T, S> sampler) {
+        if (timeWindow.getWindowRangeCount() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("range yields too many timeslots");
+        }
+        this.timeWindow = timeWindow;
+        this.rowMapper = Objects.requireNonNull(rowMapper, "rowMapper must not be null");
+        this.sampler = Objects.requireNonNull(sampler, "sampler must not be null");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<S> extractData(ResultScanner results) throws Exception {
+        int rowNum = 0;
+        SortedMap<Long, List<AgentStatRollupDataPoint<T>>> slots = new TreeMap<>();
+        for (Result result : results) {
+            Map<Long, Integer> sampleCounts = readSampleCounts(result);
+            for (JoinStatBo rollup : this.rowMapper.mapRow(result, rowNum++)) {
+                long timeslotTimestamp = timeWindow.refineTimestamp(rollup.getTimestamp());
+                int sampleCount = sampleCounts.getOrDefault(rollup.getTimestamp(), 1);
+                slots.computeIfAbsent(timeslotTimestamp, k -> new ArrayList<>()).add(new AgentStatRollupDataPoint<>((T) rollup, sampleCount));
+            }
+        }
+        List<S> sampledDataPoints = new ArrayList<>(slots.size());
+        for (Map.Entry<Long, List<AgentStatRollupDataPoint<T>>> slot : slots.entrySet()) {
+            sampledDataPoints.add(sampler.sampleRollups(slot.getKey(), slot.getValue()));
+        }
+        return sampledDataPoints;
+    }
+
+    private Map<Long, Integer> readSampleCounts(Result result) {
+        Map<byte[], byte[]> countCells = result.getFamilyMap(HBaseTables.AGENT_STAT_ROLLUP_CF_COUNT);
+        if (countCells == null) {
+            return new HashMap<>();
+        }
+        Map<Long, Integer> sampleCounts = new HashMap<>(countCells.size());
+        for (Map.Entry<byte[], byte[]> countCell : countCells.entrySet()) {
+            sampleCounts.put(Bytes.toLong(countCell.getKey()), Bytes.toInt(countCell.getValue()));
+        }
+        return sampleCounts;
+    }
+}
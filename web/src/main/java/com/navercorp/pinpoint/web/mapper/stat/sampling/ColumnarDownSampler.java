@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling;
+
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
+import com.navercorp.pinpoint.web.mapper.TimestampFilter;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Down samples {@link AgentStatColumns} into per-timeslot min/max/sum/count accumulators held in primitive arrays.
+ * <p>
+ * Mirrors {@link EagerSamplingHandler}: when data points from several agent runs fall into the same timeslot,
+ * only the points of the latest run (largest start timestamp) are kept. Values equal to the uncollected value
+ * are excluded from the statistics but still mark the timeslot as sampled.
+ */
+public class ColumnarDownSampler {
+
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final TimeWindow timeWindow;
+    private final TimestampFilter filter;
+    private final String[] columnNames;
+    private final double uncollectedValue;
+
+    private final int slotCount;
+    private final long[] slotStartTimestamps;
+    private final int[][] counts;
+    private final double[][] mins;
+    private final double[][] maxs;
+    private final double[][] sums;
+
+    public ColumnarDownSampler(TimeWindow timeWindow, TimestampFilter filter, String[] columnNames, double uncollectedValue) {
+        this.timeWindow = Objects.requireNonNull(timeWindow, "timeWindow must not be null");
+        this.filter = Objects.requireNonNull(filter, "filter must not be null");
+        this.columnNames = Objects.requireNonNull(columnNames, "columnNames must not be null");
+        this.uncollectedValue = uncollectedValue;
+
+        // data points up to one slot past the window range are scanned, hence the extra slot
+        this.slotCount = (int) timeWindow.getWindowRangeCount() + 1;
+        this.slotStartTimestamps = new long[slotCount];
+        Arrays.fill(this.slotStartTimestamps, NOT_SAMPLED);
+        final int columnCount = columnNames.length;
+        this.counts = new int[columnCount][slotCount];
+        this.mins = new double[columnCount][slotCount];
+        this.maxs = new double[columnCount][slotCount];
+        this.sums = new double[columnCount][slotCount];
+    }
+
+    public void addColumns(AgentStatColumns columns) {
+        final int size = columns.size();
+        final long[] startTimestamps = columns.getStartTimestamps();
+        final long[] timestamps = columns.getTimestamps();
+
+        // resolve the timeslot of every data point, resetting slots taken over by a newer agent run
+        final int[] slots = new int[size];
+        for (int i = 0; i < size; i++) {
+            final long timestamp = timestamps[i];
+            if (filter.filter(timestamp)) {
+                slots[i] = -1;
+                continue;
+            }
+            final int slot = timeWindow.getWindowIndex(timeWindow.refineTimestamp(timestamp));
+            if (slot < 0 || slot >= slotCount) {
+                slots[i] = -1;
+                continue;
+            }
+            slots[i] = slot;
+            if (startTimestamps[i] > slotStartTimestamps[slot]) {
+                resetSlot(slot, startTimestamps[i]);
+            }
+        }
+        // drop data points superseded by a newer agent run
+        for (int i = 0; i < size; i++) {
+            final int slot = slots[i];
+            if (slot != -1 && startTimestamps[i] != slotStartTimestamps[slot]) {
+                slots[i] = -1;
+            }
+        }
+
+        for (int column = 0; column < columnNames.length; column++) {
+            accumulate(column, slots, columns.getDoubleColumn(columnNames[column]));
+        }
+    }
+
+    private void resetSlot(int slot, long startTimestamp) {
+        slotStartTimestamps[slot] = startTimestamp;
+        for (int column = 0; column < columnNames.length; column++) {
+            counts[column][slot] = 0;
+            sums[column][slot] = 0;
+        }
+    }
+
+    private void accumulate(int column, int[] slots, double[] values) {
+        final int[] count = this.counts[column];
+        final double[] min = this.mins[column];
+        final double[] max = this.maxs[column];
+        final double[] sum = this.sums[column];
+        for (int i = 0; i < values.length; i++) {
+            final int slot = slots[i];
+            final double value = values[i];
+            if (slot == -1 || value == uncollectedValue) {
+                continue;
+            }
+            if (count[slot] == 0) {
+                min[slot] = value;
+                max[slot] = value;
+            } else {
+                min[slot] = Math.min(min[slot], value);
+                max[slot] = Math.max(max[slot], value);
+            }
+            sum[slot] += value;
+            count[slot]++;
+        }
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public boolean isSampled(int slot) {
+        return slotStartTimestamps[slot] != NOT_SAMPLED;
+    }
+
+    public long getTimeslotTimestamp(int slot) {
+        return timeWindow.getWindowRange().getFrom() + slot * timeWindow.getWindowSlotSize();
+    }
+
+    public int getCount(int column, int slot) {
+        return counts[column][slot];
+    }
+
+    public double getMin(int column, int slot) {
+        return mins[column][slot];
+    }
+
+    public double getMax(int column, int slot) {
+        return maxs[column][slot];
+    }
+
+    public double getSum(int column, int slot) {
+        return sums[column][slot];
+    }
+
+    public double getAvg(int column, int slot) {
+        return sums[column][slot] / counts[column][slot];
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.web.mapper.stat.sampling.ColumnarDownSampler;
+import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
+
+/**
+ * Builds sampled data points from the primitive accumulators of a {@link ColumnarDownSampler}.
+ * Column indexes passed to the down sampler follow the order of {@link #getColumnNames()}.
+ */
+public interface AgentStatColumnSampler<S extends SampledAgentStatDataPoint> {
+
+    String[] getColumnNames();
+
+    double getUncollectedValue();
+
+    S sampleColumns(int slot, ColumnarDownSampler downSampler);
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+import com.navercorp.pinpoint.web.vo.stat.AgentStatRollupDataPoint;
+import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
+
+import java.util.List;
+
+/**
+ * Samples pre-computed agent stat rollups falling into a single time slot.
+ * Averages must be weighted by the sample count of each rollup, as buckets may be rolled up from a different number of samples.
+ */
+public interface AgentStatRollupSampler<T extends JoinStatBo, S extends SampledAgentStatDataPoint> {
+
+    S sampleRollups(long timestamp, List<AgentStatRollupDataPoint<T>> rollups);
+}
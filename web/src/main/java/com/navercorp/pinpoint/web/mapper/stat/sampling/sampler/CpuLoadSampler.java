@@ -16,13 +16,19 @@
 
 package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
 
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.CpuLoadCodecV2;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinCpuLoadBo;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.ColumnarDownSampler;
+import com.navercorp.pinpoint.web.vo.stat.AgentStatRollupDataPoint;
 import com.navercorp.pinpoint.web.vo.stat.chart.DownSampler;
 import com.navercorp.pinpoint.web.vo.stat.chart.DownSamplers;
 import com.navercorp.pinpoint.web.vo.stat.SampledCpuLoad;
 import com.navercorp.pinpoint.web.vo.stat.chart.agent.AgentStatPoint;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.ToDoubleFunction;
@@ -31,7 +37,11 @@ import java.util.function.ToDoubleFunction;
  * @author HyunGil Jeong
  */
 @Component
-public class CpuLoadSampler implements AgentStatSampler<CpuLoadBo, SampledCpuLoad> {
+public class CpuLoadSampler implements AgentStatSampler<CpuLoadBo, SampledCpuLoad>, AgentStatColumnSampler<SampledCpuLoad>, AgentStatRollupSampler<JoinCpuLoadBo, SampledCpuLoad> {
+
+    private static final String[] COLUMN_NAMES = {CpuLoadCodecV2.JVM_CPU_LOAD_COLUMN, CpuLoadCodecV2.SYSTEM_CPU_LOAD_COLUMN};
+    private static final int JVM_CPU_LOAD_COLUMN_INDEX = 0;
+    private static final int SYSTEM_CPU_LOAD_COLUMN_INDEX = 1;
 
     private static final int NUM_DECIMAL_PLACES = 1;
     private static final DownSampler<Double> DOUBLE_DOWN_SAMPLER = DownSamplers.getDoubleDownSampler(SampledCpuLoad.UNCOLLECTED_PERCENTAGE, NUM_DECIMAL_PLACES);
@@ -45,6 +55,75 @@ public class CpuLoadSampler implements AgentStatSampler<CpuLoadBo, SampledCpuLoa
         return sampledCpuLoad;
     }
 
+    @Override
+    public String[] getColumnNames() {
+        return COLUMN_NAMES.clone();
+    }
+
+    @Override
+    public double getUncollectedValue() {
+        return CpuLoadBo.UNCOLLECTED_VALUE;
+    }
+
+    @Override
+    public SampledCpuLoad sampleColumns(int slot, ColumnarDownSampler downSampler) {
+        final long timestamp = downSampler.getTimeslotTimestamp(slot);
+        final AgentStatPoint<Double> jvmCpuLoad = createPoint(timestamp, downSampler, JVM_CPU_LOAD_COLUMN_INDEX, slot);
+        final AgentStatPoint<Double> systemCpuLoad = createPoint(timestamp, downSampler, SYSTEM_CPU_LOAD_COLUMN_INDEX, slot);
+        return new SampledCpuLoad(jvmCpuLoad, systemCpuLoad);
+    }
+
+    private AgentStatPoint<Double> createPoint(long timestamp, ColumnarDownSampler downSampler, int column, int slot) {
+        if (downSampler.getCount(column, slot) == 0) {
+            return SampledCpuLoad.UNCOLLECTED_POINT_CREATOR.createUnCollectedPoint(timestamp);
+        }
+        return new AgentStatPoint<>(
+                timestamp,
+                roundToScale(downSampler.getMin(column, slot) * 100),
+                roundToScale(downSampler.getMax(column, slot) * 100),
+                roundToScale(downSampler.getAvg(column, slot) * 100),
+                downSampler.getSum(column, slot) * 100);
+    }
+
+    @Override
+    public SampledCpuLoad sampleRollups(long timestamp, List<AgentStatRollupDataPoint<JoinCpuLoadBo>> rollups) {
+        final AgentStatPoint<Double> jvmCpuLoad = createRollupPoint(timestamp, rollups, JoinCpuLoadBo::getMinJvmCpuLoad, JoinCpuLoadBo::getMaxJvmCpuLoad, JoinCpuLoadBo::getJvmCpuLoad);
+        final AgentStatPoint<Double> systemCpuLoad = createRollupPoint(timestamp, rollups, JoinCpuLoadBo::getMinSystemCpuLoad, JoinCpuLoadBo::getMaxSystemCpuLoad, JoinCpuLoadBo::getSystemCpuLoad);
+        return new SampledCpuLoad(jvmCpuLoad, systemCpuLoad);
+    }
+
+    private AgentStatPoint<Double> createRollupPoint(long timestamp, List<AgentStatRollupDataPoint<JoinCpuLoadBo>> rollups, ToDoubleFunction<JoinCpuLoadBo> minFunction,
+                                                     ToDoubleFunction<JoinCpuLoadBo> maxFunction, ToDoubleFunction<JoinCpuLoadBo> avgFunction) {
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        double sum = 0;
+        long sampleCount = 0;
+        for (AgentStatRollupDataPoint<JoinCpuLoadBo> rollup : rollups) {
+            final JoinCpuLoadBo joinCpuLoadBo = rollup.getDataPoint();
+            final double avg = avgFunction.applyAsDouble(joinCpuLoadBo);
+            if (avg == JoinCpuLoadBo.UNCOLLECTED_VALUE) {
+                continue;
+            }
+            min = Math.min(min, minFunction.applyAsDouble(joinCpuLoadBo));
+            max = Math.max(max, maxFunction.applyAsDouble(joinCpuLoadBo));
+            sum += avg * rollup.getSampleCount();
+            sampleCount += rollup.getSampleCount();
+        }
+        if (sampleCount == 0) {
+            return SampledCpuLoad.UNCOLLECTED_POINT_CREATOR.createUnCollectedPoint(timestamp);
+        }
+        return new AgentStatPoint<>(
+                timestamp,
+                roundToScale(min * 100),
+                roundToScale(max * 100),
+                roundToScale(sum / sampleCount * 100),
+                sum * 100);
+    }
+
+    private double roundToScale(double value) {
+        return BigDecimal.valueOf(value).setScale(NUM_DECIMAL_PLACES, RoundingMode.HALF_UP).doubleValue();
+    }
+
     private AgentStatPoint<Double> newAgentStatPoint(long timestamp, List<CpuLoadBo> dataPoints, ToDoubleFunction<CpuLoadBo> filter) {
         List<Double> jvmCpuLoads = filter(dataPoints, filter);
         return createPoint(timestamp, jvmCpuLoads);
@@ -17,6 +17,8 @@
 package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
 
 import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinResponseTimeBo;
+import com.navercorp.pinpoint.web.vo.stat.AgentStatRollupDataPoint;
 import com.navercorp.pinpoint.web.vo.stat.SampledResponseTime;
 import com.navercorp.pinpoint.web.vo.stat.chart.DownSampler;
 import com.navercorp.pinpoint.web.vo.stat.chart.DownSamplers;
@@ -30,7 +32,7 @@ import java.util.List;
  * @author Taejin Koo
  */
 @Component
-public class ResponseTimeSampler implements AgentStatSampler<ResponseTimeBo, SampledResponseTime> {
+public class ResponseTimeSampler implements AgentStatSampler<ResponseTimeBo, SampledResponseTime>, AgentStatRollupSampler<JoinResponseTimeBo, SampledResponseTime> {
 
     private static final DownSampler<Long> LONG_DOWN_SAMPLER = DownSamplers.getLongDownSampler(SampledResponseTime.UNCOLLECTED_RESPONSE_TIME);
 
@@ -43,6 +45,29 @@ public class ResponseTimeSampler implements AgentStatSampler<ResponseTimeBo, Sam
         return sampledResponseTime;
     }
 
+    @Override
+    public SampledResponseTime sampleRollups(long timestamp, List<AgentStatRollupDataPoint<JoinResponseTimeBo>> rollups) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long sum = 0;
+        long sampleCount = 0;
+        for (AgentStatRollupDataPoint<JoinResponseTimeBo> rollup : rollups) {
+            final JoinResponseTimeBo joinResponseTimeBo = rollup.getDataPoint();
+            if (joinResponseTimeBo.getAvg() == JoinResponseTimeBo.UNCOLLECTED_VALUE) {
+                continue;
+            }
+            min = Math.min(min, joinResponseTimeBo.getMinAvg());
+            max = Math.max(max, joinResponseTimeBo.getMaxAvg());
+            sum += joinResponseTimeBo.getAvg() * rollup.getSampleCount();
+            sampleCount += rollup.getSampleCount();
+        }
+        if (sampleCount == 0) {
+            return new SampledResponseTime(SampledResponseTime.UNCOLLECTED_POINT_CREATOR.createUnCollectedPoint(timestamp));
+        }
+        AgentStatPoint<Long> avg = new AgentStatPoint<>(timestamp, min, max, (double) sum / sampleCount, sum);
+        return new SampledResponseTime(avg);
+    }
+
     private List<Long> getAvg(List<ResponseTimeBo> dataPoints) {
         List<Long> avgs = new ArrayList<>(dataPoints.size());
         for (ResponseTimeBo responseTimeBo : dataPoints) {
@@ -17,31 +17,57 @@ package com.navercorp.pinpoint.web.scatter;
 
 import com.navercorp.pinpoint.web.vo.scatter.DotAgentInfo;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
+ * Dictionary of {@link DotAgentInfo}. Index is assigned in insertion order.
+ *
  * @author Taejin Koo
  */
 public class ScatterAgentMetadataRepository {
 
-    private final Set<DotAgentInfo> dotAgentInfoSet = new HashSet<>();
+    private final Map<DotAgentInfo, Integer> dotAgentInfoMap = new LinkedHashMap<>();
+    private final List<DotAgentInfo> dotAgentInfoList = new ArrayList<>();
 
-    void addDotAgentInfo(DotAgentInfo dotAgentInfo) {
-        if (!dotAgentInfoSet.contains(dotAgentInfo)) {
-            dotAgentInfoSet.add(dotAgentInfo);
+    int addDotAgentInfo(DotAgentInfo dotAgentInfo) {
+        Integer index = dotAgentInfoMap.get(dotAgentInfo);
+        if (index == null) {
+            index = dotAgentInfoList.size();
+            dotAgentInfoList.add(dotAgentInfo);
+            dotAgentInfoMap.put(dotAgentInfo, index);
         }
+        return index;
+    }
+
+    DotAgentInfo getDotAgentInfo(int index) {
+        return dotAgentInfoList.get(index);
+    }
+
+    int size() {
+        return dotAgentInfoList.size();
     }
 
-    void merge(ScatterAgentMetadataRepository scatterAgentMetadataRepository) {
-        Set<DotAgentInfo> dotAgentInfoSet = scatterAgentMetadataRepository.getDotAgentInfoSet();
-        for (DotAgentInfo dotAgentInfo : dotAgentInfoSet) {
-            addDotAgentInfo(dotAgentInfo);
+    /**
+     * @return index of the given repository's entries in this repository
+     */
+    int[] merge(ScatterAgentMetadataRepository scatterAgentMetadataRepository) {
+        final int size = scatterAgentMetadataRepository.size();
+        final int[] indexMapping = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexMapping[i] = addDotAgentInfo(scatterAgentMetadataRepository.getDotAgentInfo(i));
         }
+        return indexMapping;
     }
 
+    /**
+     * @return dotAgentInfo set ordered by index
+     */
     public Set<DotAgentInfo> getDotAgentInfoSet() {
-        return dotAgentInfoSet;
+        return dotAgentInfoMap.keySet();
     }
 
 
@@ -15,7 +15,8 @@
 
 package com.navercorp.pinpoint.web.scatter;
 
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -23,23 +24,39 @@ import java.util.Map;
 import java.util.TreeMap;
 
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.view.ScatterDataSerializer;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
 import com.navercorp.pinpoint.web.vo.scatter.DotAgentInfo;
 
 /**
+ * Dots are stored column by column in primitive arrays. agent information is kept once in
+ * {@link ScatterAgentMetadataRepository} and referenced by index.
+ *
  * @author Taejin Koo
  */
 @JsonSerialize(using = ScatterDataSerializer.class)
 public class ScatterData {
 
+    private static final int DEFAULT_CAPACITY = 16;
+
     private final long from;
     private final long to;
     private final int xGroupUnitMillis;
     private final int yGroupUnitMillis;
 
     private final ScatterAgentMetadataRepository scatterAgentMetadataRepository = new ScatterAgentMetadataRepository();
-    private final Map<Long, DotGroups> scatterData = new HashMap<>();
+
+    // acceptedTime - from
+    private long[] acceptedTimeDiffs = new long[DEFAULT_CAPACITY];
+    private int[] elapsedTimes = new int[DEFAULT_CAPACITY];
+    private int[] agentInfoIndexes = new int[DEFAULT_CAPACITY];
+    private long[] transactionSequences = new long[DEFAULT_CAPACITY];
+    private final BitSet failedStates = new BitSet();
+    private int dotSize = 0;
+
+    // dots read from the trace index arrive in descending order of acceptedTime
+    private boolean descending = true;
 
     private long oldestAcceptedTime = Long.MAX_VALUE;
     private long latestAcceptedTime = Long.MIN_VALUE;
@@ -69,15 +86,10 @@ public class ScatterData {
             return;
         }
 
-        long acceptedTimeDiff = dot.getAcceptedTime() - from;
-        long x = acceptedTimeDiff - (acceptedTimeDiff  % xGroupUnitMillis);
-        if (x < 0) {
-            x = 0L;
-        }
-        int y = dot.getElapsedTime() - (dot.getElapsedTime() % yGroupUnitMillis);
-
-        Coordinates coordinates = new Coordinates(x, y);
-        addDot(coordinates, new Dot(dot.getTransactionId(), acceptedTimeDiff, dot.getElapsedTime(), dot.getExceptionCode(), dot.getAgentId()));
+        final long acceptedTimeDiff = dot.getAcceptedTime() - from;
+        final int agentInfoIndex = scatterAgentMetadataRepository.addDotAgentInfo(new DotAgentInfo(dot));
+        final boolean failed = dot.getSimpleExceptionCode() == Dot.FAILED_STATE;
+        addDot(acceptedTimeDiff, dot.getElapsedTime(), agentInfoIndex, dot.getTransactionId().getTransactionSequence(), failed);
 
         if (oldestAcceptedTime > dot.getAcceptedTime()) {
             oldestAcceptedTime = dot.getAcceptedTime();
@@ -88,16 +100,33 @@ public class ScatterData {
         }
     }
 
-    private void addDot(Coordinates coordinates, Dot dot) {
-        DotGroups dotGroups = scatterData.get(coordinates.getX());
-        if (dotGroups == null) {
-            dotGroups = new DotGroups(coordinates.getX());
-            scatterData.put(coordinates.getX(), dotGroups);
-        }
+    private void addDot(long acceptedTimeDiff, int elapsedTime, int agentInfoIndex, long transactionSequence, boolean failed) {
+        ensureCapacity(dotSize + 1);
 
-        dotGroups.addDot(coordinates, dot);
+        final int index = dotSize;
+        if (index > 0 && acceptedTimeDiffs[index - 1] < acceptedTimeDiff) {
+            descending = false;
+        }
+        acceptedTimeDiffs[index] = acceptedTimeDiff;
+        elapsedTimes[index] = elapsedTime;
+        agentInfoIndexes[index] = agentInfoIndex;
+        transactionSequences[index] = transactionSequence;
+        if (failed) {
+            failedStates.set(index);
+        }
+        dotSize++;
+    }
 
-        scatterAgentMetadataRepository.addDotAgentInfo(new DotAgentInfo(dot));
+    private void ensureCapacity(int minCapacity) {
+        final int capacity = acceptedTimeDiffs.length;
+        if (minCapacity <= capacity) {
+            return;
+        }
+        final int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        acceptedTimeDiffs = Arrays.copyOf(acceptedTimeDiffs, newCapacity);
+        elapsedTimes = Arrays.copyOf(elapsedTimes, newCapacity);
+        agentInfoIndexes = Arrays.copyOf(agentInfoIndexes, newCapacity);
+        transactionSequences = Arrays.copyOf(transactionSequences, newCapacity);
     }
 
     public void merge(ScatterData scatterData) {
@@ -105,20 +134,13 @@ public class ScatterData {
             return;
         }
 
-        Map<Long, DotGroups> scatterDataMap = scatterData.getScatterDataMap();
-        for (Map.Entry<Long, DotGroups> entry : scatterDataMap.entrySet()) {
-            Long key = entry.getKey();
-
-            DotGroups dotGroups = this.scatterData.get(key);
-            if (dotGroups == null) {
-                this.scatterData.put(key, entry.getValue());
-            } else {
-                dotGroups.merge(entry.getValue());
-            }
+        final int[] agentInfoIndexMapping = scatterAgentMetadataRepository.merge(scatterData.getScatterAgentMetadataRepository());
+        ensureCapacity(dotSize + scatterData.dotSize);
+        for (int i = 0; i < scatterData.dotSize; i++) {
+            final int agentInfoIndex = agentInfoIndexMapping[scatterData.agentInfoIndexes[i]];
+            addDot(scatterData.acceptedTimeDiffs[i], scatterData.elapsedTimes[i], agentInfoIndex, scatterData.transactionSequences[i], scatterData.failedStates.get(i));
         }
 
-        scatterAgentMetadataRepository.merge(scatterData.getScatterAgentMetadataRepository());
-
         if (oldestAcceptedTime > scatterData.getOldestAcceptedTime()) {
             oldestAcceptedTime = scatterData.getOldestAcceptedTime();
         }
@@ -132,34 +154,168 @@ public class ScatterData {
         return scatterAgentMetadataRepository;
     }
 
+    /**
+     * id of agent metadata is {@link #getAgentInfoIndex(int)} + 1
+     */
     public ScatterAgentMetaData getScatterAgentMetadata() {
         return new ScatterAgentMetaData(scatterAgentMetadataRepository);
     }
 
+    public long getAcceptedTimeDiff(int index) {
+        return acceptedTimeDiffs[index];
+    }
+
+    public int getElapsedTime(int index) {
+        return elapsedTimes[index];
+    }
+
+    public int getAgentInfoIndex(int index) {
+        return agentInfoIndexes[index];
+    }
+
+    public long getTransactionSequence(int index) {
+        return transactionSequences[index];
+    }
+
+    public int getSimpleExceptionCode(int index) {
+        if (failedStates.get(index)) {
+            return Dot.FAILED_STATE;
+        }
+        return Dot.SUCCESS_STATE;
+    }
+
+    private long getXCoordinates(int index) {
+        final long acceptedTimeDiff = acceptedTimeDiffs[index];
+        final long x = acceptedTimeDiff - (acceptedTimeDiff % xGroupUnitMillis);
+        if (x < 0) {
+            return 0L;
+        }
+        return x;
+    }
+
+    private int getYCoordinates(int index) {
+        final int elapsedTime = elapsedTimes[index];
+        return elapsedTime - (elapsedTime % yGroupUnitMillis);
+    }
+
+    /**
+     * @return index of dots in descending order of acceptedTime, which is also descending order of x coordinates
+     */
+    public int[] getSortedDotIndexes() {
+        final int[] sortedIndexes = new int[dotSize];
+        for (int i = 0; i < dotSize; i++) {
+            sortedIndexes[i] = i;
+        }
+        if (!descending) {
+            sortByAcceptedTimeDesc(sortedIndexes);
+        }
+        return sortedIndexes;
+    }
+
+    /**
+     * Dots with the same x, y coordinates and state are grouped. The first dot added to a group is its leader.
+     *
+     * @param sortedIndexes result of {@link #getSortedDotIndexes()}
+     * @return dot count of the group for leaders, 0 for the others. indexed by dot index
+     */
+    public int[] getDotThicknesses(int[] sortedIndexes) {
+        final int[] thicknesses = new int[dotSize];
+        // key : y coordinates and state, value : leader index in the current x coordinates
+        final Map<Long, Integer> leaderMap = new HashMap<>();
+
+        long currentX = Long.MIN_VALUE;
+        for (int index : sortedIndexes) {
+            final long x = getXCoordinates(index);
+            if (x != currentX) {
+                currentX = x;
+                leaderMap.clear();
+            }
+
+            final long groupKey = ((long) getYCoordinates(index) << 1) | (failedStates.get(index) ? 1 : 0);
+            final Integer leader = leaderMap.get(groupKey);
+            if (leader == null) {
+                leaderMap.put(groupKey, index);
+                thicknesses[index] = 1;
+            } else if (index < leader) {
+                thicknesses[index] = thicknesses[leader] + 1;
+                thicknesses[leader] = 0;
+                leaderMap.put(groupKey, index);
+            } else {
+                thicknesses[leader]++;
+            }
+        }
+        return thicknesses;
+    }
+
+    private void sortByAcceptedTimeDesc(int[] indexes) {
+        // bottom-up merge sort, stable for the same acceptedTime
+        int[] src = indexes;
+        int[] dest = new int[indexes.length];
+        for (int width = 1; width < indexes.length; width <<= 1) {
+            for (int left = 0; left < indexes.length; left += width << 1) {
+                final int mid = Math.min(left + width, indexes.length);
+                final int right = Math.min(left + (width << 1), indexes.length);
+                int i = left;
+                int j = mid;
+                int k = left;
+                while (i < mid && j < right) {
+                    if (acceptedTimeDiffs[src[i]] >= acceptedTimeDiffs[src[j]]) {
+                        dest[k++] = src[i++];
+                    } else {
+                        dest[k++] = src[j++];
+                    }
+                }
+                while (i < mid) {
+                    dest[k++] = src[i++];
+                }
+                while (j < right) {
+                    dest[k++] = src[j++];
+                }
+            }
+            final int[] temp = src;
+            src = dest;
+            dest = temp;
+        }
+        if (src != indexes) {
+            System.arraycopy(src, 0, indexes, 0, indexes.length);
+        }
+    }
+
+    Dot getDot(int index) {
+        final DotAgentInfo dotAgentInfo = scatterAgentMetadataRepository.getDotAgentInfo(agentInfoIndexes[index]);
+        final TransactionId transactionId = new TransactionId(dotAgentInfo.getTransactionAgentId(), dotAgentInfo.getTransactionAgentStartTime(), transactionSequences[index]);
+        final int exceptionCode = failedStates.get(index) ? 1 : Dot.EXCEPTION_NONE;
+        return new Dot(transactionId, acceptedTimeDiffs[index], elapsedTimes[index], exceptionCode, dotAgentInfo.getAgentId());
+    }
+
+    /**
+     * creates {@link DotGroups} view of the dots. prefer {@link #getSortedDotIndexes()} for large data
+     */
     public Map<Long, DotGroups> getScatterDataMap() {
+        final Map<Long, DotGroups> scatterData = new HashMap<>();
+        for (int index = 0; index < dotSize; index++) {
+            final long x = getXCoordinates(index);
+            DotGroups dotGroups = scatterData.get(x);
+            if (dotGroups == null) {
+                dotGroups = new DotGroups(x);
+                scatterData.put(x, dotGroups);
+            }
+            final Coordinates coordinates = new Coordinates(x, getYCoordinates(index));
+            dotGroups.addDot(coordinates, getDot(index));
+        }
         return scatterData;
     }
 
     public Map<Long, DotGroups> getSortedScatterDataMap() {
         TreeMap<Long, DotGroups> sortedMap = new TreeMap<>(new XCoordinatesComparator());
-        sortedMap.putAll(scatterData);
+        sortedMap.putAll(getScatterDataMap());
 
         return sortedMap;
     }
 
     public int getDotSize() {
-        int totalDotSize = 0;
-
-        Collection<DotGroups> dotGroupsList = scatterData.values();
-        for (DotGroups dotGroups : dotGroupsList) {
-            Collection<DotGroup> dotGroupList = dotGroups.getDotGroupMap().values();
-            for (DotGroup dotGroup : dotGroupList) {
-                totalDotSize += dotGroup.getDotSize();
-            }
-        }
-        return totalDotSize;
+        return dotSize;
     }
-
     public long getFrom() {
         return from;
     }
@@ -67,6 +67,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * @author netspider
@@ -100,6 +101,9 @@ public class FilteredMapServiceImpl implements FilteredMapService {
     @Autowired
     private ApplicationMapBuilderFactory applicationMapBuilderFactory;
 
+    @Autowired
+    private TraceBatchFetcher traceBatchFetcher;
+
     private static final Object V = new Object();
 
     @Override
@@ -198,16 +202,6 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         return filteredResult;
     }
 
-    private List<List<SpanBo>> filterList2(List<List<SpanBo>> transactionList, Filter filter) {
-        final List<List<SpanBo>> filteredResult = new ArrayList<>();
-        for (List<SpanBo> transaction : transactionList) {
-            if (filter.include(transaction)) {
-                filteredResult.add(transaction);
-            }
-        }
-        return filteredResult;
-    }
-
     @Override
     public ApplicationMap selectApplicationMap(TransactionId transactionId, int version) {
         if (transactionId == null) {
@@ -235,10 +229,10 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         StopWatch watch = new StopWatch();
         watch.start();
 
-        final List<List<SpanBo>> filterList = selectFilteredSpan(transactionIdList, filter);
+        final FilteredMapBuilder filteredMapBuilder = selectFilteredMap(transactionIdList, originalRange, scanRange, filter, version);
 
-        DotExtractor dotExtractor = createDotExtractor(scanRange, filterList);
-        ApplicationMap map = createMap(originalRange, scanRange, filterList, version);
+        DotExtractor dotExtractor = filteredMapBuilder.getDotExtractor();
+        ApplicationMap map = filteredMapBuilder.build();
 
         ApplicationMapWithScatterScanResult applicationMapWithScatterScanResult = new ApplicationMapWithScatterScanResult(map, dotExtractor.getApplicationScatterScanResult());
 
@@ -260,10 +254,10 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         StopWatch watch = new StopWatch();
         watch.start();
 
-        final List<List<SpanBo>> filterList = selectFilteredSpan(transactionIdList, filter);
+        final FilteredMapBuilder filteredMapBuilder = selectFilteredMap(transactionIdList, originalRange, scanRange, filter, version);
 
-        DotExtractor dotExtractor = createDotExtractor(scanRange, filterList);
-        ApplicationMap map = createMap(originalRange, scanRange, filterList, version);
+        DotExtractor dotExtractor = filteredMapBuilder.getDotExtractor();
+        ApplicationMap map = filteredMapBuilder.build();
 
         ApplicationMapWithScatterData applicationMapWithScatterData = new ApplicationMapWithScatterData(map, dotExtractor.getApplicationScatterData(originalRange.getFrom(), originalRange.getTo(), xGroupUnit, yGroupUnit));
 
@@ -273,23 +267,50 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         return applicationMapWithScatterData;
     }
 
-    private List<List<SpanBo>> selectFilteredSpan(List<TransactionId> transactionIdList, Filter filter) {
+    private FilteredMapBuilder selectFilteredMap(List<TransactionId> transactionIdList, Range originalRange, Range scanRange, final Filter filter, int version) {
         // filters out recursive calls by looking at each objects
         // do not filter here if we change to a tree-based collision check in the future. 
         final List<TransactionId> recursiveFilterList = recursiveCallFilter(transactionIdList);
 
-        // FIXME might be better to simply traverse the List<Span> and create a process chain for execution
-        final List<List<SpanBo>> originalList = this.traceDao.selectAllSpans(recursiveFilterList);
-
-        return filterList2(originalList, filter);
+        final FilteredMapBuilder filteredMapBuilder = new FilteredMapBuilder(originalRange, scanRange, version);
+        // filter and accumulate each transaction as its batch arrives instead of holding every transaction in memory
+        traceBatchFetcher.fetch(recursiveFilterList, new Consumer<List<SpanBo>>() {
+            @Override
+            public void accept(List<SpanBo> transaction) {
+                if (filter.include(transaction)) {
+                    filteredMapBuilder.addTransaction(transaction);
+                }
+            }
+        });
+        return filteredMapBuilder;
     }
 
-    private DotExtractor createDotExtractor(Range scanRange, List<List<SpanBo>> filterList) {
-        final DotExtractor dotExtractor = new DotExtractor(scanRange, applicationFactory);
+    private class FilteredMapBuilder {
+
+        private final Range range;
+        private final int version;
+        private final TimeWindow window;
+        private final LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
+        private final ResponseHistogramBuilder mapHistogramSummary;
+        private final DotExtractor dotExtractor;
+
+        private FilteredMapBuilder(Range range, Range scanRange, int version) {
+            this.range = range;
+            this.version = version;
+            // TODO inject TimeWindow from elsewhere
+            this.window = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+            this.mapHistogramSummary = new ResponseHistogramBuilder(range);
+            this.dotExtractor = new DotExtractor(scanRange, applicationFactory);
+        }
+
+        private void addTransaction(List<SpanBo> transaction) {
+            addDot(transaction);
+            addLinkData(transaction);
+        }
 
-        for (List<SpanBo> transaction : filterList) {
+        private void addDot(List<SpanBo> transaction) {
             for (SpanBo span : transaction) {
-                final Application spanApplication = this.applicationFactory.createApplication(span.getApplicationId(), span.getApplicationServiceType());
+                final Application spanApplication = applicationFactory.createApplication(span.getApplicationId(), span.getApplicationServiceType());
                 if (!spanApplication.getServiceType().isRecordStatistics() || spanApplication.getServiceType().isRpcClient()) {
                     continue;
                 }
@@ -298,26 +319,15 @@ public class FilteredMapServiceImpl implements FilteredMapService {
             }
         }
 
-        return dotExtractor;
-    }
-
-    private ApplicationMap createMap(Range range, Range scanRange, List<List<SpanBo>> filterList, int version) {
-        // TODO inject TimeWindow from elsewhere
-        final TimeWindow window = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
-
-
-        final LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
-
-        final ResponseHistogramBuilder mapHistogramSummary = new ResponseHistogramBuilder(range);
         /*
          * Convert to statistical data
          */
-        for (List<SpanBo> transaction : filterList) {
+        private void addLinkData(List<SpanBo> transaction) {
             final Map<Long, SpanBo> transactionSpanMap = checkDuplicatedSpanId(transaction);
 
             for (SpanBo span : transaction) {
                 final Application parentApplication = createParentApplication(span, transactionSpanMap, version);
-                final Application spanApplication = this.applicationFactory.createApplication(span.getApplicationId(), span.getApplicationServiceType());
+                final Application spanApplication = applicationFactory.createApplication(span.getApplicationId(), span.getApplicationServiceType());
 
                 // records the Span's response time statistics
                 recordSpanResponseTime(spanApplication, span, mapHistogramSummary, span.getCollectorAcceptTime());
@@ -364,25 +374,31 @@ public class FilteredMapServiceImpl implements FilteredMapService {
             }
         }
 
-        mapHistogramSummary.build();
+        private DotExtractor getDotExtractor() {
+            return dotExtractor;
+        }
+
+        private ApplicationMap build() {
+            mapHistogramSummary.build();
+
+            WasNodeHistogramDataSource wasNodeHistogramDataSource = new ResponseHistogramBuilderNodeHistogramDataSource(mapHistogramSummary);
+            NodeHistogramFactory nodeHistogramFactory = new DefaultNodeHistogramFactory(wasNodeHistogramDataSource);
 
-        WasNodeHistogramDataSource wasNodeHistogramDataSource = new ResponseHistogramBuilderNodeHistogramDataSource(mapHistogramSummary);
-        NodeHistogramFactory nodeHistogramFactory = new DefaultNodeHistogramFactory(wasNodeHistogramDataSource);
+            ServerInstanceListDataSource serverInstanceListDataSource = new AgentInfoServerInstanceListDataSource(agentInfoService);
+            ServerInstanceListFactory serverInstanceListFactory = new DefaultServerInstanceListFactory(serverInstanceListDataSource);
 
-        ServerInstanceListDataSource serverInstanceListDataSource = new AgentInfoServerInstanceListDataSource(agentInfoService);
-        ServerInstanceListFactory serverInstanceListFactory = new DefaultServerInstanceListFactory(serverInstanceListDataSource);
+            ApplicationMapBuilder applicationMapBuilder = applicationMapBuilderFactory.createApplicationMapBuilder(range);
+            applicationMapBuilder.linkType(LinkType.DETAILED);
+            applicationMapBuilder.includeNodeHistogram(nodeHistogramFactory);
+            applicationMapBuilder.includeServerInfo(serverInstanceListFactory);
+            ApplicationMap map = applicationMapBuilder.build(linkDataDuplexMap);
 
-        ApplicationMapBuilder applicationMapBuilder = applicationMapBuilderFactory.createApplicationMapBuilder(range);
-        applicationMapBuilder.linkType(LinkType.DETAILED);
-        applicationMapBuilder.includeNodeHistogram(nodeHistogramFactory);
-        applicationMapBuilder.includeServerInfo(serverInstanceListFactory);
-        ApplicationMap map = applicationMapBuilder.build(linkDataDuplexMap);
+            if(serverMapDataFilter != null) {
+                map = serverMapDataFilter.dataFiltering(map);
+            }
 
-        if(serverMapDataFilter != null) {
-            map = serverMapDataFilter.dataFiltering(map);
+            return map;
         }
-        
-        return map;
     }
 
     private Map<Long, SpanBo> checkDuplicatedSpanId(List<SpanBo> transaction) {
@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.web.service;
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
 import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.service.map.cache.ApplicationMapDataCache;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,13 +37,22 @@ public class LinkDataMapServiceImpl implements LinkDataMapService {
     @Autowired
     private MapStatisticsCalleeDao mapStatisticsCalleeDao;
 
+    @Autowired
+    private ApplicationMapDataCache applicationMapDataCache;
+
     @Override
     public LinkDataMap selectCallerLinkDataMap(Application application, Range range) {
+        if (applicationMapDataCache.isEnable()) {
+            return applicationMapDataCache.selectCaller(application, range);
+        }
         return mapStatisticsCallerDao.selectCaller(application, range);
     }
 
     @Override
     public LinkDataMap selectCalleeLinkDataMap(Application application, Range range) {
+        if (applicationMapDataCache.isEnable()) {
+            return applicationMapDataCache.selectCallee(application, range);
+        }
         return mapStatisticsCalleeDao.selectCallee(application, range);
     }
 }
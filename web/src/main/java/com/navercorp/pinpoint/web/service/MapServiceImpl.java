@@ -36,6 +36,7 @@ import com.navercorp.pinpoint.web.service.map.processor.LinkDataMapProcessor;
 import com.navercorp.pinpoint.web.service.map.LinkSelector;
 import com.navercorp.pinpoint.web.service.map.LinkSelectorFactory;
 import com.navercorp.pinpoint.web.service.map.LinkSelectorType;
+import com.navercorp.pinpoint.web.service.map.cache.ApplicationMapDataCache;
 import com.navercorp.pinpoint.web.service.map.processor.WasOnlyProcessor;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
@@ -68,6 +69,9 @@ public class MapServiceImpl implements MapService {
     @Autowired
     private MapResponseDao mapResponseDao;
 
+    @Autowired
+    private ApplicationMapDataCache applicationMapDataCache;
+
     @Autowired
     private ApplicationFactory applicationFactory;
     
@@ -128,7 +132,11 @@ public class MapServiceImpl implements MapService {
         builder.nodeType(nodeType);
         builder.linkType(linkType);
 
-        WasNodeHistogramDataSource wasNodeHistogramDataSource = new MapResponseNodeHistogramDataSource(mapResponseDao);
+        MapResponseDao responseDao = mapResponseDao;
+        if (applicationMapDataCache.isEnable()) {
+            responseDao = applicationMapDataCache::selectResponseTime;
+        }
+        WasNodeHistogramDataSource wasNodeHistogramDataSource = new MapResponseNodeHistogramDataSource(responseDao);
         NodeHistogramFactory nodeHistogramFactory = new DefaultNodeHistogramFactory(wasNodeHistogramDataSource);
         builder.includeNodeHistogram(nodeHistogramFactory);
 
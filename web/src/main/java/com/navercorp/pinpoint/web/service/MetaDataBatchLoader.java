@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.util.AnnotationKeyUtils;
+import com.navercorp.pinpoint.common.util.IntStringStringValue;
+import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects every api, sql and string metadata id referenced by a call tree, and loads the ones missing from
+ * the metadata caches with batched multi-gets. Subsequent per-annotation lookups through the
+ * {@code @Cacheable} daos are then served from the cache.
+ */
+public class MetaDataBatchLoader {
+
+    static final String API_META_DATA_CACHE = "apiMetaData";
+    static final String SQL_META_DATA_CACHE = "sqlMetaData";
+    static final String STRING_META_DATA_CACHE = "stringMetaData";
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final CacheManager cacheManager;
+    private final ApiMetaDataDao apiMetaDataDao;
+    private final SqlMetaDataDao sqlMetaDataDao;
+    private final StringMetaDataDao stringMetaDataDao;
+    private final int batchSize;
+
+    public MetaDataBatchLoader(CacheManager cacheManager, ApiMetaDataDao apiMetaDataDao, SqlMetaDataDao sqlMetaDataDao, StringMetaDataDao stringMetaDataDao) {
+        this(cacheManager, apiMetaDataDao, sqlMetaDataDao, stringMetaDataDao, DEFAULT_BATCH_SIZE);
+    }
+
+    public MetaDataBatchLoader(CacheManager cacheManager, ApiMetaDataDao apiMetaDataDao, SqlMetaDataDao sqlMetaDataDao, StringMetaDataDao stringMetaDataDao, int batchSize) {
+        if (cacheManager == null) {
+            throw new NullPointerException("cacheManager must not be null");
+        }
+        if (apiMetaDataDao == null) {
+            throw new NullPointerException("apiMetaDataDao must not be null");
+        }
+        if (sqlMetaDataDao == null) {
+            throw new NullPointerException("sqlMetaDataDao must not be null");
+        }
+        if (stringMetaDataDao == null) {
+            throw new NullPointerException("stringMetaDataDao must not be null");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than 0");
+        }
+        this.cacheManager = cacheManager;
+        this.apiMetaDataDao = apiMetaDataDao;
+        this.sqlMetaDataDao = sqlMetaDataDao;
+        this.stringMetaDataDao = stringMetaDataDao;
+        this.batchSize = batchSize;
+    }
+
+    public void load(List<SpanAlign> spanAlignList) {
+        if (spanAlignList == null) {
+            throw new NullPointerException("spanAlignList must not be null");
+        }
+
+        final Set<MetaDataKey> apiKeySet = new LinkedHashSet<>();
+        final Set<MetaDataKey> sqlKeySet = new LinkedHashSet<>();
+        final Set<MetaDataKey> stringKeySet = new LinkedHashSet<>();
+        for (SpanAlign spanAlign : spanAlignList) {
+            final String agentId = spanAlign.getAgentId();
+            if (agentId == null) {
+                continue;
+            }
+            final long agentStartTime = spanAlign.getAgentStartTime();
+            apiKeySet.add(new MetaDataKey(agentId, agentStartTime, spanAlign.getApiId()));
+            if (spanAlign.hasException()) {
+                stringKeySet.add(new MetaDataKey(agentId, agentStartTime, spanAlign.getExceptionId()));
+            }
+
+            final List<AnnotationBo> annotationBoList = spanAlign.getAnnotationBoList();
+            if (annotationBoList == null) {
+                continue;
+            }
+            for (AnnotationBo annotationBo : annotationBoList) {
+                final int key = annotationBo.getKey();
+                final Object value = annotationBo.getValue();
+                if (key == AnnotationKey.SQL_ID.getCode() && value instanceof IntStringStringValue) {
+                    final int sqlId = ((IntStringStringValue) value).getIntValue();
+                    sqlKeySet.add(new MetaDataKey(agentId, agentStartTime, sqlId));
+                } else if (AnnotationKeyUtils.isCachedArgsKey(key) && value instanceof Integer) {
+                    stringKeySet.add(new MetaDataKey(agentId, agentStartTime, (Integer) value));
+                }
+            }
+        }
+
+        load(API_META_DATA_CACHE, apiKeySet, new MetaDataReader() {
+            @Override
+            public List<? extends List<?>> read(List<MetaDataKey> metaDataKeyList) {
+                return apiMetaDataDao.getApiMetaDataList(metaDataKeyList);
+            }
+        });
+        load(SQL_META_DATA_CACHE, sqlKeySet, new MetaDataReader() {
+            @Override
+            public List<? extends List<?>> read(List<MetaDataKey> metaDataKeyList) {
+                return sqlMetaDataDao.getSqlMetaDataList(metaDataKeyList);
+            }
+        });
+        load(STRING_META_DATA_CACHE, stringKeySet, new MetaDataReader() {
+            @Override
+            public List<? extends List<?>> read(List<MetaDataKey> metaDataKeyList) {
+                return stringMetaDataDao.getStringMetaDataList(metaDataKeyList);
+            }
+        });
+    }
+
+    private void load(String cacheName, Set<MetaDataKey> metaDataKeySet, MetaDataReader metaDataReader) {
+        if (metaDataKeySet.isEmpty()) {
+            return;
+        }
+        final Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            logger.warn("cache not found. cacheName:{}", cacheName);
+            return;
+        }
+
+        final List<MetaDataKey> missList = new ArrayList<>();
+        for (MetaDataKey metaDataKey : metaDataKeySet) {
+            if (cache.get(metaDataKey.toCacheKey()) == null) {
+                missList.add(metaDataKey);
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} batch load. hit:{} miss:{}", cacheName, metaDataKeySet.size() - missList.size(), missList.size());
+        }
+
+        for (int fromIndex = 0; fromIndex < missList.size(); fromIndex += batchSize) {
+            final int toIndex = Math.min(fromIndex + batchSize, missList.size());
+            final List<MetaDataKey> batch = missList.subList(fromIndex, toIndex);
+            final List<? extends List<?>> result = metaDataReader.read(batch);
+            if (result.size() != batch.size()) {
+                logger.warn("{} batch size mismatch. request:{} result:{}", cacheName, batch.size(), result.size());
+                continue;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                cache.put(batch.get(i).toCacheKey(), result.get(i));
+            }
+        }
+    }
+
+    private interface MetaDataReader {
+        List<? extends List<?>> read(List<MetaDataKey> metaDataKeyList);
+    }
+}
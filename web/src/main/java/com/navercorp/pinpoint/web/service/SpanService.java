@@ -23,4 +23,10 @@ import com.navercorp.pinpoint.common.util.TransactionId;
  */
 public interface SpanService {
     SpanResult selectSpan(TransactionId transactionId, long selectedSpanHint);
+
+    /**
+     * Same as {@link #selectSpan(TransactionId, long)} but only resolves the annotations of the span aligns
+     * making up the first {@code resolveLimit} records of the call stack, for when only part of the call stack is shown.
+     */
+    SpanResult selectSpan(TransactionId transactionId, long selectedSpanHint, int resolveLimit);
 }
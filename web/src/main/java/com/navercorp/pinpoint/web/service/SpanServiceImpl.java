@@ -77,6 +77,8 @@ public class SpanServiceImpl implements SpanService {
     @Autowired
     private StringMetaDataDao stringMetaDataDao;
 
+    private MetaDataBatchLoader metaDataBatchLoader;
+
     private final SqlParser sqlParser = new DefaultSqlParser();
     private final OutputParameterParser outputParameterParser = new OutputParameterParser();
 
@@ -84,11 +86,23 @@ public class SpanServiceImpl implements SpanService {
         this.sqlMetaDataDao = sqlMetaDataDao;
     }
 
+    public void setMetaDataBatchLoader(MetaDataBatchLoader metaDataBatchLoader) {
+        this.metaDataBatchLoader = metaDataBatchLoader;
+    }
+
     @Override
     public SpanResult selectSpan(TransactionId transactionId, long selectedSpanHint) {
+        return selectSpan(transactionId, selectedSpanHint, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public SpanResult selectSpan(TransactionId transactionId, long selectedSpanHint, int resolveLimit) {
         if (transactionId == null) {
             throw new NullPointerException("transactionId must not be null");
         }
+        if (resolveLimit < 0) {
+            throw new IllegalArgumentException("negative resolveLimit:" + resolveLimit);
+        }
 
         final List<SpanBo> spans = traceDao.selectSpan(transactionId);
         if (CollectionUtils.isEmpty(spans)) {
@@ -97,31 +111,60 @@ public class SpanServiceImpl implements SpanService {
 
         final SpanResult result = order(spans, selectedSpanHint);
         final CallTreeIterator callTreeIterator = result.getCallTree();
-        final List<SpanAlign> values = callTreeIterator.values();
-        
-        transitionDynamicApiId(values);
-        transitionSqlId(values);
-        transitionCachedString(values);
-        transitionException(values);
+        // only the span aligns that are going to be shown need their annotations resolved
+        final List<SpanAlign> values = selectRecordAligns(callTreeIterator.values(), resolveLimit);
+
+        if (metaDataBatchLoader != null) {
+            // warm up metadata caches with multi-gets instead of one get per annotation
+            metaDataBatchLoader.load(values);
+        }
+        transitionAnnotation(values);
         // TODO need to at least show the row data when root span is not found. 
         return result;
     }
 
 
 
-    private void transitionAnnotation(List<SpanAlign> spans, AnnotationReplacementCallback annotationReplacementCallback) {
+    /**
+     * returns the leading span aligns that make up the first {@code recordLimit} records of the call stack.
+     * A span align makes at least one record, unless its api is hidden by {@link MetaDataFilter} and it is not a span.
+     */
+    private List<SpanAlign> selectRecordAligns(List<SpanAlign> spanAligns, int recordLimit) {
+        if (spanAligns.size() <= recordLimit) {
+            return spanAligns;
+        }
+        int recordAlignCount = 0;
+        for (int i = 0; i < spanAligns.size(); i++) {
+            if (recordAlignCount >= recordLimit) {
+                return spanAligns.subList(0, i);
+            }
+            final SpanAlign spanAlign = spanAligns.get(i);
+            if (spanAlign.isSpan() || metaDataFilter == null || !metaDataFilter.filter(spanAlign, MetaData.API)) {
+                recordAlignCount++;
+            }
+        }
+        return spanAligns;
+    }
+
+    private void transitionAnnotation(List<SpanAlign> spans) {
+        // resolve every kind of annotation in a single pass so each span align is visited only once
+        final AnnotationReplacementCallback[] annotationReplacementCallbacks = {
+                dynamicApiIdReplacement(), sqlIdReplacement(), cachedStringReplacement(), exceptionReplacement()
+        };
         for (SpanAlign spanAlign : spans) {
             List<AnnotationBo> annotationBoList = spanAlign.getAnnotationBoList();
             if (annotationBoList == null) {
                 annotationBoList = new ArrayList<>();
                 spanAlign.setAnnotationBoList(annotationBoList);
             }
-            annotationReplacementCallback.replacement(spanAlign, annotationBoList);
+            for (AnnotationReplacementCallback annotationReplacementCallback : annotationReplacementCallbacks) {
+                annotationReplacementCallback.replacement(spanAlign, annotationBoList);
+            }
         }
     }
 
-    private void transitionSqlId(final List<SpanAlign> spans) {
-        this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
+    private AnnotationReplacementCallback sqlIdReplacement() {
+        return new AnnotationReplacementCallback() {
             @Override
             public void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList) {
                 AnnotationBo sqlIdAnnotation = findAnnotation(annotationBoList, AnnotationKey.SQL_ID.getCode());
@@ -202,7 +245,7 @@ public class SpanServiceImpl implements SpanService {
 
             }
 
-        });
+        };
     }
 
     private AnnotationBo findAnnotation(List<AnnotationBo> annotationBoList, int key) {
@@ -231,8 +274,8 @@ public class SpanServiceImpl implements SpanService {
     }
 
 
-    private void transitionDynamicApiId(List<SpanAlign> spans) {
-        this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
+    private AnnotationReplacementCallback dynamicApiIdReplacement() {
+        return new AnnotationReplacementCallback() {
             @Override
             public void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList) {
 
@@ -292,11 +335,11 @@ public class SpanServiceImpl implements SpanService {
 
             }
 
-        });
+        };
     }
 
-    private void transitionCachedString(List<SpanAlign> spans) {
-        this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
+    private AnnotationReplacementCallback cachedStringReplacement() {
+        return new AnnotationReplacementCallback() {
             @Override
             public void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList) {
 
@@ -330,7 +373,7 @@ public class SpanServiceImpl implements SpanService {
                 }
             }
 
-        });
+        };
     }
 
     private List<AnnotationBo> findCachedStringAnnotation(List<AnnotationBo> annotationBoList) {
@@ -343,14 +386,16 @@ public class SpanServiceImpl implements SpanService {
         return findAnnotationBoList;
     }
 
-    private void transitionException(List<SpanAlign> spanAlignList) {
-        for (SpanAlign spanAlign : spanAlignList) {
-            if (spanAlign.hasException()) {
-                StringMetaDataBo stringMetaData = selectStringMetaData(spanAlign.getAgentId(), spanAlign.getExceptionId(), spanAlign.getAgentStartTime());
-                spanAlign.setExceptionClass(stringMetaData.getStringValue());
+    private AnnotationReplacementCallback exceptionReplacement() {
+        return new AnnotationReplacementCallback() {
+            @Override
+            public void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList) {
+                if (spanAlign.hasException()) {
+                    StringMetaDataBo stringMetaData = selectStringMetaData(spanAlign.getAgentId(), spanAlign.getExceptionId(), spanAlign.getAgentStartTime());
+                    spanAlign.setExceptionClass(stringMetaData.getStringValue());
+                }
             }
-        }
-
+        };
     }
 
     private StringMetaDataBo selectStringMetaData(String agentId, int cacheId, long agentStartTime) {
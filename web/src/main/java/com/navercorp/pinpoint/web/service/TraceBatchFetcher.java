@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.google.common.collect.Lists;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.dao.TraceDao;
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fetches transactions in batches and hands them over one by one, so that only a bounded number of batches is held in memory.
+ * In parallel mode, up to maxThreads batches are fetched ahead while the caller consumes the current one.
+ */
+@Component
+public class TraceBatchFetcher {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TraceDao traceDao;
+    private final int batchSize;
+    private final int maxThreads;
+    private final ExecutorService executorService;
+
+    @Autowired
+    public TraceBatchFetcher(
+            @Qualifier("hbaseTraceDaoFactory") TraceDao traceDao,
+            @Value("#{pinpointWebProps['web.servermap.filter.fetch.batch.size'] ?: 500}") int batchSize,
+            @Value("#{pinpointWebProps['web.servermap.filter.fetch.parallel.maxthreads'] ?: 0}") int maxThreads) {
+        if (traceDao == null) {
+            throw new NullPointerException("traceDao must not be null");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than 0");
+        }
+        this.traceDao = traceDao;
+        this.batchSize = batchSize;
+        this.maxThreads = maxThreads;
+        logger.info("TraceBatchFetcher batchSize:{}, maxThreads:{}", batchSize, maxThreads);
+        if (maxThreads > 0) {
+            this.executorService = Executors.newFixedThreadPool(maxThreads, new PinpointThreadFactory("Pinpoint-trace-batch-fetcher", true));
+        } else {
+            this.executorService = null;
+        }
+    }
+
+    /**
+     * @param transactionConsumer invoked in the caller thread, in the order of the transactionIdList
+     */
+    public void fetch(List<TransactionId> transactionIdList, Consumer<List<SpanBo>> transactionConsumer) {
+        if (transactionConsumer == null) {
+            throw new NullPointerException("transactionConsumer must not be null");
+        }
+        if (CollectionUtils.isEmpty(transactionIdList)) {
+            return;
+        }
+
+        final List<List<TransactionId>> batchList = Lists.partition(transactionIdList, batchSize);
+        if (executorService == null || batchList.size() == 1) {
+            for (List<TransactionId> batch : batchList) {
+                consume(traceDao.selectAllSpans(batch), transactionConsumer);
+            }
+        } else {
+            parallelFetch(batchList, transactionConsumer);
+        }
+    }
+
+    private void parallelFetch(List<List<TransactionId>> batchList, Consumer<List<SpanBo>> transactionConsumer) {
+        final Iterator<List<TransactionId>> batchIterator = batchList.iterator();
+        final Deque<CompletableFuture<List<List<SpanBo>>>> inFlight = new ArrayDeque<>(maxThreads);
+        try {
+            while (inFlight.size() < maxThreads && batchIterator.hasNext()) {
+                inFlight.add(fetchAsync(batchIterator.next()));
+            }
+            while (!inFlight.isEmpty()) {
+                final List<List<SpanBo>> transactionList = inFlight.poll().join();
+                if (batchIterator.hasNext()) {
+                    inFlight.add(fetchAsync(batchIterator.next()));
+                }
+                consume(transactionList, transactionConsumer);
+            }
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        } finally {
+            for (CompletableFuture<List<List<SpanBo>>> future : inFlight) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private CompletableFuture<List<List<SpanBo>>> fetchAsync(final List<TransactionId> batch) {
+        return CompletableFuture.supplyAsync(new Supplier<List<List<SpanBo>>>() {
+            @Override
+            public List<List<SpanBo>> get() {
+                return traceDao.selectAllSpans(batch);
+            }
+        }, executorService);
+    }
+
+    private void consume(List<List<SpanBo>> transactionList, Consumer<List<SpanBo>> transactionConsumer) {
+        for (List<SpanBo> transaction : transactionList) {
+            transactionConsumer.accept(transaction);
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        if (executorService != null) {
+            executorService.shutdown();
+            try {
+                executorService.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -31,5 +31,11 @@ import com.navercorp.pinpoint.web.vo.callstacks.RecordSet;
 public interface TransactionInfoService {
     RecordSet createRecordSet(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId);
 
+    /**
+     * Creates a record set holding at most {@code recordLimit} records of the call stack, starting from {@code recordOffset}.
+     * Record ids are the same as when the whole call stack is created.
+     */
+    RecordSet createRecordSet(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId, int recordOffset, int recordLimit);
+
     BusinessTransactions selectBusinessTransactions(List<TransactionId> traceIds, String applicationName, Range range, Filter filter);
 }
@@ -127,9 +127,20 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
 
     @Override
     public RecordSet createRecordSet(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId) {
+        return createRecordSet(callTreeIterator, focusTimestamp, agentId, spanId, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public RecordSet createRecordSet(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId, int recordOffset, int recordLimit) {
         if (callTreeIterator == null) {
             throw new NullPointerException("callTreeIterator must not be null");
         }
+        if (recordOffset < 0) {
+            throw new IllegalArgumentException("negative recordOffset:" + recordOffset);
+        }
+        if (recordLimit <= 0) {
+            throw new IllegalArgumentException("recordLimit must be greater than 0");
+        }
 
         RecordSet recordSet = new RecordSet();
         final List<SpanAlign> spanAlignList = callTreeIterator.values();
@@ -158,8 +169,10 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
 
         recordSet.setLoggingTransactionInfo(findIsLoggingTransactionInfo(spanAlignList));
 
+        final RecordCollector recordCollector = new RecordCollector(recordOffset, recordLimit, callTreeIterator.size() * 2);
         final SpanAlignPopulate spanAlignPopulate = new SpanAlignPopulate();
-        List<Record> recordList = spanAlignPopulate.populateSpanRecord(callTreeIterator);
+        spanAlignPopulate.populateSpanRecord(callTreeIterator, recordCollector);
+        List<Record> recordList = recordCollector.getRecordList();
         if (viewPointSpanAlign != null) {
             // mark the record to be used as focus
             long beginTimeStamp = viewPointSpanAlign.getStartTime();
@@ -169,6 +182,8 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
         }
 
         recordSet.setRecordList(recordList);
+        recordSet.setRecordOffset(recordOffset);
+        recordSet.setHasMoreRecords(recordCollector.hasMoreRecords());
 
         return recordSet;
     }
@@ -331,17 +346,70 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
         return null;
     }
 
+    /**
+     * Keeps only the records of the requested page. Records before the page are still created so record ids stay the same.
+     */
+    static class RecordCollector {
+        private final int recordOffset;
+        private final long recordEnd;
+        private final List<Record> recordList;
+        private int recordCount;
+        private boolean hasMoreRecords;
+
+        RecordCollector(int recordOffset, int recordLimit, int expectedRecordCount) {
+            this.recordOffset = recordOffset;
+            this.recordEnd = (long) recordOffset + recordLimit;
+            this.recordList = new ArrayList<>(Math.min(recordLimit, expectedRecordCount));
+        }
+
+        void add(Record record) {
+            if (isFull()) {
+                hasMoreRecords = true;
+                return;
+            }
+            if (recordCount >= recordOffset) {
+                recordList.add(record);
+            }
+            recordCount++;
+        }
+
+        void addAll(List<Record> records) {
+            for (Record record : records) {
+                add(record);
+            }
+        }
+
+        boolean isFull() {
+            return recordCount >= recordEnd;
+        }
+
+        void markMoreRecords() {
+            this.hasMoreRecords = true;
+        }
+
+        List<Record> getRecordList() {
+            return recordList;
+        }
+
+        boolean hasMoreRecords() {
+            return hasMoreRecords;
+        }
+    }
+
     private class SpanAlignPopulate {
-        private List<Record> populateSpanRecord(CallTreeIterator callTreeIterator) {
+        private void populateSpanRecord(CallTreeIterator callTreeIterator, RecordCollector recordCollector) {
             if (callTreeIterator == null) {
                 throw new NullPointerException("callTreeIterator must not be null");
             }
 
-            final List<Record> recordList = new ArrayList<>(callTreeIterator.size() * 2);
             final RecordFactory factory = new RecordFactory(annotationKeyMatcherService, registry, annotationKeyRegistryService);
 
             // annotation id has nothing to do with spanAlign's seq and thus may be incremented as long as they don't overlap.
             while (callTreeIterator.hasNext()) {
+                if (recordCollector.isFull()) {
+                    recordCollector.markMoreRecords();
+                    return;
+                }
                 final CallTreeNode node = callTreeIterator.next();
                 if (node == null) {
                     logger.warn("Corrupt CallTree found : {}", callTreeIterator.toString());
@@ -352,7 +420,7 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
                 if (metaDataFilter != null && metaDataFilter.filter(align, MetaData.API)) {
                     if (align.isSpan()) {
                         Record record = metaDataFilter.createRecord(node, factory);
-                        recordList.add(record);
+                        recordCollector.add(record);
                     }
                     continue;
                 }
@@ -362,30 +430,30 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
                 }
 
                 final Record record = factory.get(node);
-                recordList.add(record);
+                recordCollector.add(record);
 
                 // add exception record.
                 if (align.hasException()) {
                     final Record exceptionRecord = factory.getException(record.getTab() + 1, record.getId(), align);
                     if(exceptionRecord != null) {
-                        recordList.add(exceptionRecord);
+                        recordCollector.add(exceptionRecord);
                     }
                 }
 
                 // add annotation record.
-                if (!align.getAnnotationBoList().isEmpty()) {
+                // annotations are left unresolved past the resolved part of the call tree
+                final List<AnnotationBo> annotationBoList = align.getAnnotationBoList();
+                if (annotationBoList != null && !annotationBoList.isEmpty()) {
                     final List<Record> annotations = factory.getAnnotations(record.getTab() + 1, record.getId(), align);
-                    recordList.addAll(annotations);
+                    recordCollector.addAll(annotations);
                 }
 
                 // add remote record.(span only)
                 if (align.getRemoteAddr() != null) {
                     final Record remoteAddressRecord = factory.getParameter(record.getTab() + 1, record.getId(), "REMOTE_ADDRESS", align.getRemoteAddr());
-                    recordList.add(remoteAddressRecord);
+                    recordCollector.add(remoteAddressRecord);
                 }
             }
-
-            return recordList;
         }
     }
 }
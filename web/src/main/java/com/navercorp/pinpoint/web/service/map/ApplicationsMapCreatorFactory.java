@@ -46,7 +46,7 @@ public class ApplicationsMapCreatorFactory {
             @Value("#{pinpointWebProps['web.servermap.creator.parallel.maxthreads'] ?: '16'}") int threadCount) {
         logger.info("ApplicationsMapCreatorFactory mode : {}", mode);
         this.mode = mode;
-        if (this.mode.equalsIgnoreCase("parallel")) {
+        if (this.mode.equalsIgnoreCase("parallel") || isConcurrent()) {
             this.executorService = Executors.newFixedThreadPool(threadCount, new PinpointThreadFactory("Pinpoint-parallel-link-selector", true));
         } else {
             this.executorService = null;
@@ -54,12 +54,23 @@ public class ApplicationsMapCreatorFactory {
     }
 
     public ApplicationsMapCreator create(ApplicationMapCreator applicationMapCreator) {
-        if (mode.equalsIgnoreCase("parallel")) {
+        if (executorService != null) {
             return new ParallelApplicationsMapCreator(applicationMapCreator, executorService);
         }
         return new SerialApplicationsMapCreator(applicationMapCreator);
     }
 
+    /**
+     * concurrent mode : bidirectional links are fetched as soon as an application is discovered instead of depth by depth
+     */
+    public boolean isConcurrent() {
+        return mode.equalsIgnoreCase("concurrent");
+    }
+
+    ExecutorService getExecutorService() {
+        return executorService;
+    }
+
     @PreDestroy
     public void preDestroy() {
         if (executorService != null) {
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.map;
+
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataDuplexMap;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.security.ServerMapDataFilter;
+import com.navercorp.pinpoint.web.service.LinkDataMapService;
+import com.navercorp.pinpoint.web.service.map.processor.LinkDataMapProcessor;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Bidirectional link search without depth barriers.
+ * Caller/callee links of an application are fetched as soon as the application is discovered, using the shared executor
+ * as the concurrency budget for all map requests. Only the selecting thread updates the search state, so links are
+ * selected exactly as the breadth-first {@link BidirectionalLinkSelector} would : applications keep the smallest depth
+ * they have been discovered at, and links fetched at a larger depth are propagated again when a shorter path is found.
+ * not thread safe
+ */
+public class ConcurrentBidirectionalLinkSelector implements LinkSelector {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final LinkDataMapService linkDataMapService;
+
+    private final LinkDataMapProcessor callerLinkDataMapProcessor;
+
+    private final LinkDataMapProcessor calleeLinkDataMapProcessor;
+
+    private final VirtualLinkHandler virtualLinkHandler;
+
+    private final ServerMapDataFilter serverMapDataFilter;
+
+    private final ExecutorService executorService;
+
+    private final LinkVisitChecker linkVisitChecker = new LinkVisitChecker();
+
+    ConcurrentBidirectionalLinkSelector(
+            LinkDataMapService linkDataMapService,
+            LinkDataMapProcessor callerLinkDataMapProcessor,
+            LinkDataMapProcessor calleeLinkDataMapProcessor,
+            VirtualLinkHandler virtualLinkHandler,
+            ServerMapDataFilter serverMapDataFilter,
+            ExecutorService executorService) {
+        if (linkDataMapService == null) {
+            throw new NullPointerException("linkDataMapService must not be null");
+        }
+        if (callerLinkDataMapProcessor == null) {
+            throw new NullPointerException("callerLinkDataMapProcessor must not be null");
+        }
+        if (calleeLinkDataMapProcessor == null) {
+            throw new NullPointerException("calleeLinkDataMapProcessor must not be null");
+        }
+        if (virtualLinkHandler == null) {
+            throw new NullPointerException("virtualLinkHandler must not be null");
+        }
+        if (executorService == null) {
+            throw new NullPointerException("executorService must not be null");
+        }
+        this.linkDataMapService = linkDataMapService;
+        this.callerLinkDataMapProcessor = callerLinkDataMapProcessor;
+        this.calleeLinkDataMapProcessor = calleeLinkDataMapProcessor;
+        this.virtualLinkHandler = virtualLinkHandler;
+        this.serverMapDataFilter = serverMapDataFilter;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public LinkDataDuplexMap select(List<Application> sourceApplications, Range range, int callerSearchDepth, int calleeSearchDepth) {
+        logger.debug("Creating link data map for {}", sourceApplications);
+        final Search search = new Search(range, callerSearchDepth, calleeSearchDepth);
+        for (Application sourceApplication : sourceApplications) {
+            search.discover(sourceApplication, 0);
+        }
+        search.awaitCompletion();
+        logger.info("link search end. applications:{}, fetches:{}", search.nodes.size(), search.fetchCount);
+        return virtualLinkHandler.processVirtualLinks(search.linkDataDuplexMap, linkVisitChecker, range);
+    }
+
+    private boolean isFiltered(Application application) {
+        return serverMapDataFilter != null && serverMapDataFilter.filter(application);
+    }
+
+    private class Search {
+
+        private final Range range;
+        private final int callerSearchDepth;
+        private final int calleeSearchDepth;
+
+        private final CompletionService<LinkSearchResult> completionService = new ExecutorCompletionService<>(executorService);
+        private final Map<Application, Node> nodes = new HashMap<>();
+        private final LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
+        private int pendingCount;
+        private int fetchCount;
+
+        private Search(Range range, int callerSearchDepth, int calleeSearchDepth) {
+            this.range = range;
+            this.callerSearchDepth = callerSearchDepth;
+            this.calleeSearchDepth = calleeSearchDepth;
+        }
+
+        private void discover(Application application, int depth) {
+            if (isFiltered(application)) {
+                return;
+            }
+            Node node = nodes.get(application);
+            if (node == null) {
+                node = new Node();
+                nodes.put(application, node);
+            } else if (node.depth <= depth) {
+                return;
+            }
+            node.depth = depth;
+            if (depth < callerSearchDepth) {
+                if (node.callerNextApplications != null) {
+                    propagate(node.callerNextApplications, depth + 1);
+                } else if (!linkVisitChecker.visitCaller(application)) {
+                    submit(application, true);
+                }
+            }
+            if (depth < calleeSearchDepth) {
+                if (node.calleeNextApplications != null) {
+                    propagate(node.calleeNextApplications, depth + 1);
+                } else if (!linkVisitChecker.visitCallee(application)) {
+                    submit(application, false);
+                }
+            }
+        }
+
+        private void propagate(List<Application> nextApplications, int depth) {
+            for (Application nextApplication : nextApplications) {
+                discover(nextApplication, depth);
+            }
+        }
+
+        private void submit(final Application application, final boolean caller) {
+            completionService.submit(() -> {
+                if (caller) {
+                    final LinkDataMap callerLinkDataMap = linkDataMapService.selectCallerLinkDataMap(application, range);
+                    return new LinkSearchResult(application, true, callerLinkDataMapProcessor.processLinkDataMap(callerLinkDataMap, range));
+                }
+                final LinkDataMap calleeLinkDataMap = linkDataMapService.selectCalleeLinkDataMap(application, range);
+                return new LinkSearchResult(application, false, calleeLinkDataMapProcessor.processLinkDataMap(calleeLinkDataMap, range));
+            });
+            pendingCount++;
+            fetchCount++;
+        }
+
+        private void awaitCompletion() {
+            while (pendingCount > 0) {
+                final Future<LinkSearchResult> future;
+                try {
+                    future = completionService.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("link search interrupted. pending fetches:{}", pendingCount);
+                    return;
+                }
+                pendingCount--;
+                try {
+                    onResult(future.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    logger.error("Error selecting link", e.getCause());
+                }
+            }
+        }
+
+        private void onResult(LinkSearchResult result) {
+            final Node node = nodes.get(result.application);
+            final List<Application> nextApplications = new ArrayList<>();
+            if (result.caller) {
+                logger.debug("Found Caller. count={}, caller={}, depth={}", result.linkDataMap.size(), result.application, node.depth);
+                for (LinkData callerLinkData : result.linkDataMap.getLinkDataList()) {
+                    linkDataDuplexMap.addSourceLinkData(callerLinkData);
+                    final Application toApplication = callerLinkData.getToApplication();
+                    // skip if nextApplication is a terminal or an unknown cloud
+                    if (toApplication.getServiceType().isTerminal() || toApplication.getServiceType().isUnknown()) {
+                        continue;
+                    }
+                    nextApplications.add(toApplication);
+                }
+                node.callerNextApplications = nextApplications;
+            } else {
+                logger.debug("Found Callee. count={}, callee={}, depth={}", result.linkDataMap.size(), result.application, node.depth);
+                for (LinkData calleeLinkData : result.linkDataMap.getLinkDataList()) {
+                    linkDataDuplexMap.addTargetLinkData(calleeLinkData);
+                    nextApplications.add(calleeLinkData.getFromApplication());
+                }
+                node.calleeNextApplications = nextApplications;
+            }
+            // the node may have been reached through a shorter path while fetching
+            propagate(nextApplications, node.depth + 1);
+        }
+    }
+
+    private static class Node {
+        private int depth = Integer.MAX_VALUE;
+        // null until the links have been fetched
+        private List<Application> callerNextApplications;
+        private List<Application> calleeNextApplications;
+    }
+
+    private static class LinkSearchResult {
+        private final Application application;
+        private final boolean caller;
+        private final LinkDataMap linkDataMap;
+
+        private LinkSearchResult(Application application, boolean caller, LinkDataMap linkDataMap) {
+            this.application = application;
+            this.caller = caller;
+            this.linkDataMap = linkDataMap;
+        }
+    }
+}
@@ -25,6 +25,8 @@ import com.navercorp.pinpoint.web.service.map.processor.RpcCallProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * @author HyunGil Jeong
  */
@@ -74,6 +76,11 @@ public class LinkSelectorFactory {
         LinkDataMapProcessors calleeLinkDataMapProcessors = new LinkDataMapProcessors();
         calleeLinkDataMapProcessors.addLinkDataMapProcessor(calleeLinkDataMapProcessor);
 
+        if (LinkSelectorType.BIDIRECTIONAL == linkSelectorType && applicationsMapCreatorFactory.isConcurrent()) {
+            ExecutorService executorService = applicationsMapCreatorFactory.getExecutorService();
+            return new ConcurrentBidirectionalLinkSelector(linkDataMapService, callerLinkDataMapProcessors, calleeLinkDataMapProcessors, virtualLinkHandler, serverMapDataFilter, executorService);
+        }
+
         ApplicationMapCreator applicationMapCreator = new DefaultApplicationMapCreator(linkDataMapService, callerLinkDataMapProcessors, calleeLinkDataMapProcessors);
 
         ApplicationsMapCreator applicationsMapCreator = applicationsMapCreatorFactory.create(applicationMapCreator);
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.map.cache;
+
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.dao.MapResponseDao;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.ResponseTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Server side cache of the caller, callee and response time statistics used to draw application maps.
+ * Auto-refreshing server maps query mostly the same minutes over and over, so only the minutes that have not been sealed yet are rescanned.
+ */
+@Component
+public class ApplicationMapDataCache {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final boolean enable;
+
+    private final LinkDataMapTimeSlotCache callerCache;
+    private final LinkDataMapTimeSlotCache calleeCache;
+    private final ResponseTimeTimeSlotCache responseTimeCache;
+
+    @Autowired
+    public ApplicationMapDataCache(
+            MapStatisticsCallerDao mapStatisticsCallerDao,
+            MapStatisticsCalleeDao mapStatisticsCalleeDao,
+            MapResponseDao mapResponseDao,
+            @Value("#{pinpointWebProps['web.servermap.cache.enable'] ?: false}") boolean enable,
+            @Value("#{pinpointWebProps['web.servermap.cache.maxsize'] ?: 10000}") int maxSize,
+            @Value("#{pinpointWebProps['web.servermap.cache.sealdelay'] ?: 120000}") long sealDelay) {
+        if (mapStatisticsCallerDao == null) {
+            throw new NullPointerException("mapStatisticsCallerDao must not be null");
+        }
+        if (mapStatisticsCalleeDao == null) {
+            throw new NullPointerException("mapStatisticsCalleeDao must not be null");
+        }
+        if (mapResponseDao == null) {
+            throw new NullPointerException("mapResponseDao must not be null");
+        }
+        this.enable = enable;
+        this.callerCache = new LinkDataMapTimeSlotCache(mapStatisticsCallerDao::selectCaller, maxSize, sealDelay);
+        this.calleeCache = new LinkDataMapTimeSlotCache(mapStatisticsCalleeDao::selectCallee, maxSize, sealDelay);
+        this.responseTimeCache = new ResponseTimeTimeSlotCache(mapResponseDao::selectResponseTime, maxSize, sealDelay);
+        logger.info("ApplicationMapDataCache enable:{}, maxSize:{}, sealDelay:{}", enable, maxSize, sealDelay);
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public LinkDataMap selectCaller(Application callerApplication, Range range) {
+        return callerCache.select(callerApplication, range);
+    }
+
+    public LinkDataMap selectCallee(Application calleeApplication, Range range) {
+        return calleeCache.select(calleeApplication, range);
+    }
+
+    public List<ResponseTime> selectResponseTime(Application application, Range range) {
+        return responseTimeCache.select(application, range);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.map.cache;
+
+import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkCallData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Per-minute cache of caller/callee {@link LinkDataMap}s.
+ */
+public class LinkDataMapTimeSlotCache extends TimeSlotCache<LinkDataMap> {
+
+    private final BiFunction<Application, Range, LinkDataMap> loader;
+
+    public LinkDataMapTimeSlotCache(BiFunction<Application, Range, LinkDataMap> loader, int maxSize, long sealDelay) {
+        super(maxSize, sealDelay);
+        if (loader == null) {
+            throw new NullPointerException("loader must not be null");
+        }
+        this.loader = loader;
+    }
+
+    @Override
+    protected LinkDataMap load(Application application, Range range) {
+        return loader.apply(application, range);
+    }
+
+    @Override
+    protected Map<Long, LinkDataMap> split(LinkDataMap linkDataMap) {
+        final Map<Long, LinkDataMap> slices = new HashMap<>();
+        for (LinkData linkData : linkDataMap.getLinkDataList()) {
+            for (LinkCallData linkCallData : linkData.getLinkCallDataMap().getLinkDataList()) {
+                for (TimeHistogram timeHistogram : linkCallData.getTimeHistogram()) {
+                    final LinkData sliceLinkData = new LinkData(linkData.getFromApplication(), linkData.getToApplication());
+                    sliceLinkData.getLinkCallDataMap().addCallData(linkCallData.getSource(), linkCallData.getSourceServiceType(),
+                            linkCallData.getTarget(), linkCallData.getTargetServiceType(), Collections.singletonList(timeHistogram));
+                    slices.computeIfAbsent(timeHistogram.getTimeStamp(), timestamp -> new LinkDataMap()).addLinkData(sliceLinkData);
+                }
+            }
+        }
+        return slices;
+    }
+
+    @Override
+    protected LinkDataMap empty() {
+        return new LinkDataMap();
+    }
+
+    @Override
+    protected LinkDataMap merge(Range range, List<LinkDataMap> slices) {
+        // same time window as the statistics daos use for the whole range
+        final LinkDataMap linkDataMap = new LinkDataMap(new TimeWindow(range, TimeWindowDownSampler.SAMPLER));
+        for (LinkDataMap slice : slices) {
+            linkDataMap.addLinkDataMap(slice);
+        }
+        return linkDataMap;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.map.cache;
+
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.ResponseTime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Per-minute cache of application {@link ResponseTime}s. Each row of the response time table covers a single minute,
+ * so slices hold the rows as they are and merging simply concatenates them.
+ * The returned {@link ResponseTime}s are shared through the cache and must be treated as read-only.
+ */
+public class ResponseTimeTimeSlotCache extends TimeSlotCache<List<ResponseTime>> {
+
+    private final BiFunction<Application, Range, List<ResponseTime>> loader;
+
+    public ResponseTimeTimeSlotCache(BiFunction<Application, Range, List<ResponseTime>> loader, int maxSize, long sealDelay) {
+        super(maxSize, sealDelay);
+        if (loader == null) {
+            throw new NullPointerException("loader must not be null");
+        }
+        this.loader = loader;
+    }
+
+    @Override
+    protected List<ResponseTime> load(Application application, Range range) {
+        return loader.apply(application, range);
+    }
+
+    @Override
+    protected Map<Long, List<ResponseTime>> split(List<ResponseTime> responseTimes) {
+        final Map<Long, List<ResponseTime>> slices = new HashMap<>();
+        for (ResponseTime responseTime : responseTimes) {
+            slices.computeIfAbsent(responseTime.getTimeStamp(), timestamp -> new ArrayList<>()).add(responseTime);
+        }
+        return slices;
+    }
+
+    @Override
+    protected List<ResponseTime> empty() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected List<ResponseTime> merge(Range range, List<List<ResponseTime>> slices) {
+        final List<ResponseTime> responseTimes = new ArrayList<>();
+        for (List<ResponseTime> slice : slices) {
+            responseTimes.addAll(slice);
+        }
+        return responseTimes;
+    }
+}
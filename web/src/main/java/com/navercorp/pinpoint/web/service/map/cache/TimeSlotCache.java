@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.map.cache;
+
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches application map statistics as per-minute slices keyed by application and time slot.
+ * Slices are cached only once their minute is older than the seal delay, so that repeated queries over the same range
+ * rescan just the minutes that may still be written to. Consecutive uncached minutes are fetched with a single scan
+ * and split into slices afterwards.
+ */
+public abstract class TimeSlotCache<V> {
+
+    static final long SLOT_SIZE = TimeUnit.MINUTES.toMillis(1);
+
+    // a single load must stay within an hour so that the statistics daos keep the per-minute resolution (see TimeWindowDownSampler)
+    static final int MAX_LOAD_SLOT_COUNT = 60;
+
+    // longer ranges are down sampled into coarse windows anyway and are rarely refreshed, so they bypass the cache
+    static final int MAX_SLOT_COUNT = 6 * 60 + 1;
+
+    private final Map<SlotKey, V> cache;
+    private final long sealDelay;
+
+    protected TimeSlotCache(final int maxSize, long sealDelay) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        if (sealDelay < 0) {
+            throw new IllegalArgumentException("sealDelay must not be negative");
+        }
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<SlotKey, V>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SlotKey, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+        this.sealDelay = sealDelay;
+    }
+
+    public V select(Application application, Range range) {
+        if (application == null) {
+            throw new NullPointerException("application must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        final long fromSlot = toSlot(range.getFrom());
+        final long toSlot = toSlot(range.getTo());
+        final long slotCount = (toSlot - fromSlot) / SLOT_SIZE + 1;
+        if (slotCount > MAX_SLOT_COUNT) {
+            return load(application, range);
+        }
+
+        final long sealedBefore = toSlot(currentTimeMillis() - sealDelay);
+        final List<V> slices = new ArrayList<>((int) slotCount);
+        long missFrom = -1;
+        long slot = fromSlot;
+        for (; slot <= toSlot && slot < sealedBefore; slot += SLOT_SIZE) {
+            final V cached = cache.get(new SlotKey(application, slot));
+            if (cached == null) {
+                if (missFrom == -1) {
+                    missFrom = slot;
+                }
+                continue;
+            }
+            if (missFrom != -1) {
+                loadSealedSlots(application, missFrom, slot - SLOT_SIZE, slices);
+                missFrom = -1;
+            }
+            slices.add(cached);
+        }
+        if (missFrom != -1) {
+            loadSealedSlots(application, missFrom, slot - SLOT_SIZE, slices);
+        }
+        // open slots may still be written to, always rescan them
+        if (slot <= toSlot) {
+            slices.add(load(application, new Range(slot, range.getTo())));
+        }
+        return merge(range, slices);
+    }
+
+    private void loadSealedSlots(Application application, long fromSlot, long toSlot, List<V> slices) {
+        for (long loadFrom = fromSlot; loadFrom <= toSlot; loadFrom += SLOT_SIZE * MAX_LOAD_SLOT_COUNT) {
+            final long loadTo = Math.min(toSlot, loadFrom + SLOT_SIZE * (MAX_LOAD_SLOT_COUNT - 1));
+            final V loaded = load(application, new Range(loadFrom, loadTo + SLOT_SIZE - 1));
+            final Map<Long, V> splitSlices = split(loaded);
+            for (long slot = loadFrom; slot <= loadTo; slot += SLOT_SIZE) {
+                V slice = splitSlices.get(slot);
+                if (slice == null) {
+                    // cache empty minutes as well so that they are not rescanned
+                    slice = empty();
+                }
+                cache.put(new SlotKey(application, slot), slice);
+                slices.add(slice);
+            }
+        }
+    }
+
+    private long toSlot(long timestamp) {
+        return (timestamp / SLOT_SIZE) * SLOT_SIZE;
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    protected abstract V load(Application application, Range range);
+
+    /**
+     * @return slices of the given value keyed by the start timestamp of their minute
+     */
+    protected abstract Map<Long, V> split(V value);
+
+    protected abstract V empty();
+
+    /**
+     * Merges the slices into a new value. Implementations must not modify the slices as they are shared through the cache.
+     */
+    protected abstract V merge(Range range, List<V> slices);
+
+    private static final class SlotKey {
+        private final Application application;
+        private final long slot;
+
+        private SlotKey(Application application, long slot) {
+            this.application = application;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SlotKey slotKey = (SlotKey) o;
+
+            if (slot != slotKey.slot) return false;
+            return application.equals(slotKey.application);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = application.hashCode();
+            result = 31 * result + (int) (slot ^ (slot >>> 32));
+            return result;
+        }
+    }
+}
@@ -18,15 +18,10 @@ package com.navercorp.pinpoint.web.view;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import com.navercorp.pinpoint.web.scatter.DotGroup;
-import com.navercorp.pinpoint.web.scatter.DotGroups;
 import com.navercorp.pinpoint.web.scatter.ScatterAgentMetaData;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
-import com.navercorp.pinpoint.web.vo.scatter.Dot;
 
 import java.io.IOException;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * @author Taejin Koo
@@ -39,7 +34,7 @@ public class ScatterDataSerializer extends JsonSerializer<ScatterData> {
 
         ScatterAgentMetaData metadata = value.getScatterAgentMetadata();
         writeScatterAgentMetaData(metadata, jgen);
-        writeScatterData(value, metadata, jgen);
+        writeScatterData(value, jgen);
 
         jgen.writeEndObject();
     }
@@ -48,47 +43,29 @@ public class ScatterDataSerializer extends JsonSerializer<ScatterData> {
         jgen.writeObjectField("metadata", metaData);
     }
 
-    private void writeScatterData(ScatterData scatterData, ScatterAgentMetaData metaData, JsonGenerator jgen) throws IOException {
+    private void writeScatterData(ScatterData scatterData, JsonGenerator jgen) throws IOException {
         jgen.writeArrayFieldStart("dotList");
 
-        Map<Long, DotGroups> sortedScatterDataMap = scatterData.getSortedScatterDataMap();
-        for (Map.Entry<Long, DotGroups> entry : sortedScatterDataMap.entrySet()) {
-            DotGroups dotGroups = entry.getValue();
-            writeDotSet(dotGroups, metaData, jgen);
+        final int[] sortedDotIndexes = scatterData.getSortedDotIndexes();
+        final int[] dotThicknesses = scatterData.getDotThicknesses(sortedDotIndexes);
+        for (int index : sortedDotIndexes) {
+            writeDot(scatterData, index, dotThicknesses[index], jgen);
         }
 
         jgen.writeEndArray();
     }
 
-    private void writeDotSet(DotGroups dotGroups, ScatterAgentMetaData metaData, JsonGenerator jgen) throws IOException {
-        Map<Dot, DotGroup> dotGroupLeaders = dotGroups.getDotGroupLeaders();
-
-        Set<Dot> dotSet = dotGroups.getSortedDotSet();
-        for (Dot dot : dotSet) {
-            if (dotGroupLeaders.containsKey(dot)) {
-                writeDot(dot, dotGroupLeaders.get(dot).getDotSize(), metaData, jgen);
-            } else {
-                writeDot(dot, 0, metaData, jgen);
-            }
-        }
-    }
-
-    private void writeDot(Dot dot, int thick, ScatterAgentMetaData metaData, JsonGenerator jgen) throws IOException {
+    private void writeDot(ScatterData scatterData, int index, int thick, JsonGenerator jgen) throws IOException {
         jgen.writeStartArray();
 
-        jgen.writeNumber(dot.getAcceptedTime());
-        jgen.writeNumber(dot.getElapsedTime());
-
-        int agentId = metaData.getId(dot);
-        jgen.writeNumber(agentId);
+        jgen.writeNumber(scatterData.getAcceptedTimeDiff(index));
+        jgen.writeNumber(scatterData.getElapsedTime(index));
 
-        if (agentId == -1) {
-            jgen.writeString(dot.getTransactionIdAsString());
-        } else {
-            jgen.writeNumber(dot.getTransactionId().getTransactionSequence());
-        }
+        // same as the id of ScatterAgentMetaData
+        jgen.writeNumber(scatterData.getAgentInfoIndex(index) + 1);
+        jgen.writeNumber(scatterData.getTransactionSequence(index));
 
-        jgen.writeNumber(dot.getSimpleExceptionCode());
+        jgen.writeNumber(scatterData.getSimpleExceptionCode(index));
         jgen.writeNumber(thick);
 
         jgen.writeEndArray();
@@ -92,6 +92,16 @@ public class TransactionInfoViewModel {
         return recordSet.getEndTime();
     }
 
+    @JsonProperty("callStackOffset")
+    public int getCallStackOffset() {
+        return recordSet.getRecordOffset();
+    }
+
+    @JsonProperty("callStackHasMore")
+    public boolean isCallStackHasMore() {
+        return recordSet.hasMoreRecords();
+    }
+
     @JsonProperty("completeState")
     public String getCompleteState() {
         return completeState;
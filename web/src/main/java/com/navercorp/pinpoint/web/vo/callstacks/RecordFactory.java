@@ -183,6 +183,10 @@ public class RecordFactory {
         List<Record> list = new ArrayList<>();
         for (AnnotationBo annotation : align.getAnnotationBoList()) {
             final AnnotationKey key = findAnnotationKey(annotation.getKey());
+            if (key.getCode() == AnnotationKey.STACK_SAMPLE.getCode()) {
+                list.addAll(getStackSamples(depth, parentId, key, annotation));
+                continue;
+            }
             if (key.isViewInRecordSet()) {
                 final String title = this.annotationRecordFormatter.formatTitle(key, annotation, align);
                 final String arguments = this.annotationRecordFormatter.formatArguments(key, annotation, align);
@@ -194,6 +198,46 @@ public class RecordFactory {
         return list;
     }
 
+    // one record per folded stack below a summary record, so the stacks sampled during the transaction show up in the call tree
+    List<Record> getStackSamples(final int depth, final int parentId, final AnnotationKey key, final AnnotationBo annotation) {
+        final String foldedStacks = Objects.toString(annotation.getValue(), "");
+        final List<String> stackList = new ArrayList<>();
+        final List<Integer> countList = new ArrayList<>();
+        int totalCount = 0;
+        for (String line : foldedStacks.split("\n")) {
+            final int separator = line.lastIndexOf(' ');
+            if (separator <= 0) {
+                continue;
+            }
+            final int count;
+            try {
+                count = Integer.parseInt(line.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                logger.debug("Failed to parse stack sample. {}", line, e);
+                continue;
+            }
+            if (count <= 0) {
+                continue;
+            }
+            stackList.add(line.substring(0, separator));
+            countList.add(count);
+            totalCount += count;
+        }
+
+        final List<Record> list = new ArrayList<>(stackList.size() + 1);
+        final Record summary = new AnnotationRecord(depth, getNextId(), parentId, key.getName(), totalCount + " samples", annotation.isAuthorized());
+        list.add(summary);
+        if (totalCount == 0) {
+            return list;
+        }
+        for (int i = 0; i < stackList.size(); i++) {
+            final int count = countList.get(i);
+            final String title = count + " samples(" + (count * 100 / totalCount) + "%)";
+            list.add(new AnnotationRecord(depth + 1, getNextId(), summary.getId(), title, stackList.get(i), annotation.isAuthorized()));
+        }
+        return list;
+    }
+
     public Record getParameter(final int depth, final int parentId, final String method, final String argument) {
         return new ParameterRecord(depth, getNextId(), parentId, method, argument);
     }
@@ -36,6 +36,9 @@ public class RecordSet {
     
     private boolean loggingTransactionInfo;
 
+    private int recordOffset;
+    private boolean hasMoreRecords;
+
     public RecordSet() {
     }
 
@@ -111,4 +114,20 @@ public class RecordSet {
     public void setLoggingTransactionInfo(boolean loggingTransactionInfo) {
         this.loggingTransactionInfo = loggingTransactionInfo;
     }
+
+    public int getRecordOffset() {
+        return recordOffset;
+    }
+
+    public void setRecordOffset(int recordOffset) {
+        this.recordOffset = recordOffset;
+    }
+
+    public boolean hasMoreRecords() {
+        return hasMoreRecords;
+    }
+
+    public void setHasMoreRecords(boolean hasMoreRecords) {
+        this.hasMoreRecords = hasMoreRecords;
+    }
 }
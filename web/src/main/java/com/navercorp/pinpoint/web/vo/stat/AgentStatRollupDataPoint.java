@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.vo.stat;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+
+import java.util.Objects;
+
+/**
+ * A rolled up agent stat bucket along with the number of samples it was rolled up from.
+ */
+public class AgentStatRollupDataPoint<T extends JoinStatBo> {
+
+    private final T dataPoint;
+    private final int sampleCount;
+
+    public AgentStatRollupDataPoint(T dataPoint, int sampleCount) {
+        this.dataPoint = Objects.requireNonNull(dataPoint, "dataPoint must not be null");
+        if (sampleCount < 1) {
+            throw new IllegalArgumentException("sampleCount must be positive");
+        }
+        this.sampleCount = sampleCount;
+    }
+
+    public T getDataPoint() {
+        return dataPoint;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AgentStatRollupDataPoint{");
+        sb.append("dataPoint=").append(dataPoint);
+        sb.append(", sampleCount=").append(sampleCount);
+        sb.append('}');
+        return sb.toString();
+    }
+}
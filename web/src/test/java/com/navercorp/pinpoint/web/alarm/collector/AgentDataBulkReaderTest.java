@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.alarm.collector;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class AgentDataBulkReaderTest {
+
+    private static ExecutorService executorService;
+
+    @BeforeClass
+    public static void setUp() {
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void read_parallel() {
+        List<String> agentIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            agentIds.add("agent" + i);
+        }
+        final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+        AgentDataBulkReader reader = new AgentDataBulkReader(executorService);
+        Map<String, Integer> result = reader.read(agentIds, agentId -> {
+            threadNames.add(Thread.currentThread().getName());
+            return Integer.parseInt(agentId.substring("agent".length()));
+        });
+
+        Assert.assertEquals(agentIds, new ArrayList<>(result.keySet()));
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(Integer.valueOf(i), result.get("agent" + i));
+        }
+        Assert.assertFalse(threadNames.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void read_serial() {
+        List<String> agentIds = Arrays.asList("agent1", "agent2");
+        final String callerThread = Thread.currentThread().getName();
+
+        Map<String, String> result = AgentDataBulkReader.SERIAL.read(agentIds, agentId -> {
+            Assert.assertEquals(callerThread, Thread.currentThread().getName());
+            return agentId + "-data";
+        });
+
+        Assert.assertEquals("agent1-data", result.get("agent1"));
+        Assert.assertEquals("agent2-data", result.get("agent2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void read_exception() {
+        AgentDataBulkReader reader = new AgentDataBulkReader(executorService);
+        reader.read(Arrays.asList("agent1", "agent2", "agent3"), agentId -> {
+            if (agentId.equals("agent2")) {
+                throw new IllegalArgumentException("fail");
+            }
+            return agentId;
+        });
+    }
+}
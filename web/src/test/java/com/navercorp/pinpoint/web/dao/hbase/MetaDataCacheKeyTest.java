@@ -0,0 +1,41 @@
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import static org.junit.Assert.assertEquals;
+
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+import org.junit.Test;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * batch loaded metadata must be stored with the same key as the {@code @Cacheable} lookup
+ */
+public class MetaDataCacheKeyTest {
+
+    @Test
+    public void sqlMetaDataCacheKey() {
+        assertCacheKey(HbaseSqlMetaDataDao.SPEL_KEY, "sqlId");
+    }
+
+    @Test
+    public void stringMetaDataCacheKey() {
+        assertCacheKey(HbaseStringMetaDataDao.SPEL_KEY, "stringId");
+    }
+
+    @Test
+    public void apiMetaDataCacheKey() {
+        assertCacheKey(HbaseApiMetaDataDao.SPEL_KEY, "apiId");
+    }
+
+    private void assertCacheKey(String spelKey, String idName) {
+        ExpressionParser parser = new SpelExpressionParser();
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        context.setVariable("agentId", "foo");
+        context.setVariable("time", (long) 1);
+        context.setVariable(idName, (int) 2);
+
+        String key = (String) parser.parseExpression(spelKey).getValue(context);
+        assertEquals(new MetaDataKey("foo", 1, 2).toCacheKey(), key);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling;
+
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.CpuLoadCodecV2;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.web.mapper.RangeTimestampFilter;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.CpuLoadSampler;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowSampler;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.stat.SampledCpuLoad;
+import com.navercorp.pinpoint.web.vo.stat.chart.agent.AgentStatPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ColumnarDownSamplerTest {
+
+    private static final long DEFAULT_TIME_INTERVAL = 5 * 1000L;
+
+    private static final TimeWindowSampler TEN_TO_ONE_SAMPLER = new TimeWindowSampler() {
+        @Override
+        public long getWindowSize(Range range) {
+            return DEFAULT_TIME_INTERVAL * 10;
+        }
+    };
+
+    private final CpuLoadSampler cpuLoadSampler = new CpuLoadSampler();
+
+    @Test
+    public void should_sample_same_as_eager_sampling_handler() {
+        // Given
+        final Random random = new Random(0);
+        final long from = 1500000000000L;
+        final long to = from + DEFAULT_TIME_INTERVAL * 100;
+        final TimeWindow timeWindow = new TimeWindow(new Range(from, to), TEN_TO_ONE_SAMPLER);
+        final Range scanRange = new Range(timeWindow.getWindowRange().getFrom(), timeWindow.getWindowRange().getTo() + timeWindow.getWindowSlotSize());
+
+        // agent restarted in the middle of the range, overlapping the previous run for a few data points
+        final List<CpuLoadBo> firstRun = createCpuLoadBos(random, 1000L, from, 60);
+        final List<CpuLoadBo> secondRun = createCpuLoadBos(random, 2000L, from + DEFAULT_TIME_INTERVAL * 55, 50);
+
+        // When
+        EagerSamplingHandler<CpuLoadBo, SampledCpuLoad> samplingHandler = new EagerSamplingHandler<>(timeWindow, cpuLoadSampler);
+        List<CpuLoadBo> dataPoints = new ArrayList<>(firstRun);
+        dataPoints.addAll(secondRun);
+        Collections.sort(dataPoints, (o1, o2) -> Long.compare(o2.getTimestamp(), o1.getTimestamp()));
+        for (CpuLoadBo dataPoint : dataPoints) {
+            if (!new RangeTimestampFilter(scanRange).filter(dataPoint.getTimestamp())) {
+                samplingHandler.addDataPoint(dataPoint);
+            }
+        }
+        List<SampledCpuLoad> expected = samplingHandler.getSampledDataPoints();
+
+        ColumnarDownSampler downSampler = new ColumnarDownSampler(timeWindow, new RangeTimestampFilter(scanRange), cpuLoadSampler.getColumnNames(), cpuLoadSampler.getUncollectedValue());
+        downSampler.addColumns(toColumns(secondRun));
+        downSampler.addColumns(toColumns(firstRun));
+        List<SampledCpuLoad> actual = new ArrayList<>();
+        for (int slot = 0; slot < downSampler.getSlotCount(); slot++) {
+            if (downSampler.isSampled(slot)) {
+                actual.add(cpuLoadSampler.sampleColumns(slot, downSampler));
+            }
+        }
+
+        // Then
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertPoint(expected.get(i).getJvmCpuLoad(), actual.get(i).getJvmCpuLoad());
+            assertPoint(expected.get(i).getSystemCpuLoad(), actual.get(i).getSystemCpuLoad());
+        }
+    }
+
+    @Test
+    public void uncollected_values_should_be_sampled_as_uncollected_point() {
+        final long from = 1500000000000L;
+        final TimeWindow timeWindow = new TimeWindow(new Range(from, from + DEFAULT_TIME_INTERVAL * 10), TEN_TO_ONE_SAMPLER);
+        final Range scanRange = new Range(timeWindow.getWindowRange().getFrom(), timeWindow.getWindowRange().getTo() + timeWindow.getWindowSlotSize());
+
+        AgentStatColumns columns = new AgentStatColumns("agentId", new long[]{1000L, 1000L}, new long[]{from, from + DEFAULT_TIME_INTERVAL});
+        columns.addDoubleColumn(CpuLoadCodecV2.JVM_CPU_LOAD_COLUMN, new double[]{CpuLoadBo.UNCOLLECTED_VALUE, CpuLoadBo.UNCOLLECTED_VALUE});
+        columns.addDoubleColumn(CpuLoadCodecV2.SYSTEM_CPU_LOAD_COLUMN, new double[]{0.1, 0.3});
+
+        ColumnarDownSampler downSampler = new ColumnarDownSampler(timeWindow, new RangeTimestampFilter(scanRange), cpuLoadSampler.getColumnNames(), cpuLoadSampler.getUncollectedValue());
+        downSampler.addColumns(columns);
+
+        final int slot = timeWindow.getWindowIndex(timeWindow.refineTimestamp(from));
+        Assert.assertTrue(downSampler.isSampled(slot));
+        SampledCpuLoad sampledCpuLoad = cpuLoadSampler.sampleColumns(slot, downSampler);
+        Assert.assertEquals(SampledCpuLoad.UNCOLLECTED_PERCENTAGE, sampledCpuLoad.getJvmCpuLoad().getAvgYVal());
+        Assert.assertEquals(20.0, sampledCpuLoad.getSystemCpuLoad().getAvgYVal(), 0);
+        Assert.assertEquals(10.0, sampledCpuLoad.getSystemCpuLoad().getMinYVal(), 0);
+        Assert.assertEquals(30.0, sampledCpuLoad.getSystemCpuLoad().getMaxYVal(), 0);
+    }
+
+    private void assertPoint(AgentStatPoint<Double> expected, AgentStatPoint<Double> actual) {
+        Assert.assertEquals(expected.getXVal(), actual.getXVal());
+        Assert.assertEquals(expected.getMinYVal(), actual.getMinYVal(), 0);
+        Assert.assertEquals(expected.getMaxYVal(), actual.getMaxYVal(), 0);
+        // averages are computed as sum / count instead of a running mean, so the rounded last decimal place may differ
+        Assert.assertEquals(expected.getAvgYVal(), actual.getAvgYVal(), 0.1 + 1E-9);
+        Assert.assertEquals(expected.getSumYVal(), actual.getSumYVal(), 0.000001);
+    }
+
+    private List<CpuLoadBo> createCpuLoadBos(Random random, long startTimestamp, long initialTimestamp, int numValues) {
+        List<CpuLoadBo> cpuLoadBos = new ArrayList<>(numValues);
+        for (int i = 0; i < numValues; i++) {
+            CpuLoadBo cpuLoadBo = new CpuLoadBo();
+            cpuLoadBo.setAgentId("agentId");
+            cpuLoadBo.setStartTimestamp(startTimestamp);
+            cpuLoadBo.setTimestamp(initialTimestamp + DEFAULT_TIME_INTERVAL * i);
+            cpuLoadBo.setJvmCpuLoad(i % 7 == 0 ? CpuLoadBo.UNCOLLECTED_VALUE : random.nextInt(1000) / 1000D);
+            cpuLoadBo.setSystemCpuLoad(random.nextInt(1000) / 1000D);
+            cpuLoadBos.add(cpuLoadBo);
+        }
+        return cpuLoadBos;
+    }
+
+    private AgentStatColumns toColumns(List<CpuLoadBo> cpuLoadBos) {
+        final int size = cpuLoadBos.size();
+        long[] startTimestamps = new long[size];
+        long[] timestamps = new long[size];
+        double[] jvmCpuLoads = new double[size];
+        double[] systemCpuLoads = new double[size];
+        for (int i = 0; i < size; i++) {
+            CpuLoadBo cpuLoadBo = cpuLoadBos.get(i);
+            startTimestamps[i] = cpuLoadBo.getStartTimestamp();
+            timestamps[i] = cpuLoadBo.getTimestamp();
+            jvmCpuLoads[i] = cpuLoadBo.getJvmCpuLoad();
+            systemCpuLoads[i] = cpuLoadBo.getSystemCpuLoad();
+        }
+        AgentStatColumns columns = new AgentStatColumns("agentId", startTimestamps, timestamps);
+        columns.addDoubleColumn(CpuLoadCodecV2.JVM_CPU_LOAD_COLUMN, jvmCpuLoads);
+        columns.addDoubleColumn(CpuLoadCodecV2.SYSTEM_CPU_LOAD_COLUMN, systemCpuLoads);
+        return columns;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinCpuLoadBo;
+import com.navercorp.pinpoint.web.vo.stat.AgentStatRollupDataPoint;
+import com.navercorp.pinpoint.web.vo.stat.SampledCpuLoad;
+import com.navercorp.pinpoint.web.vo.stat.chart.agent.AgentStatPoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CpuLoadSamplerTest {
+
+    private static final String AGENT_ID = "agent1";
+
+    @Test
+    public void sampleRollupsTest() {
+        long timestamp = 1487149800000L;
+        List<AgentStatRollupDataPoint<JoinCpuLoadBo>> rollups = new ArrayList<>();
+        rollups.add(new AgentStatRollupDataPoint<>(createJoinCpuLoadBo(timestamp, 0.2, 0.1, 0.3, 0.3, 0.3, 0.3), 1));
+        rollups.add(new AgentStatRollupDataPoint<>(createJoinCpuLoadBo(timestamp + 60000, 0.5, 0.4, 0.9, JoinCpuLoadBo.UNCOLLECTED_VALUE, JoinCpuLoadBo.UNCOLLECTED_VALUE, JoinCpuLoadBo.UNCOLLECTED_VALUE), 3));
+
+        SampledCpuLoad sampledCpuLoad = new CpuLoadSampler().sampleRollups(timestamp, rollups);
+
+        AgentStatPoint<Double> jvmCpuLoad = sampledCpuLoad.getJvmCpuLoad();
+        assertEquals(timestamp, jvmCpuLoad.getXVal());
+        assertEquals(10.0, jvmCpuLoad.getMinYVal(), 0.0001);
+        assertEquals(90.0, jvmCpuLoad.getMaxYVal(), 0.0001);
+        // averages are weighted by sample count : (0.2 * 1 + 0.5 * 3) / 4
+        assertEquals(42.5, jvmCpuLoad.getAvgYVal(), 0.0001);
+        assertEquals(170.0, jvmCpuLoad.getSumYVal(), 0.0001);
+
+        AgentStatPoint<Double> systemCpuLoad = sampledCpuLoad.getSystemCpuLoad();
+        assertEquals(30.0, systemCpuLoad.getMinYVal(), 0.0001);
+        assertEquals(30.0, systemCpuLoad.getMaxYVal(), 0.0001);
+        assertEquals(30.0, systemCpuLoad.getAvgYVal(), 0.0001);
+        assertEquals(30.0, systemCpuLoad.getSumYVal(), 0.0001);
+    }
+
+    @Test
+    public void sampleRollupsEmptyTest() {
+        long timestamp = 1487149800000L;
+        SampledCpuLoad sampledCpuLoad = new CpuLoadSampler().sampleRollups(timestamp, new ArrayList<AgentStatRollupDataPoint<JoinCpuLoadBo>>());
+        assertEquals(SampledCpuLoad.UNCOLLECTED_POINT_CREATOR.createUnCollectedPoint(timestamp), sampledCpuLoad.getJvmCpuLoad());
+    }
+
+    private JoinCpuLoadBo createJoinCpuLoadBo(long timestamp, double jvmCpuLoad, double minJvmCpuLoad, double maxJvmCpuLoad,
+                                              double systemCpuLoad, double minSystemCpuLoad, double maxSystemCpuLoad) {
+        return new JoinCpuLoadBo(AGENT_ID, jvmCpuLoad, maxJvmCpuLoad, AGENT_ID, minJvmCpuLoad, AGENT_ID,
+                systemCpuLoad, maxSystemCpuLoad, AGENT_ID, minSystemCpuLoad, AGENT_ID, timestamp);
+    }
+}
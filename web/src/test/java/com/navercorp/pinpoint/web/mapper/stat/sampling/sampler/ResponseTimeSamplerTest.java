@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.server.bo.stat.join.JoinResponseTimeBo;
+import com.navercorp.pinpoint.web.vo.stat.AgentStatRollupDataPoint;
+import com.navercorp.pinpoint.web.vo.stat.SampledResponseTime;
+import com.navercorp.pinpoint.web.vo.stat.chart.agent.AgentStatPoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ResponseTimeSamplerTest {
+
+    private static final String AGENT_ID = "agent1";
+
+    @Test
+    public void sampleRollupsTest() {
+        long timestamp = 1487149800000L;
+        List<AgentStatRollupDataPoint<JoinResponseTimeBo>> rollups = new ArrayList<>();
+        rollups.add(new AgentStatRollupDataPoint<>(new JoinResponseTimeBo(AGENT_ID, timestamp, 100, 50, AGENT_ID, 200, AGENT_ID), 2));
+        rollups.add(new AgentStatRollupDataPoint<>(new JoinResponseTimeBo(AGENT_ID, timestamp + 60000, 400, 300, AGENT_ID, 600, AGENT_ID), 1));
+
+        SampledResponseTime sampledResponseTime = new ResponseTimeSampler().sampleRollups(timestamp, rollups);
+
+        AgentStatPoint<Long> avg = sampledResponseTime.getAvg();
+        assertEquals(timestamp, avg.getXVal());
+        assertEquals(50L, (long) avg.getMinYVal());
+        assertEquals(600L, (long) avg.getMaxYVal());
+        // averages are weighted by sample count : (100 * 2 + 400 * 1) / 3
+        assertEquals(200.0, avg.getAvgYVal(), 0.0001);
+        assertEquals(600L, (long) avg.getSumYVal());
+    }
+}
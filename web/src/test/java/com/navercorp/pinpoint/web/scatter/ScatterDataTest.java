@@ -17,6 +17,7 @@ package com.navercorp.pinpoint.web.scatter;
 
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotAgentInfo;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -140,6 +141,47 @@ public class ScatterDataTest {
         Assert.assertEquals(count, dots.size());
     }
 
+    @Test
+    public void sortedDotIndexesTest() throws Exception {
+        long from = 1000;
+        long to = 10000;
+
+        ScatterData scatterData = new ScatterData(from, to, 100, 100);
+        long currentTime = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            TransactionId transactionId = new TransactionId(transactionAgentId, currentTime, i);
+            scatterData.addDot(new Dot(transactionId, from + ((i * 7) % 10) * 100, 10, 0, agentId));
+        }
+
+        int[] sortedDotIndexes = scatterData.getSortedDotIndexes();
+        Assert.assertEquals(10, sortedDotIndexes.length);
+        for (int i = 1; i < sortedDotIndexes.length; i++) {
+            long prev = scatterData.getAcceptedTimeDiff(sortedDotIndexes[i - 1]);
+            long current = scatterData.getAcceptedTimeDiff(sortedDotIndexes[i]);
+            Assert.assertTrue(prev >= current);
+        }
+    }
+
+    @Test
+    public void dotThicknessesTest() throws Exception {
+        long from = 1000;
+        long to = 10000;
+
+        ScatterData scatterData = new ScatterData(from, to, 100, 100);
+        long currentTime = System.currentTimeMillis();
+        scatterData.addDot(new Dot(new TransactionId(transactionAgentId, currentTime, 0), from + 10, 10, 0, agentId));
+        scatterData.addDot(new Dot(new TransactionId(transactionAgentId, currentTime, 1), from + 50, 20, 0, agentId));
+        scatterData.addDot(new Dot(new TransactionId(transactionAgentId, currentTime, 2), from + 30, 30, 0, agentId));
+        // failed
+        scatterData.addDot(new Dot(new TransactionId(transactionAgentId, currentTime, 3), from + 20, 10, 1, agentId));
+        // other x coordinates
+        scatterData.addDot(new Dot(new TransactionId(transactionAgentId, currentTime, 4), from + 150, 10, 0, agentId));
+
+        int[] dotThicknesses = scatterData.getDotThicknesses(scatterData.getSortedDotIndexes());
+        Assert.assertArrayEquals(new int[] {3, 0, 0, 1, 1}, dotThicknesses);
+        Assert.assertEquals(scatterData.getAgentInfoIndex(0) + 1, scatterData.getScatterAgentMetadata().getId(new DotAgentInfo(agentId, transactionAgentId, currentTime)));
+    }
+
     private List<Dot> createDotList(String agentId, String transactionAgentId, int createSize, long from) {
         long currentTime = System.currentTimeMillis();
 
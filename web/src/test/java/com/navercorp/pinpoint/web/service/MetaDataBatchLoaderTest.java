@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.util.IntStringStringValue;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class MetaDataBatchLoaderTest {
+
+    private static final String AGENT_ID = "agent";
+    private static final long AGENT_START_TIME = 1000;
+
+    @Test
+    public void load() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(MetaDataBatchLoader.API_META_DATA_CACHE,
+                MetaDataBatchLoader.SQL_META_DATA_CACHE, MetaDataBatchLoader.STRING_META_DATA_CACHE);
+        ApiMetaDataDao apiMetaDataDao = mockApiMetaDataDao();
+        SqlMetaDataDao sqlMetaDataDao = mockSqlMetaDataDao();
+        StringMetaDataDao stringMetaDataDao = mock(StringMetaDataDao.class);
+
+        // api 3 is already cached
+        final List<ApiMetaDataBo> cachedApi = Collections.singletonList(new ApiMetaDataBo(AGENT_ID, AGENT_START_TIME, 3));
+        cacheManager.getCache(MetaDataBatchLoader.API_META_DATA_CACHE).put(new MetaDataKey(AGENT_ID, AGENT_START_TIME, 3).toCacheKey(), cachedApi);
+
+        List<SpanAlign> spanAlignList = Arrays.asList(newSpanAlign(1, 10), newSpanAlign(2, 11), newSpanAlign(3, 10),
+                newSpanAlign(4, 12), newSpanAlign(5, 13), newSpanAlign(1, 10));
+
+        MetaDataBatchLoader loader = new MetaDataBatchLoader(cacheManager, apiMetaDataDao, sqlMetaDataDao, stringMetaDataDao, 2);
+        loader.load(spanAlignList);
+
+        // api 1, 2, 4, 5 are missing -> 2 batches of 2, sql 10, 11, 12, 13 -> 2 batches of 2
+        verify(apiMetaDataDao, times(2)).getApiMetaDataList(anyList());
+        verify(sqlMetaDataDao, times(2)).getSqlMetaDataList(anyList());
+        verifyZeroInteractions(stringMetaDataDao);
+
+        Cache apiCache = cacheManager.getCache(MetaDataBatchLoader.API_META_DATA_CACHE);
+        for (int apiId : new int[]{1, 2, 4, 5}) {
+            List<ApiMetaDataBo> result = getCached(apiCache, apiId);
+            Assert.assertEquals(1, result.size());
+            Assert.assertEquals(apiId, result.get(0).getApiId());
+        }
+        Assert.assertSame(cachedApi, getCached(apiCache, 3));
+
+        Cache sqlCache = cacheManager.getCache(MetaDataBatchLoader.SQL_META_DATA_CACHE);
+        for (int sqlId : new int[]{10, 11, 12, 13}) {
+            List<SqlMetaDataBo> result = getCached(sqlCache, sqlId);
+            Assert.assertEquals(1, result.size());
+            Assert.assertEquals(sqlId, result.get(0).getSqlId());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getCached(Cache cache, int id) {
+        Cache.ValueWrapper valueWrapper = cache.get(new MetaDataKey(AGENT_ID, AGENT_START_TIME, id).toCacheKey());
+        Assert.assertNotNull("not cached id:" + id, valueWrapper);
+        return (List<T>) valueWrapper.get();
+    }
+
+    private SpanAlign newSpanAlign(int apiId, int sqlId) {
+        SpanBo spanBo = new SpanBo();
+        spanBo.setTransactionId(new TransactionId(AGENT_ID, AGENT_START_TIME, 0));
+        spanBo.setAgentId(AGENT_ID);
+        spanBo.setAgentStartTime(AGENT_START_TIME);
+        spanBo.setApiId(apiId);
+
+        AnnotationBo sqlAnnotation = new AnnotationBo();
+        sqlAnnotation.setKey(AnnotationKey.SQL_ID.getCode());
+        sqlAnnotation.setValue(new IntStringStringValue(sqlId, null, null));
+        List<AnnotationBo> annotationBoList = new ArrayList<>();
+        annotationBoList.add(sqlAnnotation);
+        spanBo.setAnnotationBoList(annotationBoList);
+        return new SpanAlign(spanBo);
+    }
+
+    private ApiMetaDataDao mockApiMetaDataDao() {
+        ApiMetaDataDao apiMetaDataDao = mock(ApiMetaDataDao.class);
+        when(apiMetaDataDao.getApiMetaDataList(anyList())).thenAnswer(new Answer<List<List<ApiMetaDataBo>>>() {
+            @Override
+            public List<List<ApiMetaDataBo>> answer(InvocationOnMock invocation) {
+                List<MetaDataKey> metaDataKeyList = invocation.getArgument(0);
+                Assert.assertTrue(metaDataKeyList.size() <= 2);
+                List<List<ApiMetaDataBo>> result = new ArrayList<>();
+                for (MetaDataKey metaDataKey : metaDataKeyList) {
+                    result.add(Collections.singletonList(new ApiMetaDataBo(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId())));
+                }
+                return result;
+            }
+        });
+        return apiMetaDataDao;
+    }
+
+    private SqlMetaDataDao mockSqlMetaDataDao() {
+        SqlMetaDataDao sqlMetaDataDao = mock(SqlMetaDataDao.class);
+        when(sqlMetaDataDao.getSqlMetaDataList(anyList())).thenAnswer(new Answer<List<List<SqlMetaDataBo>>>() {
+            @Override
+            public List<List<SqlMetaDataBo>> answer(InvocationOnMock invocation) {
+                List<MetaDataKey> metaDataKeyList = invocation.getArgument(0);
+                Assert.assertTrue(metaDataKeyList.size() <= 2);
+                List<List<SqlMetaDataBo>> result = new ArrayList<>();
+                for (MetaDataKey metaDataKey : metaDataKeyList) {
+                    result.add(Collections.singletonList(new SqlMetaDataBo(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId())));
+                }
+                return result;
+            }
+        });
+        return sqlMetaDataDao;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.dao.TraceDao;
+import com.navercorp.pinpoint.web.security.MetaDataFilter;
+import com.navercorp.pinpoint.web.security.MetaDataFilter.MetaData;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SpanServiceImplTest {
+
+    private static final String AGENT_ID = "agent";
+    private static final long AGENT_START_TIME = 1000;
+    private static final TransactionId TRANSACTION_ID = new TransactionId(AGENT_ID, AGENT_START_TIME, 1);
+    private static final int FILTERED_API_ID = 11;
+
+    @Mock
+    private TraceDao traceDao;
+
+    @Mock
+    private SqlMetaDataDao sqlMetaDataDao;
+
+    @Mock
+    private MetaDataFilter metaDataFilter;
+
+    @Mock
+    private ApiMetaDataDao apiMetaDataDao;
+
+    @Mock
+    private StringMetaDataDao stringMetaDataDao;
+
+    @InjectMocks
+    private SpanServiceImpl spanService = new SpanServiceImpl();
+
+    @Test
+    public void selectSpan_resolveLimit_skipsAlignsWithoutRecords() {
+        mockTrace();
+        mockApiFilter();
+
+        // span, api 10, api 11 (hidden, makes no record) and api 12 make up the first 3 records
+        List<SpanAlign> spanAligns = spanService.selectSpan(TRANSACTION_ID, 0, 3).getCallTree().values();
+
+        Assert.assertEquals(5, spanAligns.size());
+        assertResolved(spanAligns.get(0), true);
+        assertResolved(spanAligns.get(1), true);
+        assertResolved(spanAligns.get(2), true);
+        assertResolved(spanAligns.get(3), true);
+        assertResolved(spanAligns.get(4), false);
+    }
+
+    @Test
+    public void selectSpan_resolveLimit_zero() {
+        mockTrace();
+
+        List<SpanAlign> spanAligns = spanService.selectSpan(TRANSACTION_ID, 0, 0).getCallTree().values();
+
+        for (SpanAlign spanAlign : spanAligns) {
+            assertResolved(spanAlign, false);
+        }
+    }
+
+    @Test
+    public void selectSpan_resolveAll() {
+        mockTrace();
+
+        List<SpanAlign> spanAligns = spanService.selectSpan(TRANSACTION_ID, 0).getCallTree().values();
+
+        Assert.assertEquals(5, spanAligns.size());
+        for (SpanAlign spanAlign : spanAligns) {
+            assertResolved(spanAlign, true);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void selectSpan_negativeResolveLimit() {
+        spanService.selectSpan(TRANSACTION_ID, 0, -1);
+    }
+
+    private void assertResolved(SpanAlign spanAlign, boolean resolved) {
+        final boolean hasAnnotation = spanAlign.getAnnotationBoList() != null && !spanAlign.getAnnotationBoList().isEmpty();
+        Assert.assertEquals("apiId:" + spanAlign.getApiId(), resolved, hasAnnotation);
+    }
+
+    private void mockTrace() {
+        when(traceDao.selectSpan(TRANSACTION_ID)).thenReturn(Collections.singletonList(createSpan()));
+    }
+
+    private void mockApiFilter() {
+        when(metaDataFilter.filter(any(SpanAlign.class), eq(MetaData.API))).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                SpanAlign spanAlign = invocation.getArgument(0);
+                return spanAlign.getApiId() == FILTERED_API_ID;
+            }
+        });
+    }
+
+    private SpanBo createSpan() {
+        SpanBo spanBo = new SpanBo();
+        spanBo.setTransactionId(TRANSACTION_ID);
+        spanBo.setAgentId(AGENT_ID);
+        spanBo.setAgentStartTime(AGENT_START_TIME);
+        spanBo.setSpanId(1);
+        spanBo.setParentSpanId(-1);
+        spanBo.setApiId(1);
+        for (int i = 0; i < 4; i++) {
+            SpanEventBo spanEventBo = new SpanEventBo();
+            spanEventBo.setSequence((short) i);
+            spanEventBo.setDepth(1);
+            spanEventBo.setApiId(10 + i);
+            spanEventBo.setStartElapsed(i);
+            spanBo.addSpanEvent(spanEventBo);
+        }
+        return spanBo;
+    }
+}
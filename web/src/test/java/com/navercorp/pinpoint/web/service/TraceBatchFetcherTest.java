@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.dao.TraceDao;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TraceBatchFetcherTest {
+
+    @Test
+    public void serialFetch() {
+        assertFetch(0);
+    }
+
+    @Test
+    public void parallelFetch() {
+        assertFetch(4);
+    }
+
+    private void assertFetch(int maxThreads) {
+        TraceDao traceDao = mockTraceDao();
+        TraceBatchFetcher traceBatchFetcher = new TraceBatchFetcher(traceDao, 10, maxThreads);
+        try {
+            List<TransactionId> transactionIdList = new ArrayList<>();
+            for (int i = 0; i < 95; i++) {
+                transactionIdList.add(new TransactionId("agent", 1, i));
+            }
+
+            final List<Long> sequenceList = new ArrayList<>();
+            traceBatchFetcher.fetch(transactionIdList, new Consumer<List<SpanBo>>() {
+                @Override
+                public void accept(List<SpanBo> transaction) {
+                    sequenceList.add(transaction.get(0).getSpanId());
+                }
+            });
+
+            verify(traceDao, times(10)).selectAllSpans(anyList());
+            Assert.assertEquals(95, sequenceList.size());
+            for (int i = 0; i < sequenceList.size(); i++) {
+                Assert.assertEquals(i, (long) sequenceList.get(i));
+            }
+        } finally {
+            traceBatchFetcher.preDestroy();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private TraceDao mockTraceDao() {
+        TraceDao traceDao = mock(TraceDao.class);
+        when(traceDao.selectAllSpans(anyList())).thenAnswer(new Answer<List<List<SpanBo>>>() {
+            @Override
+            public List<List<SpanBo>> answer(InvocationOnMock invocation) throws Throwable {
+                List<TransactionId> transactionIdList = invocation.getArgument(0);
+                List<List<SpanBo>> result = new ArrayList<>();
+                for (TransactionId transactionId : transactionIdList) {
+                    SpanBo spanBo = new SpanBo();
+                    spanBo.setSpanId(transactionId.getTransactionSequence());
+                    result.add(Collections.singletonList(spanBo));
+                }
+                return result;
+            }
+        });
+        return traceDao;
+    }
+}
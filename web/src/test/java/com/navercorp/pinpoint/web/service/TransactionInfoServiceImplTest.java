@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.web.vo.callstacks.Record;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+
+public class TransactionInfoServiceImplTest {
+
+    @Test
+    public void recordCollector_firstPage() {
+        List<Record> records = createRecords(5);
+        TransactionInfoServiceImpl.RecordCollector recordCollector = collect(0, 3, records);
+
+        Assert.assertEquals(records.subList(0, 3), recordCollector.getRecordList());
+        Assert.assertTrue(recordCollector.isFull());
+        Assert.assertTrue(recordCollector.hasMoreRecords());
+    }
+
+    @Test
+    public void recordCollector_middlePage() {
+        List<Record> records = createRecords(5);
+        TransactionInfoServiceImpl.RecordCollector recordCollector = collect(2, 2, records);
+
+        Assert.assertEquals(records.subList(2, 4), recordCollector.getRecordList());
+        Assert.assertTrue(recordCollector.hasMoreRecords());
+    }
+
+    @Test
+    public void recordCollector_lastPage() {
+        List<Record> records = createRecords(5);
+        TransactionInfoServiceImpl.RecordCollector recordCollector = collect(3, 5, records);
+
+        Assert.assertEquals(records.subList(3, 5), recordCollector.getRecordList());
+        Assert.assertFalse(recordCollector.isFull());
+        Assert.assertFalse(recordCollector.hasMoreRecords());
+    }
+
+    @Test
+    public void recordCollector_pageEndsWithLastRecord() {
+        List<Record> records = createRecords(5);
+        TransactionInfoServiceImpl.RecordCollector recordCollector = collect(0, 5, records);
+
+        Assert.assertEquals(records, recordCollector.getRecordList());
+        Assert.assertTrue(recordCollector.isFull());
+        Assert.assertFalse(recordCollector.hasMoreRecords());
+    }
+
+    @Test
+    public void recordCollector_offsetPastLastRecord() {
+        List<Record> records = createRecords(5);
+        TransactionInfoServiceImpl.RecordCollector recordCollector = collect(10, 5, records);
+
+        Assert.assertTrue(recordCollector.getRecordList().isEmpty());
+        Assert.assertFalse(recordCollector.hasMoreRecords());
+    }
+
+    private TransactionInfoServiceImpl.RecordCollector collect(int recordOffset, int recordLimit, List<Record> records) {
+        TransactionInfoServiceImpl.RecordCollector recordCollector = new TransactionInfoServiceImpl.RecordCollector(recordOffset, recordLimit, records.size());
+        recordCollector.addAll(records);
+        return recordCollector;
+    }
+
+    private List<Record> createRecords(int size) {
+        List<Record> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            records.add(mock(Record.class));
+        }
+        return records;
+    }
+}
@@ -153,4 +153,73 @@ public abstract class BidirectionalLinkSelectorTestBase extends LinkSelectorTest
         Assert.assertNotNull(linkData_OUT_IN_to_OUT);
         Assert.assertEquals(callCount, linkData_OUT_IN_to_OUT.getTotalCount());
     }
+
+    @Test
+    public void testShorterPathFoundLater() {
+        // APP_A(selected) -> APP_B -> APP_C -> APP_D
+        //   ^------------------------|
+        // APP_C is found through APP_B first as APP_A's callee search is slow, but must be searched at the shorter depth
+        final Application APP_A = new Application("APP_A", ServiceType.TEST_STAND_ALONE);
+        final Application APP_B = new Application("APP_B", ServiceType.TEST_STAND_ALONE);
+        final Application APP_C = new Application("APP_C", ServiceType.TEST_STAND_ALONE);
+        final Application APP_D = new Application("APP_D", ServiceType.TEST_STAND_ALONE);
+
+        int callCount = 10;
+        short slotTime = ServiceType.STAND_ALONE.getHistogramSchema().getNormalSlot().getSlotTime();
+
+        LinkDataMap link_A_to_B = new LinkDataMap();
+        link_A_to_B.addLinkData(APP_A, "agentA", APP_B, "agentB", 1000, slotTime, callCount);
+        LinkDataMap link_B_to_C = new LinkDataMap();
+        link_B_to_C.addLinkData(APP_B, "agentB", APP_C, "agentC", 1000, slotTime, callCount);
+        LinkDataMap link_C_to_A = new LinkDataMap();
+        link_C_to_A.addLinkData(APP_C, "agentC", APP_A, "agentA", 1000, slotTime, callCount);
+        LinkDataMap link_C_to_D = new LinkDataMap();
+        link_C_to_D.addLinkData(APP_C, "agentC", APP_D, "agentD", 1000, slotTime, callCount);
+
+        when(linkDataMapService.selectCallerLinkDataMap(any(Application.class), any(Range.class))).thenAnswer(new Answer<LinkDataMap>() {
+            @Override
+            public LinkDataMap answer(InvocationOnMock invocation) throws Throwable {
+                Application callerApplication = invocation.getArgument(0);
+                if (callerApplication.equals(APP_A)) {
+                    return link_A_to_B;
+                } else if (callerApplication.equals(APP_B)) {
+                    return link_B_to_C;
+                } else if (callerApplication.equals(APP_C)) {
+                    LinkDataMap linkDataMap = new LinkDataMap();
+                    linkDataMap.addLinkDataMap(link_C_to_A);
+                    linkDataMap.addLinkDataMap(link_C_to_D);
+                    return linkDataMap;
+                }
+                return newEmptyLinkDataMap();
+            }
+        });
+        when(linkDataMapService.selectCalleeLinkDataMap(any(Application.class), any(Range.class))).thenAnswer(new Answer<LinkDataMap>() {
+            @Override
+            public LinkDataMap answer(InvocationOnMock invocation) throws Throwable {
+                Application calleeApplication = invocation.getArgument(0);
+                if (calleeApplication.equals(APP_A)) {
+                    Thread.sleep(200);
+                    return link_C_to_A;
+                } else if (calleeApplication.equals(APP_B)) {
+                    return link_A_to_B;
+                } else if (calleeApplication.equals(APP_C)) {
+                    return link_B_to_C;
+                } else if (calleeApplication.equals(APP_D)) {
+                    return link_C_to_D;
+                }
+                return newEmptyLinkDataMap();
+            }
+        });
+        when(hostApplicationMapDao.findAcceptApplicationName(any(Application.class), any(Range.class))).thenReturn(new HashSet<>());
+
+        LinkSelector linkSelector = linkSelectorFactory.createLinkSelector(getLinkSelectorType());
+        LinkDataDuplexMap linkDataDuplexMap = linkSelector.select(Collections.singletonList(APP_A), range, 2, 2);
+
+        // APP_C (caller) -> APP_D
+        LinkData linkData_C_to_D = linkDataDuplexMap.getSourceLinkData(new LinkKey(APP_C, APP_D));
+        Assert.assertNotNull(linkData_C_to_D);
+        Assert.assertEquals(callCount, linkData_C_to_D.getTotalCount());
+        // APP_D is at depth 2, its callee links are not searched
+        Assert.assertNull(linkDataDuplexMap.getTargetLinkData(new LinkKey(APP_C, APP_D)));
+    }
 }
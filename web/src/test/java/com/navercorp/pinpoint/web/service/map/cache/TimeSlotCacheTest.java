@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.map.cache;
+
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.LinkKey;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.ResponseTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TimeSlotCacheTest {
+
+    private static final long ONE_MINUTE = TimeSlotCache.SLOT_SIZE;
+    private static final long SEAL_DELAY = ONE_MINUTE * 2;
+
+    private final Application caller = new Application("caller", ServiceType.STAND_ALONE);
+    private final Application callee = new Application("callee", ServiceType.STAND_ALONE);
+
+    private final long now = 1500000000000L / ONE_MINUTE * ONE_MINUTE + 30000;
+
+    private final List<Range> loadedRanges = new ArrayList<>();
+
+    @Test
+    public void sealedSlotsShouldBeLoadedOnce() {
+        ResponseTimeTimeSlotCache cache = newResponseTimeCache();
+        Range range = new Range(now - ONE_MINUTE * 10, now - ONE_MINUTE * 5);
+
+        List<ResponseTime> first = cache.select(caller, range);
+        List<ResponseTime> second = cache.select(caller, range);
+
+        Assert.assertEquals(6, first.size());
+        Assert.assertEquals(6, second.size());
+        Assert.assertEquals(1, loadedRanges.size());
+        Assert.assertEquals(6, cache.size());
+    }
+
+    @Test
+    public void openSlotsShouldAlwaysBeRescanned() {
+        ResponseTimeTimeSlotCache cache = newResponseTimeCache();
+        Range range = new Range(now - ONE_MINUTE * 5, now);
+
+        Assert.assertEquals(6, cache.select(caller, range).size());
+        Assert.assertEquals(2, loadedRanges.size());
+        Assert.assertEquals(6, cache.select(caller, range).size());
+        Assert.assertEquals(3, loadedRanges.size());
+
+        // seal delay of 2 minutes : the last 3 minutes are open
+        Range openRange = loadedRanges.get(2);
+        Assert.assertEquals(now / ONE_MINUTE * ONE_MINUTE - ONE_MINUTE * 2, openRange.getFrom());
+        Assert.assertEquals(now, openRange.getTo());
+        Assert.assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void onlyUncachedSlotsShouldBeLoaded() {
+        ResponseTimeTimeSlotCache cache = newResponseTimeCache();
+        cache.select(caller, new Range(now - ONE_MINUTE * 10, now - ONE_MINUTE * 8));
+        loadedRanges.clear();
+
+        Assert.assertEquals(8, cache.select(caller, new Range(now - ONE_MINUTE * 12, now - ONE_MINUTE * 5)).size());
+
+        Assert.assertEquals(2, loadedRanges.size());
+        Assert.assertEquals(new Range(slot(now - ONE_MINUTE * 12), slot(now - ONE_MINUTE * 11) + ONE_MINUTE - 1), loadedRanges.get(0));
+        Assert.assertEquals(new Range(slot(now - ONE_MINUTE * 7), slot(now - ONE_MINUTE * 5) + ONE_MINUTE - 1), loadedRanges.get(1));
+    }
+
+    @Test
+    public void mergedLinkDataMapShouldMatchDirectScan() {
+        LinkDataMapTimeSlotCache cache = new LinkDataMapTimeSlotCache(this::selectCaller, 100, SEAL_DELAY) {
+            @Override
+            long currentTimeMillis() {
+                return now;
+            }
+        };
+        Range range = new Range(now - ONE_MINUTE * 30, now);
+        cache.select(caller, new Range(now - ONE_MINUTE * 20, now - ONE_MINUTE * 10));
+
+        LinkDataMap expected = selectCaller(caller, range);
+        LinkDataMap actual = cache.select(caller, range);
+
+        Assert.assertEquals(expected.size(), actual.size());
+        Assert.assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        LinkKey linkKey = new LinkKey(caller, callee);
+        Assert.assertEquals(expected.getLinkData(linkKey).getLinkCallDataMap().getLinkDataList().size(),
+                actual.getLinkData(linkKey).getLinkCallDataMap().getLinkDataList().size());
+        Assert.assertEquals(expected.getLinkData(linkKey).getTargetList().mergeHistogram(ServiceType.STAND_ALONE).getTotalCount(),
+                actual.getLinkData(linkKey).getTargetList().mergeHistogram(ServiceType.STAND_ALONE).getTotalCount());
+    }
+
+    @Test
+    public void longRangesShouldBypassCache() {
+        ResponseTimeTimeSlotCache cache = newResponseTimeCache();
+        Range range = new Range(now - ONE_MINUTE * TimeSlotCache.MAX_SLOT_COUNT, now);
+
+        cache.select(caller, range);
+
+        Assert.assertEquals(1, loadedRanges.size());
+        Assert.assertEquals(range, loadedRanges.get(0));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private ResponseTimeTimeSlotCache newResponseTimeCache() {
+        return new ResponseTimeTimeSlotCache(this::selectResponseTime, 100, SEAL_DELAY) {
+            @Override
+            long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    private List<ResponseTime> selectResponseTime(Application application, Range range) {
+        loadedRanges.add(range);
+        List<ResponseTime> responseTimes = new ArrayList<>();
+        for (long slot = slot(range.getFrom()); slot <= range.getTo(); slot += ONE_MINUTE) {
+            ResponseTime responseTime = new ResponseTime(application.getName(), application.getServiceType(), slot);
+            responseTime.addResponseTime("agent", (short) 1000, 1);
+            responseTimes.add(responseTime);
+        }
+        return responseTimes;
+    }
+
+    private LinkDataMap selectCaller(Application application, Range range) {
+        LinkDataMap linkDataMap = new LinkDataMap(new TimeWindow(range, TimeWindowDownSampler.SAMPLER));
+        for (long slot = slot(range.getFrom()); slot <= range.getTo(); slot += ONE_MINUTE) {
+            linkDataMap.addLinkData(application, "agent1", callee, "callee1", slot, (short) 1000, slot / ONE_MINUTE % 7);
+            linkDataMap.addLinkData(application, "agent2", callee, "callee1", slot, (short) 3000, 1);
+        }
+        return linkDataMap;
+    }
+
+    private static long slot(long timestamp) {
+        return timestamp / ONE_MINUTE * ONE_MINUTE;
+    }
+}
@@ -16,12 +16,14 @@
 
 package com.navercorp.pinpoint.web.vo.callstacks;
 
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
 import com.navercorp.pinpoint.common.service.AnnotationKeyRegistryService;
 import com.navercorp.pinpoint.common.service.DefaultAnnotationKeyRegistryService;
 import com.navercorp.pinpoint.common.service.DefaultServiceTypeRegistryService;
 import com.navercorp.pinpoint.common.service.ServiceTypeRegistryService;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
 import com.navercorp.pinpoint.common.trace.AnnotationKeyMatcher;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
@@ -83,4 +85,55 @@ public class RecordFactoryTest {
         Assert.assertEquals(exceptionRecord.getArguments(), "null");
     }
 
+    @Test
+    public void getAnnotations_stackSample() throws Exception {
+        final RecordFactory factory = newRecordFactory();
+
+        AnnotationBo annotationBo = new AnnotationBo();
+        annotationBo.setKey(AnnotationKey.STACK_SAMPLE.getCode());
+        annotationBo.setValue("a.Main.main;a.Service.call;java.net.SocketInputStream.read 3\na.Main.main;a.Service.call 1");
+
+        SpanBo spanBo = new SpanBo();
+        spanBo.setTransactionId(new TransactionId("test", 0, 0));
+        spanBo.setAnnotationBoList(Collections.singletonList(annotationBo));
+        SpanAlign spanAlign = new SpanAlign(spanBo);
+
+        List<Record> records = factory.getAnnotations(1, 0, spanAlign);
+
+        Assert.assertEquals(3, records.size());
+        Record summary = records.get(0);
+        Assert.assertEquals(AnnotationKey.STACK_SAMPLE.getName(), summary.getTitle());
+        Assert.assertEquals("4 samples", summary.getArguments());
+        Assert.assertEquals(1, summary.getTab());
+
+        Record first = records.get(1);
+        Assert.assertEquals("3 samples(75%)", first.getTitle());
+        Assert.assertEquals("a.Main.main;a.Service.call;java.net.SocketInputStream.read", first.getArguments());
+        Assert.assertEquals(summary.getId(), first.getParentId());
+        Assert.assertEquals(2, first.getTab());
+
+        Record second = records.get(2);
+        Assert.assertEquals("1 samples(25%)", second.getTitle());
+        Assert.assertEquals(summary.getId(), second.getParentId());
+    }
+
+    @Test
+    public void getAnnotations_stackSample_zeroCount() throws Exception {
+        final RecordFactory factory = newRecordFactory();
+
+        AnnotationBo annotationBo = new AnnotationBo();
+        annotationBo.setKey(AnnotationKey.STACK_SAMPLE.getCode());
+        annotationBo.setValue("a.Main.main;a.Service.call 0\na.Main.main 0");
+
+        SpanBo spanBo = new SpanBo();
+        spanBo.setTransactionId(new TransactionId("test", 0, 0));
+        spanBo.setAnnotationBoList(Collections.singletonList(annotationBo));
+        SpanAlign spanAlign = new SpanAlign(spanBo);
+
+        List<Record> records = factory.getAnnotations(1, 0, spanAlign);
+
+        Assert.assertEquals(1, records.size());
+        Assert.assertEquals("0 samples", records.get(0).getArguments());
+    }
+
 }
\ No newline at end of file